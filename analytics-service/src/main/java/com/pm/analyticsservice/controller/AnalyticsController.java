@@ -0,0 +1,50 @@
+package com.pm.analyticsservice.controller;
+
+import com.pm.analyticsservice.dto.SketchSummaryDTO;
+import com.pm.analyticsservice.service.PatientSketchService;
+import com.pm.analyticsservice.sketch.PatientEventSketch;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/analytics")
+public class AnalyticsController {
+
+    private final PatientSketchService patientSketchService;
+
+    public AnalyticsController(PatientSketchService patientSketchService) {
+        this.patientSketchService = patientSketchService;
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<SketchSummaryDTO> getSummary(@RequestParam(defaultValue = "1") int windows,
+                                                       @RequestParam(defaultValue = "10") int top) {
+        PatientEventSketch sketch = patientSketchService.snapshot(windows);
+        return ResponseEntity.ok().body(patientSketchService.summarize(sketch, top));
+    }
+
+    /**
+     * Serialized sketch of this instance, for merging with the sketches of other consumers.
+     */
+    @GetMapping(value = "/sketches", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> exportSketch(@RequestParam(defaultValue = "1") int windows) {
+        return ResponseEntity.ok().body(patientSketchService.snapshot(windows).toByteArray());
+    }
+
+    /**
+     * Summarizes this instance's sketch merged with a sketch exported by another instance.
+     */
+    @PostMapping(value = "/sketches/summary", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<SketchSummaryDTO> mergeSummary(@RequestBody byte[] remoteSketch,
+                                                         @RequestParam(defaultValue = "1") int windows,
+                                                         @RequestParam(defaultValue = "10") int top) {
+        PatientEventSketch sketch = patientSketchService.snapshot(windows);
+        try {
+            sketch.merge(patientSketchService.readSketch(remoteSketch));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok().body(patientSketchService.summarize(sketch, top));
+    }
+}
@@ -0,0 +1,40 @@
+package com.pm.analyticsservice.controller;
+
+import com.pm.analyticsservice.dto.PatientProjectionDTO;
+import com.pm.analyticsservice.projection.PatientProjection;
+import com.pm.analyticsservice.projection.PatientRecord;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/analytics/patients")
+public class PatientProjectionController {
+
+    private final PatientProjection patientProjection;
+
+    public PatientProjectionController(PatientProjection patientProjection) {
+        this.patientProjection = patientProjection;
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<PatientProjectionDTO> getPatient(@PathVariable UUID id) {
+        return patientProjection.find(id)
+                                .map(PatientProjectionController::toDTO)
+                                .map(ResponseEntity::ok)
+                                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private static PatientProjectionDTO toDTO(PatientRecord patientRecord) {
+        PatientProjectionDTO dto = new PatientProjectionDTO();
+        dto.setPatientId(patientRecord.getPatientId().toString());
+        dto.setName(patientRecord.getName());
+        dto.setEmail(patientRecord.getEmail());
+        dto.setAddress(patientRecord.getAddress());
+        dto.setDateOfBirth(patientRecord.getDateOfBirth());
+        dto.setRegisteredDate(patientRecord.getRegisteredDate());
+        dto.setSequence(patientRecord.getSequence());
+        return dto;
+    }
+}
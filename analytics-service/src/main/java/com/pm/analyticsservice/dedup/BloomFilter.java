@@ -0,0 +1,84 @@
+package com.pm.analyticsservice.dedup;
+
+import com.pm.analyticsservice.sketch.MurmurHash3;
+
+import java.util.Arrays;
+
+/**
+ * Classic Bloom filter sized for an expected number of insertions and a target false-positive
+ * probability. The k probe positions are derived from one 64-bit hash by double hashing.
+ */
+public class BloomFilter {
+
+    private final long[] words;
+    private final long bitCount;
+    private final int hashCount;
+    private long setBits;
+    private long insertions;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be positive");
+        }
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("False positive probability must be in (0, 1)");
+        }
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability)
+                                             / (Math.log(2) * Math.log(2)));
+        this.words = new long[(int) Math.max(1, (bits + Long.SIZE - 1) / Long.SIZE)];
+        this.bitCount = (long) words.length * Long.SIZE;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    public boolean mightContain(long hash) {
+        long h1 = hash;
+        long h2 = MurmurHash3.fmix64(hash) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void put(long hash) {
+        long h1 = hash;
+        long h2 = MurmurHash3.fmix64(hash) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((words[word] & mask) == 0) {
+                words[word] |= mask;
+                setBits++;
+            }
+        }
+        insertions++;
+    }
+
+    /**
+     * False-positive probability implied by the current fill ratio.
+     */
+    public double estimatedFalsePositiveProbability() {
+        return Math.pow((double) setBits / bitCount, hashCount);
+    }
+
+    public void clear() {
+        Arrays.fill(words, 0);
+        setBits = 0;
+        insertions = 0;
+    }
+
+    public long getInsertions() {
+        return insertions;
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+}
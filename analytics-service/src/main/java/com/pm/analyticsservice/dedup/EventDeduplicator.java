@@ -0,0 +1,60 @@
+package com.pm.analyticsservice.dedup;
+
+import com.pm.analyticsservice.sketch.MurmurHash3;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Remembers processed event ids for a bounded time window in fixed memory. Ids are only marked
+ * after successful processing, so a record that fails and is retried is not mistaken for its own
+ * duplicate.
+ */
+@Component
+public class EventDeduplicator {
+
+    private final RotatingBloomFilter seenEvents;
+    private final Counter duplicates;
+
+    public EventDeduplicator(@Value("${analytics.dedup.window:PT24H}") Duration window,
+                             @Value("${analytics.dedup.generations:4}") int generations,
+                             @Value("${analytics.dedup.expected-events:1000000}") long expectedEvents,
+                             @Value("${analytics.dedup.false-positive-rate:0.001}") double falsePositiveRate,
+                             MeterRegistry meterRegistry) {
+        this.seenEvents = new RotatingBloomFilter(window, generations, expectedEvents,
+                                                  falsePositiveRate, Clock.systemUTC());
+        this.duplicates = meterRegistry.counter("analytics.events.duplicates");
+        Gauge.builder("analytics.dedup.false_positive_rate", seenEvents,
+                      RotatingBloomFilter::estimatedFalsePositiveRate)
+             .description("False-positive rate implied by the current filter fill")
+             .register(meterRegistry);
+        Gauge.builder("analytics.dedup.memory", seenEvents, RotatingBloomFilter::sizeInBytes)
+             .baseUnit("bytes")
+             .register(meterRegistry);
+    }
+
+    /**
+     * Events without an id (older producers) are never treated as duplicates.
+     */
+    public boolean isDuplicate(String eventId) {
+        if (eventId == null || eventId.isEmpty()) {
+            return false;
+        }
+        if (seenEvents.mightContain(MurmurHash3.hash64(eventId))) {
+            duplicates.increment();
+            return true;
+        }
+        return false;
+    }
+
+    public void markProcessed(String eventId) {
+        if (eventId != null && !eventId.isEmpty()) {
+            seenEvents.put(MurmurHash3.hash64(eventId));
+        }
+    }
+}
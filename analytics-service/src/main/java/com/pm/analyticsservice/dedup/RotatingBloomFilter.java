@@ -0,0 +1,95 @@
+package com.pm.analyticsservice.dedup;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Time-windowed membership filter built from a ring of {@link BloomFilter} generations. New keys
+ * go into the current generation; lookups check every generation; every {@code window /
+ * generations} the oldest generation is cleared and reused. A key is therefore remembered for at
+ * least {@code window * (generations - 1) / generations} and memory never grows.
+ *
+ * <p>Each generation gets {@code falsePositiveRate / generations} so the combined rate across all
+ * generations stays at or below the configured target. A generation that fills up before its time
+ * slot ends is rotated early rather than allowed to exceed its false-positive budget.
+ */
+public class RotatingBloomFilter {
+
+    private final BloomFilter[] generations;
+    private final long generationMillis;
+    private final long generationCapacity;
+    private final Clock clock;
+    private int current;
+    private long currentStart;
+
+    public RotatingBloomFilter(Duration window, int generationCount, long expectedInsertions,
+                               double falsePositiveRate, Clock clock) {
+        if (generationCount < 2) {
+            throw new IllegalArgumentException("At least two generations are required");
+        }
+        this.generations = new BloomFilter[generationCount];
+        this.generationMillis = Math.max(1, window.toMillis() / generationCount);
+        this.generationCapacity = Math.max(1, expectedInsertions / generationCount);
+        for (int i = 0; i < generationCount; i++) {
+            generations[i] = new BloomFilter(generationCapacity, falsePositiveRate / generationCount);
+        }
+        this.clock = clock;
+        this.currentStart = clock.millis();
+    }
+
+    public synchronized boolean mightContain(long hash) {
+        rotateIfExpired();
+        for (BloomFilter generation : generations) {
+            if (generation.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public synchronized void put(long hash) {
+        rotateIfExpired();
+        if (generations[current].getInsertions() >= generationCapacity) {
+            advance(clock.millis());
+        }
+        generations[current].put(hash);
+    }
+
+    /**
+     * Probability that a never-seen key is reported as present, from the generations' fill ratios.
+     */
+    public synchronized double estimatedFalsePositiveRate() {
+        double allNegative = 1.0;
+        for (BloomFilter generation : generations) {
+            allNegative *= 1.0 - generation.estimatedFalsePositiveProbability();
+        }
+        return 1.0 - allNegative;
+    }
+
+    public long sizeInBytes() {
+        long bits = 0;
+        for (BloomFilter generation : generations) {
+            bits += generation.getBitCount();
+        }
+        return bits / Byte.SIZE;
+    }
+
+    private void rotateIfExpired() {
+        long now = clock.millis();
+        long elapsed = (now - currentStart) / generationMillis;
+        if (elapsed <= 0) {
+            return;
+        }
+        for (long i = 0; i < Math.min(elapsed, generations.length); i++) {
+            current = (current + 1) % generations.length;
+            generations[current].clear();
+        }
+        currentStart += elapsed * generationMillis;
+    }
+
+    private void advance(long now) {
+        current = (current + 1) % generations.length;
+        generations[current].clear();
+        currentStart = now;
+    }
+}
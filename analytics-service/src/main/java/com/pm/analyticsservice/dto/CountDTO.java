@@ -0,0 +1,20 @@
+package com.pm.analyticsservice.dto;
+
+public class CountDTO {
+
+    private final String value;
+    private final long count;
+
+    public CountDTO(String value, long count) {
+        this.value = value;
+        this.count = count;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
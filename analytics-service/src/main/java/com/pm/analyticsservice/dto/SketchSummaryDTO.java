@@ -0,0 +1,61 @@
+package com.pm.analyticsservice.dto;
+
+import java.util.List;
+
+public class SketchSummaryDTO {
+
+    private String windowStart;
+    private String windowEnd;
+    private long eventCount;
+    private long distinctPatients;
+    private List<CountDTO> topEmailDomains;
+    private List<CountDTO> eventTypes;
+
+    public String getWindowStart() {
+        return windowStart;
+    }
+
+    public void setWindowStart(String windowStart) {
+        this.windowStart = windowStart;
+    }
+
+    public String getWindowEnd() {
+        return windowEnd;
+    }
+
+    public void setWindowEnd(String windowEnd) {
+        this.windowEnd = windowEnd;
+    }
+
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    public void setEventCount(long eventCount) {
+        this.eventCount = eventCount;
+    }
+
+    public long getDistinctPatients() {
+        return distinctPatients;
+    }
+
+    public void setDistinctPatients(long distinctPatients) {
+        this.distinctPatients = distinctPatients;
+    }
+
+    public List<CountDTO> getTopEmailDomains() {
+        return topEmailDomains;
+    }
+
+    public void setTopEmailDomains(List<CountDTO> topEmailDomains) {
+        this.topEmailDomains = topEmailDomains;
+    }
+
+    public List<CountDTO> getEventTypes() {
+        return eventTypes;
+    }
+
+    public void setEventTypes(List<CountDTO> eventTypes) {
+        this.eventTypes = eventTypes;
+    }
+}
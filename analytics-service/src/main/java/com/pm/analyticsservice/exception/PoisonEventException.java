@@ -0,0 +1,11 @@
+package com.pm.analyticsservice.exception;
+
+/**
+ * Thrown for records that can never be processed, e.g. payloads that are not a valid
+ * {@code PatientEvent}. They skip the retry topics and go straight to the dead-letter topic.
+ */
+public class PoisonEventException extends RuntimeException {
+    public PoisonEventException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,78 @@
+package com.pm.analyticsservice.kafka;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+
+/**
+ * Reads a log-compacted topic from the beginning up to the end offsets observed at the start, so
+ * the work is proportional to the live keys rather than the full event history. Partitions are
+ * assigned directly; no consumer group is joined and no offsets are committed.
+ */
+@Component
+public class CompactedTopicLoader {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+
+    public CompactedTopicLoader(ConsumerFactory<String, byte[]> consumerFactory) {
+        this.consumerFactory = consumerFactory;
+    }
+
+    /**
+     * Hands every record to {@code handler}, including tombstones as a {@code null} value.
+     *
+     * @return the number of records read
+     */
+    public long load(String topic, Duration timeout, BiConsumer<String, byte[]> handler)
+            throws TimeoutException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer(null, "-bootstrap")) {
+            List<PartitionInfo> partitionInfos = consumer.partitionsFor(topic, timeout);
+            if (partitionInfos == null || partitionInfos.isEmpty()) {
+                return 0;
+            }
+            List<TopicPartition> partitions = partitionInfos.stream()
+                    .map(info -> new TopicPartition(topic, info.partition()))
+                    .toList();
+            consumer.assign(partitions);
+            consumer.seekToBeginning(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions, timeout);
+
+            long records = 0;
+            while (!caughtUp(consumer, endOffsets)) {
+                if (System.nanoTime() > deadline) {
+                    throw new TimeoutException("Loading " + topic + " did not finish within " + timeout
+                                                       + " after " + records + " records");
+                }
+                for (ConsumerRecord<String, byte[]> record : consumer.poll(POLL_TIMEOUT)) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    if (record.offset() < endOffsets.get(partition)) {
+                        handler.accept(record.key(), record.value());
+                        records++;
+                    }
+                }
+            }
+            return records;
+        }
+    }
+
+    private static boolean caughtUp(Consumer<?, ?> consumer, Map<TopicPartition, Long> endOffsets) {
+        for (Map.Entry<TopicPartition, Long> end : endOffsets.entrySet()) {
+            if (consumer.position(end.getKey()) < end.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,28 +1,166 @@
 package com.pm.analyticsservice.kafka;
 
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.pm.analyticsservice.dedup.EventDeduplicator;
+import com.pm.analyticsservice.exception.PoisonEventException;
+import com.pm.analyticsservice.projection.PatientProjection;
+import com.pm.analyticsservice.service.PatientSketchService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.RetryTopicHeaders;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Service;
 import patient.events.PatientEvent;
 
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
 @Service
 public class KafkaConsumer {
     private static final Logger log = LoggerFactory.getLogger(KafkaConsumer.class);
+    private static final String PATIENT_TOPIC = "patient";
+    private static final String PATIENT_DELETED = "PATIENT_DELETED";
+
+    private final PatientSketchService patientSketchService;
+    private final PatientProjection patientProjection;
+    private final EventDeduplicator eventDeduplicator;
+    private final MeterRegistry meterRegistry;
+
+    public KafkaConsumer(PatientSketchService patientSketchService,
+                         PatientProjection patientProjection,
+                         EventDeduplicator eventDeduplicator,
+                         MeterRegistry meterRegistry) {
+        this.patientSketchService = patientSketchService;
+        this.patientProjection = patientProjection;
+        this.eventDeduplicator = eventDeduplicator;
+        this.meterRegistry = meterRegistry;
+    }
 
-    @KafkaListener(topics = "patient", groupId = "analytics-service")
-    public void consumeEvent(byte[] event) {
-        // add try catch
+    /**
+     * Failed records are re-published to {@code patient-retry-N} topics with exponential backoff
+     * and finally to {@code patient-dlt}, so the main partition keeps moving. Records that cannot
+     * be parsed are poison and skip the retries.
+     */
+    @RetryableTopic(
+            attempts = "${analytics.kafka.retry.attempts:4}",
+            backoff = @Backoff(
+                    delayExpression = "${analytics.kafka.retry.delay-ms:1000}",
+                    multiplierExpression = "${analytics.kafka.retry.multiplier:2.0}",
+                    maxDelayExpression = "${analytics.kafka.retry.max-delay-ms:30000}"),
+            autoCreateTopics = "${analytics.kafka.retry.auto-create-topics:true}",
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+            exclude = PoisonEventException.class)
+    @KafkaListener(topics = PATIENT_TOPIC, groupId = "analytics-service")
+    public void consumeEvent(ConsumerRecord<String, byte[]> record) {
+        if (!PATIENT_TOPIC.equals(record.topic())) {
+            meterRegistry.counter("analytics.events.retried", "topic", record.topic()).increment();
+        }
+
+        PatientEvent patientEvent;
         try {
-            PatientEvent patientEvent = PatientEvent.parseFrom(event);
-            log.info("Received Patient Event: [PatientId={},PatientName={},PatientEmail={}",
-                    patientEvent.getPatientId(),
-                    patientEvent.getName(),
-                    patientEvent.getEmail()
-            );
-        } catch (com.google.protobuf.InvalidProtocolBufferException e) {
-            log.error("Error parsing event {}", e.getMessage());
+            patientEvent = PatientEvent.parseFrom(record.value());
+        } catch (InvalidProtocolBufferException e) {
+            throw new PoisonEventException("Error parsing event " + e.getMessage(), e);
         }
 
+        if (eventDeduplicator.isDuplicate(patientEvent.getEventId())) {
+            log.debug("Skipping duplicate Patient Event {}", patientEvent.getEventId());
+            return;
+        }
+
+        log.info("Received Patient Event: [PatientId={},PatientName={},PatientEmail={}",
+                patientEvent.getPatientId(),
+                patientEvent.getName(),
+                patientEvent.getEmail()
+        );
+        patientSketchService.record(patientEvent.getPatientId(), patientEvent.getEmail(),
+                                    patientEvent.getEventType(), occurredAt(patientEvent, record));
+        updateProjection(patientEvent);
+        eventDeduplicator.markProcessed(patientEvent.getEventId());
+    }
+
+    /**
+     * The retry topic recoverer sets the {@code kafka_original-*} and {@code kafka_exception-*}
+     * headers, not the {@code kafka_dlt-*} ones. The exception itself is always the listener
+     * adapter's wrapper, so the metric is tagged with its cause.
+     */
+    @DltHandler
+    public void handleDeadLetter(ConsumerRecord<String, byte[]> record) {
+        String exception = headerAsString(record, KafkaHeaders.EXCEPTION_CAUSE_FQCN);
+        if (exception == null) {
+            exception = headerAsString(record, KafkaHeaders.EXCEPTION_FQCN);
+        }
+        meterRegistry.counter("analytics.events.dead_lettered",
+                              "exception", exception == null ? "unknown" : exception).increment();
+        log.error("Patient event dead-lettered from {}-{}@{}: {}",
+                  headerAsString(record, KafkaHeaders.ORIGINAL_TOPIC),
+                  headerAsInt(record, KafkaHeaders.ORIGINAL_PARTITION),
+                  headerAsLong(record, KafkaHeaders.ORIGINAL_OFFSET),
+                  headerAsString(record, KafkaHeaders.EXCEPTION_MESSAGE));
+    }
+
+    private void updateProjection(PatientEvent patientEvent) {
+        try {
+            UUID patientId = UUID.fromString(patientEvent.getPatientId());
+            boolean applied = PATIENT_DELETED.equals(patientEvent.getEventType())
+                    ? patientProjection.remove(patientId, patientEvent.getSequence())
+                    : patientProjection.upsert(patientId, patientEvent.getSequence(),
+                                               patientEvent.getName(), patientEvent.getEmail(),
+                                               patientEvent.getAddress(),
+                                               patientEvent.getDateOfBirth(),
+                                               patientEvent.getRegisteredDate());
+            if (!applied) {
+                log.debug("Ignoring out-of-order {} for patient {} at sequence {}",
+                          patientEvent.getEventType(), patientId, patientEvent.getSequence());
+            }
+        } catch (IllegalArgumentException e) {
+            log.warn("Skipping projection update for invalid patient id {}",
+                     patientEvent.getPatientId());
+        }
+    }
+
+    /**
+     * Prefers the time the change happened in patient-service; older producers do not send it.
+     */
+    private static long occurredAt(PatientEvent patientEvent, ConsumerRecord<String, byte[]> record) {
+        return patientEvent.getOccurredAt() > 0 ? patientEvent.getOccurredAt() : originalTimestamp(record);
+    }
+
+    /**
+     * Retried records are re-published, so window them by the timestamp of the first delivery.
+     * The retry topic header holds it as a {@link BigInteger}'s bytes, not a fixed eight.
+     */
+    private static long originalTimestamp(ConsumerRecord<String, byte[]> record) {
+        Header original = record.headers().lastHeader(RetryTopicHeaders.DEFAULT_HEADER_ORIGINAL_TIMESTAMP);
+        return original != null ? new BigInteger(original.value()).longValue() : record.timestamp();
+    }
+
+    private static String headerAsString(ConsumerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    private static Integer headerAsInt(ConsumerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header == null || header.value().length != Integer.BYTES
+                ? null
+                : ByteBuffer.wrap(header.value()).getInt();
+    }
+
+    private static Long headerAsLong(ConsumerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header == null || header.value().length != Long.BYTES
+                ? null
+                : ByteBuffer.wrap(header.value()).getLong();
     }
 }
@@ -0,0 +1,88 @@
+package com.pm.analyticsservice.kafka;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.pm.analyticsservice.projection.PatientProjection;
+import org.apache.kafka.common.KafkaException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import patient.events.PatientEvent;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Fills the patient projection from the compacted snapshot topic on startup. The live listener
+ * runs at the same time; both sides go through the projection's sequence check, so whichever
+ * arrives last cannot overwrite a newer state.
+ */
+@Component
+public class PatientSnapshotBootstrapper implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(PatientSnapshotBootstrapper.class);
+
+    private final CompactedTopicLoader compactedTopicLoader;
+    private final PatientProjection patientProjection;
+    private final boolean enabled;
+    private final String topic;
+    private final Duration timeout;
+
+    public PatientSnapshotBootstrapper(CompactedTopicLoader compactedTopicLoader,
+                                       PatientProjection patientProjection,
+                                       @Value("${analytics.snapshot.bootstrap-enabled:true}") boolean enabled,
+                                       @Value("${analytics.snapshot.topic:patient-snapshot}") String topic,
+                                       @Value("${analytics.snapshot.timeout:PT2M}") Duration timeout) {
+        this.compactedTopicLoader = compactedTopicLoader;
+        this.patientProjection = patientProjection;
+        this.enabled = enabled;
+        this.topic = topic;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            bootstrap();
+        }
+    }
+
+    /**
+     * A failed bootstrap is not fatal: the projection then fills from live events only.
+     */
+    public long bootstrap() {
+        long start = System.nanoTime();
+        try {
+            long records = compactedTopicLoader.load(topic, timeout, this::apply);
+            log.info("Bootstrapped {} patients from {} ({} records) in {} ms",
+                     patientProjection.size(), topic, records, (System.nanoTime() - start) / 1_000_000);
+            return records;
+        } catch (TimeoutException | KafkaException e) {
+            log.warn("Could not bootstrap patient projection from {}: {}", topic, e.getMessage());
+            return 0;
+        }
+    }
+
+    private void apply(String key, byte[] value) {
+        if (key == null) {
+            log.warn("Skipping snapshot record without a patient id");
+            return;
+        }
+        try {
+            UUID patientId = UUID.fromString(key);
+            if (value == null) {
+                // Tombstone: the patient was deleted after this consumer last saw it
+                patientProjection.remove(patientId, 0);
+                return;
+            }
+            PatientEvent patientEvent = PatientEvent.parseFrom(value);
+            patientProjection.upsert(patientId, patientEvent.getSequence(), patientEvent.getName(),
+                                     patientEvent.getEmail(), patientEvent.getAddress(),
+                                     patientEvent.getDateOfBirth(), patientEvent.getRegisteredDate());
+        } catch (IllegalArgumentException | InvalidProtocolBufferException e) {
+            log.warn("Skipping unreadable snapshot record for key {}", key);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.pm.analyticsservice.projection;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only store for string tuples in direct (off-heap) memory. Each record is a sequence of
+ * length-prefixed UTF-8 strings; it is addressed by a non-zero long that packs the chunk index and
+ * the offset inside the chunk. Superseded records are only accounted as garbage; the owner
+ * reclaims them by copying live records into a fresh arena.
+ */
+public class OffHeapStringArena {
+
+    private static final int LENGTH_PREFIX = Integer.BYTES;
+
+    private final int chunkSize;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private long allocatedBytes;
+    private long usedBytes;
+    private long garbageBytes;
+
+    public OffHeapStringArena(int chunkSize) {
+        if (chunkSize < 1024) {
+            throw new IllegalArgumentException("Arena chunk size must be at least 1024 bytes");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    public long append(String... values) {
+        byte[][] encoded = new byte[values.length][];
+        int recordSize = 0;
+        for (int i = 0; i < values.length; i++) {
+            encoded[i] = values[i] == null
+                    ? new byte[0]
+                    : values[i].getBytes(StandardCharsets.UTF_8);
+            recordSize += LENGTH_PREFIX + encoded[i].length;
+        }
+
+        ByteBuffer chunk = chunkWithRoom(recordSize);
+        int offset = chunk.position();
+        for (byte[] value : encoded) {
+            chunk.putInt(value.length);
+            chunk.put(value);
+        }
+        usedBytes += recordSize;
+        return address(chunks.size() - 1, offset);
+    }
+
+    public String[] read(long address, int fieldCount) {
+        ByteBuffer chunk = chunks.get(chunkIndex(address));
+        int position = offset(address);
+        String[] values = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            int length = chunk.getInt(position);
+            byte[] bytes = new byte[length];
+            chunk.get(position + LENGTH_PREFIX, bytes);
+            values[i] = new String(bytes, StandardCharsets.UTF_8);
+            position += LENGTH_PREFIX + length;
+        }
+        return values;
+    }
+
+    /**
+     * Marks the record at {@code address} as no longer referenced.
+     */
+    public void release(long address, int fieldCount) {
+        ByteBuffer chunk = chunks.get(chunkIndex(address));
+        int position = offset(address);
+        int size = 0;
+        for (int i = 0; i < fieldCount; i++) {
+            int fieldSize = LENGTH_PREFIX + chunk.getInt(position + size);
+            size += fieldSize;
+        }
+        garbageBytes += size;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public long getGarbageBytes() {
+        return garbageBytes;
+    }
+
+    private ByteBuffer chunkWithRoom(int recordSize) {
+        if (!chunks.isEmpty()) {
+            ByteBuffer current = chunks.get(chunks.size() - 1);
+            if (current.remaining() >= recordSize) {
+                return current;
+            }
+        }
+        int size = Math.max(chunkSize, recordSize);
+        ByteBuffer chunk = ByteBuffer.allocateDirect(size);
+        chunks.add(chunk);
+        allocatedBytes += size;
+        return chunk;
+    }
+
+    private static long address(int chunkIndex, int offset) {
+        return ((long) (chunkIndex + 1) << 32) | (offset & 0xffffffffL);
+    }
+
+    private static int chunkIndex(long address) {
+        return (int) (address >>> 32) - 1;
+    }
+
+    private static int offset(long address) {
+        return (int) address;
+    }
+}
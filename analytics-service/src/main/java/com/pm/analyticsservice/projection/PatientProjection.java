@@ -0,0 +1,288 @@
+package com.pm.analyticsservice.projection;
+
+import com.pm.analyticsservice.sketch.MurmurHash3;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Latest state per patient, kept out of the object graph: patient ids live as pairs of longs in a
+ * linear-probing open-addressing table, and the strings live in an {@link OffHeapStringArena}. A
+ * patient costs a few dozen bytes of heap regardless of how many are loaded, and there are no
+ * per-patient objects for the GC to trace.
+ *
+ * <p>Every entry remembers the event sequence it was built from; changes carrying an older
+ * sequence are ignored, so redelivered or retried events cannot roll a patient back. A deleted
+ * patient leaves a tombstone with the delete's sequence for {@code analytics.projection.tombstone-ttl},
+ * so an older update arriving after the delete cannot bring the patient back. Tombstones are few
+ * (one per delete within the TTL) and are kept on the heap in deletion order, which makes expiring
+ * them a walk from the oldest.
+ */
+@Component
+public class PatientProjection {
+
+    private static final int FIELD_COUNT = 5;
+    private static final double MAX_LOAD_FACTOR = 0.7;
+
+    private final int arenaChunkBytes;
+    private final Duration tombstoneTtl;
+    private final Clock clock = Clock.systemUTC();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Oldest first; guarded by the write lock
+    private final LinkedHashMap<UUID, Tombstone> tombstones = new LinkedHashMap<>();
+
+    private long[] mostSignificantBits;
+    private long[] leastSignificantBits;
+    // 0 marks an empty slot; arena addresses are never 0
+    private long[] addresses;
+    private long[] sequences;
+    private int size;
+    private OffHeapStringArena arena;
+
+    public PatientProjection(@Value("${analytics.projection.initial-capacity:1024}") int initialCapacity,
+                             @Value("${analytics.projection.arena-chunk-bytes:16777216}") int arenaChunkBytes,
+                             @Value("${analytics.projection.tombstone-ttl:PT24H}") Duration tombstoneTtl) {
+        int capacity = Integer.highestOneBit(Math.max(16, initialCapacity) - 1) << 1;
+        this.arenaChunkBytes = arenaChunkBytes;
+        this.tombstoneTtl = tombstoneTtl;
+        this.mostSignificantBits = new long[capacity];
+        this.leastSignificantBits = new long[capacity];
+        this.addresses = new long[capacity];
+        this.sequences = new long[capacity];
+        this.arena = new OffHeapStringArena(arenaChunkBytes);
+    }
+
+    /**
+     * Stores the patient's state unless a newer sequence is already held, or the patient was
+     * deleted at the same or a later sequence. A sequence of 0 means the producer did not send one
+     * and always applies.
+     *
+     * @return whether the state was applied
+     */
+    public boolean upsert(UUID patientId, long sequence, String name, String email, String address,
+                          String dateOfBirth, String registeredDate) {
+        lock.writeLock().lock();
+        try {
+            expireTombstones();
+            Tombstone tombstone = tombstones.get(patientId);
+            if (tombstone != null) {
+                if (sequence != 0 && sequence <= tombstone.sequence) {
+                    return false;
+                }
+                tombstones.remove(patientId);
+            }
+            if (size + 1 > addresses.length * MAX_LOAD_FACTOR) {
+                resize(addresses.length << 1);
+            }
+            long msb = patientId.getMostSignificantBits();
+            long lsb = patientId.getLeastSignificantBits();
+            int slot = findSlot(msb, lsb);
+            if (addresses[slot] != 0) {
+                if (isStale(sequence, sequences[slot])) {
+                    return false;
+                }
+                arena.release(addresses[slot], FIELD_COUNT);
+            } else {
+                mostSignificantBits[slot] = msb;
+                leastSignificantBits[slot] = lsb;
+                size++;
+            }
+            addresses[slot] = arena.append(name, email, address, dateOfBirth, registeredDate);
+            sequences[slot] = sequence;
+            compactIfWasteful();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the patient unless a newer sequence is already held, and remembers the delete's
+     * sequence, also when the patient is not held yet, because its create may still be on the way.
+     *
+     * @return whether a patient was removed
+     */
+    public boolean remove(UUID patientId, long sequence) {
+        lock.writeLock().lock();
+        try {
+            expireTombstones();
+            int slot = findSlot(patientId.getMostSignificantBits(),
+                                patientId.getLeastSignificantBits());
+            if (addresses[slot] != 0 && isStale(sequence, sequences[slot])) {
+                return false;
+            }
+            recordTombstone(patientId, sequence);
+            if (addresses[slot] == 0) {
+                return false;
+            }
+            arena.release(addresses[slot], FIELD_COUNT);
+            deleteSlot(slot);
+            size--;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Optional<PatientRecord> find(UUID patientId) {
+        lock.readLock().lock();
+        try {
+            int slot = findSlot(patientId.getMostSignificantBits(),
+                                patientId.getLeastSignificantBits());
+            if (addresses[slot] == 0) {
+                return Optional.empty();
+            }
+            String[] fields = arena.read(addresses[slot], FIELD_COUNT);
+            return Optional.of(new PatientRecord(patientId, sequences[slot], fields[0], fields[1],
+                                                 fields[2], fields[3], fields[4]));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int tombstoneCount() {
+        lock.readLock().lock();
+        try {
+            return tombstones.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Heap bytes held by the index arrays plus the off-heap bytes reserved by the arena.
+     */
+    public long footprintBytes() {
+        lock.readLock().lock();
+        try {
+            return 4L * Long.BYTES * addresses.length + arena.getAllocatedBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int findSlot(long msb, long lsb) {
+        int mask = addresses.length - 1;
+        int slot = homeSlot(msb, lsb);
+        while (addresses[slot] != 0
+                && (mostSignificantBits[slot] != msb || leastSignificantBits[slot] != lsb)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static boolean isStale(long incoming, long current) {
+        return incoming != 0 && incoming < current;
+    }
+
+    /**
+     * A delete without a sequence cannot be ordered against updates, so it leaves no tombstone.
+     */
+    private void recordTombstone(UUID patientId, long sequence) {
+        if (sequence == 0) {
+            return;
+        }
+        Tombstone previous = tombstones.remove(patientId);
+        long newest = previous == null ? sequence : Math.max(previous.sequence, sequence);
+        tombstones.put(patientId, new Tombstone(newest, clock.instant().plus(tombstoneTtl)));
+    }
+
+    private void expireTombstones() {
+        Instant now = clock.instant();
+        Iterator<Map.Entry<UUID, Tombstone>> oldest = tombstones.entrySet().iterator();
+        while (oldest.hasNext() && !oldest.next().getValue().expiresAt.isAfter(now)) {
+            oldest.remove();
+        }
+    }
+
+    /**
+     * Backward-shift deletion: pulls later entries of the probe chain into the hole so lookups
+     * never need tombstones.
+     */
+    private void deleteSlot(int slot) {
+        int mask = addresses.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (addresses[next] != 0) {
+            int home = homeSlot(mostSignificantBits[next], leastSignificantBits[next]);
+            // move the entry if its home slot is not cyclically within (hole, next]
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                mostSignificantBits[hole] = mostSignificantBits[next];
+                leastSignificantBits[hole] = leastSignificantBits[next];
+                addresses[hole] = addresses[next];
+                sequences[hole] = sequences[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        addresses[hole] = 0;
+        sequences[hole] = 0;
+    }
+
+    private int homeSlot(long msb, long lsb) {
+        return (int) MurmurHash3.fmix64(msb ^ Long.rotateLeft(lsb, 32)) & (addresses.length - 1);
+    }
+
+    private void resize(int capacity) {
+        long[] oldMsb = mostSignificantBits;
+        long[] oldLsb = leastSignificantBits;
+        long[] oldAddresses = addresses;
+        long[] oldSequences = sequences;
+        mostSignificantBits = new long[capacity];
+        leastSignificantBits = new long[capacity];
+        addresses = new long[capacity];
+        sequences = new long[capacity];
+        for (int i = 0; i < oldAddresses.length; i++) {
+            if (oldAddresses[i] != 0) {
+                int slot = findSlot(oldMsb[i], oldLsb[i]);
+                mostSignificantBits[slot] = oldMsb[i];
+                leastSignificantBits[slot] = oldLsb[i];
+                addresses[slot] = oldAddresses[i];
+                sequences[slot] = oldSequences[i];
+            }
+        }
+    }
+
+    private void compactIfWasteful() {
+        if (arena.getUsedBytes() < arenaChunkBytes
+                || arena.getGarbageBytes() * 2 < arena.getUsedBytes()) {
+            return;
+        }
+        OffHeapStringArena compacted = new OffHeapStringArena(arenaChunkBytes);
+        for (int i = 0; i < addresses.length; i++) {
+            if (addresses[i] != 0) {
+                addresses[i] = compacted.append(arena.read(addresses[i], FIELD_COUNT));
+            }
+        }
+        arena = compacted;
+    }
+
+    private static final class Tombstone {
+        private final long sequence;
+        private final Instant expiresAt;
+
+        private Tombstone(long sequence, Instant expiresAt) {
+            this.sequence = sequence;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.pm.analyticsservice.projection;
+
+import java.util.UUID;
+
+public class PatientRecord {
+
+    private final UUID patientId;
+    private final long sequence;
+    private final String name;
+    private final String email;
+    private final String address;
+    private final String dateOfBirth;
+    private final String registeredDate;
+
+    public PatientRecord(UUID patientId, long sequence, String name, String email, String address,
+                         String dateOfBirth, String registeredDate) {
+        this.patientId = patientId;
+        this.sequence = sequence;
+        this.name = name;
+        this.email = email;
+        this.address = address;
+        this.dateOfBirth = dateOfBirth;
+        this.registeredDate = registeredDate;
+    }
+
+    public UUID getPatientId() {
+        return patientId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public String getDateOfBirth() {
+        return dateOfBirth;
+    }
+
+    public String getRegisteredDate() {
+        return registeredDate;
+    }
+}
@@ -0,0 +1,125 @@
+package com.pm.analyticsservice.service;
+
+import com.pm.analyticsservice.dto.CountDTO;
+import com.pm.analyticsservice.dto.SketchSummaryDTO;
+import com.pm.analyticsservice.sketch.PatientEventSketch;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps a ring of tumbling-window {@link PatientEventSketch}es. Memory is fixed by the ring size
+ * and sketch dimensions, no matter how many patients or events flow through.
+ */
+@Service
+public class PatientSketchService {
+
+    private final long windowMillis;
+    private final int hllPrecision;
+    private final int topCapacity;
+    private final int cmsDepth;
+    private final int cmsWidth;
+    private final PatientEventSketch[] windows;
+    private final Clock clock;
+
+    @Autowired
+    public PatientSketchService(@Value("${analytics.sketch.window:PT1H}") Duration window,
+                                @Value("${analytics.sketch.retained-windows:24}") int retainedWindows,
+                                @Value("${analytics.sketch.hll-precision:14}") int hllPrecision,
+                                @Value("${analytics.sketch.top-capacity:64}") int topCapacity,
+                                @Value("${analytics.sketch.cms-depth:5}") int cmsDepth,
+                                @Value("${analytics.sketch.cms-width:2048}") int cmsWidth) {
+        this(window, retainedWindows, hllPrecision, topCapacity, cmsDepth, cmsWidth,
+             Clock.systemUTC());
+    }
+
+    PatientSketchService(Duration window, int retainedWindows, int hllPrecision, int topCapacity,
+                         int cmsDepth, int cmsWidth, Clock clock) {
+        if (window.isZero() || window.isNegative() || retainedWindows <= 0) {
+            throw new IllegalArgumentException("Sketch window and retained windows must be positive");
+        }
+        this.windowMillis = window.toMillis();
+        this.hllPrecision = hllPrecision;
+        this.topCapacity = topCapacity;
+        this.cmsDepth = cmsDepth;
+        this.cmsWidth = cmsWidth;
+        this.windows = new PatientEventSketch[retainedWindows];
+        this.clock = clock;
+    }
+
+    public synchronized void record(String patientId, String email, String eventType,
+                                    long timestampMillis) {
+        long windowStart = Math.floorDiv(timestampMillis, windowMillis) * windowMillis;
+        int slot = slot(windowStart);
+        PatientEventSketch sketch = windows[slot];
+
+        if (sketch == null || sketch.getWindowStart() < windowStart) {
+            sketch = emptySketch(windowStart);
+            windows[slot] = sketch;
+        } else if (sketch.getWindowStart() > windowStart) {
+            // Late event for a window that has already been rotated out of the ring
+            return;
+        }
+        sketch.add(patientId, email, eventType);
+    }
+
+    /**
+     * Merges the most recent {@code windowCount} windows (including the current one).
+     */
+    public synchronized PatientEventSketch snapshot(int windowCount) {
+        int count = Math.max(1, Math.min(windowCount, windows.length));
+        long currentStart = Math.floorDiv(clock.millis(), windowMillis) * windowMillis;
+        long oldestStart = currentStart - (count - 1) * windowMillis;
+
+        PatientEventSketch merged = emptySketch(oldestStart);
+        for (PatientEventSketch sketch : windows) {
+            if (sketch != null && sketch.getWindowStart() >= oldestStart
+                    && sketch.getWindowStart() <= currentStart) {
+                merged.merge(sketch);
+            }
+        }
+        return merged;
+    }
+
+    public SketchSummaryDTO summarize(PatientEventSketch sketch, int top) {
+        SketchSummaryDTO summary = new SketchSummaryDTO();
+        summary.setWindowStart(Instant.ofEpochMilli(sketch.getWindowStart()).toString());
+        summary.setWindowEnd(Instant.ofEpochMilli(sketch.getWindowEnd()).toString());
+        summary.setEventCount(sketch.getEventTypes().getTotalCount());
+        summary.setDistinctPatients(sketch.getPatients().estimate());
+        summary.setTopEmailDomains(toCounts(sketch.getEmailDomains().top(top)));
+        summary.setEventTypes(toCounts(sketch.getEventTypes().top(topCapacity)));
+        return summary;
+    }
+
+    /**
+     * Reads a sketch exported by another instance, which must be configured with the same
+     * dimensions as this one.
+     *
+     * @throws IllegalArgumentException if the payload is malformed or its dimensions differ
+     */
+    public PatientEventSketch readSketch(byte[] data) {
+        return PatientEventSketch.fromByteArray(data, hllPrecision, topCapacity, cmsDepth, cmsWidth);
+    }
+
+    public PatientEventSketch emptySketch(long windowStart) {
+        return new PatientEventSketch(windowStart, windowStart + windowMillis, hllPrecision,
+                                      topCapacity, cmsDepth, cmsWidth);
+    }
+
+    private int slot(long windowStart) {
+        return (int) Math.floorMod(windowStart / windowMillis, (long) windows.length);
+    }
+
+    private static List<CountDTO> toCounts(Map<String, Long> counts) {
+        return counts.entrySet().stream()
+                     .map(entry -> new CountDTO(entry.getKey(), entry.getValue()))
+                     .toList();
+    }
+}
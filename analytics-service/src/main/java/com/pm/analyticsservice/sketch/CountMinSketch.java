@@ -0,0 +1,106 @@
+package com.pm.analyticsservice.sketch;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Count-Min Sketch over a fixed depth x width counter matrix. Estimates never undercount; with
+ * total count N they overcount by at most e/width * N with probability 1 - e^-depth.
+ */
+public class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final long[] counters;
+    private long totalCount;
+
+    public CountMinSketch(int depth, int width) {
+        if (depth <= 0 || width <= 0) {
+            throw new IllegalArgumentException("Count-Min Sketch depth and width must be positive");
+        }
+        this.depth = depth;
+        this.width = width;
+        this.counters = new long[depth * width];
+    }
+
+    public void add(String value, long count) {
+        long hash = MurmurHash3.hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int row = 0; row < depth; row++) {
+            counters[row * width + bucket(h1, h2, row)] += count;
+        }
+        totalCount += count;
+    }
+
+    public long estimate(String value) {
+        long hash = MurmurHash3.hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters[row * width + bucket(h1, h2, row)]);
+        }
+        return min;
+    }
+
+    public void merge(CountMinSketch other) {
+        if (other.depth != depth || other.width != width) {
+            throw new IllegalArgumentException("Cannot merge Count-Min Sketch of "
+                    + other.depth + "x" + other.width + " into " + depth + "x" + width);
+        }
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += other.counters[i];
+        }
+        totalCount += other.totalCount;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(depth);
+        out.writeInt(width);
+        out.writeLong(totalCount);
+        for (long counter : counters) {
+            out.writeLong(counter);
+        }
+    }
+
+    /**
+     * Reads a sketch written by {@link #writeTo}, which must have the given dimensions; they are
+     * checked before the counters are allocated, so a payload cannot size them.
+     *
+     * @throws IllegalArgumentException if the dimensions differ
+     */
+    public static CountMinSketch readFrom(DataInputStream in, int depth, int width) throws IOException {
+        int readDepth = in.readInt();
+        int readWidth = in.readInt();
+        if (readDepth != depth || readWidth != width) {
+            throw new IllegalArgumentException("Expected Count-Min Sketch of " + depth + "x" + width
+                    + " but read " + readDepth + "x" + readWidth);
+        }
+        CountMinSketch sketch = new CountMinSketch(depth, width);
+        sketch.totalCount = in.readLong();
+        for (int i = 0; i < sketch.counters.length; i++) {
+            sketch.counters[i] = in.readLong();
+        }
+        return sketch;
+    }
+
+    private int bucket(int h1, int h2, int row) {
+        // Kirsch-Mitzenmacher: derive each row's hash from two halves of one 64-bit hash
+        int combined = h1 + row * h2;
+        return (combined & Integer.MAX_VALUE) % width;
+    }
+}
@@ -0,0 +1,124 @@
+package com.pm.analyticsservice.sketch;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Top-K tracker on top of a {@link CountMinSketch}. Only the {@code capacity} best candidates are
+ * kept; their counts are always re-read from the sketch, so merging two trackers is a merge of
+ * the sketches followed by re-ranking the union of both candidate sets.
+ */
+public class HeavyHitters {
+
+    private final int capacity;
+    private final CountMinSketch sketch;
+    private final Map<String, Long> candidates;
+
+    public HeavyHitters(int capacity, int depth, int width) {
+        this(capacity, new CountMinSketch(depth, width));
+    }
+
+    private HeavyHitters(int capacity, CountMinSketch sketch) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Heavy hitter capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.sketch = sketch;
+        this.candidates = new HashMap<>(capacity * 2);
+    }
+
+    public void add(String value) {
+        sketch.add(value, 1);
+        offer(value, sketch.estimate(value));
+    }
+
+    public long estimate(String value) {
+        return sketch.estimate(value);
+    }
+
+    public long getTotalCount() {
+        return sketch.getTotalCount();
+    }
+
+    /**
+     * Returns up to {@code k} values ordered by estimated count, highest first.
+     */
+    public Map<String, Long> top(int k) {
+        candidates.replaceAll((value, count) -> sketch.estimate(value));
+        Map<String, Long> top = new LinkedHashMap<>();
+        candidates.entrySet().stream()
+                  .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                                   .thenComparing(Map.Entry.comparingByKey()))
+                  .limit(k)
+                  .forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+        return top;
+    }
+
+    public void merge(HeavyHitters other) {
+        sketch.merge(other.sketch);
+        Set<String> union = new HashSet<>(candidates.keySet());
+        union.addAll(other.candidates.keySet());
+        candidates.clear();
+        for (String value : union) {
+            offer(value, sketch.estimate(value));
+        }
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(capacity);
+        sketch.writeTo(out);
+        out.writeInt(candidates.size());
+        for (String value : candidates.keySet()) {
+            out.writeUTF(value);
+        }
+    }
+
+    /**
+     * Reads a tracker written by {@link #writeTo}, which must have the given capacity and sketch
+     * dimensions.
+     *
+     * @throws IllegalArgumentException if they differ, or more candidates than the capacity follow
+     */
+    public static HeavyHitters readFrom(DataInputStream in, int capacity, int depth, int width) throws IOException {
+        int readCapacity = in.readInt();
+        if (readCapacity != capacity) {
+            throw new IllegalArgumentException("Expected heavy hitter capacity " + capacity
+                    + " but read " + readCapacity);
+        }
+        HeavyHitters heavyHitters = new HeavyHitters(capacity, CountMinSketch.readFrom(in, depth, width));
+        int size = in.readInt();
+        if (size < 0 || size > capacity) {
+            throw new IllegalArgumentException("Read " + size + " heavy hitter candidates for capacity " + capacity);
+        }
+        for (int i = 0; i < size; i++) {
+            String value = in.readUTF();
+            heavyHitters.offer(value, heavyHitters.sketch.estimate(value));
+        }
+        return heavyHitters;
+    }
+
+    private void offer(String value, long estimate) {
+        if (candidates.containsKey(value) || candidates.size() < capacity) {
+            candidates.put(value, estimate);
+            return;
+        }
+
+        Map.Entry<String, Long> smallest = null;
+        for (Map.Entry<String, Long> entry : candidates.entrySet()) {
+            if (smallest == null || entry.getValue() < smallest.getValue()) {
+                smallest = entry;
+            }
+        }
+        if (smallest != null && smallest.getValue() < estimate) {
+            candidates.remove(smallest.getKey());
+            candidates.put(value, estimate);
+        }
+    }
+}
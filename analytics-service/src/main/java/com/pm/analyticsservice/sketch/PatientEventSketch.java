@@ -0,0 +1,129 @@
+package com.pm.analyticsservice.sketch;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+
+/**
+ * Fixed-size summary of the patient events seen in one time window: distinct patients, email
+ * domain heavy hitters and event type counts. Sketches with the same dimensions can be merged,
+ * both across windows and across consumer instances.
+ */
+public class PatientEventSketch {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private long windowStart;
+    private long windowEnd;
+    private final HyperLogLog patients;
+    private final HeavyHitters emailDomains;
+    private final HeavyHitters eventTypes;
+
+    public PatientEventSketch(long windowStart, long windowEnd, int hllPrecision,
+                              int topCapacity, int cmsDepth, int cmsWidth) {
+        this(windowStart, windowEnd, new HyperLogLog(hllPrecision),
+             new HeavyHitters(topCapacity, cmsDepth, cmsWidth),
+             new HeavyHitters(topCapacity, cmsDepth, cmsWidth));
+    }
+
+    private PatientEventSketch(long windowStart, long windowEnd, HyperLogLog patients,
+                               HeavyHitters emailDomains, HeavyHitters eventTypes) {
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.patients = patients;
+        this.emailDomains = emailDomains;
+        this.eventTypes = eventTypes;
+    }
+
+    public void add(String patientId, String email, String eventType) {
+        if (patientId != null && !patientId.isEmpty()) {
+            patients.add(patientId);
+        }
+        String domain = emailDomain(email);
+        if (domain != null) {
+            emailDomains.add(domain);
+        }
+        eventTypes.add(eventType == null || eventType.isEmpty() ? "UNKNOWN" : eventType);
+    }
+
+    public void merge(PatientEventSketch other) {
+        patients.merge(other.patients);
+        emailDomains.merge(other.emailDomains);
+        eventTypes.merge(other.eventTypes);
+        windowStart = Math.min(windowStart, other.windowStart);
+        windowEnd = Math.max(windowEnd, other.windowEnd);
+    }
+
+    public long getWindowStart() {
+        return windowStart;
+    }
+
+    public long getWindowEnd() {
+        return windowEnd;
+    }
+
+    public HyperLogLog getPatients() {
+        return patients;
+    }
+
+    public HeavyHitters getEmailDomains() {
+        return emailDomains;
+    }
+
+    public HeavyHitters getEventTypes() {
+        return eventTypes;
+    }
+
+    public byte[] toByteArray() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(windowStart);
+            out.writeLong(windowEnd);
+            patients.writeTo(out);
+            emailDomains.writeTo(out);
+            eventTypes.writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads a sketch written by {@link #toByteArray}, which must have the given dimensions, the
+     * same ones the constructor takes.
+     *
+     * @throws IllegalArgumentException if the payload is malformed or its dimensions differ
+     */
+    public static PatientEventSketch fromByteArray(byte[] data, int hllPrecision, int topCapacity,
+                                                   int cmsDepth, int cmsWidth) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int version = in.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported sketch format version " + version);
+            }
+            long windowStart = in.readLong();
+            long windowEnd = in.readLong();
+            return new PatientEventSketch(windowStart, windowEnd, HyperLogLog.readFrom(in, hllPrecision),
+                                          HeavyHitters.readFrom(in, topCapacity, cmsDepth, cmsWidth),
+                                          HeavyHitters.readFrom(in, topCapacity, cmsDepth, cmsWidth));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed sketch payload", e);
+        }
+    }
+
+    static String emailDomain(String email) {
+        if (email == null) {
+            return null;
+        }
+        int at = email.lastIndexOf('@');
+        if (at < 0 || at == email.length() - 1) {
+            return null;
+        }
+        return email.substring(at + 1).toLowerCase(Locale.ROOT);
+    }
+}
@@ -3,7 +3,10 @@ package com.pm.analyticsservice;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+        "analytics.kafka.retry.auto-create-topics=false",
+        "analytics.snapshot.bootstrap-enabled=false"
+})
 class AnalyticsServiceApplicationTests {
 
     @Test
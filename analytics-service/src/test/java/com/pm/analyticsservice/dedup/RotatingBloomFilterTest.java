@@ -0,0 +1,122 @@
+package com.pm.analyticsservice.dedup;
+
+import com.pm.analyticsservice.sketch.MurmurHash3;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RotatingBloomFilterTest {
+
+    @Test
+    void shouldNeverMissEventsSeenWithinWindow() {
+        // Given
+        RotatingBloomFilter filter = new RotatingBloomFilter(Duration.ofHours(1), 4, 40_000, 0.01,
+                                                             Clock.systemUTC());
+        long[] hashes = new long[40_000];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = MurmurHash3.hash64(UUID.randomUUID().toString());
+            filter.put(hashes[i]);
+        }
+
+        // When & Then
+        for (long hash : hashes) {
+            assertTrue(filter.mightContain(hash));
+        }
+    }
+
+    @Test
+    void shouldKeepMeasuredFalsePositiveRateNearTarget() {
+        // Given
+        double target = 0.01;
+        RotatingBloomFilter filter = new RotatingBloomFilter(Duration.ofHours(1), 4, 100_000, target,
+                                                             Clock.systemUTC());
+        for (int i = 0; i < 100_000; i++) {
+            filter.put(MurmurHash3.hash64("seen-" + i));
+        }
+
+        // When
+        int falsePositives = 0;
+        int probes = 200_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(MurmurHash3.hash64("unseen-" + i))) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        double measured = (double) falsePositives / probes;
+        assertTrue(measured <= target * 1.5, "measured false-positive rate " + measured);
+        assertEquals(measured, filter.estimatedFalsePositiveRate(), target);
+    }
+
+    @Test
+    void shouldForgetEventsOlderThanWindow() {
+        // Given
+        MutableClock clock = new MutableClock(Instant.parse("2025-06-01T00:00:00Z"));
+        RotatingBloomFilter filter = new RotatingBloomFilter(Duration.ofHours(4), 4, 1_000, 0.001,
+                                                             clock);
+        long hash = MurmurHash3.hash64("event-1");
+        filter.put(hash);
+
+        // When
+        clock.advance(Duration.ofHours(3));
+        boolean seenAfterThreeHours = filter.mightContain(hash);
+        clock.advance(Duration.ofHours(1));
+        boolean seenAfterFourHours = filter.mightContain(hash);
+
+        // Then
+        assertTrue(seenAfterThreeHours);
+        assertFalse(seenAfterFourHours);
+    }
+
+    @Test
+    void shouldRotateEarlyInsteadOfOverfillingGeneration() {
+        // Given
+        RotatingBloomFilter filter = new RotatingBloomFilter(Duration.ofDays(1), 2, 2_000, 0.01,
+                                                             Clock.systemUTC());
+        long memory = filter.sizeInBytes();
+
+        // When
+        for (int i = 0; i < 50_000; i++) {
+            filter.put(MurmurHash3.hash64("event-" + i));
+        }
+
+        // Then
+        assertEquals(memory, filter.sizeInBytes());
+        assertTrue(filter.estimatedFalsePositiveRate() <= 0.02);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.pm.analyticsservice.kafka;
+
+import com.pm.analyticsservice.exception.PoisonEventException;
+import com.pm.analyticsservice.projection.PatientProjection;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import patient.events.PatientEvent;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.auto-offset-reset=earliest",
+        "analytics.kafka.retry.delay-ms=100",
+        "analytics.kafka.retry.max-delay-ms=200"
+})
+@EmbeddedKafka(partitions = 1, topics = "patient")
+@ExtendWith(OutputCaptureExtension.class)
+class KafkaConsumerTest {
+
+    @Autowired
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Autowired
+    private PatientProjection patientProjection;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shouldDeadLetterPoisonRecordAndSkipDuplicates(CapturedOutput output) {
+        // Given
+        UUID patientId = UUID.randomUUID();
+        PatientEvent event = PatientEvent.newBuilder()
+                                         .setPatientId(patientId.toString())
+                                         .setName("John Doe")
+                                         .setEmail("john@example.com")
+                                         .setEventType("PATIENT_CREATED")
+                                         .setEventId(UUID.randomUUID().toString())
+                                         .build();
+
+        // When
+        kafkaTemplate.send("patient", new byte[]{(byte) 0xff, 0x01, 0x02});
+        kafkaTemplate.send("patient", event.toByteArray());
+        kafkaTemplate.send("patient", event.toByteArray());
+
+        // Then
+        await().atMost(Duration.ofSeconds(30)).untilAsserted(() -> {
+            assertTrue(patientProjection.find(patientId).isPresent());
+            assertEquals(1.0, meterRegistry.get("analytics.events.dead_lettered")
+                                           .tag("exception", PoisonEventException.class.getName())
+                                           .counter().count());
+            assertEquals(1.0, meterRegistry.get("analytics.events.duplicates")
+                                           .counter().count());
+            // The poison record was the first one on partition 0
+            assertTrue(output.getOut().contains("dead-lettered from patient-0@0: Listener failed; "
+                                                        + "Error parsing event"));
+        });
+        assertNull(meterRegistry.find("analytics.events.retried").counter());
+    }
+}
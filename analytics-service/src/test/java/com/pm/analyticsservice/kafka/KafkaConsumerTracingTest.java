@@ -0,0 +1,73 @@
+package com.pm.analyticsservice.kafka;
+
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import patient.events.PatientEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.auto-offset-reset=earliest",
+        // Otherwise the test's own send starts a trace and adds a second traceparent header
+        "spring.kafka.template.observation-enabled=false"
+})
+@AutoConfigureObservability(metrics = false)
+@EmbeddedKafka(partitions = 1, topics = "patient")
+class KafkaConsumerTracingTest {
+
+    private static final String TRACE_ID = "0af7651916cd43dd8448eb211c80319c";
+
+    @Autowired
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Autowired
+    private InMemorySpanExporter spanExporter;
+
+    @Test
+    void shouldContinueProducerTraceFromRecordHeaders() {
+        // Given
+        PatientEvent event = PatientEvent.newBuilder()
+                                         .setPatientId(UUID.randomUUID().toString())
+                                         .setName("John Doe")
+                                         .setEmail("john@example.com")
+                                         .setEventType("PATIENT_CREATED")
+                                         .setEventId(UUID.randomUUID().toString())
+                                         .build();
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>("patient", event.toByteArray());
+        record.headers().add("traceparent", ("00-" + TRACE_ID + "-b7ad6b7169203331-01")
+                .getBytes(StandardCharsets.UTF_8));
+
+        // When
+        kafkaTemplate.send(record);
+
+        // Then
+        await().atMost(Duration.ofSeconds(30)).untilAsserted(() -> assertTrue(
+                spanExporter.getFinishedSpanItems().stream()
+                            .anyMatch(span -> span.getKind() == SpanKind.CONSUMER
+                                    && TRACE_ID.equals(span.getTraceId()))));
+    }
+
+    @TestConfiguration
+    static class InMemoryExporterConfig {
+
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.pm.analyticsservice.kafka;
+
+import com.pm.analyticsservice.projection.PatientProjection;
+import com.pm.analyticsservice.projection.PatientRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import patient.events.PatientEvent;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "analytics.kafka.retry.auto-create-topics=false",
+        "analytics.snapshot.bootstrap-enabled=false"
+})
+@EmbeddedKafka(partitions = 2, topics = "patient-snapshot")
+class PatientSnapshotBootstrapperTest {
+
+    @Autowired
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Autowired
+    private PatientSnapshotBootstrapper patientSnapshotBootstrapper;
+
+    @Autowired
+    private PatientProjection patientProjection;
+
+    @Test
+    void shouldLoadLatestStateAndApplyTombstones() throws Exception {
+        // Given
+        UUID updated = UUID.randomUUID();
+        UUID deleted = UUID.randomUUID();
+        send(updated, snapshot(updated, 1, "John Doe"));
+        send(deleted, snapshot(deleted, 1, "Jane Doe"));
+        send(updated, snapshot(updated, 2, "John Smith"));
+        send(deleted, null);
+
+        // When
+        long records = patientSnapshotBootstrapper.bootstrap();
+
+        // Then
+        assertEquals(4, records);
+        PatientRecord patientRecord = patientProjection.find(updated).orElseThrow();
+        assertEquals("John Smith", patientRecord.getName());
+        assertEquals(2, patientRecord.getSequence());
+        assertTrue(patientProjection.find(deleted).isEmpty());
+    }
+
+    private void send(UUID patientId, byte[] value) throws Exception {
+        kafkaTemplate.send("patient-snapshot", patientId.toString(), value).get();
+    }
+
+    private static byte[] snapshot(UUID patientId, long sequence, String name) {
+        return PatientEvent.newBuilder()
+                           .setPatientId(patientId.toString())
+                           .setName(name)
+                           .setEmail(name.toLowerCase().replace(' ', '.') + "@example.com")
+                           .setEventType(sequence == 1 ? "PATIENT_CREATED" : "PATIENT_UPDATED")
+                           .setSequence(sequence)
+                           .build()
+                           .toByteArray();
+    }
+}
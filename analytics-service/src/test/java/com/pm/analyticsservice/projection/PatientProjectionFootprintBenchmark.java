@@ -0,0 +1,76 @@
+package com.pm.analyticsservice.projection;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import patient.events.PatientEvent;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Compares the memory needed to hold N patients in {@link PatientProjection} against a plain
+ * {@code HashMap<String, PatientEvent>}. Run with
+ * {@code mvn test -Dbenchmarks=true -Dtest=PatientProjectionFootprintBenchmark -Dbenchmark.patients=1000000}.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class PatientProjectionFootprintBenchmark {
+
+    private static final int PATIENTS = Integer.getInteger("benchmark.patients", 1_000_000);
+
+    @Test
+    void compareFootprintWithHashMapBaseline() {
+        long before = usedHeap();
+        Map<String, PatientEvent> baseline = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < PATIENTS; i++) {
+            UUID id = new UUID(random.nextLong(), random.nextLong());
+            baseline.put(id.toString(), PatientEvent.newBuilder()
+                                                    .setPatientId(id.toString())
+                                                    .setName(name(i))
+                                                    .setEmail(email(i))
+                                                    .setEventType("PATIENT_CREATED")
+                                                    .build());
+        }
+        long baselineHeap = usedHeap() - before;
+        int baselineSize = baseline.size();
+        baseline = null;
+
+        before = usedHeap();
+        PatientProjection projection = new PatientProjection(1024, 16 * 1024 * 1024, Duration.ofHours(24));
+        random = new Random(42);
+        long start = System.nanoTime();
+        for (int i = 0; i < PATIENTS; i++) {
+            projection.upsert(new UUID(random.nextLong(), random.nextLong()), 1, name(i), email(i),
+                              "", "", "");
+        }
+        long loadMillis = (System.nanoTime() - start) / 1_000_000;
+        long projectionHeap = usedHeap() - before;
+
+        System.out.printf("patients=%d%n", PATIENTS);
+        System.out.printf("HashMap<String, PatientEvent>: size=%d heap=%,d bytes (%.1f B/patient)%n",
+                          baselineSize, baselineHeap, (double) baselineHeap / PATIENTS);
+        System.out.printf("PatientProjection: size=%d heap=%,d bytes, index+arena=%,d bytes "
+                                  + "(%.1f B/patient), load=%d ms%n",
+                          projection.size(), projectionHeap, projection.footprintBytes(),
+                          (double) projection.footprintBytes() / PATIENTS, loadMillis);
+    }
+
+    private static String name(int i) {
+        return "Patient Number " + i;
+    }
+
+    private static String email(int i) {
+        return "patient" + i + "@clinic" + (i % 100) + ".example.com";
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,183 @@
+package com.pm.analyticsservice.projection;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PatientProjectionTest {
+
+    private static final Duration TOMBSTONE_TTL = Duration.ofHours(24);
+
+    @Test
+    void shouldFindUpsertedPatient() {
+        // Given
+        PatientProjection projection = new PatientProjection(16, 1024, TOMBSTONE_TTL);
+        UUID id = UUID.randomUUID();
+
+        // When
+        projection.upsert(id, 1, "John Doe", "john@example.com", "123 Main St", "1985-06-15",
+                          "2024-01-10");
+
+        // Then
+        PatientRecord patientRecord = projection.find(id).orElseThrow();
+        assertEquals("John Doe", patientRecord.getName());
+        assertEquals("john@example.com", patientRecord.getEmail());
+        assertEquals("123 Main St", patientRecord.getAddress());
+        assertEquals("1985-06-15", patientRecord.getDateOfBirth());
+        assertEquals("2024-01-10", patientRecord.getRegisteredDate());
+        assertEquals(1, patientRecord.getSequence());
+        assertTrue(projection.find(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void shouldKeepLatestValuesOnUpdate() {
+        // Given
+        PatientProjection projection = new PatientProjection(16, 1024, TOMBSTONE_TTL);
+        UUID id = UUID.randomUUID();
+        projection.upsert(id, 1, "John Doe", "john@example.com", "", "", "");
+
+        // When
+        projection.upsert(id, 2, "Jöhn Döe", "john.doe@example.com", "", "", "");
+
+        // Then
+        PatientRecord patientRecord = projection.find(id).orElseThrow();
+        assertEquals("Jöhn Döe", patientRecord.getName());
+        assertEquals("john.doe@example.com", patientRecord.getEmail());
+        assertEquals(1, projection.size());
+    }
+
+    @Test
+    void shouldGrowAndCompactWithoutLosingPatients() {
+        // Given
+        PatientProjection projection = new PatientProjection(16, 1024, TOMBSTONE_TTL);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            projection.upsert(id, 1, "Patient " + i, "patient" + i + "@example.com", "", "", "");
+        }
+
+        // When
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < ids.size(); i++) {
+                projection.upsert(ids.get(i), round + 2, "Patient " + i + " v" + round,
+                                  "patient" + i + "@example.com", "", "", "");
+            }
+        }
+
+        // Then
+        assertEquals(5_000, projection.size());
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals("Patient " + i + " v4", projection.find(ids.get(i)).orElseThrow().getName());
+        }
+        // six generations of records, but compaction keeps the arena near the live size
+        assertTrue(projection.footprintBytes() < 5_000 * 200);
+    }
+
+    @Test
+    void shouldIgnoreOutOfOrderUpdates() {
+        // Given
+        PatientProjection projection = new PatientProjection(16, 1024, TOMBSTONE_TTL);
+        UUID id = UUID.randomUUID();
+        projection.upsert(id, 3, "Newest", "newest@example.com", "", "", "");
+
+        // When
+        boolean applied = projection.upsert(id, 2, "Older", "older@example.com", "", "", "");
+
+        // Then
+        assertFalse(applied);
+        assertEquals("Newest", projection.find(id).orElseThrow().getName());
+    }
+
+    @Test
+    void shouldRemoveDeletedPatientsWithoutBreakingProbeChains() {
+        // Given
+        PatientProjection projection = new PatientProjection(16, 1024, TOMBSTONE_TTL);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            projection.upsert(id, 1, "Patient " + i, "patient" + i + "@example.com", "", "", "");
+        }
+
+        // When
+        for (int i = 0; i < ids.size(); i += 2) {
+            assertTrue(projection.remove(ids.get(i), 2));
+        }
+
+        // Then
+        assertEquals(1_000, projection.size());
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(i % 2 == 1, projection.find(ids.get(i)).isPresent());
+        }
+    }
+
+    @Test
+    void shouldIgnoreDeleteOlderThanCurrentState() {
+        // Given
+        PatientProjection projection = new PatientProjection(16, 1024, TOMBSTONE_TTL);
+        UUID id = UUID.randomUUID();
+        projection.upsert(id, 5, "John Doe", "john@example.com", "", "", "");
+
+        // When
+        boolean removed = projection.remove(id, 4);
+
+        // Then
+        assertFalse(removed);
+        assertTrue(projection.find(id).isPresent());
+    }
+
+    @Test
+    void shouldRejectUpdateOlderThanDelete() {
+        // Given
+        PatientProjection projection = new PatientProjection(16, 1024, TOMBSTONE_TTL);
+        UUID id = UUID.randomUUID();
+        projection.upsert(id, 1, "John Doe", "john@example.com", "", "", "");
+        projection.remove(id, 3);
+
+        // When
+        boolean applied = projection.upsert(id, 2, "John Doe", "john.doe@example.com", "", "", "");
+
+        // Then
+        assertFalse(applied);
+        assertTrue(projection.find(id).isEmpty());
+        assertEquals(0, projection.size());
+    }
+
+    @Test
+    void shouldRejectCreateArrivingAfterItsDelete() {
+        // Given
+        PatientProjection projection = new PatientProjection(16, 1024, TOMBSTONE_TTL);
+        UUID id = UUID.randomUUID();
+
+        // When
+        boolean removed = projection.remove(id, 2);
+        boolean applied = projection.upsert(id, 1, "John Doe", "john@example.com", "", "", "");
+
+        // Then
+        assertFalse(removed);
+        assertFalse(applied);
+        assertTrue(projection.find(id).isEmpty());
+    }
+
+    @Test
+    void shouldForgetTombstonesAfterTtl() {
+        // Given
+        PatientProjection projection = new PatientProjection(16, 1024, Duration.ZERO);
+        UUID id = UUID.randomUUID();
+        projection.upsert(id, 1, "John Doe", "john@example.com", "", "", "");
+        projection.remove(id, 3);
+
+        // When
+        boolean applied = projection.upsert(id, 2, "John Doe", "john@example.com", "", "", "");
+
+        // Then
+        assertTrue(applied);
+        assertEquals(0, projection.tombstoneCount());
+    }
+}
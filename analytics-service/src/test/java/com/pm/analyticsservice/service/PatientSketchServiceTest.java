@@ -0,0 +1,55 @@
+package com.pm.analyticsservice.service;
+
+import com.pm.analyticsservice.dto.SketchSummaryDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PatientSketchServiceTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+    private static final Instant NOW = Instant.parse("2025-06-01T10:30:00Z");
+
+    private final PatientSketchService service = new PatientSketchService(
+            Duration.ofHours(1), 3, 12, 16, 4, 256, Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void shouldSummarizeCurrentWindow() {
+        // Given
+        service.record("p-1", "john@example.com", "PATIENT_CREATED", NOW.toEpochMilli());
+        service.record("p-2", "jane@example.com", "PATIENT_CREATED", NOW.toEpochMilli());
+        service.record("p-1", "john@example.com", "PATIENT_CREATED", NOW.toEpochMilli());
+
+        // When
+        SketchSummaryDTO summary = service.summarize(service.snapshot(1), 5);
+
+        // Then
+        assertEquals(2, summary.getDistinctPatients());
+        assertEquals(3, summary.getEventCount());
+        assertEquals("example.com", summary.getTopEmailDomains().get(0).getValue());
+        assertEquals("2025-06-01T10:00:00Z", summary.getWindowStart());
+    }
+
+    @Test
+    void shouldMergeRetainedWindowsOnly() {
+        // Given
+        long now = NOW.toEpochMilli();
+        service.record("p-1", "a@a.com", "PATIENT_CREATED", now);
+        service.record("p-2", "b@b.com", "PATIENT_CREATED", now - HOUR);
+        service.record("p-3", "c@c.com", "PATIENT_CREATED", now - 2 * HOUR);
+        service.record("p-4", "d@d.com", "PATIENT_CREATED", now - 3 * HOUR);
+
+        // When
+        SketchSummaryDTO lastTwo = service.summarize(service.snapshot(2), 5);
+        SketchSummaryDTO all = service.summarize(service.snapshot(10), 5);
+
+        // Then
+        assertEquals(2, lastTwo.getDistinctPatients());
+        assertEquals(3, all.getDistinctPatients());
+    }
+}
@@ -0,0 +1,114 @@
+package com.pm.analyticsservice.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeavyHittersTest {
+
+    @Test
+    void shouldNeverUndercount() {
+        // Given
+        CountMinSketch sketch = new CountMinSketch(4, 256);
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            sketch.add("domain-" + (i % 500) + ".com", 1);
+        }
+
+        // Then
+        for (int i = 0; i < 500; i++) {
+            assertTrue(sketch.estimate("domain-" + i + ".com") >= 20);
+        }
+        assertEquals(10_000, sketch.getTotalCount());
+    }
+
+    @Test
+    void shouldFindTopDomainsAmongLongTail() {
+        // Given
+        HeavyHitters heavyHitters = new HeavyHitters(16, 5, 1024);
+
+        // When
+        for (int i = 0; i < 20_000; i++) {
+            heavyHitters.add("tail-" + i + ".org");
+            if (i % 2 == 0) {
+                heavyHitters.add("gmail.com");
+            }
+            if (i % 4 == 0) {
+                heavyHitters.add("example.com");
+            }
+        }
+
+        // Then
+        Map<String, Long> top = heavyHitters.top(2);
+        assertEquals(List.of("gmail.com", "example.com"), List.copyOf(top.keySet()));
+        assertTrue(top.get("gmail.com") >= 10_000);
+    }
+
+    @Test
+    void shouldMergeCandidatesAcrossInstances() {
+        // Given
+        HeavyHitters first = new HeavyHitters(4, 5, 512);
+        HeavyHitters second = new HeavyHitters(4, 5, 512);
+        for (int i = 0; i < 100; i++) {
+            first.add("clinic-a.com");
+            second.add("clinic-b.com");
+            second.add("clinic-b.com");
+        }
+
+        // When
+        first.merge(second);
+
+        // Then
+        Map<String, Long> top = first.top(2);
+        assertEquals(List.of("clinic-b.com", "clinic-a.com"), List.copyOf(top.keySet()));
+        assertEquals(300, first.getTotalCount());
+    }
+
+    @Test
+    void shouldRoundTripPatientEventSketch() {
+        // Given
+        PatientEventSketch sketch = new PatientEventSketch(0, 1_000, 10, 8, 4, 128);
+        sketch.add("p-1", "john@example.com", "PATIENT_CREATED");
+        sketch.add("p-2", "jane@Example.com", "PATIENT_CREATED");
+
+        // When
+        PatientEventSketch restored = PatientEventSketch.fromByteArray(sketch.toByteArray(), 10, 8, 4, 128);
+
+        // Then
+        assertEquals(2, restored.getPatients().estimate());
+        assertEquals(2, restored.getEmailDomains().estimate("example.com"));
+        assertEquals(2, restored.getEventTypes().estimate("PATIENT_CREATED"));
+    }
+
+    @Test
+    void shouldRejectSketchWithOtherDimensions() {
+        // Given
+        byte[] data = new PatientEventSketch(0, 1_000, 10, 8, 4, 128).toByteArray();
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> PatientEventSketch.fromByteArray(data, 10, 8, 4, 256));
+        assertThrows(IllegalArgumentException.class, () -> PatientEventSketch.fromByteArray(data, 10, 16, 4, 128));
+        assertThrows(IllegalArgumentException.class, () -> PatientEventSketch.fromByteArray(data, 12, 8, 4, 128));
+    }
+
+    @Test
+    void shouldRejectOversizedDimensionsBeforeAllocating() throws Exception {
+        // Given
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(Integer.MAX_VALUE);
+        out.writeInt(Integer.MAX_VALUE);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> CountMinSketch.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), 4, 128));
+    }
+}
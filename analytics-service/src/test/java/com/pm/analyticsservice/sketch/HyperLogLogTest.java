@@ -0,0 +1,86 @@
+package com.pm.analyticsservice.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    @Test
+    void shouldEstimateDistinctCountWithinExpectedError() {
+        // Given
+        HyperLogLog hyperLogLog = new HyperLogLog(14);
+
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            String patientId = UUID.randomUUID().toString();
+            hyperLogLog.add(patientId);
+            hyperLogLog.add(patientId);
+        }
+
+        // Then
+        assertEquals(100_000, hyperLogLog.estimate(), 100_000 * 0.03);
+    }
+
+    @Test
+    void shouldBeExactForSmallCardinalities() {
+        // Given
+        HyperLogLog hyperLogLog = new HyperLogLog(14);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            hyperLogLog.add("patient-" + i);
+        }
+
+        // Then
+        assertEquals(100, hyperLogLog.estimate(), 2);
+    }
+
+    @Test
+    void shouldMergeOverlappingSketches() {
+        // Given
+        HyperLogLog first = new HyperLogLog(12);
+        HyperLogLog second = new HyperLogLog(12);
+        for (int i = 0; i < 20_000; i++) {
+            first.add("patient-" + i);
+            second.add("patient-" + (i + 10_000));
+        }
+
+        // When
+        first.merge(second);
+
+        // Then
+        assertEquals(30_000, first.estimate(), 30_000 * 0.05);
+    }
+
+    @Test
+    void shouldRejectMergeOfDifferentPrecision() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> new HyperLogLog(12).merge(new HyperLogLog(14)));
+    }
+
+    @Test
+    void shouldRoundTripThroughSerialization() throws Exception {
+        // Given
+        HyperLogLog hyperLogLog = new HyperLogLog(10);
+        for (int i = 0; i < 5_000; i++) {
+            hyperLogLog.add("patient-" + i);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        hyperLogLog.writeTo(new DataOutputStream(bytes));
+
+        // When
+        HyperLogLog restored = HyperLogLog.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), 10);
+
+        // Then
+        assertEquals(hyperLogLog.estimate(), restored.estimate());
+        assertEquals(1 + (1 << 10), bytes.size());
+    }
+}
@@ -0,0 +1,47 @@
+package com.pm.apigateway.controller;
+
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Target of the routes' circuit breaker {@code fallbackUri}. Turns an open breaker, an upstream
+ * 502/503/504 or a timeout into a plain 503/504 instead of the gateway's generic 500. An upstream
+ * 500 is an application error and reaches the client unchanged.
+ */
+@RestController
+@RequestMapping("/fallback")
+public class FallbackController {
+
+    @RequestMapping("/{service}")
+    public ResponseEntity<Map<String, String>> fallback(@PathVariable String service,
+                                                        ServerWebExchange exchange) {
+        Throwable error = exchange.getAttribute(
+                ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR);
+        HttpStatus status = isTimeout(error) ? HttpStatus.GATEWAY_TIMEOUT : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status)
+                             .header("Retry-After", "10")
+                             .body(Map.of("error", service + " is unavailable"));
+    }
+
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException) {
+                return true;
+            }
+            if (cause instanceof ResponseStatusException statusException
+                    && statusException.getStatusCode().value() == HttpStatus.GATEWAY_TIMEOUT.value()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,11 @@
+package com.pm.apigateway.exception;
+
+/**
+ * auth-service did not answer a token validation in time, so the token's validity is unknown.
+ */
+public class AuthServiceUnavailableException extends RuntimeException {
+
+    public AuthServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
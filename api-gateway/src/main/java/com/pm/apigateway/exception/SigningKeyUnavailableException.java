@@ -0,0 +1,16 @@
+package com.pm.apigateway.exception;
+
+/**
+ * The key needed to verify a token locally could not be obtained from auth-service, so the
+ * token has to be validated remotely instead.
+ */
+public class SigningKeyUnavailableException extends RuntimeException {
+
+    public SigningKeyUnavailableException(String message) {
+        super(message);
+    }
+
+    public SigningKeyUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
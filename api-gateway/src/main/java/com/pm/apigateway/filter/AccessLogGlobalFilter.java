@@ -0,0 +1,118 @@
+package com.pm.apigateway.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.apigateway.metrics.LatencyHistograms;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every routed request, records it per route and status class in {@link LatencyHistograms}
+ * along with the share spent in {@code JwtValidation}, and writes one JSON line to the
+ * {@code access-log} logger. That logger goes through an async appender (logback-spring.xml), so
+ * the event loop never waits on log I/O.
+ */
+@Component
+public class AccessLogGlobalFilter implements GlobalFilter, Ordered {
+
+    private static final Logger accessLog = LoggerFactory.getLogger("access-log");
+    private static final Logger log = LoggerFactory.getLogger(AccessLogGlobalFilter.class);
+    // nginx's convention for a client that went away before the response
+    private static final int CLIENT_CLOSED_REQUEST = 499;
+
+    private final LatencyHistograms latencyHistograms;
+    private final ObjectMapper objectMapper;
+
+    public AccessLogGlobalFilter(LatencyHistograms latencyHistograms, ObjectMapper objectMapper) {
+        this.latencyHistograms = latencyHistograms;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                    .doOnSuccess(v -> complete(exchange, start, statusOf(exchange)))
+                    .doOnError(e -> complete(exchange, start, statusOf(e)))
+                    .doOnCancel(() -> complete(exchange, start, CLIENT_CLOSED_REQUEST));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private void complete(ServerWebExchange exchange, long start, int status) {
+        long elapsed = System.nanoTime() - start;
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route == null ? "unknown" : route.getId();
+        Long validationNanos = exchange.getAttribute(JwtValidationGatewayFilterFactory.VALIDATION_NANOS_ATTRIBUTE);
+
+        latencyHistograms.record(routeId, status / 100 + "xx", elapsed);
+        if (validationNanos != null) {
+            latencyHistograms.record(routeId, "jwt-validation", validationNanos);
+        }
+
+        if (accessLog.isInfoEnabled()) {
+            accessLog.info(toJson(exchange, routeId, status, elapsed, validationNanos));
+        }
+    }
+
+    private String toJson(ServerWebExchange exchange, String routeId, int status, long elapsed,
+                          Long validationNanos) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("ts", Instant.now().toString());
+        line.put("method", exchange.getRequest().getMethod().name());
+        line.put("path", exchange.getRequest().getPath().value());
+        line.put("route", routeId);
+        line.put("status", status);
+        line.put("duration_ms", millis(elapsed));
+        if (validationNanos != null) {
+            line.put("jwt_validation_ms", millis(validationNanos));
+        }
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (remoteAddress != null && remoteAddress.getAddress() != null) {
+            line.put("client", remoteAddress.getAddress().getHostAddress());
+        }
+        try {
+            return objectMapper.writeValueAsString(line);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not write access log line: {}", e.getMessage());
+            return line.toString();
+        }
+    }
+
+    private static int statusOf(ServerWebExchange exchange) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status == null ? 200 : status.value();
+    }
+
+    /**
+     * Errors reach this filter before the error handler has written the response.
+     */
+    private static int statusOf(Throwable error) {
+        return error instanceof ResponseStatusException statusException
+                ? statusException.getStatusCode().value()
+                : 500;
+    }
+
+    private static double millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos) / 1000.0;
+    }
+}
@@ -0,0 +1,214 @@
+package com.pm.apigateway.filter;
+
+import com.pm.apigateway.resilience.RetryBudget;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Retries idempotent requests on gateway-level failures (5xx from the list, timeouts, connection
+ * errors) with exponential backoff, but only while the route's {@link RetryBudget} allows it. Place
+ * it after {@code CircuitBreaker} so the breaker sees one outcome per client request.
+ */
+@Component
+public class BudgetedRetryGatewayFilterFactory extends
+        AbstractGatewayFilterFactory<BudgetedRetryGatewayFilterFactory.Config> {
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetedRetryGatewayFilterFactory.class);
+
+    private final MeterRegistry meterRegistry;
+
+    public BudgetedRetryGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        RetryBudget budget = new RetryBudget(config.getBudgetRatio(), config.getBudgetReserve());
+        String route = config.getRouteId() == null ? "unknown" : config.getRouteId();
+        Gauge.builder("gateway.retry.budget", budget, RetryBudget::available)
+             .description("Retries the route may still spend")
+             .tag("route", route)
+             .register(meterRegistry);
+
+        return (exchange, chain) -> {
+            HttpMethod method = exchange.getRequest().getMethod();
+            if (!config.getMethods().contains(method.name())) {
+                return chain.filter(exchange);
+            }
+            budget.recordRequest();
+            HttpHeaders initialHeaders = new HttpHeaders();
+            initialHeaders.putAll(exchange.getResponse().getHeaders());
+            return attempt(exchange, chain, config, budget, route, initialHeaders, 0);
+        };
+    }
+
+    private Mono<Void> attempt(ServerWebExchange exchange, GatewayFilterChain chain, Config config,
+                               RetryBudget budget, String route, HttpHeaders initialHeaders, int retry) {
+        return chain.filter(exchange)
+                    .then(Mono.defer(() -> {
+                        HttpStatusCode status = exchange.getResponse().getStatusCode();
+                        if (status != null && config.getStatuses().contains(status.value())) {
+                            return retry(exchange, chain, config, budget, route, initialHeaders, retry, Mono.empty());
+                        }
+                        return Mono.<Void>empty();
+                    }))
+                    .onErrorResume(e -> isRetryable(e, config),
+                                   e -> retry(exchange, chain, config, budget, route, initialHeaders, retry,
+                                                    Mono.error(e)));
+    }
+
+    private Mono<Void> retry(ServerWebExchange exchange, GatewayFilterChain chain, Config config,
+                             RetryBudget budget, String route, HttpHeaders initialHeaders, int retry,
+                             Mono<Void> giveUp) {
+        if (retry >= config.getRetries() || exchange.getResponse().isCommitted()) {
+            return giveUp;
+        }
+        if (!budget.tryWithdraw()) {
+            meterRegistry.counter("gateway.retry.budget_exhausted", "route", route).increment();
+            return giveUp;
+        }
+        meterRegistry.counter("gateway.retry.attempts", "route", route).increment();
+        Duration backoff = config.getFirstBackoff().multipliedBy(1L << retry);
+        if (backoff.compareTo(config.getMaxBackoff()) > 0) {
+            backoff = config.getMaxBackoff();
+        }
+        log.debug("Retrying {} {} on route {} in {} (retry {})", exchange.getRequest().getMethod(),
+                  exchange.getRequest().getURI(), route, backoff, retry + 1);
+        reset(exchange, initialHeaders);
+        return Mono.delay(backoff)
+                   .then(Mono.defer(() -> attempt(exchange, chain, config, budget, route, initialHeaders,
+                                                  retry + 1)));
+    }
+
+    /**
+     * Releases the failed upstream response and lets the routing filter run again. The response
+     * headers and status go back to what they were before the first attempt, so nothing the failed
+     * upstream response set leaks into the retried one.
+     */
+    private static void reset(ServerWebExchange exchange, HttpHeaders initialHeaders) {
+        Connection connection = exchange.getAttribute(ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR);
+        if (connection != null) {
+            connection.dispose();
+            exchange.getAttributes().remove(ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR);
+        }
+        ServerWebExchangeUtils.reset(exchange);
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        headers.clear();
+        headers.putAll(initialHeaders);
+        exchange.getResponse().setStatusCode(null);
+    }
+
+    /**
+     * Connection failures, and the 504 that the routing filter raises for a response timeout.
+     */
+    private static boolean isRetryable(Throwable error, Config config) {
+        if (error instanceof ResponseStatusException statusException
+                && config.getStatuses().contains(statusException.getStatusCode().value())) {
+            return true;
+        }
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private int retries = 2;
+        private List<String> methods = List.of("GET", "HEAD");
+        private List<Integer> statuses = List.of(502, 503, 504);
+        private Duration firstBackoff = Duration.ofMillis(50);
+        private Duration maxBackoff = Duration.ofMillis(500);
+        private double budgetRatio = 0.2;
+        private int budgetReserve = 10;
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        public int getRetries() {
+            return retries;
+        }
+
+        public void setRetries(int retries) {
+            this.retries = retries;
+        }
+
+        public List<String> getMethods() {
+            return methods;
+        }
+
+        public void setMethods(List<String> methods) {
+            this.methods = methods;
+        }
+
+        public List<Integer> getStatuses() {
+            return statuses;
+        }
+
+        public void setStatuses(List<Integer> statuses) {
+            this.statuses = statuses;
+        }
+
+        public Duration getFirstBackoff() {
+            return firstBackoff;
+        }
+
+        public void setFirstBackoff(Duration firstBackoff) {
+            this.firstBackoff = firstBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public double getBudgetRatio() {
+            return budgetRatio;
+        }
+
+        public void setBudgetRatio(double budgetRatio) {
+            this.budgetRatio = budgetRatio;
+        }
+
+        public int getBudgetReserve() {
+            return budgetReserve;
+        }
+
+        public void setBudgetReserve(int budgetReserve) {
+            this.budgetReserve = budgetReserve;
+        }
+    }
+}
@@ -1,5 +1,11 @@
 package com.pm.apigateway.filter;
 
+import com.pm.apigateway.exception.AuthServiceUnavailableException;
+import com.pm.apigateway.exception.SigningKeyUnavailableException;
+import com.pm.apigateway.security.JwtVerifier;
+import io.jsonwebtoken.JwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
@@ -7,16 +13,43 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
 
 @Component
 public class JwtValidationGatewayFilterFactory extends
         AbstractGatewayFilterFactory<Object> {
 
+    /**
+     * Exchange attribute holding the verified {@link io.jsonwebtoken.Claims} in local mode.
+     */
+    public static final String CLAIMS_ATTRIBUTE = "jwtClaims";
+
+    /**
+     * Exchange attribute holding the nanoseconds spent validating the token, local or remote.
+     */
+    public static final String VALIDATION_NANOS_ATTRIBUTE = "jwtValidationNanos";
+
+    private static final Logger log = LoggerFactory.getLogger(JwtValidationGatewayFilterFactory.class);
+
     private final WebClient webClient;
+    private final JwtVerifier jwtVerifier;
+    private final boolean verifyLocally;
+    private final Duration timeout;
 
     public JwtValidationGatewayFilterFactory(WebClient.Builder webClientBuilder,
-                                             @Value("${auth.service.url}") String authServiceUrl) {
+                                             @Value("${auth.service.url}") String authServiceUrl,
+                                             JwtVerifier jwtVerifier,
+                                             @Value("${auth.jwt.verification:local}") String verification,
+                                             @Value("${auth.service.timeout:PT2S}") Duration timeout) {
         this.webClient = webClientBuilder.baseUrl(authServiceUrl).build();
+        this.jwtVerifier = jwtVerifier;
+        this.verifyLocally = "local".equalsIgnoreCase(verification);
+        this.timeout = timeout;
     }
 
     @Override
@@ -26,16 +59,55 @@ public class JwtValidationGatewayFilterFactory extends
                     exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
 
             if (token == null || !token.startsWith("Bearer ")) {
-                exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
-                return exchange.getResponse().setComplete();
+                return unauthorized(exchange);
             }
 
-            return webClient.get()
-                            .uri("/validate")
-                            .header(HttpHeaders.AUTHORIZATION, token)
-                            .retrieve()
-                            .toBodilessEntity()
-                            .then(chain.filter(exchange));
+            long start = System.nanoTime();
+            Mono<Void> validation = verifyLocally ? verifyWithJwks(exchange, token) : validateRemotely(token);
+            // Before the terminal signal is passed on, so the rest of the chain is not counted
+            return validation.doOnTerminate(() -> exchange.getAttributes().put(
+                                     VALIDATION_NANOS_ATTRIBUTE, System.nanoTime() - start))
+                             .then(Mono.defer(() -> chain.filter(exchange)))
+                             .onErrorResume(JwtException.class, e -> unauthorized(exchange))
+                             .onErrorResume(AuthServiceUnavailableException.class,
+                                            e -> authUnavailable(exchange));
         };
     }
-}
\ No newline at end of file
+
+    private Mono<Void> verifyWithJwks(ServerWebExchange exchange, String token) {
+        return jwtVerifier.verify(token.substring(7))
+                          .doOnNext(claims -> exchange.getAttributes().put(CLAIMS_ATTRIBUTE, claims))
+                          .then()
+                          .onErrorResume(SigningKeyUnavailableException.class, e -> {
+                              // auth-service keys are unreachable or rotated under us
+                              log.debug("Falling back to remote token validation: {}", e.getMessage());
+                              return validateRemotely(token);
+                          });
+    }
+
+    private Mono<Void> validateRemotely(String token) {
+        return webClient.get()
+                        .uri("/validate")
+                        .header(HttpHeaders.AUTHORIZATION, token)
+                        .retrieve()
+                        .toBodilessEntity()
+                        .timeout(timeout)
+                        .onErrorMap(e -> e instanceof TimeoutException || e instanceof WebClientRequestException,
+                                    e -> new AuthServiceUnavailableException("Token validation failed", e))
+                        .then();
+    }
+
+    /**
+     * auth-service is down or hung; the token may well be valid, so do not answer 401.
+     */
+    private static Mono<Void> authUnavailable(ServerWebExchange exchange) {
+        log.warn("auth-service unavailable for token validation");
+        exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        return exchange.getResponse().setComplete();
+    }
+
+    private static Mono<Void> unauthorized(ServerWebExchange exchange) {
+        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+        return exchange.getResponse().setComplete();
+    }
+}
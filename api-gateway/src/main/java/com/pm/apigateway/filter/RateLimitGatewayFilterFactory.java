@@ -0,0 +1,121 @@
+package com.pm.apigateway.filter;
+
+import com.pm.apigateway.ratelimit.TokenBucketLimiter;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client token-bucket rate limiting held in gateway memory, so no Redis is needed. Clients
+ * are identified by the token subject verified by {@code JwtValidation}, or by remote address on
+ * routes without it. Rejected requests get 429 with {@code Retry-After}.
+ */
+@Component
+public class RateLimitGatewayFilterFactory extends
+        AbstractGatewayFilterFactory<RateLimitGatewayFilterFactory.Config> {
+
+    private static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final MeterRegistry meterRegistry;
+    // The current limiter per route; apply() runs again whenever routes are refreshed
+    private final Map<String, TokenBucketLimiter> limiters = new ConcurrentHashMap<>();
+
+    public RateLimitGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(config.getCapacity(),
+                                                            config.getTokensPerSecond(),
+                                                            config.getMaxClients());
+        String route = config.getRouteId() == null ? "unknown" : config.getRouteId();
+        if (limiters.put(route, limiter) == null) {
+            Gauge.builder("gateway.ratelimit.buckets", limiters, current -> current.get(route).size())
+                 .description("Client buckets currently held by the route's rate limiter")
+                 .tag("route", route)
+                 .register(meterRegistry);
+        }
+
+        return (exchange, chain) -> {
+            TokenBucketLimiter.Decision decision = limiter.tryAcquire(clientKey(exchange));
+            HttpHeaders headers = exchange.getResponse().getHeaders();
+            headers.set(REMAINING_HEADER, String.valueOf(decision.getRemainingTokens()));
+            if (decision.isAllowed()) {
+                return chain.filter(exchange);
+            }
+
+            meterRegistry.counter("gateway.ratelimit.rejected", "route", route).increment();
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(
+                    decision.getRetryAfterNanos() + TimeUnit.SECONDS.toNanos(1) - 1));
+            headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            return exchange.getResponse().setComplete();
+        };
+    }
+
+    private static String clientKey(ServerWebExchange exchange) {
+        Object claims = exchange.getAttribute(JwtValidationGatewayFilterFactory.CLAIMS_ATTRIBUTE);
+        if (claims instanceof Claims verified && verified.getSubject() != null) {
+            return "sub:" + verified.getSubject();
+        }
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        return remoteAddress == null || remoteAddress.getAddress() == null
+                ? "ip:unknown"
+                : "ip:" + remoteAddress.getAddress().getHostAddress();
+    }
+
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private long capacity = 20;
+        private double tokensPerSecond = 10;
+        private int maxClients = 100_000;
+
+        public long getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(long capacity) {
+            this.capacity = capacity;
+        }
+
+        public double getTokensPerSecond() {
+            return tokensPerSecond;
+        }
+
+        public void setTokensPerSecond(double tokensPerSecond) {
+            this.tokensPerSecond = tokensPerSecond;
+        }
+
+        public int getMaxClients() {
+            return maxClients;
+        }
+
+        public void setMaxClients(int maxClients) {
+            this.maxClients = maxClients;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+    }
+}
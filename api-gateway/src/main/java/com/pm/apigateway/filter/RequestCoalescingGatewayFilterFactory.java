@@ -0,0 +1,262 @@
+package com.pm.apigateway.filter;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.Connection;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR;
+
+/**
+ * Collapses concurrent identical GETs into one upstream call: the first request goes through,
+ * later ones wait for its response and replay it. Successful responses can additionally be served
+ * from a micro-cache for {@code ttl}. Requests are only shared within one authorization scope
+ * (the token's role, or the raw token when claims are not available), so place this filter after
+ * {@code JwtValidation}.
+ *
+ * <p>Only bodies up to {@code maxBodyBytes} are held in memory. A response that announces a larger
+ * {@code Content-Length} is left to the routing filter, and one that grows past the limit while
+ * being read is streamed on from there; neither is shared nor cached, and waiting requests go
+ * upstream themselves.
+ */
+@Component
+public class RequestCoalescingGatewayFilterFactory extends
+        AbstractGatewayFilterFactory<RequestCoalescingGatewayFilterFactory.Config> {
+
+    public RequestCoalescingGatewayFilterFactory() {
+        super(Config.class);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        Map<String, Sinks.One<Optional<SharedResponse>>> inFlight = new ConcurrentHashMap<>();
+        Map<String, SharedResponse> cache = new ConcurrentHashMap<>();
+
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+            String key = key(exchange);
+
+            SharedResponse cached = cache.get(key);
+            if (cached != null) {
+                if (!cached.isExpired()) {
+                    return cached.writeTo(exchange.getResponse());
+                }
+                cache.remove(key, cached);
+            }
+
+            Sinks.One<Optional<SharedResponse>> sink = Sinks.one();
+            Sinks.One<Optional<SharedResponse>> leader = inFlight.putIfAbsent(key, sink);
+            if (leader != null) {
+                // Another request is already fetching this; replay its response, or go upstream
+                // ourselves if it produced nothing shareable
+                return leader.asMono()
+                             .timeout(config.getMaxWait(), Mono.just(Optional.empty()))
+                             .flatMap(shared -> shared.isPresent()
+                                     ? shared.get().writeTo(exchange.getResponse())
+                                     : chain.filter(exchange));
+            }
+            return lead(exchange, chain, config, key, sink, inFlight, cache);
+        };
+    }
+
+    /**
+     * Takes over the upstream body from the routing filter: with the connection attribute removed,
+     * {@code NettyWriteResponseFilter} leaves the response to us, so it can be captured whole,
+     * shared and written once, or streamed if it turns out too large.
+     */
+    private static Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, Config config,
+                                   String key, Sinks.One<Optional<SharedResponse>> sink,
+                                   Map<String, Sinks.One<Optional<SharedResponse>>> inFlight,
+                                   Map<String, SharedResponse> cache) {
+        AtomicBoolean published = new AtomicBoolean();
+        Consumer<Optional<SharedResponse>> publish = shared -> {
+            inFlight.remove(key, sink);
+            if (published.compareAndSet(false, true)) {
+                sink.tryEmitValue(shared);
+            }
+        };
+
+        if (cache.size() >= config.getMaxEntries()) {
+            cache.values().removeIf(SharedResponse::isExpired);
+        }
+        return chain.filter(exchange)
+                    .then(Mono.defer(() -> {
+                        ServerHttpResponse response = exchange.getResponse();
+                        Connection connection = exchange.getAttribute(CLIENT_RESPONSE_CONN_ATTR);
+                        if (connection == null || response.isCommitted() || isStreaming(response)
+                                || response.getHeaders().getContentLength() > config.getMaxBodyBytes()) {
+                            return Mono.<Void>empty();
+                        }
+                        exchange.getAttributes().remove(CLIENT_RESPONSE_CONN_ATTR);
+                        BodyBuffer buffer = new BodyBuffer(config.getMaxBodyBytes());
+                        return connection.inbound()
+                                         .receive()
+                                         .asByteArray()
+                                         .concatMapIterable(buffer::offer)
+                                         .doOnCancel(connection::dispose)
+                                         .doOnError(e -> connection.dispose())
+                                         .switchOnFirst((first, overflow) -> {
+                                             if (first.hasValue()) {
+                                                 publish.accept(Optional.empty());
+                                                 return response.writeWith(
+                                                         overflow.map(bytes -> response.bufferFactory().wrap(bytes)));
+                                             }
+                                             return overflow.then(Mono.defer(() -> {
+                                                 byte[] bytes = buffer.bytes();
+                                                 SharedResponse shared = new SharedResponse(
+                                                         response.getStatusCode(), response.getHeaders(), bytes,
+                                                         System.nanoTime() + config.getTtl().toNanos());
+                                                 if (isCacheable(shared, config) && cache.size() < config.getMaxEntries()) {
+                                                     cache.put(key, shared);
+                                                 }
+                                                 publish.accept(Optional.of(shared));
+                                                 return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+                                             }));
+                                         })
+                                         .then();
+                    }))
+                    .doFinally(signal -> publish.accept(Optional.empty()));
+    }
+
+    private static boolean isCacheable(SharedResponse shared, Config config) {
+        return shared.status != null && shared.status.is2xxSuccessful() && !config.getTtl().isZero();
+    }
+
+    private static boolean isStreaming(ServerHttpResponse response) {
+        MediaType contentType = response.getHeaders().getContentType();
+        return contentType != null && (MediaType.TEXT_EVENT_STREAM.isCompatibleWith(contentType)
+                || MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType));
+    }
+
+    private static String key(ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        Object claims = exchange.getAttribute(JwtValidationGatewayFilterFactory.CLAIMS_ATTRIBUTE);
+        String scope = claims instanceof Claims verified
+                ? "role:" + verified.get("role", String.class)
+                : "token:" + request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        return scope + '|' + request.getHeaders().getFirst(HttpHeaders.ACCEPT)
+                + '|' + request.getURI().getRawPath() + '?' + request.getURI().getRawQuery();
+    }
+
+    /**
+     * Collects body chunks up to the limit. Emits nothing while they fit; once they do not, emits
+     * what it holds and passes every later chunk straight through.
+     */
+    private static final class BodyBuffer {
+        private final int limit;
+        private ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private BodyBuffer(int limit) {
+            this.limit = limit;
+        }
+
+        private List<byte[]> offer(byte[] chunk) {
+            if (bytes == null) {
+                return List.of(chunk);
+            }
+            if (bytes.size() + chunk.length <= limit) {
+                bytes.writeBytes(chunk);
+                return List.of();
+            }
+            byte[] held = bytes.toByteArray();
+            bytes = null;
+            return List.of(held, chunk);
+        }
+
+        private byte[] bytes() {
+            return bytes.toByteArray();
+        }
+    }
+
+    private static final class SharedResponse {
+        private final HttpStatusCode status;
+        private final HttpHeaders headers;
+        private final byte[] body;
+        private final long expiresAtNanos;
+
+        private SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, long expiresAtNanos) {
+            this.status = status;
+            this.headers = new HttpHeaders();
+            this.headers.putAll(headers);
+            this.headers.remove(HttpHeaders.TRANSFER_ENCODING);
+            this.headers.setContentLength(body.length);
+            this.body = body;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos > 0;
+        }
+
+        private Mono<Void> writeTo(ServerHttpResponse response) {
+            response.setStatusCode(status);
+            response.getHeaders().putAll(headers);
+            return response.writeWith(Flux.just(response.bufferFactory().wrap(body)));
+        }
+    }
+
+    public static class Config {
+        // 0 only coalesces in-flight requests; a positive TTL also serves recent responses
+        private Duration ttl = Duration.ZERO;
+        private Duration maxWait = Duration.ofSeconds(10);
+        private int maxEntries = 1024;
+        // Larger responses are streamed through, neither shared nor cached
+        private int maxBodyBytes = 1024 * 1024;
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public int getMaxBodyBytes() {
+            return maxBodyBytes;
+        }
+
+        public void setMaxBodyBytes(int maxBodyBytes) {
+            this.maxBodyBytes = maxBodyBytes;
+        }
+    }
+}
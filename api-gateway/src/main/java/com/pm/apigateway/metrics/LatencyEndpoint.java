@@ -0,0 +1,34 @@
+package com.pm.apigateway.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/latency} returns percentiles per route and series since start or the last
+ * {@code DELETE}, which starts a fresh measurement window (e.g. before a load test). Served on the
+ * management port only ({@code management.server.port}).
+ */
+@Component
+@Endpoint(id = "latency")
+public class LatencyEndpoint {
+
+    private final LatencyHistograms latencyHistograms;
+
+    public LatencyEndpoint(LatencyHistograms latencyHistograms) {
+        this.latencyHistograms = latencyHistograms;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, LatencySummary>> latency() {
+        return latencyHistograms.snapshot();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        latencyHistograms.reset();
+    }
+}
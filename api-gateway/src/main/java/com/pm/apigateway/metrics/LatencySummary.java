@@ -0,0 +1,62 @@
+package com.pm.apigateway.metrics;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Percentiles of one latency series, in milliseconds.
+ */
+public class LatencySummary {
+
+    private final long count;
+    private final double p50;
+    private final double p90;
+    private final double p99;
+    private final double p999;
+    private final double max;
+
+    private LatencySummary(long count, double p50, double p90, double p99, double p999, double max) {
+        this.count = count;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+
+    static LatencySummary of(Histogram micros) {
+        return new LatencySummary(micros.getTotalCount(),
+                                  millis(micros.getValueAtPercentile(50)),
+                                  millis(micros.getValueAtPercentile(90)),
+                                  millis(micros.getValueAtPercentile(99)),
+                                  millis(micros.getValueAtPercentile(99.9)),
+                                  millis(micros.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getP50() {
+        return p50;
+    }
+
+    public double getP90() {
+        return p90;
+    }
+
+    public double getP99() {
+        return p99;
+    }
+
+    public double getP999() {
+        return p999;
+    }
+
+    public double getMax() {
+        return max;
+    }
+}
@@ -0,0 +1,129 @@
+package com.pm.apigateway.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets per client key, each one a single {@link AtomicLong} updated by CAS. The long is
+ * the bucket's theoretical arrival time (GCRA): the instant at which it would be full again. A
+ * request is allowed if taking one token does not push that instant more than {@code capacity}
+ * tokens' worth into the future.
+ *
+ * <p>A bucket whose arrival time has passed is full, which is the same as not existing, so such
+ * buckets are swept out, at most once per second, when a new key arrives. While the map holds
+ * {@code maxBuckets} buckets new keys are rejected until a sweep frees room; known clients keep
+ * their own buckets, and memory stays bounded even under a key-spraying attack.
+ */
+public class TokenBucketLimiter {
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long capacity;
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final int maxBuckets;
+    private final LongSupplier nanoTime;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweepAt;
+
+    public TokenBucketLimiter(long capacity, double tokensPerSecond, int maxBuckets) {
+        this(capacity, tokensPerSecond, maxBuckets, System::nanoTime);
+    }
+
+    TokenBucketLimiter(long capacity, double tokensPerSecond, int maxBuckets, LongSupplier nanoTime) {
+        if (capacity < 1 || tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity and rate must be positive");
+        }
+        this.capacity = capacity;
+        this.nanosPerToken = Math.max(1, (long) (1_000_000_000L / tokensPerSecond));
+        this.burstNanos = nanosPerToken * capacity;
+        this.maxBuckets = maxBuckets;
+        this.nanoTime = nanoTime;
+        this.nextSweepAt = new AtomicLong(nanoTime.getAsLong() + SWEEP_INTERVAL_NANOS);
+    }
+
+    public Decision tryAcquire(String key) {
+        long now = nanoTime.getAsLong();
+        AtomicLong bucket = bucketFor(key, now);
+        if (bucket == null) {
+            return Decision.rejected(Math.max(1, nextSweepAt.get() - now));
+        }
+        while (true) {
+            long arrival = bucket.get();
+            long start = arrival - now > 0 ? arrival : now;
+            long next = start + nanosPerToken;
+            long debt = next - now;
+            if (debt > burstNanos) {
+                return Decision.rejected(debt - burstNanos);
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return Decision.allowed((burstNanos - debt) / nanosPerToken);
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the key's bucket, or {@code null} if it has none and there is no room for one
+     */
+    private AtomicLong bucketFor(String key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        sweepIfDue(now);
+        if (buckets.size() >= maxBuckets) {
+            return null;
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    private void sweepIfDue(long now) {
+        long due = nextSweepAt.get();
+        if (now - due >= 0 && nextSweepAt.compareAndSet(due, now + SWEEP_INTERVAL_NANOS)) {
+            buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        }
+    }
+
+    public static final class Decision {
+        private final boolean allowed;
+        private final long remainingTokens;
+        private final long retryAfterNanos;
+
+        private Decision(boolean allowed, long remainingTokens, long retryAfterNanos) {
+            this.allowed = allowed;
+            this.remainingTokens = remainingTokens;
+            this.retryAfterNanos = retryAfterNanos;
+        }
+
+        static Decision allowed(long remainingTokens) {
+            return new Decision(true, remainingTokens, 0);
+        }
+
+        static Decision rejected(long retryAfterNanos) {
+            return new Decision(false, 0, retryAfterNanos);
+        }
+
+        public boolean isAllowed() {
+            return allowed;
+        }
+
+        public long getRemainingTokens() {
+            return remainingTokens;
+        }
+
+        public long getRetryAfterNanos() {
+            return retryAfterNanos;
+        }
+    }
+}
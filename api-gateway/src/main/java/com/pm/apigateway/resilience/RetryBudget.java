@@ -0,0 +1,47 @@
+package com.pm.apigateway.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps retries to a fraction of recent traffic so that retries cannot multiply load on an
+ * upstream that is already failing. Every request deposits {@code ratio} of a retry, every retry
+ * withdraws a whole one, and the balance never exceeds {@code reserve} retries, which is also
+ * what is available on a quiet route.
+ */
+public class RetryBudget {
+
+    private static final long SCALE = 1_000;
+
+    private final long deposit;
+    private final long maxBalance;
+    private final AtomicLong balance;
+
+    public RetryBudget(double ratio, int reserve) {
+        if (ratio < 0 || reserve < 0) {
+            throw new IllegalArgumentException("ratio and reserve must not be negative");
+        }
+        this.deposit = Math.round(ratio * SCALE);
+        this.maxBalance = reserve * SCALE;
+        this.balance = new AtomicLong(maxBalance);
+    }
+
+    public void recordRequest() {
+        balance.accumulateAndGet(deposit, (current, added) -> Math.min(maxBalance, current + added));
+    }
+
+    public boolean tryWithdraw() {
+        while (true) {
+            long current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - SCALE)) {
+                return true;
+            }
+        }
+    }
+
+    public double available() {
+        return (double) balance.get() / SCALE;
+    }
+}
@@ -0,0 +1,136 @@
+package com.pm.apigateway.security;
+
+import com.pm.apigateway.exception.SigningKeyUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Caches auth-service's JWKS. Keys are refreshed after {@code auth.jwks.refresh-interval} in the
+ * background, or when a token carries a kid we have not seen yet (a rotation). Either way there
+ * is at most one attempt, successful or not, per {@code auth.jwks.min-refresh-interval}, so an
+ * unreachable auth-service is not called on every request. Concurrent refreshes share one request.
+ */
+@Component
+public class JwksKeyProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(JwksKeyProvider.class);
+    private static final ParameterizedTypeReference<Map<String, List<Map<String, String>>>> JWK_SET =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final WebClient webClient;
+    private final long refreshIntervalNanos;
+    private final long minRefreshIntervalNanos;
+    private final Duration timeout;
+    private final AtomicReference<Mono<Map<String, PublicKey>>> inFlight = new AtomicReference<>();
+
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private volatile long fetchedAtNanos;
+    private volatile long attemptedAtNanos;
+
+    public JwksKeyProvider(WebClient.Builder webClientBuilder,
+                           @Value("${auth.service.url}") String authServiceUrl,
+                           @Value("${auth.jwks.refresh-interval:PT5M}") Duration refreshInterval,
+                           @Value("${auth.jwks.min-refresh-interval:PT10S}") Duration minRefreshInterval,
+                           @Value("${auth.service.timeout:PT2S}") Duration timeout) {
+        this.webClient = webClientBuilder.baseUrl(authServiceUrl).build();
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+        this.minRefreshIntervalNanos = minRefreshInterval.toNanos();
+        this.timeout = timeout;
+        this.attemptedAtNanos = System.nanoTime() - minRefreshIntervalNanos;
+    }
+
+    /**
+     * Emits the key for {@code kid}, or {@link SigningKeyUnavailableException} if auth-service
+     * cannot be reached or does not publish it.
+     */
+    public Mono<PublicKey> getKey(String kid) {
+        PublicKey key = keys.get(kid);
+        long now = System.nanoTime();
+        if (key != null) {
+            if (fetchedAtNanos != 0 && now - fetchedAtNanos > refreshIntervalNanos
+                    && now - attemptedAtNanos >= minRefreshIntervalNanos) {
+                refresh().subscribe(refreshed -> { },
+                                    e -> log.warn("Background JWKS refresh failed: {}", e.getMessage()));
+            }
+            return Mono.just(key);
+        }
+        if (now - attemptedAtNanos < minRefreshIntervalNanos) {
+            return Mono.error(new SigningKeyUnavailableException("Unknown key id " + kid));
+        }
+        return refresh().flatMap(refreshed -> refreshed.containsKey(kid)
+                ? Mono.just(refreshed.get(kid))
+                : Mono.error(new SigningKeyUnavailableException("Unknown key id " + kid)));
+    }
+
+    /**
+     * @return the cached key for {@code kid}, or {@code null}; never fetches
+     */
+    PublicKey cachedKey(String kid) {
+        return kid == null ? null : keys.get(kid);
+    }
+
+    private Mono<Map<String, PublicKey>> refresh() {
+        Mono<Map<String, PublicKey>> current = inFlight.get();
+        if (current != null) {
+            return current;
+        }
+        Mono<Map<String, PublicKey>> fetch = webClient.get()
+                .uri("/.well-known/jwks.json")
+                .retrieve()
+                .bodyToMono(JWK_SET)
+                .timeout(timeout)
+                .map(JwksKeyProvider::toPublicKeys)
+                .doOnSubscribe(subscription -> attemptedAtNanos = System.nanoTime())
+                .doOnNext(fetched -> {
+                    keys = fetched;
+                    fetchedAtNanos = System.nanoTime();
+                    log.debug("Fetched {} signing keys from auth-service", fetched.size());
+                })
+                // Back off from when the attempt failed, not when it started
+                .doOnError(e -> attemptedAtNanos = System.nanoTime())
+                .onErrorMap(e -> !(e instanceof SigningKeyUnavailableException),
+                            e -> new SigningKeyUnavailableException("Could not fetch JWKS", e))
+                .doFinally(signal -> inFlight.set(null))
+                .cache();
+        return inFlight.compareAndSet(null, fetch) ? fetch : refresh();
+    }
+
+    private static Map<String, PublicKey> toPublicKeys(Map<String, List<Map<String, String>>> jwkSet) {
+        Map<String, PublicKey> publicKeys = new HashMap<>();
+        for (Map<String, String> jwk : jwkSet.getOrDefault("keys", List.of())) {
+            if (!"RSA".equals(jwk.get("kty")) || jwk.get("kid") == null
+                    || jwk.get("n") == null || jwk.get("e") == null) {
+                continue;
+            }
+            try {
+                RSAPublicKeySpec spec = new RSAPublicKeySpec(unsigned(jwk.get("n")), unsigned(jwk.get("e")));
+                publicKeys.put(jwk.get("kid"), KeyFactory.getInstance("RSA").generatePublic(spec));
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                log.warn("Ignoring unreadable JWK {}", jwk.get("kid"));
+            }
+        }
+        return Map.copyOf(publicKeys);
+    }
+
+    private static BigInteger unsigned(String base64Url) {
+        return new BigInteger(1, Base64.getUrlDecoder().decode(base64Url));
+    }
+}
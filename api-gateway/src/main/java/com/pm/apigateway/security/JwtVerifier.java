@@ -0,0 +1,84 @@
+package com.pm.apigateway.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.MalformedJwtException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.security.Key;
+import java.util.Base64;
+
+/**
+ * Verifies RS256 tokens issued by auth-service against its published keys and the streamed
+ * {@link RevocationList}, without a network call once the key set is cached.
+ */
+@Component
+public class JwtVerifier {
+
+    private final JwksKeyProvider keyProvider;
+    private final ObjectMapper objectMapper;
+    private final RevocationList revocationList;
+    // Built once; takes the key for the token's kid from the provider's cache
+    private final JwtParser parser;
+
+    public JwtVerifier(JwksKeyProvider keyProvider, ObjectMapper objectMapper,
+                       RevocationList revocationList) {
+        this.keyProvider = keyProvider;
+        this.objectMapper = objectMapper;
+        this.revocationList = revocationList;
+        this.parser = Jwts.parser()
+                          .keyLocator(new LocatorAdapter<Key>() {
+                              @Override
+                              protected Key locate(JwsHeader header) {
+                                  return keyProvider.cachedKey(header.getKeyId());
+                              }
+                          })
+                          .build();
+    }
+
+    /**
+     * Emits the token's claims, {@link JwtException} if the token is invalid, or
+     * {@link com.pm.apigateway.exception.SigningKeyUnavailableException} if it cannot be checked
+     * locally.
+     */
+    public Mono<Claims> verify(String token) {
+        String kid;
+        try {
+            kid = keyId(token);
+        } catch (JwtException e) {
+            return Mono.error(e);
+        }
+        // getKey loads the key into the cache the parser's locator reads
+        return keyProvider.getKey(kid)
+                          .map(key -> parser.parseSignedClaims(token).getPayload())
+                          .flatMap(claims -> revocationList.isRevoked(claims.getId())
+                                  ? Mono.error(new JwtException("Token has been revoked"))
+                                  : Mono.just(claims));
+    }
+
+    private String keyId(String token) {
+        int end = token.indexOf('.');
+        if (end <= 0) {
+            throw new MalformedJwtException("Token has no header");
+        }
+        try {
+            JsonNode header = objectMapper.readTree(Base64.getUrlDecoder()
+                                                          .decode(token.substring(0, end)));
+            JsonNode kid = header.get("kid");
+            if (kid == null || !kid.isTextual()) {
+                throw new MalformedJwtException("Token header has no kid");
+            }
+            return kid.asText();
+        } catch (IOException | IllegalArgumentException e) {
+            throw new MalformedJwtException("Unreadable token header", e);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.pm.apigateway.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Revoked token ids as streamed from auth-service. A Bloom filter answers the common case (not
+ * revoked) in a few nanoseconds without touching the map; only its rare positives are confirmed
+ * against the exact set of ids. Entries leave the set once the token would have expired, and the
+ * filter, which cannot forget, is rebuilt from the set when that happens or when it fills up.
+ */
+@Component
+public class RevocationList {
+
+    private final double falsePositiveRate;
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+
+    public RevocationList(@Value("${auth.revocation.expected-tokens:100000}") int expectedTokens,
+                          @Value("${auth.revocation.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedTokens, falsePositiveRate);
+    }
+
+    public boolean isRevoked(String jti) {
+        return jti != null && filter.mightContain(jti) && revoked.containsKey(jti);
+    }
+
+    public synchronized void add(String jti, long expiresAtMillis) {
+        if (revoked.put(jti, expiresAtMillis) != null) {
+            return;
+        }
+        if (revoked.size() > filter.capacity) {
+            rebuild(revoked.size() * 2);
+        } else {
+            filter.put(jti);
+        }
+    }
+
+    public synchronized void purgeExpired(long nowMillis) {
+        if (revoked.values().removeIf(expiresAt -> expiresAt <= nowMillis)) {
+            rebuild(Math.max(filter.capacity / 2, revoked.size() * 2));
+        }
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    private void rebuild(int capacity) {
+        BloomFilter rebuilt = new BloomFilter(Math.max(capacity, 1024), falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+    }
+
+    private static final class BloomFilter {
+        private final int capacity;
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+
+        private BloomFilter(int capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bits = new AtomicLongArray((int) ((optimalBits + 63) / 64));
+            this.bitCount = bits.length() * 64L;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+        }
+
+        private void put(String jti) {
+            long hash = hash64(jti);
+            long step = fmix64(hash) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(hash + i * step, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = bits.get(word);
+                } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        private boolean mightContain(String jti) {
+            long hash = hash64(jti);
+            long step = fmix64(hash) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(hash + i * step, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * FNV-1a over the characters, finished with MurmurHash3's mixer for better bit spread.
+         */
+        private static long hash64(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+            }
+            return fmix64(hash);
+        }
+
+        private static long fmix64(long k) {
+            k ^= k >>> 33;
+            k *= 0xff51afd7ed558ccdL;
+            k ^= k >>> 33;
+            k *= 0xc4ceb9fe1a85ec53L;
+            k ^= k >>> 33;
+            return k;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.pm.apigateway.security;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Keeps {@link RevocationList} in sync with auth-service's {@code /revocations} event stream.
+ * The stream starts after the last applied revocation, so a reconnect (auth-service restart,
+ * stream timeout) only transfers what was missed. Malformed events are logged and skipped rather
+ * than ending the stream.
+ */
+@Component
+public class RevocationStreamClient {
+
+    private static final Logger log = LoggerFactory.getLogger(RevocationStreamClient.class);
+    private static final ParameterizedTypeReference<ServerSentEvent<Map<String, Object>>> REVOCATION =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final WebClient webClient;
+    private final RevocationList revocationList;
+    private final boolean enabled;
+    private final Duration purgeInterval;
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    private volatile long cursor;
+
+    public RevocationStreamClient(WebClient.Builder webClientBuilder,
+                                  @Value("${auth.service.url}") String authServiceUrl,
+                                  RevocationList revocationList,
+                                  @Value("${auth.revocation.enabled:true}") boolean enabled,
+                                  @Value("${auth.revocation.purge-interval:PT5M}") Duration purgeInterval) {
+        this.webClient = webClientBuilder.baseUrl(authServiceUrl).build();
+        this.revocationList = revocationList;
+        this.enabled = enabled;
+        this.purgeInterval = purgeInterval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        subscriptions.add(Flux.defer(this::stream)
+                              .doOnNext(this::apply)
+                              .repeat()
+                              .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                                              .maxBackoff(Duration.ofSeconds(30))
+                                              .doBeforeRetry(signal -> log.warn(
+                                                      "Revocation stream from auth-service failed, reconnecting: {}",
+                                                      signal.failure().getMessage())))
+                              .subscribe());
+        subscriptions.add(Flux.interval(purgeInterval)
+                              .subscribe(tick -> revocationList.purgeExpired(System.currentTimeMillis())));
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscriptions.dispose();
+    }
+
+    private Flux<ServerSentEvent<Map<String, Object>>> stream() {
+        return webClient.get()
+                        .uri(uri -> uri.path("/revocations").queryParam("since", cursor).build())
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .retrieve()
+                        .bodyToFlux(REVOCATION);
+    }
+
+    private void apply(ServerSentEvent<Map<String, Object>> event) {
+        Map<String, Object> revocation = event.data();
+        if (revocation == null) {
+            return;
+        }
+        if (!(revocation.get("jti") instanceof String jti)
+                || !(revocation.get("expiresAt") instanceof Number expiresAt)
+                || !(revocation.get("id") instanceof Number id)) {
+            log.warn("Skipping malformed revocation event {}: {}", event.id(), revocation);
+            return;
+        }
+        if (expiresAt.longValue() > System.currentTimeMillis()) {
+            revocationList.add(jti, expiresAt.longValue());
+        }
+        cursor = Math.max(cursor, id.longValue());
+        log.debug("Applied revocation {} of token {}", id, jti);
+    }
+}
@@ -0,0 +1,51 @@
+package com.pm.apigateway.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BudgetedRetryGatewayFilterFactoryTest {
+
+    @Test
+    void shouldRetryWithHeadersAsTheyWereBeforeTheFailedAttempt() {
+        // Given
+        BudgetedRetryGatewayFilterFactory.Config config = new BudgetedRetryGatewayFilterFactory.Config();
+        config.setFirstBackoff(Duration.ofMillis(1));
+        GatewayFilter filter = new BudgetedRetryGatewayFilterFactory(new SimpleMeterRegistry()).apply(config);
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/patients"));
+        exchange.getResponse().getHeaders().set("X-RateLimit-Remaining", "7");
+        AtomicInteger attempts = new AtomicInteger();
+        // Mimics NettyRoutingFilter copying the upstream response headers
+        GatewayFilterChain upstream = e -> Mono.fromRunnable(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                e.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                e.getResponse().getHeaders().add("Retry-After", "30");
+                e.getResponse().getHeaders().add("X-Upstream", "failed");
+            } else {
+                e.getResponse().setStatusCode(HttpStatus.OK);
+                e.getResponse().getHeaders().add("X-Upstream", "ok");
+            }
+        });
+
+        // When
+        filter.filter(exchange, upstream).block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(2, attempts.get());
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertEquals(List.of("ok"), exchange.getResponse().getHeaders().get("X-Upstream"));
+        assertFalse(exchange.getResponse().getHeaders().containsKey("Retry-After"));
+        assertEquals("7", exchange.getResponse().getHeaders().getFirst("X-RateLimit-Remaining"));
+    }
+}
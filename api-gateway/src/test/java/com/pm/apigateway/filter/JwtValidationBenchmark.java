@@ -0,0 +1,166 @@
+package com.pm.apigateway.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.apigateway.security.JwksKeyProvider;
+import com.pm.apigateway.security.JwtVerifier;
+import com.pm.apigateway.security.RevocationList;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Gateway throughput of {@code JwtValidation} with local JWKS verification versus a
+ * {@code /validate} call per request, against a stub auth-service on localhost. Run with
+ * {@code mvn test -Dbenchmarks=true -Dtest=JwtValidationBenchmark -Dbenchmark.requests=50000}.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class JwtValidationBenchmark {
+
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 50_000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 64);
+    private static final String KID = "benchmark-key";
+
+    private HttpServer authService;
+    private KeyPair keyPair;
+    private String token;
+
+    @BeforeEach
+    void startAuthService() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+        token = Jwts.builder()
+                    .header().keyId(KID).and()
+                    .subject("testuser@test.com")
+                    .claim("role", "ADMIN")
+                    .expiration(new Date(System.currentTimeMillis() + 3_600_000))
+                    .signWith(keyPair.getPrivate(), Jwts.SIG.RS256)
+                    .compact();
+
+        authService = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        authService.setExecutor(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()));
+        authService.createContext("/.well-known/jwks.json", this::jwks);
+        authService.createContext("/validate", this::validate);
+        authService.start();
+    }
+
+    @AfterEach
+    void stopAuthService() {
+        authService.stop(0);
+    }
+
+    @Test
+    void compareLocalAndRemoteVerification() {
+        String authServiceUrl = "http://localhost:" + authService.getAddress().getPort();
+        GatewayFilter remote = filter(authServiceUrl, "remote");
+        GatewayFilter local = filter(authServiceUrl, "local");
+
+        // warm up connection pools, JIT and the JWKS cache
+        run(remote, REQUESTS / 10);
+        run(local, REQUESTS / 10);
+
+        double remoteThroughput = run(remote, REQUESTS);
+        double localThroughput = run(local, REQUESTS);
+
+        System.out.printf("requests=%d concurrency=%d%n", REQUESTS, CONCURRENCY);
+        System.out.printf("remote /validate: %,.0f req/s%n", remoteThroughput);
+        System.out.printf("local JWKS:       %,.0f req/s (%.1fx)%n",
+                          localThroughput, localThroughput / remoteThroughput);
+    }
+
+    private double run(GatewayFilter filter, int requests) {
+        AtomicLong passed = new AtomicLong();
+        long start = System.nanoTime();
+        Flux.range(0, requests)
+            .flatMap(i -> {
+                MockServerWebExchange exchange = MockServerWebExchange.from(
+                        MockServerHttpRequest.get("/patients")
+                                             .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+                return filter.filter(exchange, e -> Mono.fromRunnable(passed::incrementAndGet));
+            }, CONCURRENCY)
+            .blockLast(Duration.ofMinutes(5));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        assertEquals(requests, passed.get());
+        return requests / seconds;
+    }
+
+    private static GatewayFilter filter(String authServiceUrl, String verification) {
+        WebClient.Builder builder = WebClient.builder();
+        JwksKeyProvider keyProvider = new JwksKeyProvider(builder, authServiceUrl, Duration.ofMinutes(5),
+                                                          Duration.ofSeconds(10), Duration.ofSeconds(2));
+        JwtVerifier verifier = new JwtVerifier(keyProvider, new ObjectMapper(),
+                                               new RevocationList(1_000, 0.001));
+        return new JwtValidationGatewayFilterFactory(builder, authServiceUrl, verifier, verification,
+                                                     Duration.ofSeconds(2))
+                .apply(new Object());
+    }
+
+    private void jwks(HttpExchange exchange) throws IOException {
+        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+        String body = """
+                {"keys":[{"kty":"RSA","use":"sig","alg":"RS256","kid":"%s","n":"%s","e":"%s"}]}"""
+                .formatted(KID, base64Url(publicKey.getModulus()), base64Url(publicKey.getPublicExponent()));
+        respond(exchange, 200, body);
+    }
+
+    /**
+     * Does what auth-service does per call: a full signature verification.
+     */
+    private void validate(HttpExchange exchange) throws IOException {
+        String header = exchange.getRequestHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        int status;
+        try {
+            Jwts.parser().verifyWith(keyPair.getPublic()).build().parseSignedClaims(header.substring(7));
+            status = 200;
+        } catch (JwtException e) {
+            status = 401;
+        }
+        respond(exchange, status, "");
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            exchange.getResponseBody().write(bytes);
+        }
+        exchange.close();
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,52 @@
+package com.pm.apigateway.filter;
+
+import com.pm.apigateway.security.JwtVerifier;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtValidationGatewayFilterFactoryTest {
+
+    @Test
+    void shouldTimeOnlyTheValidationNotTheRestOfTheChain() {
+        // Given
+        JwtVerifier verifier = mock(JwtVerifier.class);
+        when(verifier.verify("token")).thenReturn(Mono.just(Jwts.claims().subject("user").build()));
+        GatewayFilter filter = new JwtValidationGatewayFilterFactory(
+                WebClient.builder(), "http://localhost:1", verifier, "local", Duration.ofSeconds(2))
+                .apply(new Object());
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/patients").header(HttpHeaders.AUTHORIZATION, "Bearer token"));
+        // Runs on the calling thread, like filters that answer from the micro-cache
+        GatewayFilterChain slowChain = e -> Mono.fromRunnable(() -> sleep(300));
+
+        // When
+        filter.filter(exchange, slowChain).block(Duration.ofSeconds(5));
+
+        // Then
+        Long validationNanos = exchange.getAttribute(JwtValidationGatewayFilterFactory.VALIDATION_NANOS_ATTRIBUTE);
+        assertNotNull(validationNanos);
+        assertTrue(validationNanos < TimeUnit.MILLISECONDS.toNanos(300), "validation took " + validationNanos + "ns");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.pm.apigateway.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.Connection;
+import reactor.netty.NettyInbound;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR;
+
+class RequestCoalescingGatewayFilterFactoryTest {
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    // Mimics NettyRoutingFilter: sets the status and leaves the body on the upstream connection
+    private final GatewayFilterChain slowUpstream = exchange -> {
+        upstreamCalls.incrementAndGet();
+        return Mono.delay(Duration.ofMillis(100)).then(Mono.fromRunnable(() -> {
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getAttributes().put(CLIENT_RESPONSE_CONN_ATTR, connection("[{\"id\":1}]"));
+        }));
+    };
+
+    @Test
+    void shouldCoalesceConcurrentIdenticalGets() {
+        // Given
+        GatewayFilter filter = new RequestCoalescingGatewayFilterFactory()
+                .apply(new RequestCoalescingGatewayFilterFactory.Config());
+
+        // When
+        List<MockServerWebExchange> exchanges = storm(filter, "/patients", 200);
+
+        // Then
+        assertEquals(1, upstreamCalls.get());
+        for (MockServerWebExchange exchange : exchanges) {
+            assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+            assertEquals("[{\"id\":1}]", exchange.getResponse().getBodyAsString().block());
+        }
+    }
+
+    @Test
+    void shouldServeFromMicroCacheUntilTtlExpires() throws InterruptedException {
+        // Given
+        RequestCoalescingGatewayFilterFactory.Config config = new RequestCoalescingGatewayFilterFactory.Config();
+        config.setTtl(Duration.ofMillis(300));
+        GatewayFilter filter = new RequestCoalescingGatewayFilterFactory().apply(config);
+
+        // When
+        storm(filter, "/patients", 1);
+        storm(filter, "/patients", 1);
+        Thread.sleep(400);
+        storm(filter, "/patients", 1);
+
+        // Then
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldNotShareAcrossScopesOrQueries() {
+        // Given
+        GatewayFilter filter = new RequestCoalescingGatewayFilterFactory()
+                .apply(new RequestCoalescingGatewayFilterFactory.Config());
+
+        // When
+        Flux.merge(
+                filter.filter(exchange("/patients", "Bearer a"), slowUpstream),
+                filter.filter(exchange("/patients", "Bearer b"), slowUpstream),
+                filter.filter(exchange("/patients?page=2", "Bearer a"), slowUpstream)
+        ).blockLast(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals(3, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldStreamBodiesOverTheLimitWithoutCachingThem() {
+        // Given
+        RequestCoalescingGatewayFilterFactory.Config config = new RequestCoalescingGatewayFilterFactory.Config();
+        config.setTtl(Duration.ofMinutes(1));
+        config.setMaxBodyBytes(8);
+        GatewayFilter filter = new RequestCoalescingGatewayFilterFactory().apply(config);
+        GatewayFilterChain chunkedUpstream = exchange -> {
+            upstreamCalls.incrementAndGet();
+            return Mono.fromRunnable(() -> {
+                exchange.getResponse().setStatusCode(HttpStatus.OK);
+                exchange.getAttributes().put(CLIENT_RESPONSE_CONN_ATTR,
+                                             connection("[{\"id\":1},", "{\"id\":2}]"));
+            });
+        };
+
+        // When
+        MockServerWebExchange first = exchange("/patients", "Bearer token");
+        filter.filter(first, chunkedUpstream).block(Duration.ofSeconds(5));
+        filter.filter(exchange("/patients", "Bearer token"), chunkedUpstream).block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals("[{\"id\":1},{\"id\":2}]", first.getResponse().getBodyAsString().block());
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldLeaveAnnouncedLargeBodiesToTheRoutingFilter() {
+        // Given
+        RequestCoalescingGatewayFilterFactory.Config config = new RequestCoalescingGatewayFilterFactory.Config();
+        config.setMaxBodyBytes(8);
+        GatewayFilter filter = new RequestCoalescingGatewayFilterFactory().apply(config);
+        Connection connection = connection("[{\"id\":1}]");
+        MockServerWebExchange exchange = exchange("/patients", "Bearer token");
+
+        // When
+        filter.filter(exchange, ex -> Mono.fromRunnable(() -> {
+            ex.getResponse().setStatusCode(HttpStatus.OK);
+            ex.getResponse().getHeaders().setContentLength(10);
+            ex.getAttributes().put(CLIENT_RESPONSE_CONN_ATTR, connection);
+        })).block(Duration.ofSeconds(5));
+
+        // Then
+        assertSame(connection, exchange.getAttribute(CLIENT_RESPONSE_CONN_ATTR));
+    }
+
+    private List<MockServerWebExchange> storm(GatewayFilter filter, String path, int requests) {
+        List<MockServerWebExchange> exchanges = Flux.range(0, requests)
+                                                    .map(i -> exchange(path, "Bearer token"))
+                                                    .collectList()
+                                                    .block();
+        Flux.fromIterable(exchanges)
+            .flatMap(exchange -> filter.filter(exchange, slowUpstream), requests)
+            .blockLast(Duration.ofSeconds(5));
+        return exchanges;
+    }
+
+    private static Connection connection(String... chunks) {
+        NettyInbound inbound = mock(NettyInbound.class);
+        when(inbound.receive()).thenReturn(ByteBufFlux.fromString(Flux.just(chunks)));
+        Connection connection = mock(Connection.class);
+        when(connection.inbound()).thenReturn(inbound);
+        return connection;
+    }
+
+    private static MockServerWebExchange exchange(String path, String authorization) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path)
+                                                               .header(HttpHeaders.AUTHORIZATION, authorization));
+    }
+}
@@ -0,0 +1,57 @@
+package com.pm.apigateway.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramsTest {
+
+    @Test
+    void shouldReportTailPercentilesPerRouteAndSeries() {
+        // Given
+        LatencyHistograms histograms = new LatencyHistograms();
+        for (int i = 1; i <= 1000; i++) {
+            histograms.record("patient-service-route", "2xx", TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        histograms.record("patient-service-route", "jwt-validation", TimeUnit.MICROSECONDS.toNanos(250));
+
+        // When
+        Map<String, Map<String, LatencySummary>> snapshot = histograms.snapshot();
+
+        // Then
+        LatencySummary ok = snapshot.get("patient-service-route").get("2xx");
+        assertEquals(1000, ok.getCount());
+        assertEquals(500, ok.getP50(), 1);
+        assertEquals(990, ok.getP99(), 1);
+        assertEquals(1000, ok.getMax(), 1);
+        assertEquals(0.25, snapshot.get("patient-service-route").get("jwt-validation").getP50(), 0.001);
+    }
+
+    @Test
+    void shouldClampLatenciesBeyondTrackableRange() {
+        // Given
+        LatencyHistograms histograms = new LatencyHistograms();
+
+        // When
+        histograms.record("auth-service-route", "5xx", TimeUnit.MINUTES.toNanos(5));
+
+        // Then
+        assertEquals(60_000, histograms.snapshot().get("auth-service-route").get("5xx").getMax(), 60);
+    }
+
+    @Test
+    void shouldStartFreshWindowAfterReset() {
+        // Given
+        LatencyHistograms histograms = new LatencyHistograms();
+        histograms.record("auth-service-route", "2xx", TimeUnit.MILLISECONDS.toNanos(40));
+
+        // When
+        histograms.reset();
+
+        // Then
+        assertEquals(0, histograms.snapshot().get("auth-service-route").get("2xx").getCount());
+    }
+}
@@ -0,0 +1,120 @@
+package com.pm.apigateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.SECONDS.toNanos(1_000));
+
+    @Test
+    void shouldAllowBurstUpToCapacityThenReject() {
+        // Given
+        TokenBucketLimiter limiter = new TokenBucketLimiter(5, 1, 100, now::get);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            TokenBucketLimiter.Decision decision = limiter.tryAcquire("client");
+            assertTrue(decision.isAllowed());
+            assertEquals(4 - i, decision.getRemainingTokens());
+        }
+        TokenBucketLimiter.Decision rejected = limiter.tryAcquire("client");
+
+        // Then
+        assertFalse(rejected.isAllowed());
+        assertEquals(TimeUnit.SECONDS.toNanos(1), rejected.getRetryAfterNanos());
+        assertTrue(limiter.tryAcquire("other-client").isAllowed());
+    }
+
+    @Test
+    void shouldRefillAtConfiguredRate() {
+        // Given
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 10, 100, now::get);
+        limiter.tryAcquire("client");
+        limiter.tryAcquire("client");
+        assertFalse(limiter.tryAcquire("client").isAllowed());
+
+        // When
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+
+        // Then
+        assertTrue(limiter.tryAcquire("client").isAllowed());
+        assertFalse(limiter.tryAcquire("client").isAllowed());
+    }
+
+    @Test
+    void shouldEvictIdleBucketsAndBoundMemory() {
+        // Given
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1, 10, now::get);
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("client-" + i);
+        }
+
+        // When
+        long admittedWhileFull = 0;
+        for (int i = 10; i < 1_000; i++) {
+            if (limiter.tryAcquire("client-" + i).isAllowed()) {
+                admittedWhileFull++;
+            }
+        }
+        int sizeWhileFull = limiter.size();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        TokenBucketLimiter.Decision late = limiter.tryAcquire("late-client");
+
+        // Then
+        assertEquals(0, admittedWhileFull);
+        assertEquals(10, sizeWhileFull);
+        assertTrue(late.isAllowed());
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    void shouldKeepKnownClientsBucketsWhileRejectingNewOnes() {
+        // Given
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, 1, 2, now::get);
+        limiter.tryAcquire("known");
+        limiter.tryAcquire("other");
+
+        // When
+        TokenBucketLimiter.Decision spray = limiter.tryAcquire("spray-1");
+        limiter.tryAcquire("spray-2");
+        limiter.tryAcquire("spray-3");
+        TokenBucketLimiter.Decision known = limiter.tryAcquire("known");
+
+        // Then
+        assertFalse(spray.isAllowed());
+        assertTrue(spray.getRetryAfterNanos() > 0);
+        assertTrue(known.isAllowed());
+        assertEquals(1, known.getRemainingTokens());
+    }
+
+    @Test
+    void shouldNotOverAdmitUnderContention() throws InterruptedException {
+        // Given
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1_000, 0.001, 100, now::get);
+        AtomicLong allowed = new AtomicLong();
+        Thread[] threads = new Thread[8];
+
+        // When
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    if (limiter.tryAcquire("client").isAllowed()) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then
+        assertEquals(1_000, allowed.get());
+    }
+}
@@ -0,0 +1,62 @@
+package com.pm.apigateway.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryBudgetTest {
+
+    @Test
+    void shouldSpendReserveThenEarnRetriesFromTraffic() {
+        // Given
+        RetryBudget budget = new RetryBudget(0.2, 2);
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            budget.recordRequest();
+        }
+
+        // Then
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+
+    @Test
+    void shouldCapRetriesToRatioOfRequestsUnderSustainedFailure() {
+        // Given
+        RetryBudget budget = new RetryBudget(0.1, 5);
+        int retries = 0;
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            budget.recordRequest();
+            // every request fails and asks for two retries
+            for (int attempt = 0; attempt < 2; attempt++) {
+                if (budget.tryWithdraw()) {
+                    retries++;
+                }
+            }
+        }
+
+        // Then
+        assertTrue(retries <= 10_000 * 0.1 + 5, "retries " + retries);
+        assertTrue(retries >= 10_000 * 0.1, "retries " + retries);
+    }
+
+    @Test
+    void shouldNotAccumulateBeyondReserve() {
+        // Given
+        RetryBudget budget = new RetryBudget(0.5, 3);
+
+        // When
+        for (int i = 0; i < 1_000; i++) {
+            budget.recordRequest();
+        }
+
+        // Then
+        assertEquals(3.0, budget.available());
+    }
+}
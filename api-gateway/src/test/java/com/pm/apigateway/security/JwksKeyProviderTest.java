@@ -0,0 +1,100 @@
+package com.pm.apigateway.security;
+
+import com.pm.apigateway.exception.SigningKeyUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigInteger;
+import java.net.ConnectException;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwksKeyProviderTest {
+
+    private final AtomicInteger fetches = new AtomicInteger();
+    private final AtomicBoolean authServiceDown = new AtomicBoolean();
+
+    @Test
+    void shouldNotRetryStaleRefreshOnEveryRequestWhileAuthServiceIsDown() throws Exception {
+        // Given
+        JwksKeyProvider keyProvider = keyProvider(Duration.ofMillis(1), Duration.ofHours(1));
+        assertNotNull(keyProvider.getKey("kid-1").block(Duration.ofSeconds(5)));
+        authServiceDown.set(true);
+        Thread.sleep(10);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            assertNotNull(keyProvider.getKey("kid-1").block(Duration.ofSeconds(5)));
+        }
+
+        // Then
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void shouldNotRetryUnknownKidWithinMinRefreshIntervalOfAFailure() {
+        // Given
+        JwksKeyProvider keyProvider = keyProvider(Duration.ofMinutes(5), Duration.ofHours(1));
+        authServiceDown.set(true);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            assertThrows(SigningKeyUnavailableException.class,
+                         () -> keyProvider.getKey("kid-1").block(Duration.ofSeconds(5)));
+        }
+
+        // Then
+        assertEquals(1, fetches.get());
+    }
+
+    private JwksKeyProvider keyProvider(Duration refreshInterval, Duration minRefreshInterval) {
+        String body = """
+                {"keys":[%s]}""".formatted(jwk("kid-1"));
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            fetches.incrementAndGet();
+            if (authServiceDown.get()) {
+                return Mono.error(new ConnectException("Connection refused"));
+            }
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                                           .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                           .body(body)
+                                           .build());
+        });
+        return new JwksKeyProvider(builder, "http://auth-service", refreshInterval, minRefreshInterval,
+                                   Duration.ofSeconds(2));
+    }
+
+    private static String jwk(String kid) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            RSAPublicKey publicKey = (RSAPublicKey) generator.generateKeyPair().getPublic();
+            return """
+                    {"kty":"RSA","kid":"%s","n":"%s","e":"%s"}"""
+                    .formatted(kid, base64Url(publicKey.getModulus()), base64Url(publicKey.getPublicExponent()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,105 @@
+package com.pm.apigateway.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtVerifierTest {
+
+    private final KeyPair current = generateKeyPair();
+    private final KeyPair previous = generateKeyPair();
+    private final JwtVerifier verifier = new JwtVerifier(keyProvider(), new ObjectMapper(),
+                                                         new RevocationList(1_000, 0.001));
+
+    @Test
+    void shouldVerifyTokensSignedWithAnyPublishedKey() {
+        // Given
+        String currentToken = token("current", current, "current@test.com");
+        String previousToken = token("previous", previous, "previous@test.com");
+
+        // When
+        Claims first = verifier.verify(currentToken).block(Duration.ofSeconds(5));
+        Claims second = verifier.verify(previousToken).block(Duration.ofSeconds(5));
+        Claims again = verifier.verify(currentToken).block(Duration.ofSeconds(5));
+
+        // Then
+        assertEquals("current@test.com", first.getSubject());
+        assertEquals("previous@test.com", second.getSubject());
+        assertEquals("current@test.com", again.getSubject());
+    }
+
+    @Test
+    void shouldRejectTokenSignedWithAnotherKeyUnderAPublishedKid() {
+        // Given
+        String forged = token("current", generateKeyPair(), "forged@test.com");
+
+        // When & Then
+        assertThrows(JwtException.class, () -> verifier.verify(forged).block(Duration.ofSeconds(5)));
+    }
+
+    private JwksKeyProvider keyProvider() {
+        String body = """
+                {"keys":[%s,%s]}""".formatted(jwk("current", current), jwk("previous", previous));
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> Mono.just(
+                ClientResponse.create(HttpStatus.OK)
+                              .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                              .body(body)
+                              .build()));
+        return new JwksKeyProvider(builder, "http://auth-service", Duration.ofMinutes(5),
+                                   Duration.ofSeconds(10), Duration.ofSeconds(2));
+    }
+
+    private static String token(String kid, KeyPair keyPair, String subject) {
+        return Jwts.builder()
+                   .header().keyId(kid).and()
+                   .subject(subject)
+                   .expiration(new Date(System.currentTimeMillis() + 3_600_000))
+                   .signWith(keyPair.getPrivate(), Jwts.SIG.RS256)
+                   .compact();
+    }
+
+    private static String jwk(String kid, KeyPair keyPair) {
+        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+        return """
+                {"kty":"RSA","kid":"%s","n":"%s","e":"%s"}"""
+                .formatted(kid, base64Url(publicKey.getModulus()), base64Url(publicKey.getPublicExponent()));
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
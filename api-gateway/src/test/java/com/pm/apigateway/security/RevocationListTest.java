@@ -0,0 +1,63 @@
+package com.pm.apigateway.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevocationListTest {
+
+    @Test
+    void shouldReportOnlyRevokedTokens() {
+        // Given
+        RevocationList revocations = new RevocationList(10_000, 0.01);
+        String[] revoked = new String[10_000];
+        for (int i = 0; i < revoked.length; i++) {
+            revoked[i] = UUID.randomUUID().toString();
+            revocations.add(revoked[i], Long.MAX_VALUE);
+        }
+
+        // When & Then
+        for (String jti : revoked) {
+            assertTrue(revocations.isRevoked(jti));
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assertFalse(revocations.isRevoked(UUID.randomUUID().toString()));
+        }
+        assertFalse(revocations.isRevoked(null));
+    }
+
+    @Test
+    void shouldGrowBeyondExpectedTokens() {
+        // Given
+        RevocationList revocations = new RevocationList(100, 0.01);
+
+        // When
+        for (int i = 0; i < 5_000; i++) {
+            revocations.add("jti-" + i, Long.MAX_VALUE);
+        }
+
+        // Then
+        assertEquals(5_000, revocations.size());
+        for (int i = 0; i < 5_000; i++) {
+            assertTrue(revocations.isRevoked("jti-" + i));
+        }
+    }
+
+    @Test
+    void shouldForgetRevocationsOfExpiredTokens() {
+        // Given
+        RevocationList revocations = new RevocationList(1_000, 0.01);
+        revocations.add("expired", 1_000);
+        revocations.add("live", 5_000);
+
+        // When
+        revocations.purgeExpired(2_000);
+
+        // Then
+        assertFalse(revocations.isRevoked("expired"));
+        assertTrue(revocations.isRevoked("live"));
+        assertEquals(1, revocations.size());
+    }
+}
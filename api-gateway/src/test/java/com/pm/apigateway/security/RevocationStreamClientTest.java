@@ -0,0 +1,74 @@
+package com.pm.apigateway.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevocationStreamClientTest {
+
+    private final RevocationList revocationList = new RevocationList(1_000, 0.01);
+    private RevocationStreamClient client;
+
+    @AfterEach
+    void tearDown() {
+        client.stop();
+    }
+
+    @Test
+    void shouldSkipMalformedEventsAndKeepApplyingRevocations() throws Exception {
+        // Given
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        String events = """
+                id:1
+                event:revoked
+                data:{"id":1,"jti":"bad-expiry","expiresAt":"tomorrow"}
+
+                id:2
+                event:revoked
+                data:{"jti":"no-id","expiresAt":%d}
+
+                id:3
+                event:revoked
+                data:{"id":3,"jti":"good","expiresAt":%d}
+
+                """.formatted(expiresAt, expiresAt);
+        client = client(events);
+
+        // When
+        client.start();
+
+        // Then
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!revocationList.isRevoked("good") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(revocationList.isRevoked("good"));
+        assertFalse(revocationList.isRevoked("bad-expiry"));
+        assertFalse(revocationList.isRevoked("no-id"));
+    }
+
+    private RevocationStreamClient client(String events) {
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            DataBuffer body = DefaultDataBufferFactory.sharedInstance.wrap(events.getBytes(StandardCharsets.UTF_8));
+            // An open stream: the events, then nothing until the client disconnects
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                                           .header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_EVENT_STREAM_VALUE)
+                                           .body(Flux.concat(Flux.just(body), Flux.never()))
+                                           .build());
+        });
+        return new RevocationStreamClient(builder, "http://auth-service", revocationList, true, Duration.ofMinutes(5));
+    }
+}
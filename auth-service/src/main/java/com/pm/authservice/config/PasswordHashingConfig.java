@@ -0,0 +1,28 @@
+package com.pm.authservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * BCrypt is slow on purpose, so password checks get their own pool sized to the cores instead of
+ * occupying Tomcat threads. The queue is short: a login that would wait longer than a few hash
+ * rounds is rejected (429) rather than queued, and {@code /validate} keeps its threads.
+ */
+@Configuration
+public class PasswordHashingConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashingExecutor(
+            @Value("${auth.password-hashing.threads:0}") int threads,
+            @Value("${auth.password-hashing.queue-capacity:32}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hashing-");
+        return executor;
+    }
+}
@@ -1,37 +1,50 @@
 package com.pm.authservice.controller;
 
+import com.pm.authservice.dto.JwkSetDTO;
 import com.pm.authservice.dto.LoginRequestDTO;
 import com.pm.authservice.dto.LoginResponseDTO;
 import com.pm.authservice.service.AuthService;
+import com.pm.authservice.service.JwksService;
+import com.pm.authservice.service.RevocationService;
+import io.jsonwebtoken.JwtException;
 import io.swagger.v3.oas.annotations.Operation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.Optional;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 public class AuthController {
     private static final Logger log = LoggerFactory.getLogger(AuthController.class);
     private final AuthService authService;
+    private final JwksService jwksService;
+    private final RevocationService revocationService;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, JwksService jwksService,
+                          RevocationService revocationService) {
         this.authService = authService;
+        this.jwksService = jwksService;
+        this.revocationService = revocationService;
     }
 
     @Operation(summary = "generate token on user login")
     @PostMapping("/login")
-    public ResponseEntity<LoginResponseDTO> login(@RequestBody LoginRequestDTO loginRequestDTO) {
-        Optional<String> tokenOptional = authService.authenticate(loginRequestDTO);
-
-        if (tokenOptional.isEmpty()) {
-            log.warn("Token is empty");
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-        }
-        String token = tokenOptional.get();
-        return ResponseEntity.ok(new LoginResponseDTO(token));
+    public CompletableFuture<ResponseEntity<LoginResponseDTO>> login(@RequestBody LoginRequestDTO loginRequestDTO) {
+        return authService.authenticate(loginRequestDTO).thenApply(tokenOptional -> {
+            if (tokenOptional.isEmpty()) {
+                log.warn("Token is empty");
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            }
+            String token = tokenOptional.get();
+            return ResponseEntity.ok(new LoginResponseDTO(token));
+        });
     }
 
     @Operation(summary = "validate token")
@@ -48,4 +61,32 @@ public class AuthController {
                 ? ResponseEntity.ok().build()
                 : ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
     }
+
+    @Operation(summary = "revoke the caller's token before it expires")
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader("Authorization") String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            revocationService.revoke(authHeader.substring(7));
+            return ResponseEntity.noContent().build();
+        } catch (JwtException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+
+    @Operation(summary = "stream of token revocations after the given cursor, for the gateway")
+    @GetMapping(path = "/revocations", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter revocations(@RequestParam(defaultValue = "0") long since) {
+        return revocationService.subscribe(since);
+    }
+
+    @Operation(summary = "public keys for verifying tokens locally")
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<JwkSetDTO> jwks() {
+        return ResponseEntity.ok()
+                             .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                             .body(jwksService.getJwkSet());
+    }
 }
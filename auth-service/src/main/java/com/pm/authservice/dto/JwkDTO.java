@@ -0,0 +1,44 @@
+package com.pm.authservice.dto;
+
+public class JwkDTO {
+
+    private final String kty;
+    private final String use;
+    private final String alg;
+    private final String kid;
+    private final String n;
+    private final String e;
+
+    public JwkDTO(String kty, String use, String alg, String kid, String n, String e) {
+        this.kty = kty;
+        this.use = use;
+        this.alg = alg;
+        this.kid = kid;
+        this.n = n;
+        this.e = e;
+    }
+
+    public String getKty() {
+        return kty;
+    }
+
+    public String getUse() {
+        return use;
+    }
+
+    public String getAlg() {
+        return alg;
+    }
+
+    public String getKid() {
+        return kid;
+    }
+
+    public String getN() {
+        return n;
+    }
+
+    public String getE() {
+        return e;
+    }
+}
@@ -0,0 +1,16 @@
+package com.pm.authservice.dto;
+
+import java.util.List;
+
+public class JwkSetDTO {
+
+    private final List<JwkDTO> keys;
+
+    public JwkSetDTO(List<JwkDTO> keys) {
+        this.keys = keys;
+    }
+
+    public List<JwkDTO> getKeys() {
+        return keys;
+    }
+}
@@ -0,0 +1,29 @@
+package com.pm.authservice.dto;
+
+public class RevocationDTO {
+
+    private final long id;
+    private final String jti;
+    private final long expiresAt;
+
+    public RevocationDTO(long id, String jti, long expiresAt) {
+        this.id = id;
+        this.jti = jti;
+        this.expiresAt = expiresAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getJti() {
+        return jti;
+    }
+
+    /**
+     * Epoch milliseconds; the entry can be dropped after this.
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -0,0 +1,36 @@
+package com.pm.authservice.exception;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@ControllerAdvice
+public class GlobalExceptionHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    @ExceptionHandler(LoginOverloadedException.class)
+    public ResponseEntity<Map<String, String>> handleLoginOverloadedException(LoginOverloadedException ex) {
+        log.debug("Shedding login: {}", ex.getMessage());
+        Map<String, String> errors = new HashMap<>();
+        errors.put("message", "Too many concurrent logins, retry shortly");
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                             .header(HttpHeaders.RETRY_AFTER, "1")
+                             .body(errors);
+    }
+
+    @ExceptionHandler(TokenNotRevocableException.class)
+    public ResponseEntity<Map<String, String>> handleTokenNotRevocableException(TokenNotRevocableException ex) {
+        log.warn("Token cannot be revoked: {}", ex.getMessage());
+        Map<String, String> errors = new HashMap<>();
+        errors.put("message", "Token cannot be revoked");
+        return ResponseEntity.badRequest().body(errors);
+    }
+}
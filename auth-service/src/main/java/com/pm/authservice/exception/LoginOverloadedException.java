@@ -0,0 +1,7 @@
+package com.pm.authservice.exception;
+
+public class LoginOverloadedException extends RuntimeException {
+    public LoginOverloadedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
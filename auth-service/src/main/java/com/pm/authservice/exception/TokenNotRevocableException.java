@@ -0,0 +1,7 @@
+package com.pm.authservice.exception;
+
+public class TokenNotRevocableException extends RuntimeException {
+    public TokenNotRevocableException(String message) {
+        super(message);
+    }
+}
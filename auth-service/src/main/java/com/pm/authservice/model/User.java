@@ -6,6 +6,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserCacheInvalidator.class)
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
@@ -0,0 +1,33 @@
+package com.pm.authservice.model;
+
+import com.pm.authservice.service.UserCache;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps {@link UserCache} in step with the users table. A new user only needs its (possibly
+ * negatively cached) email dropped; an update may have changed the email, so it clears everything.
+ * User changes are rare enough that this costs nothing.
+ */
+@Component
+public class UserCacheInvalidator {
+
+    private final UserCache userCache;
+
+    public UserCacheInvalidator(UserCache userCache) {
+        this.userCache = userCache;
+    }
+
+    @PostPersist
+    public void userCreated(User user) {
+        userCache.invalidate(user.getEmail());
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void userChanged(User user) {
+        userCache.invalidateAll();
+    }
+}
@@ -0,0 +1,18 @@
+package com.pm.authservice.repository;
+
+import com.pm.authservice.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+    List<RevokedToken> findByIdGreaterThanAndExpiresAtAfterOrderByIdAsc(long id, Instant now);
+
+    List<RevokedToken> findByRevokedAtAfterAndExpiresAtAfterOrderByIdAsc(Instant since, Instant now);
+
+    boolean existsByJti(String jti);
+
+    long deleteByExpiresAtBefore(Instant now);
+}
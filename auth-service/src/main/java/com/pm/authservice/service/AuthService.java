@@ -1,12 +1,17 @@
 package com.pm.authservice.service;
 
 import com.pm.authservice.dto.LoginRequestDTO;
+import com.pm.authservice.exception.LoginOverloadedException;
 import com.pm.authservice.util.JwtUtil;
 import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 public class AuthService {
@@ -14,24 +19,37 @@ public class AuthService {
     private final UserService userService;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final Executor passwordHashingExecutor;
 
-    public AuthService(UserService userService, PasswordEncoder passwordEncoder, JwtUtil jwtUtil) {
+    public AuthService(UserService userService, PasswordEncoder passwordEncoder, JwtUtil jwtUtil,
+                       @Qualifier("passwordHashingExecutor") Executor passwordHashingExecutor) {
         this.userService = userService;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
+        this.passwordHashingExecutor = passwordHashingExecutor;
 
     }
 
 
-    public Optional<String> authenticate(LoginRequestDTO loginRequestDTO) {
-        Optional<String> token = userService.findByEmail(loginRequestDTO.getEmail())
-                                            .filter(u -> passwordEncoder.matches(
-                                                    loginRequestDTO.getPassword(),
-                                                    u.getPassword()))
-                                            .map(u -> jwtUtil.generateToken(u.getEmail(),
-                                                                            u.getRole()));
-
-        return token;
+    /**
+     * The user lookup and password check run on the bounded hashing pool, not the caller's
+     * thread, so a shed login costs neither a hash nor a database round trip.
+     *
+     * @throws LoginOverloadedException if the pool's queue is full
+     */
+    public CompletableFuture<Optional<String>> authenticate(LoginRequestDTO loginRequestDTO) {
+        try {
+            return CompletableFuture.supplyAsync(
+                    () -> userService.findByEmail(loginRequestDTO.getEmail())
+                                     .filter(u -> passwordEncoder.matches(
+                                             loginRequestDTO.getPassword(),
+                                             u.getPassword()))
+                                     .map(u -> jwtUtil.generateToken(u.getEmail(),
+                                                                     u.getRole())),
+                    passwordHashingExecutor);
+        } catch (RejectedExecutionException e) {
+            throw new LoginOverloadedException("Password hashing queue is full", e);
+        }
     }
 
     public boolean validateToken(String token) {
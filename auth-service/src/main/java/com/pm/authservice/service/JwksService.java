@@ -0,0 +1,47 @@
+package com.pm.authservice.service;
+
+import com.pm.authservice.dto.JwkDTO;
+import com.pm.authservice.dto.JwkSetDTO;
+import com.pm.authservice.util.JwtKeyRing;
+import org.springframework.stereotype.Service;
+
+import java.math.BigInteger;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+@Service
+public class JwksService {
+
+    private final JwtKeyRing keyRing;
+
+    public JwksService(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+    }
+
+    public JwkSetDTO getJwkSet() {
+        List<JwkDTO> keys = keyRing.publicKeys()
+                                   .entrySet()
+                                   .stream()
+                                   .map(entry -> toJwk(entry.getKey(), entry.getValue()))
+                                   .toList();
+        return new JwkSetDTO(keys);
+    }
+
+    private static JwkDTO toJwk(String kid, RSAPublicKey publicKey) {
+        return new JwkDTO("RSA", "sig", "RS256", kid, base64Url(publicKey.getModulus()),
+                          base64Url(publicKey.getPublicExponent()));
+    }
+
+    /**
+     * JWK integers are unsigned big-endian, so the sign byte {@link BigInteger} may add is dropped.
+     */
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
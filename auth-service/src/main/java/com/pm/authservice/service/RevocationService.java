@@ -0,0 +1,178 @@
+package com.pm.authservice.service;
+
+import com.pm.authservice.dto.RevocationDTO;
+import com.pm.authservice.exception.TokenNotRevocableException;
+import com.pm.authservice.model.RevokedToken;
+import com.pm.authservice.repository.RevokedTokenRepository;
+import com.pm.authservice.util.JwtUtil;
+import com.pm.authservice.util.RevokedTokens;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Revoked tokens are stored in {@code revoked_tokens} until they expire, held in memory for
+ * {@code /validate}, and streamed to subscribers as server-sent events: first everything after the
+ * subscriber's cursor, then each new revocation once it has committed, so subscribers never see
+ * one that was rolled back or that a reconnect could not replay.
+ *
+ * <p>Every instance follows the table, so revocations made on another instance reach this one's
+ * {@code /validate} and subscribers within {@code auth.revocations.poll-interval}. Rows are
+ * stamped before they commit, so each poll looks back {@code auth.revocations.commit-lag} for
+ * rows that committed late; the in-memory set tells which of them are new.
+ */
+@Service
+public class RevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(RevocationService.class);
+    private static final String EVENT_NAME = "revoked";
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final RevokedTokens revokedTokens;
+    private final JwtUtil jwtUtil;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration streamTimeout;
+    private final Duration commitLag;
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+    private volatile Instant followedUntil;
+
+    public RevocationService(RevokedTokenRepository revokedTokenRepository,
+                             RevokedTokens revokedTokens,
+                             JwtUtil jwtUtil,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${auth.revocations.stream-timeout:PT30M}") Duration streamTimeout,
+                             @Value("${auth.revocations.commit-lag:PT30S}") Duration commitLag) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.revokedTokens = revokedTokens;
+        this.jwtUtil = jwtUtil;
+        this.eventPublisher = eventPublisher;
+        this.streamTimeout = streamTimeout;
+        this.commitLag = commitLag;
+    }
+
+    @PostConstruct
+    void loadRevocations() {
+        Instant now = Instant.now();
+        revokedTokenRepository.findByIdGreaterThanAndExpiresAtAfterOrderByIdAsc(0, now)
+                              .forEach(revoked -> revokedTokens.add(revoked.getJti(),
+                                                                    revoked.getExpiresAt().toEpochMilli()));
+        followedUntil = now;
+        log.info("Loaded {} revoked tokens", revokedTokens.size());
+    }
+
+    /**
+     * Revoking a token twice, or concurrently on two instances, is not an error.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is not valid
+     * @throws TokenNotRevocableException if the token predates token ids
+     */
+    public void revoke(String token) {
+        Claims claims = jwtUtil.parseClaims(token);
+        if (claims.getId() == null) {
+            throw new TokenNotRevocableException("Token has no id");
+        }
+        if (revokedTokenRepository.existsByJti(claims.getId())) {
+            return;
+        }
+
+        RevokedToken revoked = new RevokedToken();
+        revoked.setJti(claims.getId());
+        revoked.setExpiresAt(claims.getExpiration().toInstant());
+        revoked.setRevokedAt(Instant.now());
+        try {
+            revoked = revokedTokenRepository.save(revoked);
+        } catch (DataIntegrityViolationException e) {
+            if (revokedTokenRepository.existsByJti(claims.getId())) {
+                // revoked concurrently; the other revocation is applied and streamed
+                return;
+            }
+            throw e;
+        }
+        eventPublisher.publishEvent(toDTO(revoked));
+    }
+
+    /**
+     * Applies a revocation made on this instance as soon as it commits, or at once outside a
+     * transaction; {@link #followRevocations()} would otherwise pick it up on its next poll.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void publishRevocation(RevocationDTO event) {
+        apply(event);
+    }
+
+    /**
+     * Applies the revocations committed since the last poll, on whichever instance they were made.
+     */
+    @Scheduled(fixedDelayString = "${auth.revocations.poll-interval:PT1S}")
+    public void followRevocations() {
+        Instant now = Instant.now();
+        revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfterOrderByIdAsc(followedUntil.minus(commitLag), now)
+                              .forEach(revoked -> apply(toDTO(revoked)));
+        followedUntil = now;
+    }
+
+    /**
+     * Adds the revocation to the in-memory set that {@code /validate} and its cache check, and
+     * streams it to subscribers, unless this instance has already applied it.
+     */
+    private void apply(RevocationDTO event) {
+        if (revokedTokens.add(event.getJti(), event.getExpiresAt())) {
+            subscribers.forEach(subscriber -> send(subscriber, event));
+        }
+    }
+
+    public SseEmitter subscribe(long since) {
+        SseEmitter subscriber = new SseEmitter(streamTimeout.toMillis());
+        subscriber.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.onError(e -> subscribers.remove(subscriber));
+        // Register before replaying so nothing revoked in between is missed; duplicates are harmless
+        subscribers.add(subscriber);
+        revokedTokenRepository.findByIdGreaterThanAndExpiresAtAfterOrderByIdAsc(since, Instant.now())
+                              .forEach(revoked -> send(subscriber, toDTO(revoked)));
+        return subscriber;
+    }
+
+    @Scheduled(fixedDelayString = "${auth.revocations.purge-interval:PT10M}")
+    @Transactional
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        long purged = revokedTokenRepository.deleteByExpiresAtBefore(now);
+        revokedTokens.purgeExpired(now.toEpochMilli());
+        if (purged > 0) {
+            log.info("Purged {} expired token revocations", purged);
+        }
+    }
+
+    private void send(SseEmitter subscriber, RevocationDTO event) {
+        try {
+            subscriber.send(SseEmitter.event()
+                                      .id(String.valueOf(event.getId()))
+                                      .name(EVENT_NAME)
+                                      .data(event));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping revocation subscriber: {}", e.getMessage());
+            subscribers.remove(subscriber);
+        }
+    }
+
+    private static RevocationDTO toDTO(RevokedToken revoked) {
+        return new RevocationDTO(revoked.getId(), revoked.getJti(), revoked.getExpiresAt().toEpochMilli());
+    }
+}
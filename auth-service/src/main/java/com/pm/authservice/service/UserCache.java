@@ -0,0 +1,75 @@
+package com.pm.authservice.service;
+
+import com.pm.authservice.model.User;
+import com.pm.authservice.util.ExpiringLruCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Users by email, in front of the database. Misses are cached too (for a shorter time), so
+ * repeated logins for emails that do not exist, as in credential stuffing, stop reaching
+ * Postgres. Entries are dropped when a user is saved or deleted through JPA
+ * ({@link com.pm.authservice.model.UserCacheInvalidator}); changes made outside the application
+ * show up once the TTL runs out.
+ */
+@Component
+public class UserCache {
+
+    private final ExpiringLruCache<String, Optional<User>> users;
+    private final long ttlMillis;
+    private final long negativeTtlMillis;
+    private final Counter hits;
+    private final Counter negativeHits;
+    private final Counter misses;
+
+    public UserCache(@Value("${auth.user-cache.max-entries:10000}") int maxEntries,
+                     @Value("${auth.user-cache.ttl:PT5M}") Duration ttl,
+                     @Value("${auth.user-cache.negative-ttl:PT1M}") Duration negativeTtl,
+                     MeterRegistry meterRegistry) {
+        this.users = new ExpiringLruCache<>(maxEntries);
+        this.ttlMillis = ttl.toMillis();
+        this.negativeTtlMillis = negativeTtl.toMillis();
+        // misses are the lookups that went to the database
+        this.hits = meterRegistry.counter("auth.user_cache.lookups", "result", "hit");
+        this.negativeHits = meterRegistry.counter("auth.user_cache.lookups", "result", "negative_hit");
+        this.misses = meterRegistry.counter("auth.user_cache.lookups", "result", "miss");
+        Gauge.builder("auth.user_cache.hit_ratio", this, UserCache::hitRatio)
+             .description("Share of user lookups answered without a database query")
+             .register(meterRegistry);
+        Gauge.builder("auth.user_cache.size", users, ExpiringLruCache::size)
+             .register(meterRegistry);
+    }
+
+    public Optional<User> get(String email, Function<String, Optional<User>> loader) {
+        long now = System.currentTimeMillis();
+        Optional<User> cached = users.get(email, now);
+        if (cached != null) {
+            (cached.isPresent() ? hits : negativeHits).increment();
+            return cached;
+        }
+        misses.increment();
+        Optional<User> user = loader.apply(email);
+        users.put(email, user, now + (user.isPresent() ? ttlMillis : negativeTtlMillis));
+        return user;
+    }
+
+    public void invalidate(String email) {
+        users.invalidate(email);
+    }
+
+    public void invalidateAll() {
+        users.clear();
+    }
+
+    private double hitRatio() {
+        double lookups = hits.count() + negativeHits.count() + misses.count();
+        return lookups == 0 ? 0 : (hits.count() + negativeHits.count()) / lookups;
+    }
+}
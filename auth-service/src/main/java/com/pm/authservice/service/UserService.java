@@ -9,12 +9,14 @@ import java.util.Optional;
 @Service
 public class UserService {
     private final UserRepository userRepository;
+    private final UserCache userCache;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, UserCache userCache) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
     }
 
     public Optional<User> findByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return userCache.get(email, userRepository::findByEmail);
     }
 }
@@ -0,0 +1,105 @@
+package com.pm.authservice.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU map whose entries also carry their own expiry time. Split into independently locked
+ * segments so concurrent readers rarely contend; each segment evicts its least recently used
+ * entry once it holds {@code maxEntries / segments}.
+ */
+public class ExpiringLruCache<K, V> {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment<K, V>[] segments;
+
+    @SuppressWarnings("unchecked")
+    public ExpiringLruCache(int maxEntries) {
+        this.segments = new Segment[SEGMENTS];
+        int perSegment = maxEntries <= 0 ? 0 : Math.max(1, maxEntries / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>(perSegment);
+        }
+    }
+
+    /**
+     * @return the value, or {@code null} if absent or expired at {@code nowMillis}
+     */
+    public V get(K key, long nowMillis) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            Entry<V> entry = segment.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAtMillis <= nowMillis) {
+                segment.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    public void put(K key, V value, long expiresAtMillis) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            if (segment.maxEntries > 0) {
+                segment.put(key, new Entry<>(value, expiresAtMillis));
+            }
+        }
+    }
+
+    public void invalidate(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+    }
+
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        return segments[(key.hashCode() & Integer.MAX_VALUE) % SEGMENTS];
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAtMillis;
+
+        private Entry(V value, long expiresAtMillis) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    private static final class Segment<K, V> extends LinkedHashMap<K, Entry<V>> {
+        private final int maxEntries;
+
+        private Segment(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+            return size() > maxEntries;
+        }
+    }
+}
@@ -1,50 +1,78 @@
 package com.pm.authservice.util;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import io.jsonwebtoken.ProtectedHeader;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
-import java.security.Key;
-
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
 
-    private static final Logger log = LoggerFactory.getLogger(JwtUtil.class);
-    private final Key secretKey;
-    private final String plainTextSecret;
+    private final JwtKeyRing keyRing;
+    private final TokenValidationCache validationCache;
+    private final RevokedTokens revokedTokens;
+    // Immutable and thread-safe; the key is resolved from the token's kid, so tokens signed
+    // before a rotation keep validating
+    private final JwtParser parser;
 
-    public JwtUtil(@Value("${jwt.secret}") String secret) {
-        // Use the UTF-8 encoded bytes of the secret directly
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        this.secretKey = Keys.hmacShaKeyFor(keyBytes);
-        this.plainTextSecret = secret;
-        log.warn("JWT Secret Key (plain text) for verification: {}", plainTextSecret);
+    public JwtUtil(JwtKeyRing keyRing, TokenValidationCache validationCache, RevokedTokens revokedTokens) {
+        this.keyRing = keyRing;
+        this.validationCache = validationCache;
+        this.revokedTokens = revokedTokens;
+        this.parser = Jwts.parser()
+                          .keyLocator(header -> header instanceof ProtectedHeader protectedHeader
+                                  ? keyRing.publicKey(protectedHeader.getKeyId())
+                                  : null)
+                          .build();
     }
 
     public String generateToken(String email, String role) {
         return Jwts.builder()
-                   .setSubject(email)
+                   .header().keyId(keyRing.currentKeyId()).and()
+                   // the token id is what a revocation refers to
+                   .id(UUID.randomUUID().toString())
+                   .subject(email)
                    .claim("role", role)
-                   .setIssuedAt(new Date())
-                   .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10))
-                   .signWith(secretKey)
+                   .issuedAt(new Date())
+                   .expiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10))
+                   .signWith(keyRing.currentPrivateKey(), Jwts.SIG.RS256)
                    .compact();
     }
 
+    /**
+     * Cache hits skip the signature check but not the revocation check, which is a map lookup.
+     */
     public void validateToken(String token) {
+        long now = System.currentTimeMillis();
+        String digest = validationCache.digest(token);
+        String cachedId = validationCache.validTokenId(digest, now);
+        if (cachedId != null) {
+            if (revokedTokens.contains(cachedId)) {
+                throw new JwtException("Revoked JWT");
+            }
+            return;
+        }
+        Claims claims = parseClaims(token);
+        if (revokedTokens.contains(claims.getId())) {
+            throw new JwtException("Revoked JWT");
+        }
+        if (claims.getExpiration() != null) {
+            validationCache.put(digest, claims.getId(), claims.getExpiration().getTime(), now);
+        }
+    }
+
+    /**
+     * Checks signature and expiry, but not revocation.
+     */
+    public Claims parseClaims(String token) {
         try {
-            Jwts.parser().verifyWith((SecretKey) secretKey)
-                .build()
-                .parseSignedClaims(token);
-        } catch (JwtException e) {
+            return parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
             throw new JwtException("Invalid JWT");
         }
     }
@@ -0,0 +1,35 @@
+package com.pm.authservice.util;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token ids revoked before expiry, by expiry time in epoch milliseconds. Entries are only needed
+ * until the token would have expired anyway.
+ */
+@Component
+public class RevokedTokens {
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    /**
+     * @return false if the token was already known to be revoked
+     */
+    public boolean add(String jti, long expiresAtMillis) {
+        return revoked.putIfAbsent(jti, expiresAtMillis) == null;
+    }
+
+    public boolean contains(String jti) {
+        return jti != null && revoked.containsKey(jti);
+    }
+
+    public void purgeExpired(long nowMillis) {
+        revoked.values().removeIf(expiresAt -> expiresAt <= nowMillis);
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+}
@@ -0,0 +1,78 @@
+package com.pm.authservice.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU of tokens that recently passed validation, so a client sending the same token on
+ * every request pays for the RSA signature check once. Entries are keyed by the token's SHA-256
+ * digest (the token itself is never held) and expire at the token's {@code exp}, or after
+ * {@code jwt.validation-cache.max-ttl} if that is sooner.
+ *
+ * <p>Only successful validations are cached: caching rejections would let anyone evict real
+ * entries by sending garbage tokens. Each entry keeps the token's id, so a hit can still be
+ * checked against {@link RevokedTokens}: revocations made on other instances arrive as token ids,
+ * without the token to find its entry by.
+ */
+@Component
+public class TokenValidationCache {
+
+    private final ExpiringLruCache<String, String> validTokens;
+    private final long maxTtlMillis;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public TokenValidationCache(@Value("${jwt.validation-cache.max-entries:10000}") int maxEntries,
+                                @Value("${jwt.validation-cache.max-ttl:PT5M}") Duration maxTtl) {
+        this.validTokens = new ExpiringLruCache<>(maxEntries);
+        this.maxTtlMillis = maxTtl.toMillis();
+    }
+
+    public String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * @return the id of the cached token, empty if it has none, or {@code null} on a miss
+     */
+    public String validTokenId(String digest, long nowMillis) {
+        String jti = validTokens.get(digest, nowMillis);
+        if (jti != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return jti;
+    }
+
+    public void put(String digest, String jti, long tokenExpiresAtMillis, long nowMillis) {
+        long expiresAt = Math.min(tokenExpiresAtMillis, nowMillis + maxTtlMillis);
+        if (expiresAt > nowMillis) {
+            validTokens.put(digest, jti == null ? "" : jti, expiresAt);
+        }
+    }
+
+    public void invalidate(String digest) {
+        validTokens.invalidate(digest);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+}
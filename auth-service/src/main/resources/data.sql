@@ -18,3 +18,10 @@ SELECT '223e4567-e89b-12d3-a456-426614174006', 'testuser@test.com',
 );
 
 
+-- Tokens revoked before expiry; the id is the cursor the gateway resumes its stream from
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    jti VARCHAR(255) UNIQUE NOT NULL,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    revoked_at TIMESTAMP WITH TIME ZONE NOT NULL
+    );
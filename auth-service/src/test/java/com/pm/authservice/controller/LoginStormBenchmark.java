@@ -0,0 +1,138 @@
+package com.pm.authservice.controller;
+
+import com.pm.authservice.model.User;
+import com.pm.authservice.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test: {@code /validate} latency on its own, then while a crowd of clients hammers
+ * {@code /login}. With BCrypt on its bounded pool the login excess is shed with 429 and
+ * {@code /validate} keeps its latency. Run with
+ * {@code mvn test -Dbenchmarks=true -Dtest=LoginStormBenchmark}.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = "jwt.keys.dir=target/jwt-keys")
+class LoginStormBenchmark {
+
+    private static final int LOGIN_CLIENTS = Integer.getInteger("benchmark.login-clients", 400);
+    private static final Duration STORM = Duration.ofSeconds(Integer.getInteger("benchmark.seconds", 10));
+    private static final String LOGIN_BODY = """
+            {"email": "storm@test.com", "password": "password123"}
+            """;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private final HttpClient client = HttpClient.newBuilder()
+                                                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                                                .build();
+
+    @Test
+    void shouldKeepValidateLatencyDuringLoginStorm() throws Exception {
+        // Given
+        User user = new User();
+        user.setEmail("storm@test.com");
+        user.setPassword(passwordEncoder.encode("password123"));
+        user.setRole("USER");
+        userRepository.save(user);
+        HttpResponse<String> login = client.send(loginRequest(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, login.statusCode());
+        String token = login.body().replaceAll(".*\"token\"\\s*:\\s*\"([^\"]+)\".*", "$1");
+        long[] quiet = validateLatencies(token, Duration.ofSeconds(3));
+
+        // When
+        AtomicBoolean storming = new AtomicBoolean(true);
+        AtomicLong accepted = new AtomicLong();
+        AtomicLong shed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        long[] duringStorm;
+        try (ExecutorService loginClients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < LOGIN_CLIENTS; i++) {
+                loginClients.submit(() -> {
+                    while (storming.get()) {
+                        try {
+                            int status = client.send(loginRequest(), HttpResponse.BodyHandlers.discarding())
+                                               .statusCode();
+                            (status == 200 ? accepted : status == 429 ? shed : failed).incrementAndGet();
+                            if (status == 429) {
+                                // well-behaved clients honour Retry-After
+                                Thread.sleep(1000);
+                            }
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            duringStorm = validateLatencies(token, STORM);
+            storming.set(false);
+        }
+
+        // Then
+        System.out.printf("/validate alone:        p50 %.2f ms, p99 %.2f ms%n",
+                          percentile(quiet, 50), percentile(quiet, 99));
+        System.out.printf("/validate during storm: p50 %.2f ms, p99 %.2f ms%n",
+                          percentile(duringStorm, 50), percentile(duringStorm, 99));
+        System.out.printf("/login: %d accepted, %d shed with 429, %d failed%n",
+                          accepted.get(), shed.get(), failed.get());
+        assertTrue(shed.get() > 0);
+        assertEquals(0, failed.get());
+    }
+
+    private long[] validateLatencies(String token, Duration duration) throws Exception {
+        HttpRequest validate = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/validate"))
+                                          .header("Authorization", "Bearer " + token)
+                                          .build();
+        List<Long> latencies = new ArrayList<>();
+        long end = System.nanoTime() + duration.toNanos();
+        while (System.nanoTime() < end) {
+            long start = System.nanoTime();
+            HttpResponse<Void> response = client.send(validate, HttpResponse.BodyHandlers.discarding());
+            latencies.add(System.nanoTime() - start);
+            assertEquals(200, response.statusCode());
+        }
+        return latencies.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private HttpRequest loginRequest() {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/login"))
+                          .header("Content-Type", "application/json")
+                          .POST(HttpRequest.BodyPublishers.ofString(LOGIN_BODY))
+                          .build();
+    }
+
+    private static double percentile(long[] nanos, double percentile) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,150 @@
+package com.pm.authservice.service;
+
+import com.pm.authservice.dto.RevocationDTO;
+import com.pm.authservice.model.RevokedToken;
+import com.pm.authservice.repository.RevokedTokenRepository;
+import com.pm.authservice.util.JwtUtil;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(properties = "jwt.keys.dir=target/jwt-keys")
+class RevocationServiceTest {
+
+    @MockitoSpyBean
+    private RevocationService revocationService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoSpyBean
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    void shouldRejectCachedTokenOnceRevoked() {
+        // Given
+        String token = jwtUtil.generateToken("revoked@test.com", "USER");
+        jwtUtil.validateToken(token);
+
+        // When
+        revocationService.revoke(token);
+
+        // Then
+        assertThrows(JwtException.class, () -> jwtUtil.validateToken(token));
+    }
+
+    @Test
+    void shouldReplayRevocationsAfterCursorOnce() {
+        // Given
+        String first = jwtUtil.generateToken("first@test.com", "USER");
+        String second = jwtUtil.generateToken("second@test.com", "USER");
+        revocationService.revoke(first);
+        long cursor = revokedTokenRepository.findAll().stream()
+                                            .mapToLong(RevokedToken::getId)
+                                            .max()
+                                            .orElseThrow();
+
+        // When
+        revocationService.revoke(second);
+        revocationService.revoke(second);
+
+        // Then
+        List<RevokedToken> replay = revokedTokenRepository.findByIdGreaterThanAndExpiresAtAfterOrderByIdAsc(cursor, Instant.now());
+        assertEquals(1, replay.size());
+        assertEquals(jwtUtil.parseClaims(second).getId(), replay.get(0).getJti());
+    }
+
+    @Test
+    void shouldKeepOtherTokensValid() {
+        // Given
+        String revoked = jwtUtil.generateToken("same@test.com", "USER");
+        String other = jwtUtil.generateToken("same@test.com", "USER");
+
+        // When
+        revocationService.revoke(revoked);
+
+        // Then
+        assertDoesNotThrow(() -> jwtUtil.validateToken(other));
+    }
+
+    @Test
+    void shouldStreamRevocationOnlyAfterCommit() {
+        // Given
+        String token = jwtUtil.generateToken("streamed@test.com", "USER");
+        String jti = jwtUtil.parseClaims(token).getId();
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            revocationService.revoke(token);
+            verify(revocationService, never()).publishRevocation(any(RevocationDTO.class));
+        });
+
+        // Then
+        verify(revocationService).publishRevocation(argThat(event -> jti.equals(event.getJti())));
+    }
+
+    @Test
+    void shouldNotStreamRolledBackRevocation() {
+        // Given
+        String token = jwtUtil.generateToken("rolledback@test.com", "USER");
+        String jti = jwtUtil.parseClaims(token).getId();
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            revocationService.revoke(token);
+            status.setRollbackOnly();
+        });
+
+        // Then
+        verify(revocationService, never()).publishRevocation(argThat(event -> jti.equals(event.getJti())));
+        assertFalse(revokedTokenRepository.existsByJti(jti));
+    }
+
+    @Test
+    void shouldApplyRevocationMadeOnAnotherInstance() {
+        // Given
+        String token = jwtUtil.generateToken("elsewhere@test.com", "USER");
+        jwtUtil.validateToken(token);
+        RevokedToken revoked = new RevokedToken();
+        revoked.setJti(jwtUtil.parseClaims(token).getId());
+        revoked.setExpiresAt(jwtUtil.parseClaims(token).getExpiration().toInstant());
+        revoked.setRevokedAt(Instant.now());
+        revokedTokenRepository.save(revoked);
+
+        // When
+        revocationService.followRevocations();
+
+        // Then
+        assertThrows(JwtException.class, () -> jwtUtil.validateToken(token));
+    }
+
+    @Test
+    void shouldTreatConcurrentRevocationAsAlreadyRevoked() {
+        // Given
+        String token = jwtUtil.generateToken("concurrent@test.com", "USER");
+        String jti = jwtUtil.parseClaims(token).getId();
+        revocationService.revoke(token);
+        // the other revocation committed after this one checked
+        doReturn(false).doReturn(true).when(revokedTokenRepository).existsByJti(jti);
+
+        // When & Then
+        assertDoesNotThrow(() -> revocationService.revoke(token));
+        assertThrows(JwtException.class, () -> jwtUtil.validateToken(token));
+    }
+}
@@ -0,0 +1,75 @@
+package com.pm.authservice.service;
+
+import com.pm.authservice.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserCacheTest {
+
+    @Test
+    void shouldQueryDatabaseOnceForRepeatedUnknownEmail() {
+        // Given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UserCache cache = new UserCache(100, Duration.ofMinutes(5), Duration.ofMinutes(1), meterRegistry);
+        AtomicInteger queries = new AtomicInteger();
+
+        // When
+        for (int i = 0; i < 50; i++) {
+            assertTrue(cache.get("nobody@test.com", email -> {
+                queries.incrementAndGet();
+                return Optional.empty();
+            }).isEmpty());
+        }
+
+        // Then
+        assertEquals(1, queries.get());
+        assertEquals(49, meterRegistry.counter("auth.user_cache.lookups", "result", "negative_hit").count());
+        assertEquals(0.98, meterRegistry.get("auth.user_cache.hit_ratio").gauge().value(), 1e-9);
+    }
+
+    @Test
+    void shouldReloadUserAfterInvalidation() {
+        // Given
+        UserCache cache = new UserCache(100, Duration.ofMinutes(5), Duration.ofMinutes(1),
+                                        new SimpleMeterRegistry());
+        cache.get("new@test.com", email -> Optional.empty());
+        User user = new User();
+        user.setEmail("new@test.com");
+
+        // When
+        cache.invalidate("new@test.com");
+        Optional<User> found = cache.get("new@test.com", email -> Optional.of(user));
+
+        // Then
+        assertSame(user, found.orElseThrow());
+    }
+
+    @Test
+    void shouldExpireNegativeEntriesBeforePositiveOnes() throws InterruptedException {
+        // Given
+        UserCache cache = new UserCache(100, Duration.ofMinutes(5), Duration.ofMillis(20),
+                                        new SimpleMeterRegistry());
+        User user = new User();
+        cache.get("known@test.com", email -> Optional.of(user));
+        cache.get("unknown@test.com", email -> Optional.empty());
+
+        // When
+        Thread.sleep(40);
+        AtomicInteger queries = new AtomicInteger();
+        cache.get("known@test.com", email -> Optional.of(new User()));
+        cache.get("unknown@test.com", email -> {
+            queries.incrementAndGet();
+            return Optional.empty();
+        });
+
+        // Then
+        assertSame(user, cache.get("known@test.com", email -> Optional.empty()).orElseThrow());
+        assertEquals(1, queries.get());
+    }
+}
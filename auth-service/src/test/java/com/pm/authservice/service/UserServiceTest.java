@@ -0,0 +1,54 @@
+package com.pm.authservice.service;
+
+import com.pm.authservice.model.User;
+import com.pm.authservice.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "jwt.keys.dir=target/jwt-keys")
+class UserServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void shouldFindUserSavedAfterCachedMiss() {
+        // Given
+        assertTrue(userService.findByEmail("late@test.com").isEmpty());
+
+        // When
+        User user = new User();
+        user.setEmail("late@test.com");
+        user.setPassword("hash");
+        user.setRole("USER");
+        userRepository.save(user);
+
+        // Then
+        assertTrue(userService.findByEmail("late@test.com").isPresent());
+    }
+
+    @Test
+    void shouldNotServeStaleUserAfterEmailChange() {
+        // Given
+        User user = new User();
+        user.setEmail("before@test.com");
+        user.setPassword("hash");
+        user.setRole("USER");
+        user = userRepository.save(user);
+        assertTrue(userService.findByEmail("before@test.com").isPresent());
+
+        // When
+        user.setEmail("after@test.com");
+        userRepository.save(user);
+
+        // Then
+        assertTrue(userService.findByEmail("before@test.com").isEmpty());
+        assertTrue(userService.findByEmail("after@test.com").isPresent());
+    }
+}
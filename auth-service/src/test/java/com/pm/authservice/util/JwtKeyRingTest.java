@@ -0,0 +1,126 @@
+package com.pm.authservice.util;
+
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeyRingTest {
+
+    private static final Duration ROTATION = Duration.ofHours(24);
+    private static final Duration ACTIVATION_DELAY = Duration.ofMinutes(2);
+    private static final Duration RETENTION = Duration.ofHours(11);
+
+    @TempDir
+    private Path keyDirectory;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+
+    @Test
+    void shouldShareKeysBetweenInstancesAndRestarts() {
+        // Given
+        JwtKeyRing first = newRing();
+        String token = Jwts.builder()
+                           .header().keyId(first.currentKeyId()).and()
+                           .subject("user@example.com")
+                           .signWith(first.currentPrivateKey(), Jwts.SIG.RS256)
+                           .compact();
+
+        // When
+        JwtKeyRing second = newRing();
+
+        // Then
+        assertEquals(first.currentKeyId(), second.currentKeyId());
+        assertEquals(first.publicKeys(), second.publicKeys());
+        assertEquals("user@example.com", Jwts.parser()
+                                             .verifyWith(second.publicKey(first.currentKeyId()))
+                                             .build()
+                                             .parseSignedClaims(token)
+                                             .getPayload()
+                                             .getSubject());
+    }
+
+    @Test
+    void shouldSignWithRotatedKeyOnlyAfterActivationDelay() {
+        // Given
+        JwtKeyRing rotating = newRing();
+        JwtKeyRing other = newRing();
+        String original = rotating.currentKeyId();
+
+        // When
+        clock.advance(ROTATION);
+        rotating.refresh();
+        other.refresh();
+
+        // Then
+        assertEquals(2, other.publicKeys().size());
+        assertEquals(original, rotating.currentKeyId());
+        assertEquals(original, other.currentKeyId());
+
+        // When
+        clock.advance(ACTIVATION_DELAY);
+        rotating.refresh();
+        other.refresh();
+
+        // Then
+        assertNotEquals(original, rotating.currentKeyId());
+        assertEquals(rotating.currentKeyId(), other.currentKeyId());
+    }
+
+    @Test
+    void shouldDeleteReplacedKeyAfterRetention() {
+        // Given
+        JwtKeyRing ring = newRing();
+        String original = ring.currentKeyId();
+        clock.advance(ROTATION);
+        ring.refresh();
+
+        // When
+        clock.advance(ACTIVATION_DELAY.plus(RETENTION).plusSeconds(1));
+        ring.refresh();
+
+        // Then
+        assertNull(ring.publicKey(original));
+        assertNull(newRing().publicKey(original));
+        assertEquals(1, ring.publicKeys().size());
+    }
+
+    private JwtKeyRing newRing() {
+        return new JwtKeyRing(keyDirectory, 2048, ROTATION, ACTIVATION_DELAY, RETENTION, clock);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
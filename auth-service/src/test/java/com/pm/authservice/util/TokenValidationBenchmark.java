@@ -0,0 +1,129 @@
+package com.pm.authservice.util;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.ProtectedHeader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput of the {@code /validate} work ({@link JwtUtil#validateToken}) with a parser built per
+ * call (the previous behaviour), a reused parser, and a reused parser plus
+ * {@link TokenValidationCache}. Requests pick tokens from a Zipf distribution, since a few busy
+ * clients send most of the traffic. Run with
+ * {@code mvn test -Dbenchmarks=true -Dtest=TokenValidationBenchmark}.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class TokenValidationBenchmark {
+
+    private static final int TOKENS = Integer.getInteger("benchmark.tokens", 5_000);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 200_000);
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 8);
+    private static final double ZIPF_EXPONENT = 1.0;
+
+    @TempDir
+    private Path keyDirectory;
+
+    private JwtKeyRing keyRing;
+    private String[] requests;
+
+    @BeforeEach
+    void issueTokens() {
+        keyRing = new JwtKeyRing(keyDirectory, 2048, Duration.ofHours(24), Duration.ZERO, Duration.ofHours(11));
+        JwtUtil issuer = new JwtUtil(keyRing, new TokenValidationCache(0, Duration.ZERO), new RevokedTokens());
+        String[] tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = issuer.generateToken("user" + i + "@example.com", "USER");
+        }
+        requests = zipfRequests(tokens);
+    }
+
+    @Test
+    void shouldValidateFasterWithReusedParserAndCache() throws Exception {
+        // Given
+        JwtUtil uncached = new JwtUtil(keyRing, new TokenValidationCache(0, Duration.ZERO), new RevokedTokens());
+        TokenValidationCache cache = new TokenValidationCache(10_000, Duration.ofMinutes(5));
+        JwtUtil cached = new JwtUtil(keyRing, cache, new RevokedTokens());
+
+        // When
+        run(this::validateWithNewParser);
+        double perCallParser = run(this::validateWithNewParser);
+        run(uncached::validateToken);
+        double reusedParser = run(uncached::validateToken);
+        double reusedParserAndCache = run(cached::validateToken);
+
+        // Then
+        System.out.printf("parser per call:        %,.0f validations/s%n", perCallParser);
+        System.out.printf("reused parser:          %,.0f validations/s%n", reusedParser);
+        System.out.printf("reused parser + cache:  %,.0f validations/s (hit rate %.1f%%)%n",
+                          reusedParserAndCache,
+                          100.0 * cache.getHits() / (cache.getHits() + cache.getMisses()));
+        assertEquals(REQUESTS, cache.getHits() + cache.getMisses());
+    }
+
+    private void validateWithNewParser(String token) {
+        try {
+            Jwts.parser()
+                .keyLocator(header -> header instanceof ProtectedHeader protectedHeader
+                        ? keyRing.publicKey(protectedHeader.getKeyId())
+                        : null)
+                .build()
+                .parseSignedClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new JwtException("Invalid JWT");
+        }
+    }
+
+    private double run(Consumer<String> validator) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int offset = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = offset; i < requests.length; i += THREADS) {
+                        validator.accept(requests[i]);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return requests.length / ((System.nanoTime() - start) / 1e9);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static String[] zipfRequests(String[] tokens) {
+        double[] cumulative = new double[tokens.length];
+        double total = 0;
+        for (int rank = 0; rank < tokens.length; rank++) {
+            total += 1 / Math.pow(rank + 1, ZIPF_EXPONENT);
+            cumulative[rank] = total;
+        }
+        Random random = new Random(42);
+        String[] requests = new String[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            requests[i] = tokens[index >= 0 ? index : -index - 1];
+        }
+        return requests;
+    }
+}
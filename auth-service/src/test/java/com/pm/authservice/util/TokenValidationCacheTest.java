@@ -0,0 +1,73 @@
+package com.pm.authservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenValidationCacheTest {
+
+    @Test
+    void shouldNotOutliveTokenExpiry() {
+        // Given
+        TokenValidationCache cache = new TokenValidationCache(100, Duration.ofMinutes(5));
+        String digest = cache.digest("token");
+
+        // When
+        cache.put(digest, "jti", 1_000 + 30_000, 1_000);
+
+        // Then
+        assertNotNull(cache.validTokenId(digest, 30_999));
+        assertNull(cache.validTokenId(digest, 31_000));
+    }
+
+    @Test
+    void shouldCapEntryLifetimeAtMaxTtl() {
+        // Given
+        TokenValidationCache cache = new TokenValidationCache(100, Duration.ofSeconds(10));
+        String digest = cache.digest("token");
+
+        // When
+        cache.put(digest, "jti", Long.MAX_VALUE, 0);
+
+        // Then
+        assertNotNull(cache.validTokenId(digest, 9_999));
+        assertNull(cache.validTokenId(digest, 10_000));
+    }
+
+    @Test
+    void shouldStayWithinMaxEntries() {
+        // Given
+        TokenValidationCache cache = new TokenValidationCache(160, Duration.ofMinutes(5));
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            cache.put(cache.digest("token-" + i), "jti", Long.MAX_VALUE, 0);
+        }
+        int cached = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (cache.validTokenId(cache.digest("token-" + i), 1) != null) {
+                cached++;
+            }
+        }
+
+        // Then
+        assertTrue(cached <= 160, "cached " + cached);
+        assertNotNull(cache.validTokenId(cache.digest("token-9999"), 1));
+    }
+
+    @Test
+    void shouldForgetInvalidatedToken() {
+        // Given
+        TokenValidationCache cache = new TokenValidationCache(100, Duration.ofMinutes(5));
+        String digest = cache.digest("token");
+        cache.put(digest, "jti", Long.MAX_VALUE, 0);
+
+        // When
+        cache.invalidate(digest);
+
+        // Then
+        assertNull(cache.validTokenId(digest, 1));
+    }
+}
@@ -0,0 +1,107 @@
+package loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A stored run to compare against. A run regresses when an operation's p99 grows by more than the
+ * tolerance (plus a few milliseconds, so sub-millisecond noise does not fail the build), when
+ * throughput falls by more than the tolerance, when more than 1% of requests fail, or when any
+ * request was dropped at the in-flight limit. A p99 from fewer than 100 samples is just the slowest
+ * request, so a run or baseline too short to give every operation that many is rejected rather
+ * than compared.
+ */
+class Baseline {
+
+    private static final double MAX_ERROR_RATE = 0.01;
+    private static final double P99_SLACK_MS = 5;
+    private static final long MIN_P99_SAMPLES = 100;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final File file;
+
+    Baseline(File file) {
+        this.file = file;
+    }
+
+    boolean exists() {
+        return file.isFile();
+    }
+
+    void write(LoadReport report) throws IOException {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("rate", report.getTargetRate());
+        root.put("throughput", round(report.getThroughput()));
+        ObjectNode operations = root.putObject("operations");
+        for (Map.Entry<String, LoadReport.OperationStats> entry : report.getOperations().entrySet()) {
+            LoadReport.OperationStats stats = entry.getValue();
+            ObjectNode operation = operations.putObject(entry.getKey());
+            operation.put("count", stats.getCount());
+            operation.put("p50", round(stats.getP50()));
+            operation.put("p99", round(stats.getP99()));
+            operation.put("p999", round(stats.getP999()));
+        }
+        file.getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, root);
+    }
+
+    /**
+     * @return a description of each regression; empty when the run is within tolerance
+     */
+    List<String> compare(LoadReport report, double tolerance) throws IOException {
+        List<String> regressions = new ArrayList<>();
+        JsonNode root = objectMapper.readTree(file);
+        if (root.path("rate").asDouble() != report.getTargetRate()) {
+            regressions.add(String.format("baseline was recorded at %.1f req/s, this run used %.1f",
+                                          root.path("rate").asDouble(), report.getTargetRate()));
+            return regressions;
+        }
+
+        if (report.getDropped() > 0) {
+            regressions.add(String.format("%d requests dropped at the in-flight limit", report.getDropped()));
+        }
+        double baselineThroughput = root.path("throughput").asDouble();
+        if (report.getThroughput() < baselineThroughput * (1 - tolerance)) {
+            regressions.add(String.format("throughput %.1f req/s, baseline %.1f",
+                                          report.getThroughput(), baselineThroughput));
+        }
+        for (Map.Entry<String, LoadReport.OperationStats> entry : report.getOperations().entrySet()) {
+            LoadReport.OperationStats stats = entry.getValue();
+            if (stats.getErrorRate() > MAX_ERROR_RATE) {
+                regressions.add(String.format("%s error rate %.2f%%", entry.getKey(), stats.getErrorRate() * 100));
+            }
+        }
+        Iterator<Map.Entry<String, JsonNode>> operations = root.path("operations").fields();
+        while (operations.hasNext()) {
+            Map.Entry<String, JsonNode> baseline = operations.next();
+            LoadReport.OperationStats stats = report.getOperations().get(baseline.getKey());
+            double baselineP99 = baseline.getValue().path("p99").asDouble();
+            if (stats == null) {
+                continue;
+            }
+            long samples = Math.min(stats.getCount(), baseline.getValue().path("count").asLong());
+            if (samples < MIN_P99_SAMPLES) {
+                regressions.add(String.format("%s has %d samples, too few for a p99; run longer or at a higher rate",
+                                              baseline.getKey(), samples));
+                continue;
+            }
+            if (stats.getP99() > baselineP99 * (1 + tolerance) + P99_SLACK_MS) {
+                regressions.add(String.format("%s p99 %.2f ms, baseline %.2f ms",
+                                              baseline.getKey(), stats.getP99(), baselineP99));
+            }
+        }
+        return regressions;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
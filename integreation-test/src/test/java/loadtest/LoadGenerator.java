@@ -0,0 +1,88 @@
+package loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: requests start on a fixed schedule at the target rate whether or not earlier
+ * ones have finished, the way independent users arrive. Latency is measured from the scheduled
+ * start, not the actual send, so a stall that delays later requests is charged to them instead
+ * of disappearing from the percentiles (coordinated omission).
+ */
+class LoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Workload workload;
+    private final double ratePerSecond;
+    private final int maxInFlight;
+
+    LoadGenerator(Workload workload, double ratePerSecond, int maxInFlight) {
+        this.workload = workload;
+        this.ratePerSecond = ratePerSecond;
+        this.maxInFlight = maxInFlight;
+    }
+
+    LoadReport run(Duration duration) {
+        Map<Workload.Operation, Histogram> latencies = new EnumMap<>(Workload.Operation.class);
+        Map<Workload.Operation, AtomicLong> errors = new EnumMap<>(Workload.Operation.class);
+        for (Workload.Operation operation : Workload.Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(operation, new AtomicLong());
+        }
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicLong dropped = new AtomicLong();
+        CompletableFuture<?>[] pending = new CompletableFuture<?>[maxInFlight];
+
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long scheduled = 0;
+        for (long intended = start; intended < end; intended = start + (long) (++scheduled * intervalNanos)) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Workload.Operation operation = workload.next();
+            if (inFlight.get() >= maxInFlight) {
+                // the system is not keeping up; fail it rather than queue without bound, charged as
+                // if it had timed out so a saturated run cannot report good percentiles
+                latencies.get(operation).recordValue(HIGHEST_TRACKABLE_MICROS);
+                errors.get(operation).incrementAndGet();
+                dropped.incrementAndGet();
+                continue;
+            }
+            inFlight.incrementAndGet();
+            long intendedStart = intended;
+            CompletableFuture<Integer> request = workload.execute(operation);
+            pending[(int) (scheduled % maxInFlight)] = request.whenComplete((status, error) -> {
+                long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+                latencies.get(operation).recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+                if (error != null || status < 200 || status >= 300) {
+                    errors.get(operation).incrementAndGet();
+                }
+                inFlight.decrementAndGet();
+            });
+        }
+
+        awaitInFlight(inFlight);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        return new LoadReport(ratePerSecond, elapsedSeconds, latencies, errors, dropped.get());
+    }
+
+    private static void awaitInFlight(AtomicInteger inFlight) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+}
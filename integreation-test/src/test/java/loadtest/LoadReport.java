@@ -0,0 +1,122 @@
+package loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Percentiles (in milliseconds) and error counts per operation from one {@link LoadGenerator} run.
+ */
+class LoadReport {
+
+    private final double targetRate;
+    private final double throughput;
+    private final long dropped;
+    private final Map<String, OperationStats> operations = new LinkedHashMap<>();
+
+    LoadReport(double targetRate, double elapsedSeconds,
+               Map<Workload.Operation, Histogram> latencies,
+               Map<Workload.Operation, AtomicLong> errors, long dropped) {
+        this.targetRate = targetRate;
+        this.dropped = dropped;
+        Histogram total = new Histogram(3);
+        long completed = 0;
+        long totalErrors = 0;
+        for (Map.Entry<Workload.Operation, Histogram> entry : latencies.entrySet()) {
+            Histogram histogram = entry.getValue();
+            long operationErrors = errors.get(entry.getKey()).get();
+            if (histogram.getTotalCount() == 0 && operationErrors == 0) {
+                continue;
+            }
+            total.add(histogram);
+            completed += histogram.getTotalCount();
+            totalErrors += operationErrors;
+            operations.put(entry.getKey().name().toLowerCase(), new OperationStats(histogram, operationErrors));
+        }
+        operations.put("all", new OperationStats(total, totalErrors));
+        // only successful responses count towards throughput
+        this.throughput = (completed - totalErrors) / elapsedSeconds;
+    }
+
+    double getTargetRate() {
+        return targetRate;
+    }
+
+    double getThroughput() {
+        return throughput;
+    }
+
+    /**
+     * @return requests never sent because {@code max-in-flight} were already waiting
+     */
+    long getDropped() {
+        return dropped;
+    }
+
+    Map<String, OperationStats> getOperations() {
+        return operations;
+    }
+
+    String format() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("target %.1f req/s, achieved %.1f req/s, %d dropped%n",
+                                 targetRate, throughput, dropped));
+        out.append(String.format("%-8s %8s %7s %9s %9s %9s %9s%n",
+                                 "op", "count", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        for (Map.Entry<String, OperationStats> entry : operations.entrySet()) {
+            OperationStats stats = entry.getValue();
+            out.append(String.format("%-8s %8d %7d %9.2f %9.2f %9.2f %9.2f%n", entry.getKey(),
+                                     stats.getCount(), stats.getErrors(), stats.getP50(),
+                                     stats.getP99(), stats.getP999(), stats.getMax()));
+        }
+        return out.toString();
+    }
+
+    static class OperationStats {
+        private final long count;
+        private final long errors;
+        private final double p50;
+        private final double p99;
+        private final double p999;
+        private final double max;
+
+        OperationStats(Histogram micros, long errors) {
+            this.count = micros.getTotalCount();
+            this.errors = errors;
+            this.p50 = micros.getValueAtPercentile(50) / 1000.0;
+            this.p99 = micros.getValueAtPercentile(99) / 1000.0;
+            this.p999 = micros.getValueAtPercentile(99.9) / 1000.0;
+            this.max = micros.getMaxValue() / 1000.0;
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        long getErrors() {
+            return errors;
+        }
+
+        double getErrorRate() {
+            return count == 0 ? (errors > 0 ? 1 : 0) : (double) errors / count;
+        }
+
+        double getP50() {
+            return p50;
+        }
+
+        double getP99() {
+            return p99;
+        }
+
+        double getP999() {
+            return p999;
+        }
+
+        double getMax() {
+            return max;
+        }
+    }
+}
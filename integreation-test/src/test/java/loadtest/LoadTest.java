@@ -0,0 +1,90 @@
+package loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives a login/create/read/update/delete mix through the gateway at a fixed arrival rate and
+ * compares p99s, throughput and error rates against {@code src/test/resources/loadtest/baseline.json}.
+ * Without {@code -Dloadtest.target} the whole stack is started locally by {@link LocalStack}.
+ *
+ * <pre>
+ * (cd tracing-export && mvn install)
+ * (cd auth-service && mvn -DskipTests -Ploadtest package)
+ * (cd patient-service && mvn -DskipTests -Ploadtest package)
+ * (cd api-gateway && mvn -DskipTests -Ploadtest package)
+ * cd integreation-test && mvn test -Dloadtest=true -Dtest=LoadTest -Dloadtest.rate=10
+ * </pre>
+ *
+ * Other properties: {@code loadtest.duration} and {@code loadtest.warmup} (ISO-8601, default PT300S
+ * and PT30S; at 10 req/s five minutes gives a 5% operation the 100 samples a p99 needs), {@code loadtest.mix}, {@code loadtest.max-in-flight}, {@code loadtest.tolerance}
+ * (default 0.25) and {@code loadtest.update-baseline=true} to record a new baseline.
+ *
+ * <p>With the local stack, the run ends with a {@link TraceBreakdown} of the slowest 1% of measured
+ * requests.
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class LoadTest {
+
+    @Test
+    void shouldStayWithinBaseline() throws Exception {
+        // Given
+        double rate = Double.parseDouble(System.getProperty("loadtest.rate", "10"));
+        Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT300S"));
+        Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT30S"));
+        String mix = System.getProperty("loadtest.mix", "login:5,create:15,read:60,update:15,delete:5");
+        int maxInFlight = Integer.getInteger("loadtest.max-in-flight", 2000);
+        double tolerance = Double.parseDouble(System.getProperty("loadtest.tolerance", "0.25"));
+        Baseline baseline = new Baseline(new File("src/test/resources/loadtest/baseline.json"));
+        String target = System.getProperty("loadtest.target");
+
+        LocalStack stack = null;
+        Instant measuredFrom = Instant.now();
+        if (target == null) {
+            stack = new LocalStack(new File("..").getCanonicalFile());
+            stack.start();
+            target = "http://localhost:" + LocalStack.GATEWAY_PORT;
+        }
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                                          .executor(Executors.newVirtualThreadPerTaskExecutor())
+                                          .connectTimeout(Duration.ofSeconds(5))
+                                          .build();
+            Workload workload = new Workload(URI.create(target), client, mix);
+            workload.login();
+            LoadGenerator generator = new LoadGenerator(workload, rate, maxInFlight);
+            generator.run(warmup);
+
+            // When
+            measuredFrom = Instant.now();
+            LoadReport report = generator.run(duration);
+
+            // Then
+            System.out.println(report.format());
+            if (!baseline.exists() || Boolean.getBoolean("loadtest.update-baseline")) {
+                assertEquals(0, report.getDropped(), "Not recording a baseline from a saturated run");
+                baseline.write(report);
+                return;
+            }
+            List<String> regressions = baseline.compare(report, tolerance);
+            assertTrue(regressions.isEmpty(), "Regressed against baseline: " + regressions);
+        } finally {
+            if (stack != null) {
+                // services flush their remaining spans on shutdown
+                stack.close();
+                System.out.println(TraceBreakdown.load(LocalStack.TRACE_DIR, measuredFrom).format(99));
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package loadtest;
+
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * auth-service, patient-service and the gateway started from their packaged jars on localhost,
+ * with H2 instead of Postgres, an embedded Kafka broker and {@link StubBillingServer}. Build the
+ * jars first ({@code mvn install} in tracing-export, then {@code mvn -DskipTests -Ploadtest package}
+ * in each service). Logs go to {@code target/loadtest/<service>.log} and spans to
+ * {@code target/loadtest/traces/<service>.jsonl}.
+ */
+class LocalStack implements AutoCloseable {
+
+    static final int GATEWAY_PORT = 4004;
+    private static final int GATEWAY_MANAGEMENT_PORT = 4014;
+    static final File TRACE_DIR = new File("target/loadtest/traces");
+    private static final int AUTH_PORT = 4005;
+    private static final int PATIENT_PORT = 4000;
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private final File projectDir;
+    private final EmbeddedKafkaKraftBroker kafka;
+    private final StubBillingServer billing;
+    private final List<Process> services = new ArrayList<>();
+
+    LocalStack(File projectDir) throws IOException {
+        this.projectDir = projectDir;
+        this.kafka = new EmbeddedKafkaKraftBroker(1, 1, "patient");
+        this.kafka.afterPropertiesSet();
+        this.billing = new StubBillingServer();
+    }
+
+    void start() throws Exception {
+        start("auth-service", AUTH_PORT,
+              "--spring.datasource.url=jdbc:h2:mem:auth;DATABASE_TO_LOWER=TRUE",
+              "--spring.jpa.defer-datasource-initialization=true",
+              "--jwt.keys.dir=" + new File("target/loadtest/jwt-keys").getAbsolutePath());
+        start("patient-service", PATIENT_PORT,
+              "--spring.datasource.url=jdbc:h2:mem:patients",
+              "--spring.jpa.hibernate.ddl-auto=update",
+              "--spring.sql.init.mode=always",
+              "--spring.kafka.bootstrap-servers=" + kafka.getBrokersAsString(),
+              "--billing.service.address=localhost",
+              "--billing.service.grpc.port=" + billing.getPort());
+        awaitPort(AUTH_PORT);
+        // The gateway fetches signing keys and revocations from auth-service at startup
+        start("api-gateway", GATEWAY_PORT,
+              "--auth.service.url=http://localhost:" + AUTH_PORT,
+              "--services.auth.uri=http://localhost:" + AUTH_PORT,
+              "--services.patient.uri=http://localhost:" + PATIENT_PORT,
+              // One test user generates all the traffic, so per-client limits would only measure 429s
+              "--ratelimit.auth.capacity=1000000",
+              "--ratelimit.auth.tokens-per-second=1000000",
+              "--ratelimit.patients.capacity=1000000",
+              "--ratelimit.patients.tokens-per-second=1000000");
+        awaitPort(PATIENT_PORT);
+        awaitGatewayHealthy();
+    }
+
+    private void start(String service, int port, String... args) throws IOException {
+        File jar = new File(projectDir, service + "/target/" + service + "-0.0.1-SNAPSHOT.jar");
+        if (!jar.isFile()) {
+            throw new IllegalStateException(jar + " not found; run mvn -DskipTests -Ploadtest package in " + service);
+        }
+        File logDir = new File("target/loadtest");
+        logDir.mkdirs();
+        File traceFile = new File(TRACE_DIR, service + ".jsonl");
+        Files.deleteIfExists(traceFile.toPath());
+
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.add("-Xmx512m");
+        command.add("-jar");
+        command.add(jar.getAbsolutePath());
+        command.add("--server.port=" + port);
+        // Every request is traced, so the slowest can be broken down afterwards
+        command.add("--management.tracing.sampling.probability=1.0");
+        command.add("--tracing.export.enabled=true");
+        command.add("--tracing.export.file=" + traceFile.getAbsolutePath());
+        command.addAll(List.of(args));
+        services.add(new ProcessBuilder(command)
+                             .redirectErrorStream(true)
+                             .redirectOutput(new File(logDir, service + ".log"))
+                             .start());
+    }
+
+    private void awaitPort(int port) throws InterruptedException {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            assertServicesAlive();
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress("localhost", port), 500);
+                return;
+            } catch (IOException e) {
+                Thread.sleep(500);
+            }
+        }
+        throw new IllegalStateException("Nothing listening on port " + port + " after " + STARTUP_TIMEOUT);
+    }
+
+    private void awaitGatewayHealthy() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest health = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + GATEWAY_MANAGEMENT_PORT + "/actuator/health")).build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            assertServicesAlive();
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("Gateway not healthy after " + STARTUP_TIMEOUT);
+    }
+
+    private void assertServicesAlive() {
+        for (Process service : services) {
+            if (!service.isAlive()) {
+                throw new IllegalStateException("A service exited during startup, see target/loadtest/*.log");
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        services.forEach(Process::destroy);
+        for (Process service : services) {
+            try {
+                service.waitFor();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        billing.close();
+        kafka.destroy();
+    }
+}
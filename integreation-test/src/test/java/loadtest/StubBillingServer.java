@@ -0,0 +1,42 @@
+package loadtest;
+
+import billing.BillingRequest;
+import billing.BillingResponse;
+import billing.BillingServiceGrpc;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.stub.StreamObserver;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * In-process stand-in for billing-service's gRPC endpoint, so patient creation works without it.
+ * Answers immediately, which keeps billing out of the measured latency.
+ */
+class StubBillingServer extends BillingServiceGrpc.BillingServiceImplBase implements AutoCloseable {
+
+    private final Server server;
+
+    StubBillingServer() throws IOException {
+        this.server = ServerBuilder.forPort(0).addService(this).build().start();
+    }
+
+    int getPort() {
+        return server.getPort();
+    }
+
+    @Override
+    public void createBillingAccount(BillingRequest request, StreamObserver<BillingResponse> responseObserver) {
+        responseObserver.onNext(BillingResponse.newBuilder()
+                                               .setAccountId(UUID.randomUUID().toString())
+                                               .setStatus("ACTIVE")
+                                               .build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void close() {
+        server.shutdownNow();
+    }
+}
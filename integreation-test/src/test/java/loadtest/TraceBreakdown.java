@@ -0,0 +1,156 @@
+package loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Where the slowest requests spent their time, from the JSON-lines span files every service writes
+ * ({@code tracing.export.file}). Traces are ranked by their root span; for the slowest ones the
+ * self time of each span (its duration minus that of its children) is summed per service and span
+ * name and compared with the same figure over all traces.
+ */
+class TraceBreakdown {
+
+    private final Map<String, List<SpanRecord>> traces = new HashMap<>();
+    private long sinceEpochNanos;
+
+    /**
+     * @param since only traces whose root span started at or after this count, e.g. to skip warmup
+     */
+    static TraceBreakdown load(File directory, Instant since) throws IOException {
+        TraceBreakdown breakdown = new TraceBreakdown();
+        breakdown.sinceEpochNanos = since.getEpochSecond() * 1_000_000_000L + since.getNano();
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(".jsonl"));
+        if (files == null) {
+            return breakdown;
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        for (File file : files) {
+            try (BufferedReader reader = Files.newBufferedReader(file.toPath())) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        SpanRecord span = new SpanRecord(objectMapper.readTree(line));
+                        breakdown.traces.computeIfAbsent(span.traceId, id -> new ArrayList<>()).add(span);
+                    }
+                }
+            }
+        }
+        return breakdown;
+    }
+
+    /**
+     * @param percentile traces whose root span is at or above this percentile count as slow
+     */
+    String format(double percentile) {
+        List<Trace> ranked = new ArrayList<>();
+        for (List<SpanRecord> spans : traces.values()) {
+            Trace trace = Trace.of(spans);
+            if (trace != null && trace.startEpochNanos >= sinceEpochNanos) {
+                ranked.add(trace);
+            }
+        }
+        if (ranked.isEmpty()) {
+            return "no traces recorded\n";
+        }
+        ranked.sort(Comparator.comparingLong(trace -> trace.durationNanos));
+        int firstSlow = Math.min(ranked.size() - 1, (int) Math.floor(ranked.size() * percentile / 100));
+        List<Trace> slow = ranked.subList(firstSlow, ranked.size());
+
+        Map<String, Double> slowMeans = meanSelfTimeMillis(slow);
+        Map<String, Double> allMeans = meanSelfTimeMillis(ranked);
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%d traces, %d at or above p%s (%.2f ms); mean self time per trace%n",
+                                 ranked.size(), slow.size(), percentile,
+                                 slow.get(0).durationNanos / 1e6));
+        out.append(String.format("%-70s %12s %12s%n", "span", "slow ms", "all ms"));
+        slowMeans.entrySet().stream()
+                 .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                 .forEach(entry -> out.append(String.format("%-70s %12.2f %12.2f%n", entry.getKey(),
+                                                            entry.getValue(),
+                                                            allMeans.getOrDefault(entry.getKey(), 0.0))));
+        return out.toString();
+    }
+
+    private static Map<String, Double> meanSelfTimeMillis(List<Trace> traces) {
+        Map<String, Double> totals = new TreeMap<>();
+        for (Trace trace : traces) {
+            trace.selfNanos.forEach((span, nanos) -> totals.merge(span, nanos / 1e6, Double::sum));
+        }
+        totals.replaceAll((span, millis) -> millis / traces.size());
+        return totals;
+    }
+
+    private static class Trace {
+        private final long startEpochNanos;
+        private final long durationNanos;
+        private final Map<String, Long> selfNanos = new HashMap<>();
+
+        private Trace(long startEpochNanos, long durationNanos) {
+            this.startEpochNanos = startEpochNanos;
+            this.durationNanos = durationNanos;
+        }
+
+        /**
+         * @return null for traces without a server root span, e.g. cut off at shutdown
+         */
+        static Trace of(List<SpanRecord> spans) {
+            Map<String, Long> childNanos = new HashMap<>();
+            SpanRecord root = null;
+            for (SpanRecord span : spans) {
+                if (span.parentSpanId == null) {
+                    // background work (key refreshes, revocation streams) has no server root
+                    if ("SERVER".equals(span.kind)) {
+                        root = span;
+                    }
+                } else {
+                    childNanos.merge(span.parentSpanId, span.durationNanos, Long::sum);
+                }
+            }
+            if (root == null) {
+                return null;
+            }
+            Trace trace = new Trace(root.startEpochNanos, root.durationNanos);
+            for (SpanRecord span : spans) {
+                // async children such as Kafka sends can outlive their parent
+                long self = Math.max(0, span.durationNanos - childNanos.getOrDefault(span.spanId, 0L));
+                trace.selfNanos.merge(span.service + " " + span.name, self, Long::sum);
+            }
+            return trace;
+        }
+    }
+
+    private static class SpanRecord {
+        private final String traceId;
+        private final String spanId;
+        private final String parentSpanId;
+        private final String service;
+        private final String name;
+        private final String kind;
+        private final long startEpochNanos;
+        private final long durationNanos;
+
+        SpanRecord(JsonNode json) {
+            this.traceId = json.get("traceId").asText();
+            this.spanId = json.get("spanId").asText();
+            this.parentSpanId = json.has("parentSpanId") ? json.get("parentSpanId").asText() : null;
+            this.service = json.path("service").asText("unknown");
+            this.name = json.get("name").asText();
+            this.kind = json.path("kind").asText();
+            this.startEpochNanos = json.get("startEpochNanos").asLong();
+            this.durationNanos = json.get("durationNanos").asLong();
+        }
+    }
+}
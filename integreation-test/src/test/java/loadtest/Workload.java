@@ -0,0 +1,161 @@
+package loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The request mix: logins plus create/read/update/delete of patients through the gateway, picked
+ * at random by weight (e.g. {@code login:5,create:15,read:60,update:15,delete:5}). Updates and
+ * deletes work on patients this run created; until there are any they fall back to a read. Every
+ * read carries a unique query parameter so the gateway's micro-cache cannot answer it.
+ */
+class Workload {
+
+    enum Operation { LOGIN, CREATE, READ, UPDATE, DELETE }
+
+    private static final String LOGIN_BODY = """
+            {"email": "testuser@test.com", "password": "password123"}
+            """;
+
+    private final URI baseUri;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Operation> operations = new ArrayList<>();
+    private final double[] cumulativeWeights;
+    private final Deque<String> patientIds = new ConcurrentLinkedDeque<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private volatile String token;
+
+    Workload(URI baseUri, HttpClient client, String mix) {
+        this.baseUri = baseUri;
+        this.client = client;
+        Map<Operation, Double> weights = parseMix(mix);
+        this.cumulativeWeights = new double[weights.size()];
+        double total = 0;
+        for (Map.Entry<Operation, Double> entry : weights.entrySet()) {
+            total += entry.getValue();
+            cumulativeWeights[operations.size()] = total;
+            operations.add(entry.getKey());
+        }
+    }
+
+    void login() throws Exception {
+        HttpResponse<String> response = client.send(loginRequest(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed with " + response.statusCode());
+        }
+        token = objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    Operation next() {
+        double pick = ThreadLocalRandom.current().nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations.get(i);
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    /**
+     * @return the HTTP status of the response
+     */
+    CompletableFuture<Integer> execute(Operation operation) {
+        switch (operation) {
+            case LOGIN:
+                return send(loginRequest());
+            case CREATE:
+                return client.sendAsync(authorized("/api/patients")
+                                                .header("Content-Type", "application/json")
+                                                .POST(HttpRequest.BodyPublishers.ofString(patientJson(true)))
+                                                .build(),
+                                        HttpResponse.BodyHandlers.ofString())
+                             .thenApply(response -> {
+                                 if (response.statusCode() == 200) {
+                                     patientIds.addLast(readId(response.body()));
+                                 }
+                                 return response.statusCode();
+                             });
+            case UPDATE: {
+                String id = patientIds.peekLast();
+                if (id == null) {
+                    return execute(Operation.READ);
+                }
+                return send(authorized("/api/patients/" + id)
+                                    .header("Content-Type", "application/json")
+                                    .PUT(HttpRequest.BodyPublishers.ofString(patientJson(false)))
+                                    .build());
+            }
+            case DELETE: {
+                String id = patientIds.pollFirst();
+                if (id == null) {
+                    return execute(Operation.READ);
+                }
+                return send(authorized("/api/patients/" + id).DELETE().build());
+            }
+            default:
+                return send(authorized("/api/patients?_=" + runId + '-' + sequence.incrementAndGet()).GET().build());
+        }
+    }
+
+    private CompletableFuture<Integer> send(HttpRequest request) {
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                     .thenApply(HttpResponse::statusCode);
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).header("Authorization", "Bearer " + token);
+    }
+
+    private HttpRequest loginRequest() {
+        return HttpRequest.newBuilder(baseUri.resolve("/auth/login"))
+                          .header("Content-Type", "application/json")
+                          .POST(HttpRequest.BodyPublishers.ofString(LOGIN_BODY))
+                          .build();
+    }
+
+    private String patientJson(boolean create) {
+        long n = sequence.incrementAndGet();
+        return """
+                {"name": "Load Test %d", "email": "load-%s-%d@example.com", "address": "%d Test Street",
+                 "dateOfBirth": "1990-01-01"%s}
+                """.formatted(n, runId, n, n, create ? ", \"registeredDate\": \"2024-01-01\"" : "");
+    }
+
+    private String readId(String body) {
+        try {
+            return objectMapper.readTree(body).get("id").asText();
+        } catch (Exception e) {
+            throw new IllegalStateException("Unreadable patient response", e);
+        }
+    }
+
+    private static Map<Operation, Double> parseMix(String mix) {
+        Map<Operation, Double> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] nameAndWeight = part.trim().split(":");
+            double weight = Double.parseDouble(nameAndWeight[1]);
+            if (weight > 0) {
+                weights.put(Operation.valueOf(nameAndWeight[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Empty request mix: " + mix);
+        }
+        return weights;
+    }
+}
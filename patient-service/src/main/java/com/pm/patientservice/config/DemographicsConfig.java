@@ -0,0 +1,29 @@
+package com.pm.patientservice.config;
+
+import com.pm.patientservice.repository.PatientDemographicsRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DemographicsConfig {
+
+    /**
+     * The summary table is plain JDBC, so Hibernate does not create it.
+     */
+    @Bean
+    public PatientDemographicsRepository patientDemographicsRepository(
+            DataSource dataSource,
+            JdbcTemplate jdbcTemplate,
+            @Value("${patient.demographics.initialize-schema:true}") boolean initializeSchema) {
+        if (initializeSchema) {
+            new ResourceDatabasePopulator(new ClassPathResource("demographics/demographics-schema.sql")).execute(dataSource);
+        }
+        return new PatientDemographicsRepository(jdbcTemplate);
+    }
+}
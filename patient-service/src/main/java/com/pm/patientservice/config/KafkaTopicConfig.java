@@ -0,0 +1,37 @@
+package com.pm.patientservice.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+import java.time.Duration;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    /**
+     * Latest full state per patient. Compaction keeps one record per live patient, so a new
+     * consumer can bootstrap by reading the topic once instead of replaying the event history.
+     * Tombstones are kept for {@code delete-retention} so bootstrapping consumers still see them.
+     */
+    @Bean
+    public NewTopic patientSnapshotTopic(
+            @Value("${patient.snapshot.topic:patient-snapshot}") String topic,
+            @Value("${patient.snapshot.partitions:3}") int partitions,
+            @Value("${patient.snapshot.replicas:1}") short replicas,
+            @Value("${patient.snapshot.segment:PT1H}") Duration segment,
+            @Value("${patient.snapshot.delete-retention:P1D}") Duration deleteRetention) {
+        return TopicBuilder.name(topic)
+                           .partitions(partitions)
+                           .replicas(replicas)
+                           .compact()
+                           .config(TopicConfig.SEGMENT_MS_CONFIG, String.valueOf(segment.toMillis()))
+                           .config(TopicConfig.DELETE_RETENTION_MS_CONFIG,
+                                   String.valueOf(deleteRetention.toMillis()))
+                           .config(TopicConfig.MIN_CLEANABLE_DIRTY_RATIO_CONFIG, "0.1")
+                           .build();
+    }
+}
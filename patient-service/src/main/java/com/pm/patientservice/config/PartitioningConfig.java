@@ -0,0 +1,61 @@
+package com.pm.patientservice.config;
+
+import com.pm.patientservice.partitioning.PatientPartitionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Monthly range partitions of the patient table on PostgreSQL (see {@link PatientPartitionManager}).
+ * The table is partitioned by the Flyway migration in {@code db/migration/partitioning}, which
+ * Spring Boot runs before JPA starts when partitioning is enabled; partitions are then created and
+ * archived once the application has started and daily afterwards.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "patient.partitioning.enabled", havingValue = "true")
+public class PartitioningConfig {
+
+    private PatientPartitionManager patientPartitionManager;
+
+    @Bean
+    public PatientPartitionManager patientPartitionManager(DataSource dataSource,
+                                                           JdbcTemplate jdbcTemplate,
+                                                           TransactionTemplate transactionTemplate,
+                                                           @Value("${patient.partitioning.months-ahead:3}") int monthsAhead,
+                                                           @Value("${patient.partitioning.retention-months:0}") int retentionMonths,
+                                                           @Value("${patient.sharding.enabled:false}") boolean sharded)
+            throws SQLException {
+        if (sharded) {
+            throw new IllegalStateException("patient.partitioning.enabled is not supported with patient.sharding.enabled");
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+                throw new IllegalStateException("patient.partitioning.enabled requires PostgreSQL");
+            }
+        }
+        patientPartitionManager = new PatientPartitionManager(jdbcTemplate, transactionTemplate,
+                                                              monthsAhead, retentionMonths);
+        return patientPartitionManager;
+    }
+
+    @Bean
+    public ApplicationRunner patientPartitionMaintenanceRunner(PatientPartitionManager patientPartitionManager) {
+        return args -> patientPartitionManager.maintain();
+    }
+
+    @Scheduled(cron = "${patient.partitioning.maintenance-cron:0 0 3 * * *}")
+    public void maintainPartitions() {
+        patientPartitionManager.maintain();
+    }
+}
@@ -0,0 +1,27 @@
+package com.pm.patientservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class PatientImportConfig {
+
+    /**
+     * Imports are write-heavy and share the connection pool with API requests, so only a few run
+     * at once and a short queue of waiting files is kept. Uploads beyond that are rejected.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor patientImportExecutor(
+            @Value("${patient.import.concurrency:2}") int concurrency,
+            @Value("${patient.import.queue-capacity:8}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("patient-import-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
@@ -0,0 +1,87 @@
+package com.pm.patientservice.config;
+
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+@Configuration
+public class R2dbcConfig {
+
+    private static final String JDBC_H2_PREFIX = "jdbc:h2:";
+
+    private ConnectionPool connectionPool;
+
+    /**
+     * Client for the reactive read path. Unless {@code spring.r2dbc.url} is set it connects to the
+     * same database as the JPA write path, derived from {@code spring.datasource.*}, so deployments
+     * need no extra configuration. The pool is deliberately not a {@link ConnectionFactory} bean:
+     * Spring Boot skips the JDBC DataSource when one exists.
+     */
+    @Bean
+    public DatabaseClient databaseClient(DataSourceProperties dataSourceProperties,
+                                            @Value("${spring.r2dbc.url:}") String r2dbcUrl,
+                                            @Value("${patient.r2dbc.pool.initial-size:2}") int initialSize,
+                                            @Value("${patient.r2dbc.pool.max-size:20}") int maxSize,
+                                            @Value("${patient.r2dbc.pool.max-idle-time:PT30M}") Duration maxIdleTime) {
+        ConnectionFactory connectionFactory = r2dbcUrl.isEmpty()
+                ? fromDataSource(dataSourceProperties)
+                : ConnectionFactories.get(r2dbcUrl);
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                                                                       .initialSize(initialSize)
+                                                                       .maxSize(maxSize)
+                                                                       .maxIdleTime(maxIdleTime)
+                                                                       .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    public void closeConnectionPool() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+
+    private static ConnectionFactory fromDataSource(DataSourceProperties dataSourceProperties) {
+        return connectionFactory(dataSourceProperties.determineUrl(),
+                                 dataSourceProperties.determineUsername(),
+                                 dataSourceProperties.determinePassword());
+    }
+
+    /**
+     * R2DBC connection factory for a database given by its JDBC URL.
+     */
+    static ConnectionFactory connectionFactory(String jdbcUrl, String username, String password) {
+        if (jdbcUrl.startsWith(JDBC_H2_PREFIX)) {
+            H2ConnectionConfiguration.Builder h2 = H2ConnectionConfiguration.builder()
+                                                                            .url(jdbcUrl.substring(JDBC_H2_PREFIX.length()));
+            if (username != null) {
+                h2.username(username);
+            }
+            if (password != null) {
+                h2.password(password);
+            }
+            return new H2ConnectionFactory(h2.build());
+        }
+        ConnectionFactoryOptions.Builder options =
+                ConnectionFactoryOptions.parse("r2dbc:" + jdbcUrl.substring("jdbc:".length())).mutate();
+        if (username != null) {
+            options.option(ConnectionFactoryOptions.USER, username);
+        }
+        if (password != null) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        return ConnectionFactories.get(options.build());
+    }
+}
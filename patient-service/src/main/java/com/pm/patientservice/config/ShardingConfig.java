@@ -0,0 +1,120 @@
+package com.pm.patientservice.config;
+
+import com.pm.patientservice.metrics.SqlStatementListener;
+import com.pm.patientservice.metrics.SqlStatsTaskDecorator;
+import com.pm.patientservice.sharding.PatientEmailIndex;
+import com.pm.patientservice.sharding.PatientShard;
+import com.pm.patientservice.sharding.PatientShards;
+import com.pm.patientservice.sharding.ShardedPatientStore;
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import jakarta.annotation.PreDestroy;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hash sharding of patients over the databases in {@code patient.sharding.urls}. The application
+ * database ({@code spring.datasource.*}) keeps the global email index; patient rows live on the
+ * shards only. The shards are not Spring beans, so Boot's single-DataSource setup is unaffected.
+ */
+@Configuration
+@ConditionalOnProperty(name = "patient.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    private final List<HikariDataSource> dataSources = new ArrayList<>();
+    private final List<ConnectionPool> connectionPools = new ArrayList<>();
+
+    @Bean
+    public PatientShards patientShards(@Value("${patient.sharding.urls}") List<String> urls,
+                                       @Value("${patient.sharding.username:}") String username,
+                                       @Value("${patient.sharding.password:}") String password,
+                                       @Value("${patient.sharding.pool-size:10}") int poolSize,
+                                       @Value("${patient.sharding.r2dbc-pool-size:10}") int r2dbcPoolSize,
+                                       @Value("${patient.sharding.initialize-schema:true}") boolean initializeSchema) {
+        List<PatientShard> shards = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            String url = urls.get(i).trim();
+            HikariDataSource hikari = new HikariDataSource();
+            hikari.setPoolName("patient-shard-" + i);
+            hikari.setJdbcUrl(url);
+            hikari.setUsername(username.isEmpty() ? null : username);
+            hikari.setPassword(password.isEmpty() ? null : password);
+            hikari.setMaximumPoolSize(poolSize);
+            dataSources.add(hikari);
+            if (initializeSchema) {
+                new ResourceDatabasePopulator(new ClassPathResource("sharding/shard-schema.sql")).execute(hikari);
+            }
+            // Shard statements count towards the per-request SQL statistics like any other
+            DataSource dataSource = ProxyDataSourceBuilder.create(hikari)
+                                                          .name(hikari.getPoolName())
+                                                          .listener(new SqlStatementListener())
+                                                          .build();
+
+            ConnectionPool connectionPool = new ConnectionPool(ConnectionPoolConfiguration
+                    .builder(R2dbcConfig.connectionFactory(url, username.isEmpty() ? null : username,
+                                                           password.isEmpty() ? null : password))
+                    .maxSize(r2dbcPoolSize)
+                    .build());
+            connectionPools.add(connectionPool);
+
+            shards.add(new PatientShard(i, new JdbcTemplate(dataSource),
+                                        new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+                                        DatabaseClient.create(connectionPool)));
+        }
+        return new PatientShards(shards);
+    }
+
+    @Bean
+    public PatientEmailIndex patientEmailIndex(DataSource dataSource,
+                                               JdbcTemplate jdbcTemplate,
+                                               PlatformTransactionManager transactionManager,
+                                               @Value("${patient.sharding.initialize-schema:true}") boolean initializeSchema) {
+        if (initializeSchema) {
+            new ResourceDatabasePopulator(new ClassPathResource("sharding/email-index-schema.sql")).execute(dataSource);
+        }
+        return new PatientEmailIndex(jdbcTemplate, transactionManager);
+    }
+
+    /**
+     * Runs the per-shard queries of scatter-gather reads; two concurrent reads per shard. Their
+     * statements count towards the request that started them.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor patientShardExecutor(PatientShards patientShards) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2 * patientShards.size());
+        executor.setMaxPoolSize(2 * patientShards.size());
+        executor.setThreadNamePrefix("patient-shard-");
+        executor.setTaskDecorator(new SqlStatsTaskDecorator());
+        return executor;
+    }
+
+    @Bean
+    public ShardedPatientStore shardedPatientStore(PatientShards patientShards,
+                                                   PatientEmailIndex patientEmailIndex,
+                                                   ThreadPoolTaskExecutor patientShardExecutor) {
+        return new ShardedPatientStore(patientShards, patientEmailIndex, patientShardExecutor);
+    }
+
+    @PreDestroy
+    public void closeShards() {
+        connectionPools.forEach(ConnectionPool::dispose);
+        dataSources.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,48 @@
+package com.pm.patientservice.config;
+
+import com.pm.patientservice.metrics.SqlStatementFilter;
+import com.pm.patientservice.metrics.SqlStatementListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class SqlStatementMetricsConfig {
+
+    /**
+     * Routes every JDBC statement, from JPA and {@code JdbcTemplate} alike, through
+     * {@link SqlStatementListener}.
+     */
+    @Bean
+    public static BeanPostProcessor sqlStatementCountingDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                                                 .name(beanName)
+                                                 .listener(new SqlStatementListener())
+                                                 .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementFilter> sqlStatementFilter(
+            MeterRegistry meterRegistry,
+            @Value("${patient.sql-stats.response-header:false}") boolean responseHeader) {
+        FilterRegistrationBean<SqlStatementFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatementFilter(meterRegistry, responseHeader));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
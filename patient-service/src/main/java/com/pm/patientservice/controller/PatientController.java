@@ -7,10 +7,12 @@ import com.pm.patientservice.service.PatientService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.groups.Default;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -26,9 +28,15 @@ public class PatientController {
     }
 
     @GetMapping
-    @Operation(summary = "Get Patients")
-    public ResponseEntity<List<PatientResponseDTO>> getPatients() {
-        List<PatientResponseDTO> patients = patientService.getPatients();
+    @Operation(summary = "Get a page of Patients ordered by ID, optionally only those registered within a date range")
+    public ResponseEntity<List<PatientResponseDTO>> getPatients(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate registeredFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate registeredTo,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        List<PatientResponseDTO> patients = registeredFrom == null && registeredTo == null
+                ? patientService.getPatients(page, size)
+                : patientService.getPatientsRegisteredBetween(registeredFrom, registeredTo, page, size);
         return ResponseEntity.ok().body(patients);
 
     }
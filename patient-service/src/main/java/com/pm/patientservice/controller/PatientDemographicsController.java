@@ -0,0 +1,46 @@
+package com.pm.patientservice.controller;
+
+import com.pm.patientservice.dto.PatientCountDTO;
+import com.pm.patientservice.service.PatientDemographicsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/patients/demographics")
+@Tag(name = "Patient demographics", description = "Patient counts served from a summary table")
+public class PatientDemographicsController {
+
+    private final PatientDemographicsService patientDemographicsService;
+
+    public PatientDemographicsController(PatientDemographicsService patientDemographicsService) {
+        this.patientDemographicsService = patientDemographicsService;
+    }
+
+    @GetMapping("/age-bands")
+    @Operation(summary = "Count patients by age band")
+    public ResponseEntity<List<PatientCountDTO>> getAgeBands(
+            @RequestParam(defaultValue = "10") @Min(1) @Max(150) int bandYears) {
+        return ResponseEntity.ok().body(patientDemographicsService.getAgeBands(bandYears));
+    }
+
+    @GetMapping("/birth-years")
+    @Operation(summary = "Count patients by birth year")
+    public ResponseEntity<List<PatientCountDTO>> getBirthYears() {
+        return ResponseEntity.ok().body(patientDemographicsService.getBirthYears());
+    }
+
+    @GetMapping("/registration-months")
+    @Operation(summary = "Count patients by registration month")
+    public ResponseEntity<List<PatientCountDTO>> getRegistrationMonths() {
+        return ResponseEntity.ok().body(patientDemographicsService.getRegistrationMonths());
+    }
+}
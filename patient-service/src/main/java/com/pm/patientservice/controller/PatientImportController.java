@@ -0,0 +1,48 @@
+package com.pm.patientservice.controller;
+
+import com.pm.patientservice.dto.PatientImportStatusDTO;
+import com.pm.patientservice.importer.PatientImportJob;
+import com.pm.patientservice.mapper.PatientImportMapper;
+import com.pm.patientservice.service.PatientImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/patients/imports")
+@Tag(name = "Patient import", description = "API for importing patients from CSV files")
+public class PatientImportController {
+
+    private final PatientImportService patientImportService;
+
+    public PatientImportController(PatientImportService patientImportService) {
+        this.patientImportService = patientImportService;
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Starts importing a CSV file with the columns name, email, address, dateOfBirth, registeredDate")
+    public ResponseEntity<PatientImportStatusDTO> importPatients(@RequestParam("file") MultipartFile file)
+            throws IOException {
+        PatientImportJob job;
+        try (InputStream content = file.getInputStream()) {
+            job = patientImportService.submit(file.getOriginalFilename(), content);
+        }
+        return ResponseEntity.accepted()
+                             .location(URI.create("/patients/imports/" + job.getId()))
+                             .body(PatientImportMapper.toDTO(job));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Gets the progress and row errors of an import")
+    public ResponseEntity<PatientImportStatusDTO> getImport(@PathVariable UUID id) {
+        return ResponseEntity.ok().body(PatientImportMapper.toDTO(patientImportService.getJob(id)));
+    }
+}
@@ -0,0 +1,47 @@
+package com.pm.patientservice.controller;
+
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.service.PatientQueryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Reactive reads. Spring MVC completes these asynchronously, releasing the request thread while
+ * the query runs on R2DBC.
+ */
+@RestController
+@RequestMapping("/patients")
+@Tag(name = "Patient queries", description = "Non-blocking API for reading patients")
+public class PatientQueryController {
+
+    private final PatientQueryService patientQueryService;
+
+    public PatientQueryController(PatientQueryService patientQueryService) {
+        this.patientQueryService = patientQueryService;
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Gets a Patient")
+    public Mono<PatientResponseDTO> getPatient(@PathVariable UUID id) {
+        return patientQueryService.getPatient(id);
+    }
+
+    @GetMapping("/page")
+    @Operation(summary = "Gets a page of Patients ordered by ID")
+    public Flux<PatientResponseDTO> getPatients(@RequestParam(defaultValue = "0") int page,
+                                                @RequestParam(defaultValue = "50") int size) {
+        return patientQueryService.getPatients(page, size);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Streams all Patients as newline-delimited JSON")
+    public Flux<PatientResponseDTO> streamPatients() {
+        return patientQueryService.streamPatients();
+    }
+}
@@ -0,0 +1,123 @@
+package com.pm.patientservice.dataset;
+
+import com.pm.patientservice.model.Patient;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Writes generated patients straight into the {@code patient} table, bypassing JPA: PostgreSQL
+ * gets a single streaming {@code COPY}, anything else (H2) batched inserts committed per batch.
+ * Rows are not published as patient events.
+ */
+@Component
+public class PatientBulkLoader {
+    private static final Logger log = LoggerFactory.getLogger(PatientBulkLoader.class);
+
+    private static final String COLUMNS = "id, name, email, address, date_of_birth, registered_date, version";
+    private static final String COPY_SQL = "COPY patient (" + COLUMNS + ") FROM STDIN WITH (FORMAT csv)";
+    private static final String INSERT_SQL = "INSERT INTO patient (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // New rows start at version 1, as PatientRows.bindInsert writes them; version-checked
+    // updates and deletes never match a null version
+    private static final long INITIAL_VERSION = 1L;
+
+    private final DataSource dataSource;
+    private final int batchSize;
+
+    public PatientBulkLoader(DataSource dataSource,
+                             @Value("${patient.dataset.batch-size:5000}") int batchSize) {
+        this.dataSource = dataSource;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Loads patients {@code fromIndex} to {@code fromIndex + count - 1} of the generator's dataset.
+     */
+    public void load(PatientDataGenerator generator, long fromIndex, long count) throws SQLException {
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            if (connection.isWrapperFor(PGConnection.class)) {
+                copy(connection.unwrap(PGConnection.class), generator, fromIndex, count);
+            } else {
+                insertInBatches(connection, generator, fromIndex, count);
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        log.info("Loaded {} patients in {} s ({} rows/s)", count, String.format("%.1f", seconds),
+                 Math.round(count / seconds));
+    }
+
+    private void copy(PGConnection connection, PatientDataGenerator generator, long fromIndex, long count)
+            throws SQLException {
+        CopyIn copyIn = connection.getCopyAPI().copyIn(COPY_SQL);
+        try {
+            StringBuilder rows = new StringBuilder();
+            for (long i = 0; i < count; i++) {
+                appendCsv(rows, generator.generate(fromIndex + i));
+                if ((i + 1) % batchSize == 0 || i == count - 1) {
+                    byte[] bytes = rows.toString().getBytes(StandardCharsets.UTF_8);
+                    copyIn.writeToCopy(bytes, 0, bytes.length);
+                    rows.setLength(0);
+                }
+            }
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private void insertInBatches(Connection connection, PatientDataGenerator generator, long fromIndex,
+                                 long count) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            for (long i = 0; i < count; i++) {
+                Patient patient = generator.generate(fromIndex + i);
+                statement.setObject(1, patient.getId());
+                statement.setString(2, patient.getName());
+                statement.setString(3, patient.getEmail());
+                statement.setString(4, patient.getAddress());
+                statement.setDate(5, Date.valueOf(patient.getDateOfBirth()));
+                statement.setDate(6, Date.valueOf(patient.getRegisteredDate()));
+                statement.setLong(7, INITIAL_VERSION);
+                statement.addBatch();
+                if ((i + 1) % batchSize == 0 || i == count - 1) {
+                    statement.executeBatch();
+                    connection.commit();
+                }
+            }
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Generated values never contain quotes, so quoting every field is enough to keep the commas
+     * in addresses intact.
+     */
+    private static void appendCsv(StringBuilder rows, Patient patient) {
+        rows.append(patient.getId()).append(",\"")
+            .append(patient.getName()).append("\",\"")
+            .append(patient.getEmail()).append("\",\"")
+            .append(patient.getAddress()).append("\",")
+            .append(patient.getDateOfBirth()).append(',')
+            .append(patient.getRegisteredDate()).append(',')
+            .append(INITIAL_VERSION).append('\n');
+    }
+}
@@ -0,0 +1,106 @@
+package com.pm.patientservice.dataset;
+
+import com.pm.patientservice.model.Patient;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Synthetic patients for benchmarks and capacity tests. Patient {@code i} depends only on the seed
+ * and {@code i}, so any slice of a dataset can be regenerated on its own, and emails are unique
+ * because they embed the index.
+ *
+ * <p>Ages are roughly normal around 40 and registrations become more frequent towards the present,
+ * so range queries over either date see a realistic skew rather than a flat distribution.
+ */
+public class PatientDataGenerator {
+
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda", "William",
+            "Elizabeth", "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah",
+            "Charles", "Karen", "Daniel", "Nancy", "Matthew", "Lisa", "Anthony", "Betty", "Mark",
+            "Margaret", "Steven", "Sandra", "Paul", "Ashley", "Andrew", "Emily", "Joshua", "Donna",
+            "Omar", "Fatima", "Wei", "Yuki", "Carlos", "Sofia", "Ahmed", "Amara", "Ivan", "Priya"
+    };
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez",
+            "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor",
+            "Moore", "Jackson", "Martin", "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez",
+            "Clark", "Ramirez", "Lewis", "Robinson", "Walker", "Young", "Allen", "King", "Wright",
+            "Nguyen", "Chen", "Kim", "Patel", "Mohamed", "Ivanova", "Tanaka", "Okafor", "Silva"
+    };
+    private static final String[] STREETS = {
+            "Main St", "Oak Ave", "Pine St", "Maple Ave", "Cedar St", "Elm St", "Washington Ave",
+            "Lake St", "Hill Rd", "Park Ave", "River Rd", "Church St", "Mill Ln", "High St"
+    };
+    private static final String[] CITIES = {
+            "Springfield", "Riverside", "Franklin", "Greenville", "Bristol", "Clinton", "Fairview",
+            "Salem", "Madison", "Georgetown", "Arlington", "Ashland", "Oxford", "Milton"
+    };
+    private static final String[] EMAIL_DOMAINS = {"example.com", "example.org", "example.net"};
+
+    private static final LocalDate FIRST_REGISTRATION = LocalDate.of(2010, 1, 1);
+    private static final double MEAN_AGE_YEARS = 40;
+    private static final double AGE_STANDARD_DEVIATION_YEARS = 20;
+    private static final int MAX_AGE_YEARS = 100;
+
+    private final long seed;
+    private final LocalDate today;
+
+    public PatientDataGenerator(long seed, LocalDate today) {
+        this.seed = seed;
+        this.today = today;
+    }
+
+    public Patient generate(long index) {
+        SplittableRandom random = new SplittableRandom(seed ^ (index * 0x9E3779B97F4A7C15L));
+        String firstName = pick(random, FIRST_NAMES);
+        String lastName = pick(random, LAST_NAMES);
+
+        Patient patient = new Patient();
+        patient.setId(randomUuid(random));
+        patient.setName(firstName + " " + lastName);
+        patient.setEmail((firstName + "." + lastName + "." + index).toLowerCase()
+                                 + "@" + pick(random, EMAIL_DOMAINS));
+        patient.setAddress((1 + random.nextInt(9999)) + " " + pick(random, STREETS) + ", "
+                                   + pick(random, CITIES));
+
+        LocalDate dateOfBirth = dateOfBirth(random);
+        patient.setDateOfBirth(dateOfBirth);
+        patient.setRegisteredDate(registeredDate(random, dateOfBirth));
+        return patient;
+    }
+
+    private LocalDate dateOfBirth(SplittableRandom random) {
+        double ageYears = MEAN_AGE_YEARS + gaussian(random) * AGE_STANDARD_DEVIATION_YEARS;
+        ageYears = Math.max(0, Math.min(MAX_AGE_YEARS, ageYears));
+        return today.minusDays((long) (ageYears * 365.25));
+    }
+
+    /**
+     * Between 2010 (or birth, if later) and today, with density rising linearly towards today.
+     */
+    private LocalDate registeredDate(SplittableRandom random, LocalDate dateOfBirth) {
+        LocalDate earliest = dateOfBirth.isAfter(FIRST_REGISTRATION) ? dateOfBirth : FIRST_REGISTRATION;
+        long days = ChronoUnit.DAYS.between(earliest, today);
+        return earliest.plusDays((long) (Math.sqrt(random.nextDouble()) * days));
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller; SplittableRandom has no nextGaussian of its own
+        double u = 1 - random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private static UUID randomUuid(SplittableRandom random) {
+        long mostSignificantBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long leastSignificantBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
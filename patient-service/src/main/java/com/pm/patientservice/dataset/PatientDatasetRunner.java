@@ -0,0 +1,56 @@
+package com.pm.patientservice.dataset;
+
+import com.pm.patientservice.service.PatientDemographicsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Loads a synthetic dataset at startup when {@code patient.dataset.size} is set, e.g.
+ * {@code --patient.dataset.size=1000000}. The same seed and {@code patient.dataset.as-of} date
+ * always yield the same patients; use {@code patient.dataset.offset} to append more to a dataset
+ * loaded earlier. The bulk loader writes to the application database only, so it refuses to run
+ * when patients are sharded.
+ */
+@Component
+@ConditionalOnProperty(name = "patient.dataset.size")
+public class PatientDatasetRunner implements ApplicationRunner {
+
+    private final PatientBulkLoader patientBulkLoader;
+    private final PatientDemographicsService patientDemographicsService;
+    private final long size;
+    private final long offset;
+    private final long seed;
+    private final LocalDate asOf;
+    private final boolean sharded;
+
+    public PatientDatasetRunner(PatientBulkLoader patientBulkLoader,
+                                PatientDemographicsService patientDemographicsService,
+                                @Value("${patient.dataset.size}") long size,
+                                @Value("${patient.dataset.offset:0}") long offset,
+                                @Value("${patient.dataset.seed:42}") long seed,
+                                @Value("${patient.dataset.as-of:}") String asOf,
+                                @Value("${patient.sharding.enabled:false}") boolean sharded) {
+        this.patientBulkLoader = patientBulkLoader;
+        this.patientDemographicsService = patientDemographicsService;
+        this.size = size;
+        this.offset = offset;
+        this.seed = seed;
+        this.asOf = asOf.isEmpty() ? LocalDate.now() : LocalDate.parse(asOf);
+        this.sharded = sharded;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (sharded) {
+            throw new IllegalStateException("patient.dataset.size is not supported with patient.sharding.enabled");
+        }
+        patientBulkLoader.load(new PatientDataGenerator(seed, asOf), offset, size);
+        // COPY bypasses the writers that keep the summary up to date
+        patientDemographicsService.rebuild();
+    }
+}
@@ -0,0 +1,20 @@
+package com.pm.patientservice.dto;
+
+public class PatientCountDTO {
+
+    private String group;
+    private long patients;
+
+    public PatientCountDTO(String group, long patients) {
+        this.group = group;
+        this.patients = patients;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public long getPatients() {
+        return patients;
+    }
+}
@@ -5,16 +5,33 @@ public class PatientEventDTO {
     private String name;
     private String email;
     private String eventType;
+    private long occurredAt;
+    private long sequence;
+    private String address;
+    private String dateOfBirth;
+    private String registeredDate;
 
-    public PatientEventDTO(String patientId, String name, String email, String eventType) {
+    public PatientEventDTO(String patientId, String name, String email, String eventType,
+                           long occurredAt, long sequence, String address, String dateOfBirth,
+                           String registeredDate) {
         this.patientId = patientId;
         this.name = name;
         this.email = email;
         this.eventType = eventType;
+        this.occurredAt = occurredAt;
+        this.sequence = sequence;
+        this.address = address;
+        this.dateOfBirth = dateOfBirth;
+        this.registeredDate = registeredDate;
     }
 
     public String getPatientId() { return patientId; }
     public String getName() { return name; }
     public String getEmail() { return email; }
     public String getEventType() { return eventType; }
-}
\ No newline at end of file
+    public long getOccurredAt() { return occurredAt; }
+    public long getSequence() { return sequence; }
+    public String getAddress() { return address; }
+    public String getDateOfBirth() { return dateOfBirth; }
+    public String getRegisteredDate() { return registeredDate; }
+}
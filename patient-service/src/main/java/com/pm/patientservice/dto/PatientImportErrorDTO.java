@@ -0,0 +1,20 @@
+package com.pm.patientservice.dto;
+
+public class PatientImportErrorDTO {
+
+    private long row;
+    private String message;
+
+    public PatientImportErrorDTO(long row, String message) {
+        this.row = row;
+        this.message = message;
+    }
+
+    public long getRow() {
+        return row;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
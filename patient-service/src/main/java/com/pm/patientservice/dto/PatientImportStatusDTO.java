@@ -0,0 +1,115 @@
+package com.pm.patientservice.dto;
+
+import java.util.List;
+
+public class PatientImportStatusDTO {
+
+    private String id;
+    private String fileName;
+    private String status;
+    private long rowsProcessed;
+    private long rowsImported;
+    private long rowsFailed;
+    private double rowsPerSecond;
+    private String createdAt;
+    private String startedAt;
+    private String finishedAt;
+    private String failure;
+    private List<PatientImportErrorDTO> errors;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public long getRowsProcessed() {
+        return rowsProcessed;
+    }
+
+    public void setRowsProcessed(long rowsProcessed) {
+        this.rowsProcessed = rowsProcessed;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public void setRowsImported(long rowsImported) {
+        this.rowsImported = rowsImported;
+    }
+
+    public long getRowsFailed() {
+        return rowsFailed;
+    }
+
+    public void setRowsFailed(long rowsFailed) {
+        this.rowsFailed = rowsFailed;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public String getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(String createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(String startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public String getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(String finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getFailure() {
+        return failure;
+    }
+
+    public void setFailure(String failure) {
+        this.failure = failure;
+    }
+
+    public List<PatientImportErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<PatientImportErrorDTO> errors) {
+        this.errors = errors;
+    }
+}
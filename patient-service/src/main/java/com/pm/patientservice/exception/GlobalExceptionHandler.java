@@ -2,6 +2,9 @@ package com.pm.patientservice.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -42,4 +45,36 @@ public class GlobalExceptionHandler {
         errors.put("message", "Patient not found");
         return ResponseEntity.badRequest().body(errors);
     }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException ex) {
+        log.warn("Concurrent patient update {}", ex.getMessage());
+
+        Map<String, String> errors = new HashMap<>();
+        errors.put("message", "Patient was changed concurrently, try again");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errors);
+    }
+
+    @ExceptionHandler(ImportJobNotFoundException.class)
+    public ResponseEntity<Map<String, String>> handleImportJobNotFoundException(
+            ImportJobNotFoundException ex) {
+        log.warn("Import job not found {}", ex.getMessage());
+
+        Map<String, String> errors = new HashMap<>();
+        errors.put("message", "Import job not found");
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errors);
+    }
+
+    @ExceptionHandler(ImportCapacityExceededException.class)
+    public ResponseEntity<Map<String, String>> handleImportCapacityExceededException(
+            ImportCapacityExceededException ex) {
+        log.warn("Rejected patient import: {}", ex.getMessage());
+
+        Map<String, String> errors = new HashMap<>();
+        errors.put("message", "Too many imports in progress, try again later");
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                             .header(HttpHeaders.RETRY_AFTER, "30")
+                             .body(errors);
+    }
 }
@@ -0,0 +1,7 @@
+package com.pm.patientservice.exception;
+
+public class ImportCapacityExceededException extends RuntimeException {
+    public ImportCapacityExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
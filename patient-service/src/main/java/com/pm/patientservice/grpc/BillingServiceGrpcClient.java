@@ -5,6 +5,8 @@ import billing.BillingResponse;
 import billing.BillingServiceGrpc;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import io.micrometer.core.instrument.binder.grpc.ObservationGrpcClientInterceptor;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -17,10 +19,15 @@ public class BillingServiceGrpcClient {
 
     public BillingServiceGrpcClient(
             @Value("${billing.service.address:localhost}") String serverAddress,
-            @Value("${billing.service.grpc.port:9001}") int serverPort
+            @Value("${billing.service.grpc.port:9001}") int serverPort,
+            ObservationRegistry observationRegistry
     ) {
         log.info("Connecting to Billing Service GRPC service at {}:{}", serverAddress, serverPort);
-        ManagedChannel channel = ManagedChannelBuilder.forAddress(serverAddress, serverPort).usePlaintext().build();
+        // Adds a client span and passes the trace context on in the call metadata
+        ManagedChannel channel = ManagedChannelBuilder.forAddress(serverAddress, serverPort)
+                                                      .usePlaintext()
+                                                      .intercept(new ObservationGrpcClientInterceptor(observationRegistry))
+                                                      .build();
         blockingStub = BillingServiceGrpc.newBlockingStub(channel);
     }
 
@@ -0,0 +1,9 @@
+package com.pm.patientservice.importer;
+
+import java.io.IOException;
+
+public class CsvFormatException extends IOException {
+    public CsvFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,128 @@
+package com.pm.patientservice.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 reader: quoted fields may contain commas, doubled quotes and line breaks.
+ * Only the current record is held in memory, and a record longer than {@code maxRecordLength}
+ * characters (typically an unterminated quote) fails instead of swallowing the rest of the file.
+ * A leading UTF-8 byte order mark, which Excel writes by default, is skipped.
+ */
+public class CsvReader {
+
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final Reader reader;
+    private final int maxRecordLength;
+    private final char[] buffer = new char[64 * 1024];
+    private final StringBuilder field = new StringBuilder();
+    private int position;
+    private int limit;
+    private long lineNumber = 1;
+    private boolean started;
+
+    public CsvReader(Reader reader, int maxRecordLength) {
+        this.reader = reader;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * @return the next record's fields, or {@code null} at the end of the input
+     */
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if (!started) {
+            started = true;
+            if (c == BYTE_ORDER_MARK) {
+                c = read();
+            }
+        }
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        int recordLength = 0;
+        boolean quoted = false;
+        field.setLength(0);
+        while (true) {
+            if (c == -1) {
+                if (quoted) {
+                    throw new CsvFormatException("Unterminated quoted field at line " + lineNumber);
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            if (++recordLength > maxRecordLength) {
+                throw new CsvFormatException("Record at line " + lineNumber + " exceeds "
+                                                     + maxRecordLength + " characters");
+            }
+            char ch = (char) c;
+            if (quoted) {
+                if (ch == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    if (ch == '\n') {
+                        lineNumber++;
+                    }
+                    field.append(ch);
+                }
+            } else if (ch == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\n' || ch == '\r') {
+                if (ch == '\r' && peek() == '\n') {
+                    read();
+                }
+                lineNumber++;
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append(ch);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * The line the next record starts on.
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int read = reader.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+}
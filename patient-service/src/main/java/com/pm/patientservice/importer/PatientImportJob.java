@@ -0,0 +1,137 @@
+package com.pm.patientservice.importer;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one CSV import. Written by the import thread and read by status requests, so
+ * counters are atomic and the error list is guarded by the job. Only the first
+ * {@code maxErrors} row errors are kept; {@link #getRowsFailed()} counts all of them.
+ */
+public class PatientImportJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final UUID id;
+    private final String fileName;
+    private final int maxErrors;
+    private final Instant createdAt = Instant.now();
+    private final AtomicLong rowsProcessed = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong rowsFailed = new AtomicLong();
+    private final List<RowError> errors = new ArrayList<>();
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String failure;
+
+    public PatientImportJob(UUID id, String fileName, int maxErrors) {
+        this.id = id;
+        this.fileName = fileName;
+        this.maxErrors = maxErrors;
+    }
+
+    public void start() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    public void complete() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    public void fail(String failure) {
+        this.failure = failure;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+
+    public void rowProcessed() {
+        rowsProcessed.incrementAndGet();
+    }
+
+    public void rowsImported(long count) {
+        rowsImported.addAndGet(count);
+    }
+
+    public void rowFailed(long row, String message) {
+        rowsFailed.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < maxErrors) {
+                errors.add(new RowError(row, message));
+            }
+        }
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getFailure() {
+        return failure;
+    }
+
+    public long getRowsProcessed() {
+        return rowsProcessed.get();
+    }
+
+    public long getRowsImported() {
+        return rowsImported.get();
+    }
+
+    public long getRowsFailed() {
+        return rowsFailed.get();
+    }
+
+    public List<RowError> getErrors() {
+        synchronized (errors) {
+            return List.copyOf(errors);
+        }
+    }
+
+    public static class RowError {
+        private final long row;
+        private final String message;
+
+        RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public long getRow() {
+            return row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
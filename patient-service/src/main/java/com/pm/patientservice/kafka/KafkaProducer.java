@@ -3,18 +3,26 @@ package com.pm.patientservice.kafka;
 import com.pm.patientservice.dto.PatientEventDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import patient.events.PatientEvent;
 
+import java.util.UUID;
+
 @Service
 public class KafkaProducer {
 
     private static final Logger log = LoggerFactory.getLogger(KafkaProducer.class);
+    private static final String PATIENT_DELETED = "PATIENT_DELETED";
+
     private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final String snapshotTopic;
 
-    public KafkaProducer(KafkaTemplate<String, byte[]> kafkaTemplate) {
+    public KafkaProducer(KafkaTemplate<String, byte[]> kafkaTemplate,
+                         @Value("${patient.snapshot.topic:patient-snapshot}") String snapshotTopic) {
         this.kafkaTemplate = kafkaTemplate;
+        this.snapshotTopic = snapshotTopic;
     }
 
     public void sendEvent(PatientEventDTO eventDTO) {
@@ -23,10 +31,20 @@ public class KafkaProducer {
                 .setName(eventDTO.getName())
                 .setEmail(eventDTO.getEmail())
                 .setEventType(eventDTO.getEventType())
+                .setEventId(UUID.randomUUID().toString())
+                .setOccurredAt(eventDTO.getOccurredAt())
+                .setSequence(eventDTO.getSequence())
+                .setAddress(eventDTO.getAddress())
+                .setDateOfBirth(eventDTO.getDateOfBirth())
+                .setRegisteredDate(eventDTO.getRegisteredDate())
                 .build();
 
         try {
-            kafkaTemplate.send("patient", event.toByteArray());
+            // Keyed by patient so all events of one patient stay ordered within a partition
+            kafkaTemplate.send("patient", eventDTO.getPatientId(), event.toByteArray());
+            // Latest state only; a null value is the tombstone that lets compaction drop the patient
+            kafkaTemplate.send(snapshotTopic, eventDTO.getPatientId(),
+                               PATIENT_DELETED.equals(eventDTO.getEventType()) ? null : event.toByteArray());
 
         } catch (Exception e) {
             log.error("Error sending event to Kafka: {}", e.getMessage());
@@ -0,0 +1,38 @@
+package com.pm.patientservice.mapper;
+
+import com.pm.patientservice.dto.PatientImportErrorDTO;
+import com.pm.patientservice.dto.PatientImportStatusDTO;
+import com.pm.patientservice.importer.PatientImportJob;
+
+import java.time.Duration;
+import java.time.Instant;
+
+public class PatientImportMapper {
+    public static PatientImportStatusDTO toDTO(PatientImportJob job) {
+        PatientImportStatusDTO statusDTO = new PatientImportStatusDTO();
+        statusDTO.setId(job.getId().toString());
+        statusDTO.setFileName(job.getFileName());
+        statusDTO.setStatus(job.getStatus().name());
+        statusDTO.setRowsProcessed(job.getRowsProcessed());
+        statusDTO.setRowsImported(job.getRowsImported());
+        statusDTO.setRowsFailed(job.getRowsFailed());
+        statusDTO.setCreatedAt(job.getCreatedAt().toString());
+        statusDTO.setStartedAt(toString(job.getStartedAt()));
+        statusDTO.setFinishedAt(toString(job.getFinishedAt()));
+        statusDTO.setFailure(job.getFailure());
+        statusDTO.setErrors(job.getErrors().stream()
+                               .map(error -> new PatientImportErrorDTO(error.getRow(), error.getMessage()))
+                               .toList());
+
+        if (job.getStartedAt() != null) {
+            Instant end = job.getFinishedAt() != null ? job.getFinishedAt() : Instant.now();
+            long millis = Math.max(1, Duration.between(job.getStartedAt(), end).toMillis());
+            statusDTO.setRowsPerSecond(Math.round(job.getRowsProcessed() * 1000.0 / millis));
+        }
+        return statusDTO;
+    }
+
+    private static String toString(Instant instant) {
+        return instant == null ? null : instant.toString();
+    }
+}
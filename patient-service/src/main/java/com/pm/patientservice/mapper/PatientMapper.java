@@ -1,5 +1,6 @@
 package com.pm.patientservice.mapper;
 
+import com.pm.patientservice.dto.PatientEventDTO;
 import com.pm.patientservice.dto.PatientRequestDTO;
 import com.pm.patientservice.dto.PatientResponseDTO;
 import com.pm.patientservice.model.Patient;
@@ -30,4 +31,18 @@ public class PatientMapper {
 
 
     }
+
+    public static PatientEventDTO toEventDTO(Patient patient, String eventType, long occurredAt) {
+        return new PatientEventDTO(
+                patient.getId().toString(),
+                patient.getName(),
+                patient.getEmail(),
+                eventType,
+                occurredAt,
+                patient.getVersion() == null ? 0 : patient.getVersion(),
+                patient.getAddress(),
+                patient.getDateOfBirth() == null ? "" : patient.getDateOfBirth().toString(),
+                patient.getRegisteredDate() == null ? "" : patient.getRegisteredDate().toString()
+        );
+    }
 }
@@ -0,0 +1,63 @@
+package com.pm.patientservice.metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SQL statements run and time spent in the database on behalf of the current request. It is held
+ * by the request thread and handed to executor tasks started for the request through
+ * {@link SqlStatsTaskDecorator}, such as the per-shard queries of scatter-gather reads, so several
+ * threads may add to it at once. Statements outside a request (imports, startup) are not
+ * attributed to anything.
+ *
+ * <p>Only JDBC statements are seen. Reads through R2DBC bypass the JDBC proxy and complete after
+ * the request thread has returned, so {@link SqlStatementFilter} does not record those requests.
+ */
+public class RequestSqlStats {
+
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+    private final AtomicInteger statements = new AtomicInteger();
+    private final AtomicLong nanos = new AtomicLong();
+
+    static RequestSqlStats begin() {
+        RequestSqlStats stats = new RequestSqlStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static RequestSqlStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Makes {@code stats} the current thread's, or clears it if {@code null}.
+     */
+    static void restore(RequestSqlStats stats) {
+        if (stats == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(stats);
+        }
+    }
+
+    /**
+     * @param statements statements sent in this round trip; more than one for JDBC batches
+     */
+    void statementFinished(int statements, long nanos) {
+        this.statements.addAndGet(statements);
+        this.nanos.addAndGet(nanos);
+    }
+
+    public int getStatements() {
+        return statements.get();
+    }
+
+    public long getNanos() {
+        return nanos.get();
+    }
+}
@@ -0,0 +1,139 @@
+package com.pm.patientservice.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the SQL statements and database time of each request and records them per endpoint as
+ * {@code patient.http.sql.statements} and {@code patient.http.sql.time}. With
+ * {@code patient.sql-stats.response-header=true} they are also returned as {@value #STATEMENTS_HEADER}
+ * and {@value #TIME_HEADER} (milliseconds), which is what statement-budget tests read.
+ *
+ * <p>Headers must be set before the body commits the response, so they carry the statements run
+ * before the first byte of the body; for these endpoints that is all of them.
+ *
+ * <p>Asynchronous requests, the R2DBC reads, get neither headers nor metrics: their statements do
+ * not go through JDBC and finish after this filter has returned (see {@link RequestSqlStats}).
+ */
+public class SqlStatementFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    public static final String TIME_HEADER = "X-Sql-Time";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean responseHeader;
+
+    public SqlStatementFilter(MeterRegistry meterRegistry, boolean responseHeader) {
+        this.meterRegistry = meterRegistry;
+        this.responseHeader = responseHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestSqlStats stats = RequestSqlStats.begin();
+        StatsHeaderResponse wrapped = responseHeader ? new StatsHeaderResponse(response, stats) : null;
+        try {
+            chain.doFilter(request, wrapped != null ? wrapped : response);
+        } finally {
+            RequestSqlStats.end();
+            if (request.isAsyncStarted()) {
+                if (wrapped != null) {
+                    wrapped.skipHeaders();
+                }
+            } else {
+                if (wrapped != null) {
+                    wrapped.writeHeaders();
+                }
+                record(request, stats);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestSqlStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("patient.http.sql.statements")
+                           .description("SQL statements per HTTP request")
+                           .tags("method", request.getMethod(), "uri", uri)
+                           .register(meterRegistry)
+                           .record(stats.getStatements());
+        Timer.builder("patient.http.sql.time")
+             .description("Database time per HTTP request")
+             .tags("method", request.getMethod(), "uri", uri)
+             .register(meterRegistry)
+             .record(stats.getNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private static class StatsHeaderResponse extends HttpServletResponseWrapper {
+        private final RequestSqlStats stats;
+        private boolean written;
+
+        StatsHeaderResponse(HttpServletResponse response, RequestSqlStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        void skipHeaders() {
+            written = true;
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(STATEMENTS_HEADER, String.valueOf(stats.getStatements()));
+            setHeader(TIME_HEADER, String.format("%.3f", stats.getNanos() / 1e6));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.pm.patientservice.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+public class SqlStatementListener implements QueryExecutionListener {
+
+    // Kept on the execution rather than the stats, which several threads may share
+    private static final String STARTED_AT = "sqlStatsStartedAt";
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (RequestSqlStats.current() != null) {
+            execInfo.addCustomValue(STARTED_AT, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestSqlStats stats = RequestSqlStats.current();
+        Long startedAt = execInfo.getCustomValue(STARTED_AT, Long.class);
+        if (stats != null && startedAt != null) {
+            stats.statementFinished(execInfo.isBatch() ? execInfo.getBatchSize() : queryInfoList.size(),
+                                    System.nanoTime() - startedAt);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.pm.patientservice.metrics;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Runs each task with the {@link RequestSqlStats} of the thread that submitted it, so statements
+ * run on an executor for a request are counted for that request.
+ */
+public class SqlStatsTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable task) {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            RequestSqlStats previous = RequestSqlStats.current();
+            RequestSqlStats.restore(stats);
+            try {
+                task.run();
+            } finally {
+                RequestSqlStats.restore(previous);
+            }
+        };
+    }
+}
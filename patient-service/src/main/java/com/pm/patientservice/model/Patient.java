@@ -8,6 +8,8 @@ import java.time.LocalDate;
 import java.util.UUID;
 
 @Entity
+@Table(indexes = {@Index(name = "idx_patient_registered_date", columnList = "registered_date"),
+                  @Index(name = "idx_patient_email", columnList = "email")})
 public class Patient {
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
@@ -17,9 +19,11 @@ public class Patient {
     @NotNull
     private String name;
 
+    // Unique, but not declared here: data.sql's plain table has a unique constraint, while a table
+    // partitioned by registration date cannot have one and keeps emails unique in patient_email.
+    // Hibernate only adds the lookup index, which both tables can have
     @NotNull
     @Email
-    @Column(unique = true)
     private String email;
 
     @NotNull
@@ -31,6 +35,10 @@ public class Patient {
     @NotNull
     private LocalDate registeredDate;
 
+    // Sequence of the last event published for this patient; every update bumps it atomically
+    @Version
+    private Long version;
+
 
     public UUID getId() {
         return id;
@@ -80,4 +88,12 @@ public class Patient {
         this.registeredDate = registerDate;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
 }
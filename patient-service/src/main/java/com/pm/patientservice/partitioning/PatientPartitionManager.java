@@ -0,0 +1,161 @@
+package com.pm.patientservice.partitioning;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Range partitioning of the PostgreSQL {@code patient} table by month of {@code registered_date},
+ * so that registration date queries only scan the months they cover and old months can be
+ * archived by detaching their partition instead of deleting rows.
+ *
+ * <p>The table itself is partitioned by the Flyway migration in {@code db/migration/partitioning},
+ * which runs once, before JPA starts, under Flyway's lock. This class only keeps the partitions
+ * going: rows for months without a partition land in {@code patient_default} and move out when
+ * their month's partition is created. Maintenance holds a PostgreSQL advisory lock, so instances
+ * sharing the database take turns.
+ */
+public class PatientPartitionManager {
+    private static final Logger log = LoggerFactory.getLogger(PatientPartitionManager.class);
+
+    static final String DEFAULT_PARTITION = "patient_default";
+    private static final Pattern PARTITION_NAME = Pattern.compile("patient_p(\\d{4})_(\\d{2})");
+
+    // Serialises maintenance between instances sharing the database
+    private static final String MAINTENANCE_LOCK = "SELECT pg_advisory_xact_lock(hashtext('patient_partition_maintenance'))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    /**
+     * @param monthsAhead     partitions are kept ready for this many months after the current one
+     * @param retentionMonths partitions ending this many months before the current one are
+     *                        archived; 0 keeps every partition
+     */
+    public PatientPartitionManager(JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   int monthsAhead,
+                                   int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    public void maintain() {
+        maintain(YearMonth.now());
+    }
+
+    /**
+     * Creates the partitions from the current month to {@code monthsAhead} months ahead and
+     * archives those past the retention period, all in one transaction.
+     */
+    void maintain(YearMonth current) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute(MAINTENANCE_LOCK);
+            String kind = jdbcTemplate.queryForObject(
+                    "SELECT CAST(c.relkind AS VARCHAR) FROM pg_class c WHERE c.oid = to_regclass('patient')",
+                    String.class);
+            if (!"p".equals(kind)) {
+                throw new IllegalStateException("The patient table is not partitioned; run the "
+                                                        + "db/migration/partitioning migrations first");
+            }
+            List<String> existing = jdbcTemplate.queryForList(
+                    "SELECT CAST(c.relname AS VARCHAR) FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                            + "WHERE i.inhparent = to_regclass('patient')", String.class);
+            for (YearMonth month : months(current, current.plusMonths(monthsAhead))) {
+                if (!existing.contains(partitionName(month))) {
+                    addPartition(month);
+                }
+            }
+            if (retentionMonths > 0) {
+                for (String partition : partitionsToArchive(existing, current, retentionMonths)) {
+                    archive(partition);
+                }
+            }
+        });
+    }
+
+    /**
+     * Rows already in the default partition for this month are moved into the new partition;
+     * PostgreSQL refuses to create it otherwise.
+     */
+    private void addPartition(YearMonth month) {
+        String range = "registered_date >= '" + month.atDay(1) + "' AND registered_date < '"
+                + month.plusMonths(1).atDay(1) + "'";
+        transactionTemplate.executeWithoutResult(status -> {
+            boolean misplaced = Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION + " WHERE " + range + ")", Boolean.class));
+            if (misplaced) {
+                jdbcTemplate.execute("CREATE TEMPORARY TABLE patient_moving ON COMMIT DROP AS "
+                                             + "SELECT * FROM " + DEFAULT_PARTITION + " WHERE " + range);
+                jdbcTemplate.execute("DELETE FROM " + DEFAULT_PARTITION + " WHERE " + range);
+            }
+            jdbcTemplate.execute(createPartition(month));
+            if (misplaced) {
+                jdbcTemplate.execute("INSERT INTO patient SELECT * FROM patient_moving");
+                // Maintenance may move several months in one transaction
+                jdbcTemplate.execute("DROP TABLE patient_moving");
+            }
+        });
+        log.info("Created patient partition {}", partitionName(month));
+    }
+
+    /**
+     * Detaches the partition and renames it {@code patient_archive_...}; the table and its rows
+     * stay in the database until dumped and dropped. Its patients' emails become free again.
+     */
+    private void archive(String partition) {
+        String archived = partition.replace("patient_p", "patient_archive_p");
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("ALTER TABLE patient DETACH PARTITION " + partition);
+            jdbcTemplate.update("DELETE FROM patient_email e USING " + partition + " p WHERE e.patient_id = p.id");
+            jdbcTemplate.execute("ALTER TABLE " + partition + " RENAME TO " + archived);
+        });
+        log.info("Archived patient partition {} as {}", partition, archived);
+    }
+
+    static String partitionName(YearMonth month) {
+        return String.format("patient_p%04d_%02d", month.getYear(), month.getMonthValue());
+    }
+
+    static String createPartition(YearMonth month) {
+        return "CREATE TABLE " + partitionName(month) + " PARTITION OF patient FOR VALUES FROM ('"
+                + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')";
+    }
+
+    /**
+     * The monthly partitions whose month ended at least {@code retentionMonths} months before the
+     * current one; the default partition is never archived.
+     */
+    static List<String> partitionsToArchive(List<String> partitions, YearMonth current, int retentionMonths) {
+        YearMonth cutoff = current.minusMonths(retentionMonths);
+        List<String> archivable = new ArrayList<>();
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (matcher.matches()
+                    && YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)))
+                                .isBefore(cutoff)) {
+                archivable.add(partition);
+            }
+        }
+        return archivable;
+    }
+
+    private static List<YearMonth> months(YearMonth first, YearMonth last) {
+        List<YearMonth> months = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+        return months;
+    }
+}
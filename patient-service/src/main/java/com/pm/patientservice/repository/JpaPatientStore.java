@@ -0,0 +1,95 @@
+package com.pm.patientservice.repository;
+
+import com.pm.patientservice.model.Patient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+@Repository
+@ConditionalOnProperty(name = "patient.sharding.enabled", havingValue = "false", matchIfMissing = true)
+public class JpaPatientStore implements PatientStore {
+
+    private final PatientRepository patientRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public JpaPatientStore(PatientRepository patientRepository,
+                           JdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate) {
+        this.patientRepository = patientRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Plain JDBC, so a page costs one statement and no count query.
+     */
+    @Override
+    public List<Patient> findPage(int limit, long offset) {
+        return jdbcTemplate.query(PatientRows.SELECT + PatientRows.PAGE, PatientRows.ROW_MAPPER, limit, offset);
+    }
+
+    @Override
+    public List<Patient> findPageByRegisteredDateBetween(LocalDate from, LocalDate to, int limit, long offset) {
+        return jdbcTemplate.query(PatientRows.SELECT + PatientRows.BY_REGISTERED_DATE + PatientRows.PAGE,
+                                  PatientRows.ROW_MAPPER, from, to, limit, offset);
+    }
+
+    @Override
+    public Optional<Patient> findById(UUID id) {
+        return patientRepository.findById(id);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return patientRepository.existsByEmail(email);
+    }
+
+    @Override
+    public boolean existsByEmailAndIdNot(String email, UUID id) {
+        return patientRepository.existsByEmailAndIdNot(email, id);
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return patientRepository.findExistingEmails(emails);
+    }
+
+    @Override
+    public Map<LocalDate, Long> countByDateOfBirth() {
+        return PatientRows.countByDate(jdbcTemplate, "date_of_birth");
+    }
+
+    @Override
+    public Map<LocalDate, Long> countByRegisteredDate() {
+        return PatientRows.countByDate(jdbcTemplate, "registered_date");
+    }
+
+    @Override
+    public Patient save(Patient patient) {
+        return patientRepository.save(patient);
+    }
+
+    /**
+     * One batched JDBC insert rather than a JPA persist per patient.
+     */
+    @Override
+    public void insertAll(List<Patient> patients) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                PatientRows.INSERT, patients, patients.size(), PatientRows::bindInsert));
+    }
+
+    @Override
+    public boolean delete(Patient patient) {
+        return patientRepository.deleteByIdAndVersion(patient.getId(), patient.getVersion()) == 1;
+    }
+}
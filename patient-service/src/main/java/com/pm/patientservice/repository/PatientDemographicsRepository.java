@@ -0,0 +1,127 @@
+package com.pm.patientservice.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * The {@code patient_demographics} summary table: patient counts per birth date and per
+ * registration month, adjusted with every patient write. Birth dates are kept to the day so that
+ * ages, which change daily, can be computed exactly; there are at most a few tens of thousands of
+ * them, so every aggregation is a {@code GROUP BY} over a table that never grows with the number
+ * of patients.
+ */
+public class PatientDemographicsRepository {
+
+    private static final String BIRTH_DATE = "BIRTH_DATE";
+    private static final String REGISTRATION_MONTH = "REGISTRATION_MONTH";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean postgres;
+
+    public PatientDemographicsRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.postgres = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())));
+    }
+
+    /**
+     * Adds the deltas to the counts in one statement. Months are given by their first day.
+     */
+    public void adjust(SortedMap<LocalDate, Long> birthDates, SortedMap<LocalDate, Long> registrationMonths) {
+        List<Object> parameters = new ArrayList<>();
+        // Sorted keys lock rows in the same order in every transaction, so concurrent writes cannot deadlock
+        addRows(parameters, BIRTH_DATE, birthDates);
+        addRows(parameters, REGISTRATION_MONTH, registrationMonths);
+        int rows = parameters.size() / 3;
+        if (rows == 0) {
+            return;
+        }
+        jdbcTemplate.update(postgres ? postgresUpsert(rows) : mergeUpsert(rows), parameters.toArray());
+    }
+
+    public void replaceAll(Map<LocalDate, Long> birthDates, Map<LocalDate, Long> registrationMonths) {
+        List<Object[]> rows = new ArrayList<>();
+        birthDates.forEach((day, patients) -> rows.add(new Object[]{BIRTH_DATE, Date.valueOf(day), patients}));
+        registrationMonths.forEach((month, patients) ->
+                                           rows.add(new Object[]{REGISTRATION_MONTH, Date.valueOf(month), patients}));
+        jdbcTemplate.update("DELETE FROM patient_demographics");
+        jdbcTemplate.batchUpdate("INSERT INTO patient_demographics (dimension, bucket, patients) VALUES (?, ?, ?)",
+                                 rows);
+    }
+
+    public boolean isEmpty() {
+        return !Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) > 0 FROM patient_demographics", Boolean.class));
+    }
+
+    public Map<Integer, Long> countByBirthYear() {
+        return countBy("SELECT EXTRACT(YEAR FROM bucket) AS birth_year, SUM(patients) AS patients "
+                               + "FROM patient_demographics WHERE dimension = '" + BIRTH_DATE + "' AND patients > 0 "
+                               + "GROUP BY EXTRACT(YEAR FROM bucket) ORDER BY birth_year");
+    }
+
+    /**
+     * @return patients per band, keyed by the band's lowest age
+     */
+    public Map<Integer, Long> countByAgeBand(LocalDate today, int bandYears) {
+        // All inlined values are ints: PostgreSQL does not match parameterised GROUP BY expressions
+        String age = today.getYear() + " - EXTRACT(YEAR FROM bucket) - CASE WHEN "
+                + "EXTRACT(MONTH FROM bucket) * 100 + EXTRACT(DAY FROM bucket) > "
+                + (today.getMonthValue() * 100 + today.getDayOfMonth()) + " THEN 1 ELSE 0 END";
+        String band = "FLOOR((" + age + ") / " + bandYears + ") * " + bandYears;
+        return countBy("SELECT " + band + " AS band, SUM(patients) AS patients FROM patient_demographics "
+                               + "WHERE dimension = '" + BIRTH_DATE + "' AND patients > 0 "
+                               + "GROUP BY " + band + " ORDER BY band");
+    }
+
+    public Map<LocalDate, Long> countByRegistrationMonth() {
+        Map<LocalDate, Long> counts = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT bucket, patients FROM patient_demographics "
+                                   + "WHERE dimension = '" + REGISTRATION_MONTH + "' AND patients > 0 ORDER BY bucket",
+                           resultSet -> {
+                               counts.put(resultSet.getDate("bucket").toLocalDate(), resultSet.getLong("patients"));
+                           });
+        return counts;
+    }
+
+    private Map<Integer, Long> countBy(String sql) {
+        Map<Integer, Long> counts = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, resultSet -> {
+            counts.put(resultSet.getInt(1), resultSet.getLong(2));
+        });
+        return counts;
+    }
+
+    private static void addRows(List<Object> parameters, String dimension, SortedMap<LocalDate, Long> deltas) {
+        deltas.forEach((bucket, delta) -> {
+            if (delta != 0) {
+                Collections.addAll(parameters, dimension, Date.valueOf(bucket), delta);
+            }
+        });
+    }
+
+    private static String postgresUpsert(int rows) {
+        return "INSERT INTO patient_demographics (dimension, bucket, patients) VALUES "
+                + String.join(", ", Collections.nCopies(rows, "(?, ?, ?)"))
+                + " ON CONFLICT (dimension, bucket) DO UPDATE "
+                + "SET patients = patient_demographics.patients + EXCLUDED.patients";
+    }
+
+    private static String mergeUpsert(int rows) {
+        return "MERGE INTO patient_demographics d USING (VALUES "
+                + String.join(", ", Collections.nCopies(rows,
+                                                        "(CAST(? AS VARCHAR(32)), CAST(? AS DATE), CAST(? AS BIGINT))"))
+                + ") AS s (dimension, bucket, delta) ON d.dimension = s.dimension AND d.bucket = s.bucket "
+                + "WHEN MATCHED THEN UPDATE SET patients = d.patients + s.delta "
+                + "WHEN NOT MATCHED THEN INSERT (dimension, bucket, patients) VALUES (s.dimension, s.bucket, s.delta)";
+    }
+}
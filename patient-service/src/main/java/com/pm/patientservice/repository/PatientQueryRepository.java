@@ -0,0 +1,108 @@
+package com.pm.patientservice.repository;
+
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.sharding.PatientShard;
+import com.pm.patientservice.sharding.PatientShards;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Non-blocking reads over R2DBC. Writes stay on {@link PatientStore}; rows are mapped to
+ * detached {@link Patient} instances that JPA never sees. With sharding, a patient is read from
+ * its own shard and pages are merged from all shards.
+ */
+@Repository
+public class PatientQueryRepository {
+
+    private static final String SELECT = "SELECT id, name, email, address, date_of_birth, registered_date, version "
+            + "FROM patient";
+
+    private final DatabaseClient databaseClient;
+    private final PatientShards patientShards;
+    private final int streamFetchSize;
+
+    public PatientQueryRepository(DatabaseClient databaseClient,
+                                  ObjectProvider<PatientShards> patientShards,
+                                  @Value("${patient.query.stream-fetch-size:500}") int streamFetchSize) {
+        this.databaseClient = databaseClient;
+        this.patientShards = patientShards.getIfAvailable();
+        this.streamFetchSize = streamFetchSize;
+    }
+
+    public Mono<Patient> findById(UUID id) {
+        DatabaseClient client = patientShards == null
+                ? databaseClient
+                : patientShards.shardFor(id).getDatabaseClient();
+        return client.sql(SELECT + " WHERE id = :id")
+                             .bind("id", id)
+                             .map(PatientQueryRepository::toPatient)
+                             .one();
+    }
+
+    public Flux<Patient> findPage(int limit, long offset) {
+        if (patientShards == null) {
+            return databaseClient.sql(SELECT + " ORDER BY id LIMIT :limit OFFSET :offset")
+                                 .bind("limit", limit)
+                                 .bind("offset", offset)
+                                 .map(PatientQueryRepository::toPatient)
+                                 .all();
+        }
+        // The page lies within the first offset + limit rows of every shard, so each shard is
+        // asked for those and the sorted streams are merged; deep pages cost every shard the offset
+        List<Flux<Patient>> shardPages = new ArrayList<>(patientShards.size());
+        for (PatientShard shard : patientShards.all()) {
+            shardPages.add(shard.getDatabaseClient()
+                                .sql(SELECT + " ORDER BY id LIMIT :limit")
+                                .bind("limit", offset + limit)
+                                .map(PatientQueryRepository::toPatient)
+                                .all());
+        }
+        return mergeById(shardPages).skip(offset).take(limit);
+    }
+
+    /**
+     * Every patient, fetched from a server-side cursor {@code stream-fetch-size} rows at a time as
+     * the subscriber requests them, so a slow client holds one connection rather than the table.
+     */
+    public Flux<Patient> streamAll() {
+        if (patientShards == null) {
+            return streamAll(databaseClient);
+        }
+        return Flux.merge(Flux.fromIterable(patientShards.all())
+                              .map(shard -> streamAll(shard.getDatabaseClient())));
+    }
+
+    private Flux<Patient> streamAll(DatabaseClient client) {
+        return client.sql(SELECT)
+                     .filter(statement -> statement.fetchSize(streamFetchSize))
+                     .map(PatientQueryRepository::toPatient)
+                     .all();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Flux<Patient> mergeById(List<Flux<Patient>> sortedPages) {
+        return Flux.mergeComparing(PatientRows.ID_ORDER, sortedPages.toArray(new Flux[0]));
+    }
+
+    private static Patient toPatient(Readable row) {
+        Patient patient = new Patient();
+        patient.setId(row.get("id", UUID.class));
+        patient.setName(row.get("name", String.class));
+        patient.setEmail(row.get("email", String.class));
+        patient.setAddress(row.get("address", String.class));
+        patient.setDateOfBirth(row.get("date_of_birth", LocalDate.class));
+        patient.setRegisteredDate(row.get("registered_date", LocalDate.class));
+        patient.setVersion(row.get("version", Long.class));
+        return patient;
+    }
+}
@@ -2,8 +2,15 @@ package com.pm.patientservice.repository;
 
 import com.pm.patientservice.model.Patient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -11,5 +18,14 @@ public interface PatientRepository extends JpaRepository<Patient, UUID> {
 
     boolean existsByEmail(String email);
 
+    List<Patient> findByRegisteredDateBetween(LocalDate from, LocalDate to);
+
     boolean existsByEmailAndIdNot(String email, UUID id);
+
+    @Query("select p.email from Patient p where p.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Modifying
+    @Query("delete from Patient p where p.id = :id and p.version = :version")
+    int deleteByIdAndVersion(@Param("id") UUID id, @Param("version") Long version);
 }
@@ -0,0 +1,91 @@
+package com.pm.patientservice.repository;
+
+import com.pm.patientservice.model.Patient;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Plain JDBC access to the {@code patient} table, for writes that bypass JPA.
+ */
+public final class PatientRows {
+
+    public static final String SELECT = "SELECT id, name, email, address, date_of_birth, registered_date, version "
+            + "FROM patient";
+    public static final String INSERT = "INSERT INTO patient "
+            + "(id, name, email, address, date_of_birth, registered_date, version) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    public static final String UPDATE = "UPDATE patient SET name = ?, email = ?, address = ?, date_of_birth = ?, "
+            + "registered_date = ?, version = version + 1 WHERE id = ? AND version = ?";
+
+    public static final String BY_REGISTERED_DATE = " WHERE registered_date BETWEEN ? AND ?";
+    public static final String PAGE = " ORDER BY id LIMIT ? OFFSET ?";
+
+    /**
+     * The order of {@code ORDER BY id} in PostgreSQL and H2: both compare UUIDs as unsigned bytes,
+     * unlike {@link UUID#compareTo}.
+     */
+    public static final Comparator<Patient> ID_ORDER = (left, right) -> {
+        int high = Long.compareUnsigned(left.getId().getMostSignificantBits(),
+                                        right.getId().getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(left.getId().getLeastSignificantBits(),
+                                                       right.getId().getLeastSignificantBits());
+    };
+
+    public static final RowMapper<Patient> ROW_MAPPER = (resultSet, rowNum) -> {
+        Patient patient = new Patient();
+        patient.setId(resultSet.getObject("id", UUID.class));
+        patient.setName(resultSet.getString("name"));
+        patient.setEmail(resultSet.getString("email"));
+        patient.setAddress(resultSet.getString("address"));
+        patient.setDateOfBirth(resultSet.getDate("date_of_birth").toLocalDate());
+        patient.setRegisteredDate(resultSet.getDate("registered_date").toLocalDate());
+        long version = resultSet.getLong("version");
+        patient.setVersion(resultSet.wasNull() ? null : version);
+        return patient;
+    };
+
+    private PatientRows() {
+    }
+
+    /**
+     * Patients per value of a date column, in date order.
+     */
+    public static Map<LocalDate, Long> countByDate(JdbcTemplate jdbcTemplate, String column) {
+        Map<LocalDate, Long> counts = new TreeMap<>();
+        jdbcTemplate.query("SELECT " + column + ", COUNT(*) FROM patient GROUP BY " + column, resultSet -> {
+            counts.put(resultSet.getDate(1).toLocalDate(), resultSet.getLong(2));
+        });
+        return counts;
+    }
+
+    public static void bindInsert(PreparedStatement statement, Patient patient) throws SQLException {
+        statement.setObject(1, patient.getId());
+        statement.setString(2, patient.getName());
+        statement.setString(3, patient.getEmail());
+        statement.setString(4, patient.getAddress());
+        statement.setDate(5, Date.valueOf(patient.getDateOfBirth()));
+        statement.setDate(6, Date.valueOf(patient.getRegisteredDate()));
+        statement.setObject(7, patient.getVersion() == null ? 1L : patient.getVersion());
+    }
+
+    /**
+     * Binds the version the patient was read at; the update matches no row if it has moved on.
+     */
+    public static void bindUpdate(PreparedStatement statement, Patient patient) throws SQLException {
+        statement.setString(1, patient.getName());
+        statement.setString(2, patient.getEmail());
+        statement.setString(3, patient.getAddress());
+        statement.setDate(4, Date.valueOf(patient.getDateOfBirth()));
+        statement.setDate(5, Date.valueOf(patient.getRegisteredDate()));
+        statement.setObject(6, patient.getId());
+        statement.setObject(7, patient.getVersion());
+    }
+}
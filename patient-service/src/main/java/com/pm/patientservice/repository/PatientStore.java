@@ -0,0 +1,73 @@
+package com.pm.patientservice.repository;
+
+import com.pm.patientservice.model.Patient;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Where patients are written. {@link JpaPatientStore} keeps them in the application database;
+ * {@link com.pm.patientservice.sharding.ShardedPatientStore} spreads them over several databases
+ * when {@code patient.sharding.enabled=true}. Reads over R2DBC go through
+ * {@link PatientQueryRepository}, which follows the same placement.
+ */
+public interface PatientStore {
+
+    /**
+     * One page of patients in id order, as ordered by {@link PatientRows#ID_ORDER}.
+     */
+    List<Patient> findPage(int limit, long offset);
+
+    /**
+     * One page, in id order, of the patients registered within the given dates, both inclusive.
+     */
+    List<Patient> findPageByRegisteredDateBetween(LocalDate from, LocalDate to, int limit, long offset);
+
+    Optional<Patient> findById(UUID id);
+
+    boolean existsByEmail(String email);
+
+    boolean existsByEmailAndIdNot(String email, UUID id);
+
+    Set<String> findExistingEmails(Collection<String> emails);
+
+    /**
+     * Patients per date of birth, for rebuilding the demographics summary.
+     */
+    Map<LocalDate, Long> countByDateOfBirth();
+
+    /**
+     * Patients per registration date, for rebuilding the demographics summary.
+     */
+    Map<LocalDate, Long> countByRegisteredDate();
+
+    /**
+     * Inserts patients without an id and updates the others. An update only applies if the
+     * stored version still equals the patient's, and increments it.
+     *
+     * @throws org.springframework.dao.DataIntegrityViolationException if the email is taken
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the patient was
+     *                                                                   updated or deleted since it was read
+     */
+    Patient save(Patient patient);
+
+    /**
+     * Inserts new patients, whose ids are already assigned, all or nothing.
+     *
+     * @throws org.springframework.dao.DataIntegrityViolationException if any email is taken
+     */
+    void insertAll(List<Patient> patients);
+
+    /**
+     * Deletes the patient if it is still at the version it was read at, so the caller knows
+     * exactly which state was removed.
+     *
+     * @return false if the row is gone or its version has moved on
+     */
+    boolean delete(Patient patient);
+}
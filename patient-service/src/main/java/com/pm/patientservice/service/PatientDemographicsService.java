@@ -0,0 +1,129 @@
+package com.pm.patientservice.service;
+
+import com.pm.patientservice.dto.PatientCountDTO;
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.repository.PatientDemographicsRepository;
+import com.pm.patientservice.repository.PatientStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Patient counts by age band, birth year and registration month, served from the summary table
+ * in {@link PatientDemographicsRepository}. Writers record their changes here in the same
+ * transaction as the patient write; the summary is rebuilt from the patients at startup when it
+ * is empty, and after bulk loads that bypass the writers.
+ */
+@Service
+public class PatientDemographicsService implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(PatientDemographicsService.class);
+
+    private final PatientDemographicsRepository patientDemographicsRepository;
+    private final PatientStore patientStore;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean rebuildOnStartup;
+
+    public PatientDemographicsService(PatientDemographicsRepository patientDemographicsRepository,
+                                      PatientStore patientStore,
+                                      TransactionTemplate transactionTemplate,
+                                      @Value("${patient.demographics.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+        this.patientDemographicsRepository = patientDemographicsRepository;
+        this.patientStore = patientStore;
+        this.transactionTemplate = transactionTemplate;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    public List<PatientCountDTO> getAgeBands(int bandYears) {
+        return patientDemographicsRepository.countByAgeBand(LocalDate.now(), bandYears)
+                                            .entrySet().stream()
+                                            .map(band -> new PatientCountDTO(
+                                                    band.getKey() + "-" + (band.getKey() + bandYears - 1),
+                                                    band.getValue()))
+                                            .toList();
+    }
+
+    public List<PatientCountDTO> getBirthYears() {
+        return patientDemographicsRepository.countByBirthYear()
+                                            .entrySet().stream()
+                                            .map(year -> new PatientCountDTO(year.getKey().toString(), year.getValue()))
+                                            .toList();
+    }
+
+    public List<PatientCountDTO> getRegistrationMonths() {
+        return patientDemographicsRepository.countByRegistrationMonth()
+                                            .entrySet().stream()
+                                            .map(month -> new PatientCountDTO(YearMonth.from(month.getKey()).toString(),
+                                                                              month.getValue()))
+                                            .toList();
+    }
+
+    public void recordCreated(Patient patient) {
+        record(List.of(patient), 1);
+    }
+
+    public void recordCreated(Collection<Patient> patients) {
+        record(patients, 1);
+    }
+
+    public void recordDeleted(Patient patient) {
+        record(List.of(patient), -1);
+    }
+
+    /**
+     * The registration date never changes, so the date of birth is the only counted field an
+     * update can move.
+     */
+    public void recordBirthDateChanged(LocalDate from, LocalDate to) {
+        if (from.equals(to)) {
+            return;
+        }
+        SortedMap<LocalDate, Long> birthDates = new TreeMap<>();
+        birthDates.put(from, -1L);
+        birthDates.put(to, 1L);
+        patientDemographicsRepository.adjust(birthDates, new TreeMap<>());
+    }
+
+    /**
+     * Recounts every patient. Writes that commit while this runs may be lost from the summary, so
+     * it is meant for startup and after bulk loads.
+     */
+    public void rebuild() {
+        Map<LocalDate, Long> birthDates = patientStore.countByDateOfBirth();
+        Map<LocalDate, Long> registrationMonths = new TreeMap<>();
+        patientStore.countByRegisteredDate()
+                    .forEach((day, patients) -> registrationMonths.merge(day.withDayOfMonth(1), patients, Long::sum));
+        transactionTemplate.executeWithoutResult(status ->
+                patientDemographicsRepository.replaceAll(birthDates, registrationMonths));
+        log.info("Rebuilt patient demographics from {} birth dates and {} registration months",
+                 birthDates.size(), registrationMonths.size());
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (rebuildOnStartup || patientDemographicsRepository.isEmpty()) {
+            rebuild();
+        }
+    }
+
+    private void record(Collection<Patient> patients, long delta) {
+        SortedMap<LocalDate, Long> birthDates = new TreeMap<>();
+        SortedMap<LocalDate, Long> registrationMonths = new TreeMap<>();
+        for (Patient patient : patients) {
+            birthDates.merge(patient.getDateOfBirth(), delta, Long::sum);
+            registrationMonths.merge(patient.getRegisteredDate().withDayOfMonth(1), delta, Long::sum);
+        }
+        patientDemographicsRepository.adjust(birthDates, registrationMonths);
+    }
+}
@@ -0,0 +1,281 @@
+package com.pm.patientservice.service;
+
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.dto.validators.CreatePatientValidationGroup;
+import com.pm.patientservice.exception.ImportCapacityExceededException;
+import com.pm.patientservice.exception.ImportJobNotFoundException;
+import com.pm.patientservice.importer.CsvReader;
+import com.pm.patientservice.importer.PatientImportJob;
+import com.pm.patientservice.kafka.KafkaProducer;
+import com.pm.patientservice.mapper.PatientMapper;
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.repository.PatientStore;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.validation.groups.Default;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Imports patients from CSV files in the background. The upload is spooled to a temporary file
+ * and streamed from there, so memory stays bounded by the chunk size rather than the file size.
+ * Each chunk is validated like {@code POST /patients}, checked for emails that already exist, and
+ * written with one batched insert in its own transaction; a failed row never rolls back others.
+ *
+ * <p>Imported patients are published as {@code PATIENT_CREATED} events. Billing accounts are not
+ * created for them, since that would take one gRPC call per row.
+ */
+@Service
+public class PatientImportService {
+    private static final Logger log = LoggerFactory.getLogger(PatientImportService.class);
+
+    private static final List<String> COLUMNS =
+            List.of("name", "email", "address", "dateOfBirth", "registeredDate");
+
+    private final PatientStore patientStore;
+    private final PatientDemographicsService patientDemographicsService;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final KafkaProducer kafkaProducer;
+    private final ThreadPoolTaskExecutor patientImportExecutor;
+    private final int chunkSize;
+    private final int maxErrors;
+    private final int maxRecordLength;
+    private final Duration retention;
+    private final Map<UUID, PatientImportJob> jobs = new ConcurrentHashMap<>();
+
+    public PatientImportService(PatientStore patientStore,
+                                PatientDemographicsService patientDemographicsService,
+                                TransactionTemplate transactionTemplate,
+                                Validator validator,
+                                KafkaProducer kafkaProducer,
+                                ThreadPoolTaskExecutor patientImportExecutor,
+                                @Value("${patient.import.chunk-size:1000}") int chunkSize,
+                                @Value("${patient.import.max-errors:1000}") int maxErrors,
+                                @Value("${patient.import.max-record-length:65536}") int maxRecordLength,
+                                @Value("${patient.import.retention:PT24H}") Duration retention) {
+        this.patientStore = patientStore;
+        this.patientDemographicsService = patientDemographicsService;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.kafkaProducer = kafkaProducer;
+        this.patientImportExecutor = patientImportExecutor;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+        this.maxRecordLength = maxRecordLength;
+        this.retention = retention;
+    }
+
+    public PatientImportJob submit(String fileName, InputStream content) throws IOException {
+        evictFinishedJobs();
+        Path file = Files.createTempFile("patient-import-", ".csv");
+        try {
+            Files.copy(content, file, StandardCopyOption.REPLACE_EXISTING);
+            PatientImportJob job = new PatientImportJob(UUID.randomUUID(), fileName, maxErrors);
+            jobs.put(job.getId(), job);
+            try {
+                patientImportExecutor.execute(() -> run(job, file));
+            } catch (RejectedExecutionException e) {
+                jobs.remove(job.getId());
+                throw new ImportCapacityExceededException("Too many imports in progress", e);
+            }
+            return job;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    public PatientImportJob getJob(UUID id) {
+        PatientImportJob job = jobs.get(id);
+        if (job == null) {
+            throw new ImportJobNotFoundException("Import job not found with ID: " + id);
+        }
+        return job;
+    }
+
+    void run(PatientImportJob job, Path file) {
+        job.start();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            importRows(job, new CsvReader(reader, maxRecordLength));
+            job.complete();
+            log.info("Import {} completed: {} imported, {} failed", job.getId(), job.getRowsImported(),
+                     job.getRowsFailed());
+        } catch (Exception e) {
+            log.warn("Import {} failed after {} rows: {}", job.getId(), job.getRowsProcessed(), e.getMessage());
+            job.fail(e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete import file {}", file);
+            }
+        }
+    }
+
+    private void importRows(PatientImportJob job, CsvReader csv) throws IOException {
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            throw new IOException("The file is empty");
+        }
+        int[] columnIndexes = columnIndexes(header);
+
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        long row = csv.getLineNumber();
+        List<String> record;
+        while ((record = csv.readRecord()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                row = csv.getLineNumber();
+                continue;
+            }
+            job.rowProcessed();
+            String error = toPatient(record, columnIndexes, row, chunk);
+            if (error != null) {
+                job.rowFailed(row, error);
+            }
+            if (chunk.size() == chunkSize) {
+                writeChunk(job, chunk);
+                chunk.clear();
+            }
+            row = csv.getLineNumber();
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(job, chunk);
+        }
+    }
+
+    private static int[] columnIndexes(List<String> header) throws IOException {
+        int[] indexes = new int[COLUMNS.size()];
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            indexes[i] = -1;
+            for (int j = 0; j < header.size(); j++) {
+                if (header.get(j).trim().equalsIgnoreCase(COLUMNS.get(i))) {
+                    indexes[i] = j;
+                }
+            }
+            if (indexes[i] == -1) {
+                throw new IOException("Missing column " + COLUMNS.get(i) + "; expected header " + COLUMNS);
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * @return the validation error, or {@code null} if the patient was added to the chunk
+     */
+    private String toPatient(List<String> record, int[] columnIndexes, long row, List<ImportRow> chunk) {
+        PatientRequestDTO request = new PatientRequestDTO();
+        request.setName(column(record, columnIndexes[0]));
+        request.setEmail(column(record, columnIndexes[1]));
+        request.setAddress(column(record, columnIndexes[2]));
+        request.setDateOfBirth(column(record, columnIndexes[3]));
+        request.setRegisteredDate(column(record, columnIndexes[4]));
+
+        Set<ConstraintViolation<PatientRequestDTO>> violations =
+                validator.validate(request, Default.class, CreatePatientValidationGroup.class);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                             .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                             .sorted()
+                             .collect(Collectors.joining("; "));
+        }
+        try {
+            Patient patient = PatientMapper.toModel(request);
+            patient.setId(UUID.randomUUID());
+            patient.setVersion(1L);
+            chunk.add(new ImportRow(row, patient));
+            return null;
+        } catch (DateTimeParseException e) {
+            return "Invalid date '" + e.getParsedString() + "', expected yyyy-MM-dd";
+        }
+    }
+
+    private static String column(List<String> record, int index) {
+        return index < record.size() ? record.get(index).trim() : null;
+    }
+
+    private void writeChunk(PatientImportJob job, List<ImportRow> chunk) {
+        Set<String> existing = patientStore.findExistingEmails(
+                chunk.stream().map(importRow -> importRow.patient.getEmail()).toList());
+        Set<String> seen = new HashSet<>();
+        List<ImportRow> accepted = new ArrayList<>(chunk.size());
+        for (ImportRow importRow : chunk) {
+            String email = importRow.patient.getEmail();
+            if (existing.contains(email) || !seen.add(email)) {
+                job.rowFailed(importRow.row, "Email address already exists");
+            } else {
+                accepted.add(importRow);
+            }
+        }
+
+        try {
+            insert(accepted);
+        } catch (DataIntegrityViolationException e) {
+            // A patient created concurrently took one of the emails; find which row by row
+            List<ImportRow> inserted = new ArrayList<>(accepted.size());
+            for (ImportRow importRow : accepted) {
+                try {
+                    insert(List.of(importRow));
+                    inserted.add(importRow);
+                } catch (DataIntegrityViolationException rowFailure) {
+                    job.rowFailed(importRow.row, "Email address already exists");
+                }
+            }
+            accepted = inserted;
+        }
+        job.rowsImported(accepted.size());
+
+        long now = System.currentTimeMillis();
+        for (ImportRow importRow : accepted) {
+            kafkaProducer.sendEvent(PatientMapper.toEventDTO(importRow.patient, PatientService.PATIENT_CREATED, now));
+        }
+    }
+
+    private void insert(List<ImportRow> rows) {
+        List<Patient> patients = rows.stream().map(importRow -> importRow.patient).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            patientStore.insertAll(patients);
+            patientDemographicsService.recordCreated(patients);
+        });
+    }
+
+    private void evictFinishedJobs() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    private static class ImportRow {
+        private final long row;
+        private final Patient patient;
+
+        ImportRow(long row, Patient patient) {
+            this.row = row;
+            this.patient = patient;
+        }
+    }
+}
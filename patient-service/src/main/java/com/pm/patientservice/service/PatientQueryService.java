@@ -0,0 +1,46 @@
+package com.pm.patientservice.service;
+
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.exception.PatientNotFoundException;
+import com.pm.patientservice.mapper.PatientMapper;
+import com.pm.patientservice.repository.PatientQueryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Read side of {@link PatientService}. Requests wait on the database without holding a thread,
+ * so a burst of slow reads does not starve the servlet pool that writes depend on.
+ */
+@Service
+public class PatientQueryService {
+
+    private final PatientQueryRepository patientQueryRepository;
+    private final int maxPageSize;
+
+    public PatientQueryService(PatientQueryRepository patientQueryRepository,
+                               @Value("${patient.query.max-page-size:500}") int maxPageSize) {
+        this.patientQueryRepository = patientQueryRepository;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public Mono<PatientResponseDTO> getPatient(UUID id) {
+        return patientQueryRepository.findById(id)
+                                     .map(PatientMapper::toDTO)
+                                     .switchIfEmpty(Mono.error(() -> new PatientNotFoundException(
+                                             "Patient not found with ID: " + id)));
+    }
+
+    public Flux<PatientResponseDTO> getPatients(int page, int size) {
+        int limit = Math.max(1, Math.min(size, maxPageSize));
+        return patientQueryRepository.findPage(limit, (long) Math.max(0, page) * limit)
+                                     .map(PatientMapper::toDTO);
+    }
+
+    public Flux<PatientResponseDTO> streamPatients() {
+        return patientQueryRepository.streamAll().map(PatientMapper::toDTO);
+    }
+}
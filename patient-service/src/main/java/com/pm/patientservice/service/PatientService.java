@@ -1,6 +1,5 @@
 package com.pm.patientservice.service;
 
-import com.pm.patientservice.dto.PatientEventDTO;
 import com.pm.patientservice.dto.PatientRequestDTO;
 import com.pm.patientservice.dto.PatientResponseDTO;
 import com.pm.patientservice.exception.EmailAlreadyExistsException;
@@ -9,8 +8,11 @@ import com.pm.patientservice.grpc.BillingServiceGrpcClient;
 import com.pm.patientservice.kafka.KafkaProducer;
 import com.pm.patientservice.mapper.PatientMapper;
 import com.pm.patientservice.model.Patient;
-import com.pm.patientservice.repository.PatientRepository;
+import com.pm.patientservice.repository.PatientStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -19,64 +21,131 @@ import java.util.UUID;
 @Service
 public class PatientService {
 
-    private PatientRepository patientRepository;
+    static final String PATIENT_CREATED = "PATIENT_CREATED";
+    static final String PATIENT_UPDATED = "PATIENT_UPDATED";
+    static final String PATIENT_DELETED = "PATIENT_DELETED";
+
+    // Stand-ins for open registration date bounds; both are valid dates on H2 and PostgreSQL
+    private static final LocalDate EARLIEST = LocalDate.of(1, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    private final PatientStore patientStore;
     private final BillingServiceGrpcClient billingServiceGrpcClient;
     private final KafkaProducer kafkaProducer;
+    private final PatientDemographicsService patientDemographicsService;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxPageSize;
 
-    public PatientService(PatientRepository patientRepository,
+    public PatientService(PatientStore patientStore,
                           BillingServiceGrpcClient billingServiceGrpcClient,
-                          KafkaProducer kafkaProducer) {
-        this.patientRepository = patientRepository;
+                          KafkaProducer kafkaProducer,
+                          PatientDemographicsService patientDemographicsService,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${patient.query.max-page-size:500}") int maxPageSize) {
+        this.patientStore = patientStore;
         this.billingServiceGrpcClient = billingServiceGrpcClient;
         this.kafkaProducer = kafkaProducer;
+        this.patientDemographicsService = patientDemographicsService;
+        this.transactionTemplate = transactionTemplate;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * One page of patients in id order; the size is capped at {@code patient.query.max-page-size}.
+     */
+    public List<PatientResponseDTO> getPatients(int page, int size) {
+        int limit = pageLimit(size);
+        List<Patient> patients = patientStore.findPage(limit, pageOffset(page, limit));
+        return patients.stream().map(PatientMapper::toDTO).toList();
     }
 
-    public List<PatientResponseDTO> getPatients() {
-        List<Patient> patients = patientRepository.findAll();
+    /**
+     * Either bound may be null for an open range.
+     */
+    public List<PatientResponseDTO> getPatientsRegisteredBetween(LocalDate from, LocalDate to, int page, int size) {
+        int limit = pageLimit(size);
+        List<Patient> patients = patientStore.findPageByRegisteredDateBetween(from == null ? EARLIEST : from,
+                                                                              to == null ? LATEST : to,
+                                                                              limit, pageOffset(page, limit));
         return patients.stream().map(PatientMapper::toDTO).toList();
+    }
 
+    private int pageLimit(int size) {
+        return Math.max(1, Math.min(size, maxPageSize));
+    }
 
+    private static long pageOffset(int page, int limit) {
+        return (long) Math.max(0, page) * limit;
     }
 
     public PatientResponseDTO createPatient(PatientRequestDTO patientRequestDTO) {
 
-        if (patientRepository.existsByEmail(patientRequestDTO.getEmail())) {
+        if (patientStore.existsByEmail(patientRequestDTO.getEmail())) {
             throw new EmailAlreadyExistsException("A patient with this email " + "already exists" + patientRequestDTO.getEmail());
         }
-        Patient newPatient = patientRepository.save(PatientMapper.toModel(patientRequestDTO));
+        Patient patient = PatientMapper.toModel(patientRequestDTO);
+        patient.setVersion(1L);
+        Patient newPatient = transactionTemplate.execute(status -> {
+            Patient saved = patientStore.save(patient);
+            patientDemographicsService.recordCreated(saved);
+            return saved;
+        });
         billingServiceGrpcClient.createBillingAccount(newPatient.getId().toString(), newPatient.getName(), newPatient.getEmail());
 
-        kafkaProducer.sendEvent(new PatientEventDTO(
-                newPatient.getId().toString(),
-                newPatient.getName(),
-                newPatient.getEmail(),
-                "PATIENT_CREATED"
-        ));
+        kafkaProducer.sendEvent(PatientMapper.toEventDTO(newPatient, PATIENT_CREATED,
+                                                         System.currentTimeMillis()));
         return PatientMapper.toDTO(newPatient);
     }
 
     public PatientResponseDTO updatePatient(UUID id, PatientRequestDTO patientRequestDTO) {
 
-        Patient patient = patientRepository.findById(id).orElseThrow(() -> new PatientNotFoundException("Patient not found with ID: " + id));
-        if (patientRepository.existsByEmailAndIdNot(patientRequestDTO.getEmail(), id)) {
-
-            throw new EmailAlreadyExistsException("A patient with this email " + "already exists" + patientRequestDTO.getEmail());
-        }
-
-
-        patient.setName(patientRequestDTO.getName());
-        patient.setAddress(patientRequestDTO.getAddress());
-        patient.setEmail(patientRequestDTO.getEmail());
-        patient.setDateOfBirth(LocalDate.parse(patientRequestDTO.getDateOfBirth()));
-
-        Patient updatedPatient = patientRepository.save(patient);
+        // The store bumps the version and fails if another write got there first, so the date of
+        // birth read here is the one the update replaces
+        Patient updatedPatient = transactionTemplate.execute(status -> {
+            Patient patient = patientStore.findById(id).orElseThrow(() -> new PatientNotFoundException("Patient not found with ID: " + id));
+            if (patientStore.existsByEmailAndIdNot(patientRequestDTO.getEmail(), id)) {
+
+                throw new EmailAlreadyExistsException("A patient with this email " + "already exists" + patientRequestDTO.getEmail());
+            }
+
+            LocalDate previousDateOfBirth = patient.getDateOfBirth();
+            patient.setName(patientRequestDTO.getName());
+            patient.setAddress(patientRequestDTO.getAddress());
+            patient.setEmail(patientRequestDTO.getEmail());
+            patient.setDateOfBirth(LocalDate.parse(patientRequestDTO.getDateOfBirth()));
+
+            Patient saved = patientStore.save(patient);
+            patientDemographicsService.recordBirthDateChanged(previousDateOfBirth, saved.getDateOfBirth());
+            return saved;
+        });
+        kafkaProducer.sendEvent(PatientMapper.toEventDTO(updatedPatient, PATIENT_UPDATED,
+                                                         System.currentTimeMillis()));
         return PatientMapper.toDTO(updatedPatient);
 
     }
 
     public void deletePatient(UUID id) {
-        Patient patient = patientRepository.findById(id).orElseThrow(() -> new PatientNotFoundException("Patient not found with ID: " + id));
-        patientRepository.deleteById(id);
+        // Counted out of the demographics only if the row deleted is the one read here
+        Patient patient = transactionTemplate.execute(status -> {
+            Patient current = patientStore.findById(id).orElseThrow(() -> new PatientNotFoundException("Patient not found with ID: " + id));
+            if (!patientStore.delete(current)) {
+                if (patientStore.findById(id).isEmpty()) {
+                    throw new PatientNotFoundException("Patient not found with ID: " + id);
+                }
+                throw new OptimisticLockingFailureException("Patient " + id + " was changed concurrently");
+            }
+            patientDemographicsService.recordDeleted(current);
+            return current;
+        });
+
+        // The deletion event carries the last known state so consumers need no lookup
+        patient.setVersion(nextVersion(patient));
+        kafkaProducer.sendEvent(PatientMapper.toEventDTO(patient, PATIENT_DELETED,
+                                                         System.currentTimeMillis()));
+    }
+
+    private static long nextVersion(Patient patient) {
+        return patient.getVersion() == null ? 1 : patient.getVersion() + 1;
     }
 }
 
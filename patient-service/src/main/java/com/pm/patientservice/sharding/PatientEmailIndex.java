@@ -0,0 +1,100 @@
+package com.pm.patientservice.sharding;
+
+import com.pm.patientservice.model.Patient;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Global email → patient and shard index in the application database. Patients of different
+ * shards cannot see each other's unique constraints, so an email is claimed here, under this
+ * table's primary key, before the patient row is written to its shard.
+ *
+ * <p>Claims and releases commit on their own, even inside a caller's transaction: the shard write
+ * that follows a claim commits at once, so the claim must not roll back without it. If the process
+ * dies between the claim and the shard write, the email stays claimed by a patient that does not
+ * exist; such rows can be deleted safely.
+ */
+public class PatientEmailIndex {
+
+    private static final String INSERT = "INSERT INTO patient_email_index (email, patient_id, shard) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public PatientEmailIndex(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * @throws org.springframework.dao.DuplicateKeyException if another patient holds the email
+     */
+    public void claim(String email, UUID patientId, int shard) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(INSERT, email, patientId, shard));
+    }
+
+    /**
+     * Claims the emails of all patients or, if any is taken, none of them.
+     *
+     * @param shards shard index per patient id
+     * @throws org.springframework.dao.DuplicateKeyException if any email is taken
+     */
+    public void claimAll(List<Patient> patients, Map<UUID, Integer> shards) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                INSERT, patients, patients.size(), (statement, patient) -> {
+                    statement.setString(1, patient.getEmail());
+                    statement.setObject(2, patient.getId());
+                    statement.setInt(3, shards.get(patient.getId()));
+                }));
+    }
+
+    /**
+     * Frees the email if it is still held by the patient.
+     */
+    public void release(String email, UUID patientId) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "DELETE FROM patient_email_index WHERE email = ? AND patient_id = ?", email, patientId));
+    }
+
+    public void releaseAll(List<Patient> patients) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                "DELETE FROM patient_email_index WHERE email = ? AND patient_id = ?",
+                patients, patients.size(), (statement, patient) -> {
+                    statement.setString(1, patient.getEmail());
+                    statement.setObject(2, patient.getId());
+                }));
+    }
+
+    public boolean exists(String email) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) > 0 FROM patient_email_index WHERE email = ?", Boolean.class, email));
+    }
+
+    public boolean existsForOtherPatient(String email, UUID patientId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) > 0 FROM patient_email_index WHERE email = ? AND patient_id <> ?",
+                Boolean.class, email, patientId));
+    }
+
+    public Set<String> findExisting(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT email FROM patient_email_index WHERE email IN (:emails)",
+                Map.of("emails", emails), String.class));
+    }
+}
@@ -0,0 +1,41 @@
+package com.pm.patientservice.sharding;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * One database holding a slice of the patients, reachable over JDBC for writes and R2DBC for
+ * reactive reads.
+ */
+public class PatientShard {
+
+    private final int index;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DatabaseClient databaseClient;
+
+    public PatientShard(int index, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                        DatabaseClient databaseClient) {
+        this.index = index;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.databaseClient = databaseClient;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public JdbcTemplate getJdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    public TransactionTemplate getTransactionTemplate() {
+        return transactionTemplate;
+    }
+
+    public DatabaseClient getDatabaseClient() {
+        return databaseClient;
+    }
+}
@@ -0,0 +1,47 @@
+package com.pm.patientservice.sharding;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Places each patient on one shard by a hash of its id. Placement depends on the number of
+ * shards, so that number must not change once patients are stored; there is no rebalancing.
+ */
+public class PatientShards {
+
+    private final List<PatientShard> shards;
+
+    public PatientShards(List<PatientShard> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = List.copyOf(shards);
+    }
+
+    public PatientShard shardFor(UUID patientId) {
+        return shards.get(shardIndex(patientId, shards.size()));
+    }
+
+    public List<PatientShard> all() {
+        return shards;
+    }
+
+    public int size() {
+        return shards.size();
+    }
+
+    /**
+     * Ids are not always random (imports and seed data choose their own), so the bits are mixed
+     * before taking the modulus.
+     */
+    static int shardIndex(UUID patientId, int shardCount) {
+        long hash = patientId.getMostSignificantBits() ^ Long.rotateLeft(patientId.getLeastSignificantBits(), 32);
+        // MurmurHash3 finalizer
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return (int) Math.floorMod(hash, (long) shardCount);
+    }
+}
@@ -0,0 +1,327 @@
+package com.pm.patientservice.sharding;
+
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.repository.PatientRows;
+import com.pm.patientservice.repository.PatientStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Patients hash-sharded by id over {@link PatientShards}, with email uniqueness enforced by the
+ * {@link PatientEmailIndex}. Lookups by id and writes touch one shard; pages of patients, all or
+ * by registration date, and the demographics counts ask every shard in parallel.
+ *
+ * <p>Updates only apply to the version the patient was read at, like the JPA store's
+ * {@code @Version} check, and bump it in the same statement.
+ *
+ * <p>Index and shard are separate databases, so a write is not atomic across them: the email is
+ * claimed and committed first, then the shard row is written, and the claim is released again if
+ * the shard write fails. The shard write commits at once, so when the caller's transaction on the
+ * application database rolls back afterwards, the shard write is undone and the index restored to
+ * match. Emails given up by an update or delete are only released once the caller commits.
+ */
+public class ShardedPatientStore implements PatientStore {
+    private static final Logger log = LoggerFactory.getLogger(ShardedPatientStore.class);
+
+    private static final String DELETE = "DELETE FROM patient WHERE id = ? AND version = ?";
+    private static final String RESTORE = "UPDATE patient SET name = ?, email = ?, address = ?, date_of_birth = ?, "
+            + "registered_date = ?, version = ? WHERE id = ? AND version = ?";
+
+    private final PatientShards shards;
+    private final PatientEmailIndex emailIndex;
+    private final Executor shardExecutor;
+
+    public ShardedPatientStore(PatientShards shards, PatientEmailIndex emailIndex, Executor shardExecutor) {
+        this.shards = shards;
+        this.emailIndex = emailIndex;
+        this.shardExecutor = shardExecutor;
+    }
+
+    @Override
+    public List<Patient> findPage(int limit, long offset) {
+        return mergePages(PatientRows.SELECT + " ORDER BY id LIMIT ?", limit, offset);
+    }
+
+    @Override
+    public List<Patient> findPageByRegisteredDateBetween(LocalDate from, LocalDate to, int limit, long offset) {
+        return mergePages(PatientRows.SELECT + PatientRows.BY_REGISTERED_DATE + " ORDER BY id LIMIT ?",
+                          limit, offset, from, to);
+    }
+
+    /**
+     * The page lies within the first {@code offset + limit} rows of every shard, so each shard is
+     * asked for those and the sorted lists are merged; deep pages cost every shard the offset.
+     */
+    private List<Patient> mergePages(String sql, int limit, long offset, Object... args) {
+        Object[] shardArgs = Arrays.copyOf(args, args.length + 1);
+        shardArgs[args.length] = offset + limit;
+        List<Patient> patients = new ArrayList<>();
+        onAllShards(shard -> shard.getJdbcTemplate().query(sql, PatientRows.ROW_MAPPER, shardArgs))
+                .forEach(patients::addAll);
+        // The shards' lists are sorted runs, which List.sort merges rather than sorts afresh
+        patients.sort(PatientRows.ID_ORDER);
+        int from = (int) Math.min(offset, patients.size());
+        return new ArrayList<>(patients.subList(from, Math.min(from + limit, patients.size())));
+    }
+
+    /**
+     * Runs the query on every shard in parallel on the shard executor.
+     *
+     * @return the shards' results, in shard order
+     */
+    private <T> List<T> onAllShards(Function<PatientShard, T> query) {
+        List<CompletableFuture<T>> results = new ArrayList<>(shards.size());
+        for (PatientShard shard : shards.all()) {
+            results.add(CompletableFuture.supplyAsync(() -> query.apply(shard), shardExecutor));
+        }
+        List<T> values = new ArrayList<>(results.size());
+        try {
+            for (CompletableFuture<T> result : results) {
+                values.add(result.join());
+            }
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return values;
+    }
+
+    @Override
+    public Optional<Patient> findById(UUID id) {
+        return shards.shardFor(id).getJdbcTemplate()
+                     .query(PatientRows.SELECT + " WHERE id = ?", PatientRows.ROW_MAPPER, id)
+                     .stream()
+                     .findFirst();
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return emailIndex.exists(email);
+    }
+
+    @Override
+    public boolean existsByEmailAndIdNot(String email, UUID id) {
+        return emailIndex.existsForOtherPatient(email, id);
+    }
+
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return emailIndex.findExisting(emails);
+    }
+
+    @Override
+    public Map<LocalDate, Long> countByDateOfBirth() {
+        return countByDateOnAllShards("date_of_birth");
+    }
+
+    @Override
+    public Map<LocalDate, Long> countByRegisteredDate() {
+        return countByDateOnAllShards("registered_date");
+    }
+
+    private Map<LocalDate, Long> countByDateOnAllShards(String column) {
+        Map<LocalDate, Long> counts = new TreeMap<>();
+        onAllShards(shard -> PatientRows.countByDate(shard.getJdbcTemplate(), column))
+                .forEach(shardCounts -> shardCounts.forEach((date, patients) -> counts.merge(date, patients, Long::sum)));
+        return counts;
+    }
+
+    @Override
+    public Patient save(Patient patient) {
+        if (patient.getId() == null) {
+            patient.setId(UUID.randomUUID());
+            insert(patient);
+            return patient;
+        }
+        Optional<Patient> current = findById(patient.getId());
+        if (current.isEmpty()) {
+            insert(patient);
+        } else {
+            update(patient, current.get());
+        }
+        return patient;
+    }
+
+    private void insert(Patient patient) {
+        PatientShard shard = shards.shardFor(patient.getId());
+        UUID id = patient.getId();
+        String email = patient.getEmail();
+        long version = patient.getVersion() == null ? 1L : patient.getVersion();
+        emailIndex.claim(email, id, shard.getIndex());
+        try {
+            shard.getJdbcTemplate().update(PatientRows.INSERT, statement -> PatientRows.bindInsert(statement, patient));
+        } catch (RuntimeException e) {
+            emailIndex.release(email, id);
+            throw e;
+        }
+        afterCallerRollback(() -> {
+            shard.getJdbcTemplate().update(DELETE, id, version);
+            emailIndex.release(email, id);
+        });
+    }
+
+    private void update(Patient patient, Patient previous) {
+        PatientShard shard = shards.shardFor(patient.getId());
+        UUID id = patient.getId();
+        String email = patient.getEmail();
+        boolean emailChanged = !previous.getEmail().equals(email);
+        if (emailChanged) {
+            emailIndex.claim(email, id, shard.getIndex());
+        }
+        try {
+            int updated = shard.getJdbcTemplate().update(PatientRows.UPDATE,
+                                                         statement -> PatientRows.bindUpdate(statement, patient));
+            if (updated == 0) {
+                throw new OptimisticLockingFailureException("Patient " + id + " was changed concurrently");
+            }
+        } catch (RuntimeException e) {
+            if (emailChanged) {
+                emailIndex.release(email, id);
+            }
+            throw e;
+        }
+        patient.setVersion(patient.getVersion() + 1);
+        long version = patient.getVersion();
+        afterCallerTransaction(() -> {
+            if (emailChanged) {
+                emailIndex.release(previous.getEmail(), id);
+            }
+        }, () -> {
+            int restored = shard.getJdbcTemplate().update(RESTORE, previous.getName(), previous.getEmail(),
+                                                          previous.getAddress(), previous.getDateOfBirth(),
+                                                          previous.getRegisteredDate(), previous.getVersion(),
+                                                          id, version);
+            if (restored == 0) {
+                log.warn("Patient {} changed again before its update was rolled back; not restoring it", id);
+            } else if (emailChanged) {
+                emailIndex.release(email, id);
+            }
+        });
+    }
+
+    /**
+     * Each shard's share is inserted in one batch; if a shard fails, or the caller's transaction
+     * rolls back later, the shares already written are deleted again.
+     */
+    @Override
+    public void insertAll(List<Patient> patients) {
+        if (patients.isEmpty()) {
+            return;
+        }
+        Map<UUID, Integer> placement = new HashMap<>();
+        Map<PatientShard, List<Patient>> byShard = new LinkedHashMap<>();
+        for (Patient patient : patients) {
+            PatientShard shard = shards.shardFor(patient.getId());
+            placement.put(patient.getId(), shard.getIndex());
+            byShard.computeIfAbsent(shard, s -> new ArrayList<>()).add(patient);
+        }
+        emailIndex.claimAll(patients, placement);
+
+        List<PatientShard> written = new ArrayList<>();
+        try {
+            for (Map.Entry<PatientShard, List<Patient>> entry : byShard.entrySet()) {
+                PatientShard shard = entry.getKey();
+                List<Patient> share = entry.getValue();
+                shard.getTransactionTemplate().executeWithoutResult(status -> shard.getJdbcTemplate().batchUpdate(
+                        PatientRows.INSERT, share, share.size(), PatientRows::bindInsert));
+                written.add(shard);
+            }
+        } catch (RuntimeException e) {
+            deleteAll(written, byShard);
+            emailIndex.releaseAll(patients);
+            throw e;
+        }
+        afterCallerRollback(() -> {
+            deleteAll(written, byShard);
+            emailIndex.releaseAll(patients);
+        });
+    }
+
+    private static void deleteAll(List<PatientShard> written, Map<PatientShard, List<Patient>> byShard) {
+        for (PatientShard shard : written) {
+            List<Patient> share = byShard.get(shard);
+            shard.getJdbcTemplate().batchUpdate("DELETE FROM patient WHERE id = ?", share, share.size(),
+                                                (statement, patient) -> statement.setObject(1, patient.getId()));
+        }
+    }
+
+    @Override
+    public boolean delete(Patient patient) {
+        PatientShard shard = shards.shardFor(patient.getId());
+        UUID id = patient.getId();
+        String email = patient.getEmail();
+        int deleted = shard.getJdbcTemplate().update(DELETE, id, patient.getVersion());
+        if (deleted == 0) {
+            return false;
+        }
+        Patient removed = copy(patient);
+        afterCallerTransaction(() -> emailIndex.release(email, id),
+                               () -> shard.getJdbcTemplate().update(
+                                       PatientRows.INSERT, statement -> PatientRows.bindInsert(statement, removed)));
+        return true;
+    }
+
+    private static void afterCallerRollback(Runnable onRollback) {
+        afterCallerTransaction(() -> {
+        }, onRollback);
+    }
+
+    /**
+     * Runs {@code onCommit} once the caller's transaction commits, or at once if there is none,
+     * and {@code onRollback} if it rolls back. Both run after the application database connection
+     * is done with, so index changes in them go through the index's own transactions.
+     */
+    private static void afterCallerTransaction(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            onCommit.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        onCommit.run();
+                    } else if (status == STATUS_ROLLED_BACK) {
+                        onRollback.run();
+                    } else {
+                        log.warn("Outcome of a transaction with a shard write is unknown; shard and email index may disagree");
+                    }
+                } catch (RuntimeException e) {
+                    log.error("Cannot reconcile a shard write with its transaction; shard and email index may disagree", e);
+                }
+            }
+        });
+    }
+
+    private static Patient copy(Patient patient) {
+        Patient copy = new Patient();
+        copy.setId(patient.getId());
+        copy.setName(patient.getName());
+        copy.setEmail(patient.getEmail());
+        copy.setAddress(patient.getAddress());
+        copy.setDateOfBirth(patient.getDateOfBirth());
+        copy.setRegisteredDate(patient.getRegisteredDate());
+        copy.setVersion(patient.getVersion());
+        return copy;
+    }
+}
@@ -6,9 +6,13 @@ CREATE TABLE IF NOT EXISTS patient
     email           VARCHAR(255) UNIQUE NOT NULL,
     address         VARCHAR(255)        NOT NULL,
     date_of_birth   DATE                NOT NULL,
-    registered_date DATE                NOT NULL
+    registered_date DATE                NOT NULL,
+    version         BIGINT
     );
 
+-- Registration date range queries (GET /patients?registeredFrom=&registeredTo=)
+CREATE INDEX IF NOT EXISTS idx_patient_registered_date ON patient (registered_date);
+
 -- Insert well-known UUIDs for specific patients
 INSERT INTO patient (id, name, email, address, date_of_birth, registered_date)
 SELECT '123e4567-e89b-12d3-a456-426614174000',
@@ -155,3 +159,6 @@ SELECT '223e4567-e89b-12d3-a456-426614174014',
        '1987-10-17',
        '2024-03-29'
     WHERE NOT EXISTS (SELECT 1 FROM patient WHERE id = '223e4567-e89b-12d3-a456-426614174014');
+
+-- Seeded patients start at the first event sequence; updates compare and bump the version
+UPDATE patient SET version = 1 WHERE version IS NULL;
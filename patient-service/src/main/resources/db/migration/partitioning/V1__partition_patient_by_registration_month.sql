@@ -0,0 +1,76 @@
+-- Range partitions of the patient table by month of registered_date (see PatientPartitionManager).
+-- A plain patient table, as created by Hibernate or data.sql, is converted in place and its rows
+-- copied; on an empty database the partitioned table is created directly. PostgreSQL only
+-- enforces unique constraints that include the partition key, so email uniqueness moves to
+-- patient_email, kept in step by a trigger. Months from the oldest registration to the current
+-- one get a partition here; later months are added by PatientPartitionManager.
+
+CREATE TABLE IF NOT EXISTS patient_email
+(
+    email      VARCHAR(255) PRIMARY KEY,
+    patient_id UUID NOT NULL
+);
+
+CREATE OR REPLACE FUNCTION patient_email_sync() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        DELETE FROM patient_email WHERE email = OLD.email AND patient_id = OLD.id;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO patient_email (email, patient_id) VALUES (NEW.email, NEW.id);
+    END IF;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+DO $$
+DECLARE
+    kind   "char";
+    oldest DATE;
+    month  DATE;
+BEGIN
+    SELECT c.relkind INTO kind FROM pg_class c WHERE c.oid = to_regclass('patient');
+    IF kind = 'p' THEN
+        RETURN;
+    END IF;
+    IF kind IS NOT NULL THEN
+        LOCK TABLE patient IN ACCESS EXCLUSIVE MODE;
+        ALTER TABLE patient RENAME TO patient_unpartitioned;
+        SELECT MIN(registered_date) INTO oldest FROM patient_unpartitioned;
+    END IF;
+
+    CREATE TABLE patient
+    (
+        id              UUID         NOT NULL,
+        name            VARCHAR(255) NOT NULL,
+        email           VARCHAR(255) NOT NULL,
+        address         VARCHAR(255) NOT NULL,
+        date_of_birth   DATE         NOT NULL,
+        registered_date DATE         NOT NULL,
+        version         BIGINT,
+        CONSTRAINT patient_partitioned_pkey PRIMARY KEY (id, registered_date)
+    ) PARTITION BY RANGE (registered_date);
+    CREATE TABLE patient_default PARTITION OF patient DEFAULT;
+
+    month := date_trunc('month', COALESCE(oldest, current_date));
+    WHILE month <= date_trunc('month', current_date) LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF patient FOR VALUES FROM (%L) TO (%L)',
+                       'patient_p' || to_char(month, 'YYYY_MM'), month, (month + INTERVAL '1 month')::DATE);
+        month := month + INTERVAL '1 month';
+    END LOOP;
+
+    CREATE TRIGGER patient_email_sync
+        AFTER INSERT OR UPDATE OF email OR DELETE ON patient
+        FOR EACH ROW EXECUTE FUNCTION patient_email_sync();
+
+    IF kind IS NOT NULL THEN
+        INSERT INTO patient
+        SELECT id, name, email, address, date_of_birth, registered_date, version FROM patient_unpartitioned;
+        DROP TABLE patient_unpartitioned;
+    END IF;
+
+    -- Built after the copy, and created on every partition, including future ones
+    CREATE INDEX idx_patient_email ON patient (email);
+    CREATE INDEX idx_patient_registered_date ON patient (registered_date);
+END
+$$;
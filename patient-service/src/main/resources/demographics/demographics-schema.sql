@@ -0,0 +1,8 @@
+-- Patient counts per birth date and per registration month (see PatientDemographicsRepository)
+CREATE TABLE IF NOT EXISTS patient_demographics
+(
+    dimension VARCHAR(32) NOT NULL,
+    bucket    DATE        NOT NULL,
+    patients  BIGINT      NOT NULL,
+    PRIMARY KEY (dimension, bucket)
+);
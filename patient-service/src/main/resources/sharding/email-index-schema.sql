@@ -0,0 +1,7 @@
+-- Global email index in the application database (see PatientEmailIndex)
+CREATE TABLE IF NOT EXISTS patient_email_index
+(
+    email      VARCHAR(255) PRIMARY KEY,
+    patient_id UUID    NOT NULL,
+    shard      INTEGER NOT NULL
+);
@@ -0,0 +1,13 @@
+-- Patient table on every shard; same columns as the application database
+CREATE TABLE IF NOT EXISTS patient
+(
+    id              UUID PRIMARY KEY,
+    name            VARCHAR(255)        NOT NULL,
+    email           VARCHAR(255) UNIQUE NOT NULL,
+    address         VARCHAR(255)        NOT NULL,
+    date_of_birth   DATE                NOT NULL,
+    registered_date DATE                NOT NULL,
+    version         BIGINT
+);
+
+CREATE INDEX IF NOT EXISTS idx_patient_registered_date ON patient (registered_date);
@@ -13,6 +13,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -39,7 +40,7 @@ class PatientControllerTest {
     void shouldGetAllPatients() throws Exception {
         // Given
         PatientResponseDTO patient = createPatientResponse();
-        when(patientService.getPatients()).thenReturn(List.of(patient));
+        when(patientService.getPatients(0, 50)).thenReturn(List.of(patient));
 
         // When & Then
         mockMvc.perform(get("/patients"))
@@ -48,6 +49,26 @@ class PatientControllerTest {
                .andExpect(jsonPath("$[0].email").value("john@example.com"));
     }
 
+    @Test
+    void shouldGetPatientsRegisteredWithinRange() throws Exception {
+        // Given
+        PatientResponseDTO patient = createPatientResponse();
+        when(patientService.getPatientsRegisteredBetween(LocalDate.of(2024, 1, 1), null, 0, 50))
+                .thenReturn(List.of(patient));
+
+        // When & Then
+        mockMvc.perform(get("/patients").param("registeredFrom", "2024-01-01"))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$[0].email").value("john@example.com"));
+    }
+
+    @Test
+    void shouldRejectMalformedRegistrationDate() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/patients").param("registeredTo", "01/02/2024"))
+               .andExpect(status().isBadRequest());
+    }
+
     @Test
     void shouldCreatePatientSuccessfully() throws Exception {
         // Given
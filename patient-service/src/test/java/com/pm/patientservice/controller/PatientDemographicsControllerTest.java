@@ -0,0 +1,136 @@
+package com.pm.patientservice.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.grpc.BillingServiceGrpcClient;
+import com.pm.patientservice.kafka.KafkaProducer;
+import com.pm.patientservice.repository.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts come from the summary table, so these check that it follows every kind of write.
+ */
+@SpringBootTest(properties = {"spring.kafka.admin.auto-create=false", "grpc.server.port=0",
+                              "patient.demographics.rebuild-on-startup=true"})
+@AutoConfigureMockMvc
+class PatientDemographicsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @MockitoBean
+    private KafkaProducer kafkaProducer;
+
+    @MockitoBean
+    private BillingServiceGrpcClient billingServiceGrpcClient;
+
+    @Test
+    void shouldCountEveryPatientInEachGrouping() throws Exception {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            create(createRequest("demographics-" + i + "@example.com", "19" + (60 + i * 10) + "-02-0" + (i + 1)));
+        }
+
+        // When
+        long byBirthYear = total(counts("/patients/demographics/birth-years"));
+        long byAgeBand = total(counts("/patients/demographics/age-bands?bandYears=5"));
+        long byRegistrationMonth = total(counts("/patients/demographics/registration-months"));
+
+        // Then
+        long patients = patientRepository.count();
+        assertEquals(patients, byBirthYear);
+        assertEquals(patients, byAgeBand);
+        assertEquals(patients, byRegistrationMonth);
+    }
+
+    @Test
+    void shouldFollowCreateUpdateAndDelete() throws Exception {
+        // Given
+        PatientRequestDTO request = createRequest("demographics@example.com", "1901-05-05");
+
+        // When
+        String id = create(request);
+
+        // Then
+        assertEquals(1L, counts("/patients/demographics/birth-years").get("1901"));
+        assertEquals(1L, counts("/patients/demographics/registration-months").get("1999-12"));
+        assertEquals(1L, counts("/patients/demographics/age-bands?bandYears=120").get("120-239"));
+
+        // When
+        mockMvc.perform(put("/patients/" + id)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(
+                                        createRequest("demographics@example.com", "1902-05-05"))))
+               .andExpect(status().isOk());
+
+        // Then
+        assertNull(counts("/patients/demographics/birth-years").get("1901"));
+        assertEquals(1L, counts("/patients/demographics/birth-years").get("1902"));
+
+        // When
+        mockMvc.perform(delete("/patients/" + id)).andExpect(status().isNoContent());
+
+        // Then
+        assertNull(counts("/patients/demographics/birth-years").get("1902"));
+        assertNull(counts("/patients/demographics/registration-months").get("1999-12"));
+    }
+
+    @Test
+    void shouldRejectEmptyAgeBands() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/patients/demographics/age-bands?bandYears=0"))
+               .andExpect(status().isBadRequest());
+    }
+
+    private String create(PatientRequestDTO request) throws Exception {
+        String body = mockMvc.perform(post("/patients")
+                                              .contentType(MediaType.APPLICATION_JSON)
+                                              .content(objectMapper.writeValueAsString(request)))
+                             .andExpect(status().isOk())
+                             .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asText();
+    }
+
+    private Map<String, Long> counts(String uri) throws Exception {
+        JsonNode groups = objectMapper.readTree(mockMvc.perform(get(uri))
+                                                       .andExpect(status().isOk())
+                                                       .andReturn().getResponse().getContentAsString());
+        Map<String, Long> counts = new HashMap<>();
+        groups.forEach(group -> counts.put(group.get("group").asText(), group.get("patients").asLong()));
+        return counts;
+    }
+
+    private static long total(Map<String, Long> counts) {
+        return counts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    private static PatientRequestDTO createRequest(String email, String dateOfBirth) {
+        PatientRequestDTO request = new PatientRequestDTO();
+        request.setName("Demographics Patient");
+        request.setEmail(email);
+        request.setAddress("1 Summary Street");
+        request.setDateOfBirth(dateOfBirth);
+        request.setRegisteredDate("1999-12-15");
+        return request;
+    }
+}
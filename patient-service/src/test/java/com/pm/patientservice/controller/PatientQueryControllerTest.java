@@ -0,0 +1,86 @@
+package com.pm.patientservice.controller;
+
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.repository.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Writes go through JPA and reads through R2DBC, so these also check that both reach the same
+ * database.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = {"spring.kafka.admin.auto-create=false", "grpc.server.port=0"})
+class PatientQueryControllerTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Test
+    void shouldReturnPatientSavedThroughJpa() {
+        // Given
+        Patient patient = patientRepository.save(createPatient("query-one@example.com"));
+
+        // When
+        ResponseEntity<Map> response = restTemplate.getForEntity("/patients/" + patient.getId(), Map.class);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(patient.getId().toString(), response.getBody().get("id"));
+        assertEquals("query-one@example.com", response.getBody().get("email"));
+    }
+
+    @Test
+    void shouldReturnBadRequestForUnknownPatient() {
+        // When
+        ResponseEntity<Map> response = restTemplate.getForEntity("/patients/" + UUID.randomUUID(), Map.class);
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Patient not found", response.getBody().get("message"));
+    }
+
+    @Test
+    void shouldPageAndStreamAllPatients() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            patientRepository.save(createPatient("query-page-" + i + "@example.com"));
+        }
+        long total = patientRepository.count();
+
+        // When
+        ResponseEntity<List> page = restTemplate.getForEntity("/patients/page?page=1&size=2", List.class);
+        ResponseEntity<String> stream = restTemplate.getForEntity("/patients/stream", String.class);
+
+        // Then
+        assertEquals(HttpStatus.OK, page.getStatusCode());
+        assertEquals(2, page.getBody().size());
+        assertEquals(HttpStatus.OK, stream.getStatusCode());
+        assertEquals("application/x-ndjson", stream.getHeaders().getContentType().toString());
+        assertEquals(total, stream.getBody().lines().count());
+    }
+
+    private static Patient createPatient(String email) {
+        Patient patient = new Patient();
+        patient.setName("Query Test");
+        patient.setEmail(email);
+        patient.setAddress("1 Main St");
+        patient.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        patient.setRegisteredDate(LocalDate.of(2024, 1, 1));
+        return patient;
+    }
+}
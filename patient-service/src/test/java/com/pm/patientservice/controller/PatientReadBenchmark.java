@@ -0,0 +1,175 @@
+package com.pm.patientservice.controller;
+
+import com.pm.patientservice.dataset.PatientBulkLoader;
+import com.pm.patientservice.dataset.PatientDataGenerator;
+import com.pm.patientservice.dto.PatientResponseDTO;
+import com.pm.patientservice.exception.PatientNotFoundException;
+import com.pm.patientservice.mapper.PatientMapper;
+import com.pm.patientservice.repository.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Patient lookups by many concurrent clients against a small servlet pool, once through a blocking
+ * JPA endpoint and once through {@link PatientQueryController}. On H2 the R2DBC driver runs
+ * queries on the calling thread, so only a real server shows the difference; point the benchmark
+ * at one with e.g. {@code -Dspring.datasource.url=jdbc:postgresql://localhost:5432/db
+ * -Dspring.datasource.username=... -Dspring.datasource.password=...}. Run with
+ * {@code mvn test -Dbenchmarks=true -Dtest=PatientReadBenchmark}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+                properties = {"spring.kafka.admin.auto-create=false", "grpc.server.port=0",
+                              "server.tomcat.threads.max=16",
+                              "spring.datasource.hikari.maximum-pool-size=16",
+                              "patient.r2dbc.pool.max-size=16"})
+@Import(PatientReadBenchmark.BlockingLookupController.class)
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class PatientReadBenchmark {
+
+    private static final int PATIENTS = Integer.getInteger("benchmark.patients", 100_000);
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 128);
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("benchmark.seconds", 15));
+    private static final long SEED = 7;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private PatientBulkLoader patientBulkLoader;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    private final HttpClient client = HttpClient.newBuilder()
+                                                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                                                .build();
+
+    @Test
+    void shouldServeMoreConcurrentLookupsReactively() throws Exception {
+        // Given
+        PatientDataGenerator generator = new PatientDataGenerator(SEED, LocalDate.of(2025, 6, 1));
+        long offset = patientRepository.count();
+        patientBulkLoader.load(generator, offset, PATIENTS);
+        UUID[] ids = new UUID[PATIENTS];
+        for (int i = 0; i < PATIENTS; i++) {
+            ids[i] = generator.generate(offset + i).getId();
+        }
+        run("/benchmark/blocking/patients/", ids, Duration.ofSeconds(3));
+        run("/patients/", ids, Duration.ofSeconds(3));
+
+        // When
+        Result blocking = run("/benchmark/blocking/patients/", ids, DURATION);
+        Result reactive = run("/patients/", ids, DURATION);
+
+        // Then
+        System.out.printf("%d clients, %d servlet threads%n", CLIENTS, 16);
+        System.out.println("blocking JPA: " + blocking);
+        System.out.println("R2DBC:        " + reactive);
+        assertEquals(0, blocking.errors);
+        assertEquals(0, reactive.errors);
+    }
+
+    private Result run(String path, UUID[] ids, Duration duration) throws Exception {
+        AtomicLong errors = new AtomicLong();
+        long end = System.nanoTime() + duration.toNanos();
+        List<Future<List<Long>>> clients = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.add(executor.submit(() -> {
+                    List<Long> latencies = new ArrayList<>();
+                    while (System.nanoTime() < end) {
+                        UUID id = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+                        HttpRequest request = HttpRequest.newBuilder(
+                                URI.create("http://localhost:" + port + path + id)).build();
+                        long start = System.nanoTime();
+                        try {
+                            if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies.add(System.nanoTime() - start);
+                    }
+                    return latencies;
+                }));
+            }
+        }
+        List<Long> all = new ArrayList<>();
+        for (Future<List<Long>> latencies : clients) {
+            all.addAll(latencies.get());
+        }
+        return new Result(all.stream().mapToLong(Long::longValue).toArray(), errors.get(), duration);
+    }
+
+    private static class Result {
+        private final long[] sortedNanos;
+        private final long errors;
+        private final double throughput;
+
+        Result(long[] nanos, long errors, Duration duration) {
+            this.sortedNanos = nanos;
+            Arrays.sort(sortedNanos);
+            this.errors = errors;
+            this.throughput = nanos.length / (duration.toMillis() / 1000.0);
+        }
+
+        private double percentile(double percentile) {
+            int index = (int) Math.ceil(percentile / 100 * sortedNanos.length) - 1;
+            return sortedNanos[Math.max(0, index)] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.0f req/s, p50 %.2f ms, p99 %.2f ms, %d errors",
+                                 throughput, percentile(50), percentile(99), errors);
+        }
+    }
+
+    /**
+     * The same lookup the MVC way: JPA on the request thread.
+     */
+    @TestConfiguration
+    @RestController
+    static class BlockingLookupController {
+
+        private final PatientRepository patientRepository;
+
+        BlockingLookupController(PatientRepository patientRepository) {
+            this.patientRepository = patientRepository;
+        }
+
+        @GetMapping("/benchmark/blocking/patients/{id}")
+        PatientResponseDTO getPatient(@PathVariable UUID id) {
+            return patientRepository.findById(id)
+                                    .map(PatientMapper::toDTO)
+                                    .orElseThrow(() -> new PatientNotFoundException("Patient not found with ID: " + id));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.pm.patientservice.dataset;
+
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.repository.PatientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "patient.dataset.batch-size=1000")
+@Import(PatientBulkLoader.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PatientBulkLoaderTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 1);
+
+    @Autowired
+    private PatientBulkLoader patientBulkLoader;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void shouldLoadGeneratedPatientsInBatches() throws Exception {
+        // Given
+        PatientDataGenerator generator = new PatientDataGenerator(42, TODAY);
+        long before = patientRepository.count();
+
+        // When
+        patientBulkLoader.load(generator, 0, 2_500);
+
+        // Then
+        assertEquals(before + 2_500, patientRepository.count());
+        Patient expected = generator.generate(1_234);
+        Patient loaded = patientRepository.findById(expected.getId()).orElseThrow();
+        assertEquals(expected.getEmail(), loaded.getEmail());
+        assertEquals(expected.getAddress(), loaded.getAddress());
+        assertEquals(expected.getRegisteredDate(), loaded.getRegisteredDate());
+    }
+
+    @Test
+    void shouldAppendToExistingDatasetFromOffset() throws Exception {
+        // Given
+        PatientDataGenerator generator = new PatientDataGenerator(42, TODAY);
+        patientBulkLoader.load(generator, 0, 100);
+
+        // When
+        patientBulkLoader.load(generator, 100, 100);
+
+        // Then
+        assertTrue(patientRepository.existsByEmail(generator.generate(0).getEmail()));
+        assertTrue(patientRepository.existsByEmail(generator.generate(199).getEmail()));
+    }
+
+    @Test
+    void shouldLoadPatientsThatVersionCheckedDeletesMatch() throws Exception {
+        // Given
+        PatientDataGenerator generator = new PatientDataGenerator(42, TODAY);
+        patientBulkLoader.load(generator, 0, 10);
+        Patient loaded = patientRepository.findById(generator.generate(3).getId()).orElseThrow();
+
+        // When
+        Integer deleted = transactionTemplate.execute(
+                status -> patientRepository.deleteByIdAndVersion(loaded.getId(), loaded.getVersion()));
+
+        // Then
+        assertEquals(1L, loaded.getVersion());
+        assertEquals(1, deleted);
+        assertFalse(patientRepository.existsById(loaded.getId()));
+    }
+}
@@ -0,0 +1,82 @@
+package com.pm.patientservice.dataset;
+
+import com.pm.patientservice.model.Patient;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PatientDataGeneratorTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 1);
+
+    @Test
+    void shouldGenerateSamePatientForSameSeedAndIndex() {
+        // Given
+        PatientDataGenerator first = new PatientDataGenerator(7, TODAY);
+        PatientDataGenerator second = new PatientDataGenerator(7, TODAY);
+
+        // When
+        Patient patient = first.generate(12_345);
+        Patient regenerated = second.generate(12_345);
+
+        // Then
+        assertEquals(patient.getId(), regenerated.getId());
+        assertEquals(patient.getName(), regenerated.getName());
+        assertEquals(patient.getEmail(), regenerated.getEmail());
+        assertEquals(patient.getAddress(), regenerated.getAddress());
+        assertEquals(patient.getDateOfBirth(), regenerated.getDateOfBirth());
+        assertEquals(patient.getRegisteredDate(), regenerated.getRegisteredDate());
+        assertNotEquals(patient.getId(), new PatientDataGenerator(8, TODAY).generate(12_345).getId());
+    }
+
+    @Test
+    void shouldGenerateUniqueIdsAndEmails() {
+        // Given
+        PatientDataGenerator generator = new PatientDataGenerator(42, TODAY);
+        Set<Object> ids = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            Patient patient = generator.generate(i);
+            ids.add(patient.getId());
+            emails.add(patient.getEmail());
+        }
+
+        // Then
+        assertEquals(100_000, ids.size());
+        assertEquals(100_000, emails.size());
+    }
+
+    @Test
+    void shouldGenerateRealisticDates() {
+        // Given
+        PatientDataGenerator generator = new PatientDataGenerator(42, TODAY);
+        LocalDate midpoint = LocalDate.of(2010, 1, 1).plusDays(
+                ChronoUnit.DAYS.between(LocalDate.of(2010, 1, 1), TODAY) / 2);
+        double totalAgeYears = 0;
+        int registeredRecently = 0;
+        int count = 20_000;
+
+        // When
+        for (int i = 0; i < count; i++) {
+            Patient patient = generator.generate(i);
+            assertFalse(patient.getDateOfBirth().isAfter(TODAY));
+            assertFalse(patient.getRegisteredDate().isAfter(TODAY));
+            assertFalse(patient.getRegisteredDate().isBefore(patient.getDateOfBirth()));
+            totalAgeYears += ChronoUnit.DAYS.between(patient.getDateOfBirth(), TODAY) / 365.25;
+            if (patient.getRegisteredDate().isAfter(midpoint)) {
+                registeredRecently++;
+            }
+        }
+
+        // Then
+        assertEquals(40, totalAgeYears / count, 2);
+        assertTrue(registeredRecently > count * 0.6, "registered after midpoint: " + registeredRecently);
+    }
+}
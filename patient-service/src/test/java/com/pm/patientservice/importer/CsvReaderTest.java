@@ -0,0 +1,74 @@
+package com.pm.patientservice.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvReaderTest {
+
+    @Test
+    void shouldReadQuotedFieldsWithCommasQuotesAndLineBreaks() throws Exception {
+        // Given
+        CsvReader csv = new CsvReader(new StringReader(
+                "name,address\r\n\"Doe, John\",\"1 \"\"Main\"\" St\nSpringfield\"\r\nJane,2 Oak Ave"), 1024);
+
+        // When
+        List<String> header = csv.readRecord();
+        List<String> first = csv.readRecord();
+        long secondLine = csv.getLineNumber();
+        List<String> second = csv.readRecord();
+        List<String> end = csv.readRecord();
+
+        // Then
+        assertEquals(List.of("name", "address"), header);
+        assertEquals(List.of("Doe, John", "1 \"Main\" St\nSpringfield"), first);
+        assertEquals(4, secondLine);
+        assertEquals(List.of("Jane", "2 Oak Ave"), second);
+        assertNull(end);
+    }
+
+    @Test
+    void shouldKeepEmptyFields() throws Exception {
+        // Given
+        CsvReader csv = new CsvReader(new StringReader("a,,c,\n"), 1024);
+
+        // When
+        List<String> record = csv.readRecord();
+
+        // Then
+        assertEquals(List.of("a", "", "c", ""), record);
+        assertNull(csv.readRecord());
+    }
+
+    @Test
+    void shouldSkipLeadingByteOrderMark() throws Exception {
+        // Given
+        CsvReader csv = new CsvReader(new StringReader("\uFEFFname,email\r\nJane,\uFEFFjane@example.com\r\n"), 1024);
+
+        // When
+        List<String> header = csv.readRecord();
+        List<String> record = csv.readRecord();
+
+        // Then
+        assertEquals(List.of("name", "email"), header);
+        assertEquals(List.of("Jane", "\uFEFFjane@example.com"), record);
+        assertNull(csv.readRecord());
+    }
+
+    @Test
+    void shouldRejectUnterminatedQuoteInsteadOfReadingRestOfFile() {
+        // Given
+        StringBuilder input = new StringBuilder("\"unterminated,");
+        for (int i = 0; i < 1000; i++) {
+            input.append("row ").append(i).append(",x\n");
+        }
+        CsvReader csv = new CsvReader(new StringReader(input.toString()), 256);
+
+        // When & Then
+        CsvFormatException exception = assertThrows(CsvFormatException.class, csv::readRecord);
+        assertTrue(exception.getMessage().contains("exceeds 256"));
+    }
+}
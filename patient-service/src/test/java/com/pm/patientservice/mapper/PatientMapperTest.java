@@ -1,5 +1,6 @@
 package com.pm.patientservice.mapper;
 
+import com.pm.patientservice.dto.PatientEventDTO;
 import com.pm.patientservice.dto.PatientRequestDTO;
 import com.pm.patientservice.dto.PatientResponseDTO;
 import com.pm.patientservice.model.Patient;
@@ -44,6 +45,25 @@ class PatientMapperTest {
         assertEquals(LocalDate.parse(dto.getRegisteredDate()), patient.getRegisteredDate());
     }
 
+    @Test
+    void shouldMapPatientToEventDTO() {
+        // Given
+        Patient patient = createPatient();
+        patient.setVersion(2L);
+
+        // When
+        PatientEventDTO event = PatientMapper.toEventDTO(patient, "PATIENT_UPDATED", 1_700_000_000_000L);
+
+        // Then
+        assertEquals(patient.getId().toString(), event.getPatientId());
+        assertEquals("PATIENT_UPDATED", event.getEventType());
+        assertEquals(1_700_000_000_000L, event.getOccurredAt());
+        assertEquals(2L, event.getSequence());
+        assertEquals(patient.getAddress(), event.getAddress());
+        assertEquals("1990-01-01", event.getDateOfBirth());
+        assertEquals("2024-01-01", event.getRegisteredDate());
+    }
+
     private Patient createPatient() {
         Patient patient = new Patient();
         patient.setId(UUID.randomUUID());
@@ -0,0 +1,165 @@
+package com.pm.patientservice.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.grpc.BillingServiceGrpcClient;
+import com.pm.patientservice.kafka.KafkaProducer;
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.repository.PatientRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+
+import static com.pm.patientservice.metrics.SqlStatementMatchers.maxStatements;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets per endpoint. A budget going up means a new query, usually an N+1; raise it
+ * only when the extra statement is intended.
+ */
+@SpringBootTest(properties = {"spring.kafka.admin.auto-create=false", "grpc.server.port=0",
+                              "patient.sql-stats.response-header=true"})
+@AutoConfigureMockMvc
+class PatientEndpointSqlBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoBean
+    private KafkaProducer kafkaProducer;
+
+    @MockitoBean
+    private BillingServiceGrpcClient billingServiceGrpcClient;
+
+    @Test
+    void shouldListPatientsInOneStatementRegardlessOfCount() throws Exception {
+        // Given
+        for (int i = 0; i < 20; i++) {
+            patientRepository.save(createPatient("budget-list-" + i + "@example.com"));
+        }
+
+        // When & Then
+        mockMvc.perform(get("/patients"))
+               .andExpect(status().isOk())
+               .andExpect(maxStatements(1));
+    }
+
+    @Test
+    void shouldCreatePatientWithinBudget() throws Exception {
+        // Given
+        PatientRequestDTO request = createRequest("budget-create@example.com");
+        request.setRegisteredDate("2024-01-01");
+
+        // When & Then
+        mockMvc.perform(post("/patients")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+               .andExpect(status().isOk())
+               .andExpect(maxStatements(3));
+    }
+
+    @Test
+    void shouldUpdatePatientWithinBudget() throws Exception {
+        // Given
+        Patient patient = patientRepository.save(createPatient("budget-update@example.com"));
+        PatientRequestDTO request = createRequest("budget-updated@example.com");
+
+        // When & Then
+        mockMvc.perform(put("/patients/" + patient.getId())
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+               .andExpect(status().isOk())
+               .andExpect(maxStatements(3));
+    }
+
+    @Test
+    void shouldDeletePatientWithinBudget() throws Exception {
+        // Given
+        Patient patient = patientRepository.save(createPatient("budget-delete@example.com"));
+
+        // When & Then
+        mockMvc.perform(delete("/patients/" + patient.getId()))
+               .andExpect(status().isNoContent())
+               .andExpect(maxStatements(3));
+    }
+
+    @Test
+    void shouldRecordStatementsPerEndpoint() throws Exception {
+        // Given
+        Patient patient = patientRepository.save(createPatient("budget-metrics@example.com"));
+
+        // When
+        mockMvc.perform(delete("/patients/" + patient.getId()))
+               .andExpect(status().isNoContent())
+               .andExpect(header().exists(SqlStatementFilter.TIME_HEADER));
+
+        // Then
+        DistributionSummary statements = meterRegistry.get("patient.http.sql.statements")
+                                                      .tags("method", "DELETE", "uri", "/patients/{id}")
+                                                      .summary();
+        assertTrue(statements.count() >= 1);
+        assertTrue(statements.max() >= 1);
+        assertNotNull(meterRegistry.get("patient.http.sql.time")
+                                   .tags("method", "DELETE", "uri", "/patients/{id}")
+                                   .timer());
+    }
+
+    @Test
+    void shouldNotReportStatementsForReactiveReads() throws Exception {
+        // Given
+        Patient patient = patientRepository.save(createPatient("budget-reactive@example.com"));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/patients/" + patient.getId()))
+                                  .andExpect(request().asyncStarted())
+                                  .andReturn();
+
+        // Then
+        // R2DBC statements run outside the request thread and are not counted, so no header rather than 0
+        mockMvc.perform(asyncDispatch(result))
+               .andExpect(status().isOk())
+               .andExpect(header().doesNotExist(SqlStatementFilter.STATEMENTS_HEADER))
+               .andExpect(header().doesNotExist(SqlStatementFilter.TIME_HEADER));
+    }
+
+    private static PatientRequestDTO createRequest(String email) {
+        PatientRequestDTO request = new PatientRequestDTO();
+        request.setName("Budget Patient");
+        request.setEmail(email);
+        request.setAddress("1 Budget Street");
+        request.setDateOfBirth("1990-01-01");
+        return request;
+    }
+
+    private static Patient createPatient(String email) {
+        Patient patient = new Patient();
+        patient.setName("Budget Patient");
+        patient.setEmail(email);
+        patient.setAddress("1 Budget Street");
+        patient.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        patient.setRegisteredDate(LocalDate.of(2024, 1, 1));
+        return patient;
+    }
+}
@@ -0,0 +1,26 @@
+package com.pm.patientservice.metrics;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Statement budgets for MockMvc requests. Needs {@code patient.sql-stats.response-header=true}.
+ */
+public final class SqlStatementMatchers {
+
+    private SqlStatementMatchers() {
+    }
+
+    public static ResultMatcher maxStatements(int budget) {
+        return result -> {
+            String header = result.getResponse().getHeader(SqlStatementFilter.STATEMENTS_HEADER);
+            assertNotNull(header, SqlStatementFilter.STATEMENTS_HEADER + " header missing");
+            int statements = Integer.parseInt(header);
+            assertTrue(statements <= budget,
+                       result.getRequest().getMethod() + " " + result.getRequest().getRequestURI()
+                               + " ran " + statements + " SQL statements, budget is " + budget);
+        };
+    }
+}
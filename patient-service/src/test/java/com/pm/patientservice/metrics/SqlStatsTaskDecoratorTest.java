@@ -0,0 +1,72 @@
+package com.pm.patientservice.metrics;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlStatsTaskDecoratorTest {
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(countingDataSource());
+
+    @AfterEach
+    void tearDown() {
+        RequestSqlStats.end();
+        executor.shutdown();
+    }
+
+    @Test
+    void shouldCountStatementsRunOnExecutorForTheSubmittingRequest() {
+        // Given
+        executor.setCorePoolSize(4);
+        executor.setTaskDecorator(new SqlStatsTaskDecorator());
+        executor.initialize();
+        RequestSqlStats stats = RequestSqlStats.begin();
+
+        // When
+        List<CompletableFuture<Integer>> shardQueries = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            shardQueries.add(CompletableFuture.supplyAsync(
+                    () -> jdbcTemplate.queryForObject("SELECT 1", Integer.class), executor));
+        }
+        shardQueries.forEach(CompletableFuture::join);
+        jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+
+        // Then
+        assertEquals(5, stats.getStatements());
+        assertTrue(stats.getNanos() > 0);
+    }
+
+    @Test
+    void shouldNotLeaveStatsOnExecutorThreadAfterTask() throws Exception {
+        // Given
+        executor.setCorePoolSize(1);
+        executor.setTaskDecorator(new SqlStatsTaskDecorator());
+        executor.initialize();
+        RequestSqlStats.begin();
+        executor.submit(() -> jdbcTemplate.queryForObject("SELECT 1", Integer.class)).get();
+        RequestSqlStats.end();
+
+        // When
+        RequestSqlStats leftOver = executor.submit(RequestSqlStats::current).get();
+
+        // Then
+        assertNull(leftOver);
+    }
+
+    private static DataSource countingDataSource() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sql-stats");
+        return ProxyDataSourceBuilder.create(h2).listener(new SqlStatementListener()).build();
+    }
+}
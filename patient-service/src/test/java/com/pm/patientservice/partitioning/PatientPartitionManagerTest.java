@@ -0,0 +1,34 @@
+package com.pm.patientservice.partitioning;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PatientPartitionManagerTest {
+
+    @Test
+    void shouldCoverOneCalendarMonthPerPartition() {
+        // When
+        String sql = PatientPartitionManager.createPartition(YearMonth.of(2024, 12));
+
+        // Then
+        assertEquals("CREATE TABLE patient_p2024_12 PARTITION OF patient "
+                             + "FOR VALUES FROM ('2024-12-01') TO ('2025-01-01')", sql);
+    }
+
+    @Test
+    void shouldArchiveOnlyMonthlyPartitionsPastRetention() {
+        // Given
+        List<String> partitions = List.of("patient_p2024_08", "patient_p2024_09", "patient_p2024_10",
+                                          "patient_p2025_10", PatientPartitionManager.DEFAULT_PARTITION);
+
+        // When
+        List<String> archivable = PatientPartitionManager.partitionsToArchive(partitions, YearMonth.of(2025, 10), 12);
+
+        // Then
+        assertEquals(List.of("patient_p2024_08", "patient_p2024_09"), archivable);
+    }
+}
@@ -0,0 +1,153 @@
+package com.pm.patientservice.partitioning;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.YearMonth;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The partitioning migration and maintenance against a real PostgreSQL; skipped without Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class PatientPartitionMigrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:13");
+
+    private JdbcTemplate jdbcTemplate;
+    private Flyway flyway;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP SCHEMA public CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA public");
+        flyway = Flyway.configure()
+                       .dataSource(dataSource)
+                       .locations("classpath:db/migration/partitioning")
+                       .baselineOnMigrate(true)
+                       .baselineVersion("0")
+                       .load();
+    }
+
+    @Test
+    void shouldConvertPlainTableOnceKeepingRowsAndEmailUniqueness() {
+        // Given
+        createPlainTable();
+        insert("january@example.com", "2024-01-15");
+        insert("march@example.com", "2024-03-15");
+
+        // When
+        int executed = flyway.migrate().migrationsExecuted;
+
+        // Then
+        assertEquals(1, executed);
+        assertEquals("p", jdbcTemplate.queryForObject(
+                "SELECT CAST(relkind AS VARCHAR) FROM pg_class WHERE oid = to_regclass('patient')", String.class));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM patient", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM patient_p2024_02", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM patient_p2024_03", Integer.class));
+        assertThrows(DataIntegrityViolationException.class, () -> insert("march@example.com", "2024-01-20"));
+        assertEquals(0, flyway.migrate().migrationsExecuted);
+    }
+
+    @Test
+    void shouldCreatePartitionedTableOnEmptyDatabaseAndMaintainIt() {
+        // Given
+        flyway.migrate();
+        YearMonth current = YearMonth.now();
+        insert("ahead@example.com", current.plusMonths(2).atDay(1).toString());
+        PatientPartitionManager manager = new PatientPartitionManager(
+                jdbcTemplate, new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource())),
+                3, 0);
+
+        // When
+        manager.maintain(current);
+        manager.maintain(current);
+
+        // Then
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + PatientPartitionManager.DEFAULT_PARTITION, Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + PatientPartitionManager.partitionName(current.plusMonths(2)),
+                Integer.class));
+        assertNotNull(jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?)", String.class, PatientPartitionManager.partitionName(current.plusMonths(3))));
+    }
+
+    @Test
+    void shouldKeepEmailsClaimedInStepWithUpdatesAndDeletes() {
+        // Given
+        flyway.migrate();
+        String registered = YearMonth.now().atDay(1).toString();
+        UUID id = insert("old@example.com", registered);
+
+        // When
+        jdbcTemplate.update("UPDATE patient SET email = 'new@example.com' WHERE id = ?", id);
+
+        // Then
+        insert("old@example.com", registered);
+        assertThrows(DataIntegrityViolationException.class, () -> insert("new@example.com", registered));
+        jdbcTemplate.update("DELETE FROM patient WHERE id = ?", id);
+        insert("new@example.com", registered);
+    }
+
+    @Test
+    void shouldArchiveOldPartitionsAndFreeTheirEmails() {
+        // Given
+        createPlainTable();
+        insert("archived@example.com", "2024-01-15");
+        insert("kept@example.com", YearMonth.now().atDay(1).toString());
+        flyway.migrate();
+        PatientPartitionManager manager = new PatientPartitionManager(
+                jdbcTemplate, new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource())),
+                3, 2);
+
+        // When
+        manager.maintain(YearMonth.now());
+
+        // Then
+        assertNull(jdbcTemplate.queryForObject("SELECT to_regclass('patient_p2024_01')", String.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM patient_archive_p2024_01", Integer.class));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM patient", Integer.class));
+        insert("archived@example.com", YearMonth.now().atDay(1).toString());
+        assertThrows(DataIntegrityViolationException.class,
+                     () -> insert("kept@example.com", YearMonth.now().atDay(1).toString()));
+    }
+
+    private void createPlainTable() {
+        jdbcTemplate.execute("""
+                CREATE TABLE patient
+                (
+                    id              UUID PRIMARY KEY,
+                    name            VARCHAR(255)        NOT NULL,
+                    email           VARCHAR(255) UNIQUE NOT NULL,
+                    address         VARCHAR(255)        NOT NULL,
+                    date_of_birth   DATE                NOT NULL,
+                    registered_date DATE                NOT NULL,
+                    version         BIGINT
+                )""");
+    }
+
+    private UUID insert(String email, String registeredDate) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO patient (id, name, email, address, date_of_birth, registered_date, version) "
+                                    + "VALUES (?, 'Partitioned Patient', ?, '1 Range Road', '1990-01-01', CAST(? AS DATE), 1)",
+                            id, email, registeredDate);
+        return id;
+    }
+}
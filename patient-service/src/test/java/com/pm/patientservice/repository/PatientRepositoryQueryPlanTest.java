@@ -0,0 +1,154 @@
+package com.pm.patientservice.repository;
+
+import com.pm.patientservice.dataset.PatientBulkLoader;
+import com.pm.patientservice.dataset.PatientDataGenerator;
+import com.pm.patientservice.model.Patient;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs each {@link PatientRepository} query against a seeded table and checks its plan: no
+ * sequential scan, and a cost within budget (rows scanned on H2, planner cost on PostgreSQL).
+ * A new query method needs a test here. Uses the application's database, so it also runs against
+ * PostgreSQL with {@code -Dspring.datasource.url=...}; {@code -Dquery-plan.patients} sets the size.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PatientBulkLoader.class, QueryCapture.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PatientRepositoryQueryPlanTest {
+
+    private static final int PATIENTS = Integer.getInteger("query-plan.patients", 50_000);
+    private static final PatientDataGenerator GENERATOR =
+            new PatientDataGenerator(11, LocalDate.of(2025, 6, 1));
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PatientBulkLoader patientBulkLoader;
+
+    @Autowired
+    private QueryCapture queryCapture;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private long offset;
+
+    @BeforeAll
+    void seed() throws Exception {
+        offset = patientRepository.count();
+        patientBulkLoader.load(GENERATOR, offset, PATIENTS);
+        QueryPlan.analyze(dataSource, "patient");
+    }
+
+    @AfterAll
+    void tearDown() {
+        patientRepository.deleteAllInBatch();
+    }
+
+    @BeforeEach
+    void clearCapturedQueries() {
+        queryCapture.clear();
+    }
+
+    @Test
+    void existsByEmailShouldUseEmailIndex() throws Exception {
+        // Given
+        Patient patient = GENERATOR.generate(offset + PATIENTS / 2);
+
+        // When
+        boolean exists = patientRepository.existsByEmail(patient.getEmail());
+        QueryPlan plan = QueryPlan.explain(dataSource, queryCapture.single());
+
+        // Then
+        assertTrue(exists);
+        assertIndexed(plan, 10, 50);
+    }
+
+    @Test
+    void existsByEmailAndIdNotShouldUseEmailIndex() throws Exception {
+        // Given
+        Patient patient = GENERATOR.generate(offset + PATIENTS / 3);
+
+        // When
+        boolean exists = patientRepository.existsByEmailAndIdNot(patient.getEmail(), UUID.randomUUID());
+        QueryPlan plan = QueryPlan.explain(dataSource, queryCapture.single());
+
+        // Then
+        assertTrue(exists);
+        assertIndexed(plan, 10, 50);
+    }
+
+    @Test
+    void findByIdShouldUsePrimaryKey() throws Exception {
+        // Given
+        Patient patient = GENERATOR.generate(offset + PATIENTS / 4);
+
+        // When
+        boolean found = patientRepository.findById(patient.getId()).isPresent();
+        QueryPlan plan = QueryPlan.explain(dataSource, queryCapture.single());
+
+        // Then
+        assertTrue(found);
+        assertIndexed(plan, 10, 50);
+    }
+
+    @Test
+    void findExistingEmailsShouldProbeEmailIndexPerEmail() throws Exception {
+        // Given
+        List<String> emails = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            emails.add(GENERATOR.generate(offset + i * 7L).getEmail());
+        }
+
+        // When
+        int existing = patientRepository.findExistingEmails(emails).size();
+        QueryPlan plan = QueryPlan.explain(dataSource, queryCapture.single());
+
+        // Then
+        assertEquals(100, existing);
+        assertIndexed(plan, 300, 1_000);
+    }
+
+    @Test
+    void findByRegisteredDateBetweenShouldUseRegisteredDateIndex() throws Exception {
+        // Given
+        LocalDate from = LocalDate.of(2020, 3, 2);
+        LocalDate to = from.plusDays(6);
+
+        // When
+        int found = patientRepository.findByRegisteredDateBetween(from, to).size();
+        QueryPlan plan = QueryPlan.explain(dataSource, queryCapture.single());
+
+        // Then
+        assertTrue(found > 0);
+        assertIndexed(plan, 200, 1_000);
+    }
+
+    private static void assertIndexed(QueryPlan plan, double maxRowsScannedOnH2, double maxPostgresCost) {
+        assertFalse(plan.isSequentialScan(), "sequential scan:\n" + plan.getText());
+        double budget = plan.getText().startsWith("[") ? maxPostgresCost : maxRowsScannedOnH2;
+        assertTrue(plan.getCost() <= budget,
+                   "cost " + plan.getCost() + " over budget " + budget + ":\n" + plan.getText());
+    }
+}
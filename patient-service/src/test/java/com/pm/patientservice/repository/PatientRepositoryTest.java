@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 import java.time.LocalDate;
 import java.util.UUID;
@@ -87,6 +88,28 @@ class PatientRepositoryTest {
         assertEquals(patient.getEmail(), found.getEmail());
     }
 
+    @Test
+    void shouldBumpVersionAndRejectUpdateOfStaleCopy() {
+        // Given
+        Patient patient = createPatient();
+        patient.setVersion(1L);
+        entityManager.persistAndFlush(patient);
+        entityManager.clear();
+        Patient stale = patientRepository.findById(patient.getId()).orElseThrow();
+        entityManager.detach(stale);
+        Patient current = patientRepository.findById(patient.getId()).orElseThrow();
+        entityManager.detach(current);
+
+        // When
+        current.setAddress("456 Elm St");
+        Patient updated = patientRepository.saveAndFlush(current);
+        stale.setAddress("789 Oak St");
+
+        // Then
+        assertEquals(2L, updated.getVersion());
+        assertThrows(OptimisticLockingFailureException.class, () -> patientRepository.saveAndFlush(stale));
+    }
+
     private Patient createPatient() {
         Patient patient = new Patient();
         patient.setName("John Doe");
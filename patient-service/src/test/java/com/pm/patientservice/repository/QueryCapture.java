@@ -0,0 +1,105 @@
+package com.pm.patientservice.repository;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Records the SQL and bound parameters of every statement run through the application's
+ * {@link DataSource}, so tests can see exactly what a repository method sent.
+ */
+public class QueryCapture implements QueryExecutionListener {
+
+    private final List<CapturedQuery> queries = new ArrayList<>();
+
+    public synchronized void clear() {
+        queries.clear();
+    }
+
+    public synchronized List<CapturedQuery> getQueries() {
+        return List.copyOf(queries);
+    }
+
+    public synchronized CapturedQuery single() {
+        if (queries.size() != 1) {
+            throw new IllegalStateException("Expected one statement but captured " + queries);
+        }
+        return queries.get(0);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public synchronized void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        for (QueryInfo queryInfo : queryInfoList) {
+            List<List<ParameterSetOperation>> parameterSets = queryInfo.getParametersList();
+            List<ParameterSetOperation> operations = parameterSets.isEmpty() ? List.of() : parameterSets.get(0);
+            List<Object> parameters = new ArrayList<>();
+            operations.stream()
+                      .sorted(Comparator.comparingInt(operation -> (Integer) operation.getArgs()[0]))
+                      .forEach(operation -> parameters.add(operation.getArgs()[1]));
+            queries.add(new CapturedQuery(queryInfo.getQuery(), parameters));
+        }
+    }
+
+    public static class CapturedQuery {
+        private final String sql;
+        private final List<Object> parameters;
+
+        CapturedQuery(String sql, List<Object> parameters) {
+            this.sql = sql;
+            this.parameters = parameters;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public List<Object> getParameters() {
+            return parameters;
+        }
+
+        @Override
+        public String toString() {
+            return sql + " " + parameters;
+        }
+    }
+
+    @TestConfiguration
+    public static class Config {
+
+        @Bean
+        public QueryCapture queryCapture() {
+            return new QueryCapture();
+        }
+
+        @Bean
+        public static BeanPostProcessor queryCaptureDataSourceWrapper(
+                ObjectProvider<QueryCapture> queryCapture) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource) {
+                        return ProxyDataSourceBuilder.create(dataSource)
+                                                     .listener(queryCapture.getObject())
+                                                     .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
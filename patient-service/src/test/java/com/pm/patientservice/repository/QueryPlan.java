@@ -0,0 +1,94 @@
+package com.pm.patientservice.repository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The execution plan of a captured statement. On PostgreSQL it comes from
+ * {@code EXPLAIN (FORMAT JSON)} and the cost is the planner's total cost; on H2 it comes from
+ * {@code EXPLAIN ANALYZE} and the cost is the number of rows the plan scanned.
+ */
+public class QueryPlan {
+
+    private static final Pattern H2_SCAN_COUNT = Pattern.compile("scanCount: (\\d+)");
+    private static final Pattern POSTGRES_TOTAL_COST = Pattern.compile("\"Total Cost\":\\s*([0-9.]+)");
+
+    private final String text;
+    private final boolean sequentialScan;
+    private final double cost;
+
+    private QueryPlan(String text, boolean sequentialScan, double cost) {
+        this.text = text;
+        this.sequentialScan = sequentialScan;
+        this.cost = cost;
+    }
+
+    /**
+     * Refreshes planner statistics; without them a freshly seeded table looks empty.
+     */
+    public static void analyze(DataSource dataSource, String table) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute((isPostgres(connection) ? "ANALYZE " : "ANALYZE TABLE ") + table);
+        }
+    }
+
+    public static QueryPlan explain(DataSource dataSource, QueryCapture.CapturedQuery query) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean postgres = isPostgres(connection);
+            String explain = (postgres ? "EXPLAIN (FORMAT JSON) " : "EXPLAIN ANALYZE ") + query.getSql();
+            StringBuilder text = new StringBuilder();
+            try (PreparedStatement statement = connection.prepareStatement(explain)) {
+                List<Object> parameters = query.getParameters();
+                for (int i = 0; i < parameters.size(); i++) {
+                    statement.setObject(i + 1, parameters.get(i));
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        text.append(resultSet.getString(1)).append('\n');
+                    }
+                }
+            }
+            return postgres ? fromPostgres(text.toString()) : fromH2(text.toString());
+        }
+    }
+
+    private static boolean isPostgres(Connection connection) throws SQLException {
+        return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+    }
+
+    private static QueryPlan fromPostgres(String json) {
+        Matcher totalCost = POSTGRES_TOTAL_COST.matcher(json);
+        // the first Total Cost is the root node's, which includes its children
+        double cost = totalCost.find() ? Double.parseDouble(totalCost.group(1)) : Double.MAX_VALUE;
+        return new QueryPlan(json, json.contains("\"Seq Scan\""), cost);
+    }
+
+    private static QueryPlan fromH2(String plan) {
+        Matcher scanCount = H2_SCAN_COUNT.matcher(plan);
+        long scanned = 0;
+        while (scanCount.find()) {
+            scanned += Long.parseLong(scanCount.group(1));
+        }
+        return new QueryPlan(plan, plan.contains(".tableScan"), scanned);
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public boolean isSequentialScan() {
+        return sequentialScan;
+    }
+
+    public double getCost() {
+        return cost;
+    }
+}
@@ -0,0 +1,85 @@
+package com.pm.patientservice.service;
+
+import com.pm.patientservice.config.DemographicsConfig;
+import com.pm.patientservice.config.PatientImportConfig;
+import com.pm.patientservice.dataset.PatientDataGenerator;
+import com.pm.patientservice.importer.PatientImportJob;
+import com.pm.patientservice.kafka.KafkaProducer;
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.repository.JpaPatientStore;
+import com.pm.patientservice.repository.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Rows per second for a CSV import on H2 with Kafka stubbed out. Run with
+ * {@code mvn test -Dbenchmarks=true -Dtest=PatientImportBenchmark}.
+ */
+@DataJpaTest
+@Import({PatientImportService.class, PatientImportConfig.class, JpaPatientStore.class,
+         PatientDemographicsService.class, DemographicsConfig.class})
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class PatientImportBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 200_000);
+
+    @Autowired
+    private PatientImportService patientImportService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @MockitoBean
+    private KafkaProducer kafkaProducer;
+
+    @Test
+    void shouldImportTensOfThousandsOfRowsPerSecond() throws Exception {
+        // Given
+        Path file = Files.createTempFile("patients-", ".csv");
+        PatientDataGenerator generator = new PatientDataGenerator(42, LocalDate.of(2025, 6, 1));
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("name,email,address,dateOfBirth,registeredDate\n");
+            for (int i = 0; i < ROWS; i++) {
+                Patient patient = generator.generate(i);
+                writer.write(patient.getName() + "," + patient.getEmail() + ",\"" + patient.getAddress()
+                                     + "\"," + patient.getDateOfBirth() + "," + patient.getRegisteredDate() + "\n");
+            }
+        }
+
+        // When
+        PatientImportJob job;
+        try (InputStream content = Files.newInputStream(file)) {
+            job = patientImportService.submit("patients.csv", content);
+        }
+        while (!job.isFinished()) {
+            Thread.sleep(50);
+        }
+
+        // Then
+        double seconds = Duration.between(job.getStartedAt(), job.getFinishedAt()).toMillis() / 1000.0;
+        System.out.printf("Imported %d rows in %.1f s (%.0f rows/s)%n", job.getRowsImported(), seconds,
+                          job.getRowsImported() / seconds);
+        assertEquals(ROWS, job.getRowsImported());
+        patientRepository.deleteAllInBatch();
+        Files.delete(file);
+    }
+}
@@ -0,0 +1,139 @@
+package com.pm.patientservice.service;
+
+import com.pm.patientservice.config.DemographicsConfig;
+import com.pm.patientservice.config.PatientImportConfig;
+import com.pm.patientservice.importer.PatientImportJob;
+import com.pm.patientservice.kafka.KafkaProducer;
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.repository.JpaPatientStore;
+import com.pm.patientservice.repository.PatientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = "patient.import.chunk-size=100")
+@Import({PatientImportService.class, PatientImportConfig.class, JpaPatientStore.class,
+         PatientDemographicsService.class, DemographicsConfig.class})
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PatientImportServiceTest {
+
+    private static final String HEADER = "name,email,address,dateOfBirth,registeredDate\n";
+
+    @Autowired
+    private PatientImportService patientImportService;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @MockitoBean
+    private KafkaProducer kafkaProducer;
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void shouldImportValidRowsAcrossChunks() throws Exception {
+        // Given
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < 250; i++) {
+            csv.append("Patient ").append(i).append(",import").append(i)
+               .append("@example.com,\"").append(i).append(" Main St, Springfield\",1980-01-01,2024-01-01\n");
+        }
+
+        // When
+        PatientImportJob job = awaitFinished(submit(csv.toString()));
+
+        // Then
+        assertEquals(PatientImportJob.Status.COMPLETED, job.getStatus());
+        assertEquals(250, job.getRowsProcessed());
+        assertEquals(250, job.getRowsImported());
+        assertEquals(0, job.getRowsFailed());
+        assertTrue(patientRepository.existsByEmail("import249@example.com"));
+        verify(kafkaProducer, times(250)).sendEvent(any());
+    }
+
+    @Test
+    void shouldReportRowErrorsWithoutRejectingOtherRows() throws Exception {
+        // Given
+        Patient existing = new Patient();
+        existing.setName("Existing");
+        existing.setEmail("existing@example.com");
+        existing.setAddress("1 Oak Ave");
+        existing.setDateOfBirth(LocalDate.of(1970, 1, 1));
+        existing.setRegisteredDate(LocalDate.of(2020, 1, 1));
+        patientRepository.saveAndFlush(existing);
+        String csv = HEADER
+                + "Valid,valid@example.com,1 Main St,1980-01-01,2024-01-01\n"
+                + "Bad Email,not-an-email,1 Main St,1980-01-01,2024-01-01\n"
+                + ",missing-name@example.com,1 Main St,1980-01-01,2024-01-01\n"
+                + "Bad Date,bad-date@example.com,1 Main St,01/01/1980,2024-01-01\n"
+                + "Taken,existing@example.com,1 Main St,1980-01-01,2024-01-01\n"
+                + "Twice,valid@example.com,1 Main St,1980-01-01,2024-01-01\n"
+                + "\n"
+                + "Also Valid,also-valid@example.com,1 Main St,1980-01-01,2024-01-01\n";
+
+        // When
+        PatientImportJob job = awaitFinished(submit(csv));
+
+        // Then
+        assertEquals(PatientImportJob.Status.COMPLETED, job.getStatus());
+        assertEquals(7, job.getRowsProcessed());
+        assertEquals(2, job.getRowsImported());
+        assertEquals(5, job.getRowsFailed());
+        String errors = job.getErrors().stream()
+                           .map(error -> error.getRow() + " " + error.getMessage())
+                           .sorted()
+                           .collect(Collectors.joining("\n"));
+        assertEquals(List.of("3 email: Email shoulde be valid",
+                             "4 name: name is required",
+                             "5 Invalid date '01/01/1980', expected yyyy-MM-dd",
+                             "6 Email address already exists",
+                             "7 Email address already exists"),
+                     List.of(errors.split("\n")));
+    }
+
+    @Test
+    void shouldFailJobWhenRequiredColumnIsMissing() throws Exception {
+        // When
+        PatientImportJob job = awaitFinished(submit("name,email\nJohn,john@example.com\n"));
+
+        // Then
+        assertEquals(PatientImportJob.Status.FAILED, job.getStatus());
+        assertTrue(job.getFailure().startsWith("Missing column address"));
+        assertEquals(0, job.getRowsImported());
+    }
+
+    private PatientImportJob submit(String csv) throws Exception {
+        return patientImportService.submit("patients.csv",
+                                           new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private PatientImportJob awaitFinished(PatientImportJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!job.isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        return patientImportService.getJob(job.getId());
+    }
+}
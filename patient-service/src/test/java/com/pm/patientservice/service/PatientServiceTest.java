@@ -8,12 +8,15 @@ import com.pm.patientservice.exception.PatientNotFoundException;
 import com.pm.patientservice.grpc.BillingServiceGrpcClient;
 import com.pm.patientservice.kafka.KafkaProducer;
 import com.pm.patientservice.model.Patient;
-import com.pm.patientservice.repository.PatientRepository;
+import com.pm.patientservice.repository.PatientStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -22,24 +25,28 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class PatientServiceTest {
 
     @Mock
-    private PatientRepository patientRepository;
+    private PatientStore patientStore;
     @Mock
     private BillingServiceGrpcClient billingServiceGrpcClient;
     @Mock
     private KafkaProducer kafkaProducer;
+    @Mock
+    private PatientDemographicsService patientDemographicsService;
 
     private PatientService patientService;
 
     @BeforeEach
     void setUp() {
-        patientService = new PatientService(patientRepository, billingServiceGrpcClient,
-                                            kafkaProducer);
+        patientService = new PatientService(patientStore, billingServiceGrpcClient,
+                                            kafkaProducer, patientDemographicsService,
+                                            new TransactionTemplate(mock(PlatformTransactionManager.class)), 500);
     }
 
     @Test
@@ -48,8 +55,8 @@ class PatientServiceTest {
         PatientRequestDTO request = createTestPatientRequest();
         Patient savedPatient = createTestPatient();
 
-        when(patientRepository.existsByEmail(request.getEmail())).thenReturn(false);
-        when(patientRepository.save(any(Patient.class))).thenReturn(savedPatient);
+        when(patientStore.existsByEmail(request.getEmail())).thenReturn(false);
+        when(patientStore.save(any(Patient.class))).thenReturn(savedPatient);
 
         // When
         PatientResponseDTO result = patientService.createPatient(request);
@@ -60,18 +67,19 @@ class PatientServiceTest {
         assertEquals(savedPatient.getEmail(), result.getEmail());
         verify(billingServiceGrpcClient).createBillingAccount(any(), any(), any());
         verify(kafkaProducer).sendEvent(any(PatientEventDTO.class));
+        verify(patientDemographicsService).recordCreated(savedPatient);
     }
 
     @Test
     void shouldThrowExceptionWhenEmailExists() {
         // Given
         PatientRequestDTO request = createTestPatientRequest();
-        when(patientRepository.existsByEmail(request.getEmail())).thenReturn(true);
+        when(patientStore.existsByEmail(request.getEmail())).thenReturn(true);
 
         // When & Then
         assertThrows(EmailAlreadyExistsException.class,
                      () -> patientService.createPatient(request));
-        verify(patientRepository, never()).save(any());
+        verify(patientStore, never()).save(any());
         verify(billingServiceGrpcClient, never()).createBillingAccount(any(), any(), any());
     }
 
@@ -79,16 +87,42 @@ class PatientServiceTest {
     void shouldGetAllPatients() {
         // Given
         List<Patient> patients = List.of(createTestPatient());
-        when(patientRepository.findAll()).thenReturn(patients);
+        when(patientStore.findPage(50, 100)).thenReturn(patients);
 
         // When
-        List<PatientResponseDTO> result = patientService.getPatients();
+        List<PatientResponseDTO> result = patientService.getPatients(2, 50);
 
         // Then
         assertEquals(1, result.size());
         assertEquals(patients.get(0).getName(), result.get(0).getName());
     }
 
+    @Test
+    void shouldCapPageSize() {
+        // When
+        patientService.getPatients(1, 10_000);
+
+        // Then
+        verify(patientStore).findPage(500, 500);
+    }
+
+    @Test
+    void shouldOpenMissingRegistrationDateBound() {
+        // Given
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        when(patientStore.findPageByRegisteredDateBetween(eq(from), any(LocalDate.class), eq(50), eq(0L)))
+                .thenReturn(List.of(createTestPatient()));
+
+        // When
+        List<PatientResponseDTO> result = patientService.getPatientsRegisteredBetween(from, null, 0, 50);
+
+        // Then
+        assertEquals(1, result.size());
+        ArgumentCaptor<LocalDate> to = ArgumentCaptor.forClass(LocalDate.class);
+        verify(patientStore).findPageByRegisteredDateBetween(eq(from), to.capture(), eq(50), eq(0L));
+        assertTrue(to.getValue().isAfter(LocalDate.of(9000, 1, 1)));
+    }
+
     @Test
     void shouldUpdatePatientSuccessfully() {
         // Given
@@ -97,16 +131,47 @@ class PatientServiceTest {
         Patient existingPatient = createTestPatient();
         existingPatient.setId(id);
 
-        when(patientRepository.findById(id)).thenReturn(Optional.of(existingPatient));
-        when(patientRepository.existsByEmailAndIdNot(request.getEmail(), id)).thenReturn(false);
-        when(patientRepository.save(any(Patient.class))).thenReturn(existingPatient);
+        when(patientStore.findById(id)).thenReturn(Optional.of(existingPatient));
+        when(patientStore.existsByEmailAndIdNot(request.getEmail(), id)).thenReturn(false);
+        when(patientStore.save(any(Patient.class))).thenReturn(existingPatient);
 
         // When
         PatientResponseDTO result = patientService.updatePatient(id, request);
 
         // Then
         assertNotNull(result);
-        verify(patientRepository).save(existingPatient);
+        verify(patientStore).save(existingPatient);
+    }
+
+    @Test
+    void shouldPublishUpdatedEventWithNextSequence() {
+        // Given
+        UUID id = UUID.randomUUID();
+        PatientRequestDTO request = createTestPatientRequest();
+        request.setAddress("456 Elm St");
+        Patient existingPatient = createTestPatient();
+        existingPatient.setId(id);
+        existingPatient.setVersion(3L);
+
+        when(patientStore.findById(id)).thenReturn(Optional.of(existingPatient));
+        when(patientStore.existsByEmailAndIdNot(request.getEmail(), id)).thenReturn(false);
+        when(patientStore.save(any(Patient.class))).thenAnswer(invocation -> {
+            Patient saved = invocation.getArgument(0);
+            assertEquals(3L, saved.getVersion());
+            saved.setVersion(saved.getVersion() + 1);
+            return saved;
+        });
+
+        // When
+        patientService.updatePatient(id, request);
+
+        // Then
+        ArgumentCaptor<PatientEventDTO> event = ArgumentCaptor.forClass(PatientEventDTO.class);
+        verify(kafkaProducer).sendEvent(event.capture());
+        assertEquals("PATIENT_UPDATED", event.getValue().getEventType());
+        assertEquals(4L, event.getValue().getSequence());
+        assertEquals("456 Elm St", event.getValue().getAddress());
+        assertEquals("2024-01-01", event.getValue().getRegisteredDate());
     }
 
     @Test
@@ -114,7 +179,7 @@ class PatientServiceTest {
         // Given
         UUID id = UUID.randomUUID();
         PatientRequestDTO request = createTestPatientRequest();
-        when(patientRepository.findById(id)).thenReturn(Optional.empty());
+        when(patientStore.findById(id)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(PatientNotFoundException.class,
@@ -126,24 +191,62 @@ class PatientServiceTest {
         // Given
         UUID id = UUID.randomUUID();
         Patient patient = createTestPatient();
-        when(patientRepository.findById(id)).thenReturn(Optional.of(patient));
+        when(patientStore.findById(id)).thenReturn(Optional.of(patient));
+        when(patientStore.delete(patient)).thenReturn(true);
+
+        // When
+        patientService.deletePatient(id);
+
+        // Then
+        verify(patientStore).delete(patient);
+        verify(patientDemographicsService).recordDeleted(patient);
+    }
+
+    @Test
+    void shouldNotCountDeleteThatLostRaceWithAnotherDelete() {
+        // Given
+        UUID id = UUID.randomUUID();
+        Patient patient = createTestPatient();
+        when(patientStore.findById(id)).thenReturn(Optional.of(patient), Optional.empty());
+        when(patientStore.delete(patient)).thenReturn(false);
+
+        // When & Then
+        assertThrows(PatientNotFoundException.class, () -> patientService.deletePatient(id));
+        verify(patientDemographicsService, never()).recordDeleted(any());
+        verify(kafkaProducer, never()).sendEvent(any());
+    }
+
+    @Test
+    void shouldPublishDeletedEventWithLastKnownState() {
+        // Given
+        UUID id = UUID.randomUUID();
+        Patient patient = createTestPatient();
+        patient.setId(id);
+        patient.setVersion(1L);
+        when(patientStore.findById(id)).thenReturn(Optional.of(patient));
+        when(patientStore.delete(patient)).thenReturn(true);
 
         // When
         patientService.deletePatient(id);
 
         // Then
-        verify(patientRepository).deleteById(id);
+        ArgumentCaptor<PatientEventDTO> event = ArgumentCaptor.forClass(PatientEventDTO.class);
+        verify(kafkaProducer).sendEvent(event.capture());
+        assertEquals("PATIENT_DELETED", event.getValue().getEventType());
+        assertEquals(id.toString(), event.getValue().getPatientId());
+        assertEquals(2L, event.getValue().getSequence());
+        assertEquals("john@example.com", event.getValue().getEmail());
     }
 
     @Test
     void shouldThrowExceptionWhenDeletingNonExistentPatient() {
         // Given
         UUID id = UUID.randomUUID();
-        when(patientRepository.findById(id)).thenReturn(Optional.empty());
+        when(patientStore.findById(id)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(PatientNotFoundException.class, () -> patientService.deletePatient(id));
-        verify(patientRepository, never()).deleteById(any());
+        verify(patientStore, never()).delete(any());
     }
 
     private PatientRequestDTO createTestPatientRequest() {
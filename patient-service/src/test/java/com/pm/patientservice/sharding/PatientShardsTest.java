@@ -0,0 +1,40 @@
+package com.pm.patientservice.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PatientShardsTest {
+
+    @Test
+    void shouldPlaceSamePatientOnSameShard() {
+        // Given
+        UUID patientId = UUID.randomUUID();
+
+        // When
+        int first = PatientShards.shardIndex(patientId, 4);
+        int second = PatientShards.shardIndex(UUID.fromString(patientId.toString()), 4);
+
+        // Then
+        assertEquals(first, second);
+        assertTrue(first >= 0 && first < 4);
+    }
+
+    @Test
+    void shouldSpreadSequentialIdsEvenly() {
+        // Given
+        int[] counts = new int[4];
+
+        // When
+        for (long i = 0; i < 10_000; i++) {
+            counts[PatientShards.shardIndex(new UUID(0, i), counts.length)]++;
+        }
+
+        // Then
+        for (int count : counts) {
+            assertTrue(count > 2_250 && count < 2_750, "uneven shard: " + count);
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.pm.patientservice.sharding;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.patientservice.dto.PatientRequestDTO;
+import com.pm.patientservice.grpc.BillingServiceGrpcClient;
+import com.pm.patientservice.kafka.KafkaProducer;
+import com.pm.patientservice.model.Patient;
+import com.pm.patientservice.repository.PatientStore;
+import com.pm.patientservice.service.PatientDemographicsService;
+import com.pm.patientservice.service.PatientService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The patient endpoints over three in-memory H2 shards, with the email index in the application
+ * database.
+ */
+@SpringBootTest(properties = {"spring.kafka.admin.auto-create=false", "grpc.server.port=0",
+                              "patient.sharding.enabled=true",
+                              "patient.sharding.urls=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1,"
+                                      + "jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1,"
+                                      + "jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1"})
+@AutoConfigureMockMvc
+class ShardedPatientStoreTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PatientShards patientShards;
+
+    @Autowired
+    private PatientStore patientStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PatientService patientService;
+
+    @MockitoSpyBean
+    private PatientDemographicsService patientDemographicsService;
+
+    @MockitoBean
+    private KafkaProducer kafkaProducer;
+
+    @MockitoBean
+    private BillingServiceGrpcClient billingServiceGrpcClient;
+
+    @Test
+    void shouldSpreadPatientsOverShardsAndListThemAll() throws Exception {
+        // Given
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            ids.add(create("spread-" + i + "@example.com"));
+        }
+
+        // When
+        JsonNode patients = objectMapper.readTree(mockMvc.perform(get("/patients").param("size", "500"))
+                                                         .andExpect(status().isOk())
+                                                         .andReturn().getResponse().getContentAsString());
+
+        // Then
+        List<String> listed = new ArrayList<>();
+        patients.forEach(patient -> listed.add(patient.get("id").asText()));
+        assertTrue(listed.containsAll(ids));
+        for (PatientShard shard : patientShards.all()) {
+            Integer count = shard.getJdbcTemplate().queryForObject("SELECT COUNT(*) FROM patient", Integer.class);
+            assertTrue(count > 0, "shard " + shard.getIndex() + " is empty");
+        }
+    }
+
+    @Test
+    void shouldRejectEmailTakenOnAnotherShard() throws Exception {
+        // Given
+        create("taken@example.com");
+
+        // When & Then
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/patients")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsString(createRequest("taken@example.com"))))
+                   .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Test
+    void shouldMergePagesFromAllShardsInIdOrder() throws Exception {
+        // Given
+        for (int i = 0; i < 10; i++) {
+            create("page-" + i + "@example.com");
+        }
+        List<UUID> all = new ArrayList<>();
+        for (PatientShard shard : patientShards.all()) {
+            all.addAll(shard.getJdbcTemplate().queryForList("SELECT id FROM patient", UUID.class));
+        }
+        all.sort(Comparator.comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+                           .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/patients/page?page=1&size=4")).andReturn();
+        JsonNode page = objectMapper.readTree(mockMvc.perform(asyncDispatch(result))
+                                                     .andExpect(status().isOk())
+                                                     .andReturn().getResponse().getContentAsString());
+
+        // Then
+        List<UUID> ids = new ArrayList<>();
+        page.forEach(patient -> ids.add(UUID.fromString(patient.get("id").asText())));
+        assertEquals(all.subList(4, 8), ids);
+    }
+
+    @Test
+    void shouldPageListAndRegistrationSearchOverAllShardsInIdOrder() throws Exception {
+        // Given
+        for (int i = 0; i < 10; i++) {
+            PatientRequestDTO request = createRequest("search-" + i + "@example.com");
+            request.setRegisteredDate("2023-06-0" + (i % 2 + 1));
+            create(request);
+        }
+        List<UUID> all = new ArrayList<>();
+        List<UUID> registered = new ArrayList<>();
+        for (PatientShard shard : patientShards.all()) {
+            all.addAll(shard.getJdbcTemplate().queryForList("SELECT id FROM patient", UUID.class));
+            registered.addAll(shard.getJdbcTemplate().queryForList(
+                    "SELECT id FROM patient WHERE registered_date = '2023-06-01'", UUID.class));
+        }
+        Comparator<UUID> idOrder = Comparator.comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+                                             .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+        all.sort(idOrder);
+        registered.sort(idOrder);
+
+        // When
+        List<UUID> page = ids(mockMvc.perform(get("/patients").param("page", "1").param("size", "4")));
+        List<UUID> searched = ids(mockMvc.perform(get("/patients").param("registeredFrom", "2023-06-01")
+                                                                  .param("registeredTo", "2023-06-01")
+                                                                  .param("page", "1").param("size", "2")));
+
+        // Then
+        assertEquals(all.subList(4, 8), page);
+        assertEquals(registered.subList(2, 4), searched);
+    }
+
+    @Test
+    void shouldReadUpdateAndDeletePatientOnItsShard() throws Exception {
+        // Given
+        String id = create("before@example.com");
+
+        // When
+        mockMvc.perform(put("/patients/" + id)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(createRequest("after@example.com"))))
+               .andExpect(status().isOk());
+        MvcResult read = mockMvc.perform(get("/patients/" + id)).andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(read))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.email").value("after@example.com"));
+        create("before@example.com");
+        mockMvc.perform(delete("/patients/" + id)).andExpect(status().isNoContent());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM patient_email_index WHERE email = 'after@example.com'", Integer.class));
+    }
+
+    @Test
+    void shouldRejectUpdateOfStaleVersion() throws Exception {
+        // Given
+        UUID id = UUID.fromString(create("stale@example.com"));
+        Patient current = patientStore.findById(id).orElseThrow();
+        Patient stale = patientStore.findById(id).orElseThrow();
+
+        // When
+        current.setAddress("2 Shard Street");
+        patientStore.save(current);
+        stale.setAddress("3 Shard Street");
+
+        // Then
+        assertEquals(2L, current.getVersion());
+        assertThrows(OptimisticLockingFailureException.class, () -> patientStore.save(stale));
+        assertEquals("2 Shard Street", patientStore.findById(id).orElseThrow().getAddress());
+    }
+
+    @Test
+    void shouldUndoShardInsertWhenCallerTransactionRollsBack() throws Exception {
+        // Given
+        doThrow(new IllegalStateException("demographics down"))
+                .when(patientDemographicsService).recordCreated(any(Patient.class));
+
+        // When
+        assertThrows(IllegalStateException.class,
+                     () -> patientService.createPatient(createRequest("rolled-back@example.com")));
+
+        // Then
+        assertEquals(0, countOnShards("rolled-back@example.com"));
+        assertEquals(0, countInIndex("rolled-back@example.com"));
+        reset(patientDemographicsService);
+        create("rolled-back@example.com");
+        assertEquals(1, countOnShards("rolled-back@example.com"));
+        assertEquals(1, countInIndex("rolled-back@example.com"));
+    }
+
+    @Test
+    void shouldRestoreShardRowWhenCallerTransactionRollsBackUpdate() throws Exception {
+        // Given
+        UUID id = UUID.fromString(create("update-kept@example.com"));
+        doThrow(new IllegalStateException("demographics down"))
+                .when(patientDemographicsService).recordBirthDateChanged(any(), any());
+
+        // When
+        assertThrows(IllegalStateException.class,
+                     () -> patientService.updatePatient(id, createRequest("update-lost@example.com")));
+
+        // Then
+        Patient stored = patientStore.findById(id).orElseThrow();
+        assertEquals("update-kept@example.com", stored.getEmail());
+        assertEquals(1L, stored.getVersion());
+        assertEquals(1, countInIndex("update-kept@example.com"));
+        assertEquals(0, countInIndex("update-lost@example.com"));
+    }
+
+    @Test
+    void shouldRestoreShardRowWhenCallerTransactionRollsBackDelete() throws Exception {
+        // Given
+        UUID id = UUID.fromString(create("delete-kept@example.com"));
+        doThrow(new IllegalStateException("demographics down"))
+                .when(patientDemographicsService).recordDeleted(any(Patient.class));
+
+        // When
+        assertThrows(IllegalStateException.class, () -> patientService.deletePatient(id));
+
+        // Then
+        assertTrue(patientStore.findById(id).isPresent());
+        assertEquals(1, countInIndex("delete-kept@example.com"));
+        reset(patientDemographicsService);
+        patientService.deletePatient(id);
+        assertEquals(0, countOnShards("delete-kept@example.com"));
+        assertEquals(0, countInIndex("delete-kept@example.com"));
+    }
+
+    private int countOnShards(String email) {
+        int count = 0;
+        for (PatientShard shard : patientShards.all()) {
+            count += shard.getJdbcTemplate().queryForObject(
+                    "SELECT COUNT(*) FROM patient WHERE email = ?", Integer.class, email);
+        }
+        return count;
+    }
+
+    private int countInIndex(String email) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM patient_email_index WHERE email = ?", Integer.class, email);
+    }
+
+    private List<UUID> ids(ResultActions result) throws Exception {
+        JsonNode patients = objectMapper.readTree(result.andExpect(status().isOk())
+                                                        .andReturn().getResponse().getContentAsString());
+        List<UUID> ids = new ArrayList<>();
+        patients.forEach(patient -> ids.add(UUID.fromString(patient.get("id").asText())));
+        return ids;
+    }
+
+    private String create(String email) throws Exception {
+        PatientRequestDTO request = createRequest(email);
+        request.setRegisteredDate("2024-01-01");
+        return create(request);
+    }
+
+    private String create(PatientRequestDTO request) throws Exception {
+        String body = mockMvc.perform(post("/patients")
+                                              .contentType(MediaType.APPLICATION_JSON)
+                                              .content(objectMapper.writeValueAsString(request)))
+                             .andExpect(status().isOk())
+                             .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asText();
+    }
+
+    private static PatientRequestDTO createRequest(String email) {
+        PatientRequestDTO request = new PatientRequestDTO();
+        request.setName("Sharded Patient");
+        request.setEmail(email);
+        request.setAddress("1 Shard Street");
+        request.setDateOfBirth("1990-01-01");
+        request.setRegisteredDate("2024-01-01");
+        return request;
+    }
+}
@@ -0,0 +1,174 @@
+package com.pm.patientservice.tracing;
+
+import billing.BillingRequest;
+import billing.BillingResponse;
+import billing.BillingServiceGrpc;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pm.patientservice.dto.PatientRequestDTO;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.ServerInterceptors;
+import io.grpc.stub.StreamObserver;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * One patient create carries the caller's trace through the billing gRPC call and the Kafka
+ * event, and every hop records a span in that trace.
+ */
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "grpc.server.port=0"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(metrics = false)
+@EmbeddedKafka(partitions = 1, topics = "patient")
+class TracePropagationTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String TRACEPARENT = "00-" + TRACE_ID + "-00f067aa0ba902b7-01";
+    private static final Metadata.Key<String> TRACEPARENT_KEY =
+            Metadata.Key.of("traceparent", Metadata.ASCII_STRING_MARSHALLER);
+
+    private static final List<String> billingTraceparents = new CopyOnWriteArrayList<>();
+    private static Server billingServer;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private InMemorySpanExporter spanExporter;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @DynamicPropertySource
+    static void billingService(DynamicPropertyRegistry registry) throws IOException {
+        billingServer = startBillingStub();
+        registry.add("billing.service.address", () -> "localhost");
+        registry.add("billing.service.grpc.port", billingServer::getPort);
+    }
+
+    @AfterAll
+    static void stopBillingStub() {
+        billingServer.shutdownNow();
+    }
+
+    @Test
+    void shouldPropagateTraceThroughGrpcAndKafka() throws Exception {
+        // Given
+        PatientRequestDTO request = new PatientRequestDTO();
+        request.setName("Traced Patient");
+        request.setEmail("traced@example.com");
+        request.setAddress("1 Trace Street");
+        request.setDateOfBirth("1990-01-01");
+        request.setRegisteredDate("2024-01-01");
+
+        // When
+        mockMvc.perform(post("/patients")
+                                .header("traceparent", TRACEPARENT)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+               .andExpect(status().isOk());
+
+        // Then
+        assertEquals(1, billingTraceparents.size());
+        assertTrue(billingTraceparents.get(0).contains(TRACE_ID), billingTraceparents.get(0));
+
+        ConsumerRecord<String, byte[]> event = consumePatientEvent();
+        Header header = event.headers().lastHeader("traceparent");
+        assertNotNull(header, "traceparent header missing on Kafka record");
+        assertTrue(new String(header.value(), StandardCharsets.UTF_8).contains(TRACE_ID));
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            Set<String> kinds = spanExporter.getFinishedSpanItems().stream()
+                                            .filter(span -> TRACE_ID.equals(span.getTraceId()))
+                                            .map(span -> span.getKind().name())
+                                            .collect(Collectors.toSet());
+            assertTrue(kinds.containsAll(Set.of("SERVER", "CLIENT", "PRODUCER")), kinds.toString());
+        });
+    }
+
+    private ConsumerRecord<String, byte[]> consumePatientEvent() {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("trace-test", "false", embeddedKafka);
+        props.put("auto.offset.reset", "earliest");
+        try (Consumer<String, byte[]> consumer = new DefaultKafkaConsumerFactory<>(
+                props, new StringDeserializer(), new ByteArrayDeserializer()).createConsumer()) {
+            embeddedKafka.consumeFromAnEmbeddedTopic(consumer, "patient");
+            return KafkaTestUtils.getSingleRecord(consumer, "patient", Duration.ofSeconds(10));
+        }
+    }
+
+    private static Server startBillingStub() throws IOException {
+        BillingServiceGrpc.BillingServiceImplBase billing = new BillingServiceGrpc.BillingServiceImplBase() {
+            @Override
+            public void createBillingAccount(BillingRequest request, StreamObserver<BillingResponse> observer) {
+                observer.onNext(BillingResponse.newBuilder().setAccountId("1").setStatus("ACTIVE").build());
+                observer.onCompleted();
+            }
+        };
+        ServerInterceptor captureTraceparent = new ServerInterceptor() {
+            @Override
+            public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers,
+                                                               ServerCallHandler<Q, R> next) {
+                String traceparent = headers.get(TRACEPARENT_KEY);
+                billingTraceparents.add(traceparent == null ? "" : traceparent);
+                return next.startCall(call, headers);
+            }
+        };
+        return ServerBuilder.forPort(0)
+                            .addService(ServerInterceptors.intercept(billing, captureTraceparent))
+                            .build()
+                            .start();
+    }
+
+    @TestConfiguration
+    static class InMemoryExporterConfig {
+
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+}
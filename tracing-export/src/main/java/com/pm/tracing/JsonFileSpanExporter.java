@@ -0,0 +1,130 @@
+package com.pm.tracing;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Appends finished spans to a local file, one JSON object per line:
+ * <pre>
+ * {"traceId":"...","spanId":"...","parentSpanId":"...","service":"patient-service","name":"http post /patients",
+ *  "kind":"SERVER","startEpochNanos":...,"durationNanos":...,"status":"UNSET","attributes":{...}}
+ * </pre>
+ * Files of all services can be concatenated and grouped by {@code traceId} to break a slow request
+ * down by hop without running a collector. Once the file reaches {@code maxFileBytes} it is renamed
+ * to {@code <file>.1}, replacing the previous one, and a new file is started.
+ */
+public class JsonFileSpanExporter implements SpanExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(JsonFileSpanExporter.class);
+    private static final AttributeKey<String> SERVICE_NAME = AttributeKey.stringKey("service.name");
+
+    private final Path file;
+    private final long maxFileBytes;
+    private JsonGenerator generator;
+
+    public JsonFileSpanExporter(Path file, long maxFileBytes) throws IOException {
+        this.file = file;
+        this.maxFileBytes = maxFileBytes;
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        this.generator = open();
+        log.info("Exporting spans to {}", file.toAbsolutePath());
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        try {
+            for (SpanData span : spans) {
+                write(span);
+            }
+            generator.flush();
+            if (Files.size(file) >= maxFileBytes) {
+                rotate();
+            }
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            log.warn("Could not write {} spans to {}: {}", spans.size(), file, e.getMessage());
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    private JsonGenerator open() throws IOException {
+        OutputStream out = new BufferedOutputStream(Files.newOutputStream(
+                file, StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+        return new JsonFactory().setRootValueSeparator(null)
+                                .createGenerator(out, JsonEncoding.UTF8);
+    }
+
+    private void rotate() throws IOException {
+        generator.close();
+        Files.move(file, file.resolveSibling(file.getFileName() + ".1"), StandardCopyOption.REPLACE_EXISTING);
+        generator = open();
+    }
+
+    private void write(SpanData span) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("traceId", span.getTraceId());
+        generator.writeStringField("spanId", span.getSpanId());
+        if (span.getParentSpanContext().isValid()) {
+            generator.writeStringField("parentSpanId", span.getParentSpanId());
+        }
+        generator.writeStringField("service", span.getResource().getAttribute(SERVICE_NAME));
+        generator.writeStringField("name", span.getName());
+        generator.writeStringField("kind", span.getKind().name());
+        generator.writeNumberField("startEpochNanos", span.getStartEpochNanos());
+        generator.writeNumberField("durationNanos", span.getEndEpochNanos() - span.getStartEpochNanos());
+        generator.writeStringField("status", span.getStatus().getStatusCode().name());
+        generator.writeObjectFieldStart("attributes");
+        for (Map.Entry<AttributeKey<?>, Object> attribute : span.getAttributes().asMap().entrySet()) {
+            generator.writeStringField(attribute.getKey().getKey(), String.valueOf(attribute.getValue()));
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        try {
+            synchronized (this) {
+                generator.flush();
+            }
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        try {
+            generator.close();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "JsonFileSpanExporter{" + file + "}";
+    }
+}
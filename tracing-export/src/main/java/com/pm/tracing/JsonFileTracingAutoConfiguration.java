@@ -0,0 +1,29 @@
+package com.pm.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.tracing.ConditionalOnEnabledTracing;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Spans go to a local file instead of a collector; Boot registers every {@code SpanExporter} bean
+ * with the tracer. Off unless {@code tracing.export.enabled=true}, which only the load-test stack
+ * sets; services get this module through their {@code loadtest} Maven profile.
+ */
+@AutoConfiguration
+@ConditionalOnEnabledTracing
+@ConditionalOnProperty(name = "tracing.export.enabled", havingValue = "true")
+public class JsonFileTracingAutoConfiguration {
+
+    @Bean
+    public JsonFileSpanExporter jsonFileSpanExporter(
+            @Value("${tracing.export.file:traces/${spring.application.name}.jsonl}") Path file,
+            @Value("${tracing.export.max-file-size:100MB}") DataSize maxFileSize) throws IOException {
+        return new JsonFileSpanExporter(file, maxFileSize.toBytes());
+    }
+}
@@ -0,0 +1,89 @@
+package com.pm.tracing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonFileSpanExporterTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void shouldWriteOneJsonLinePerSpanLinkedToItsParent() throws Exception {
+        // Given
+        Path file = tempDir.resolve("traces/patient-service.jsonl");
+        JsonFileSpanExporter exporter = new JsonFileSpanExporter(file, 1024 * 1024);
+        SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+                .setResource(Resource.create(Attributes.of(
+                        AttributeKey.stringKey("service.name"), "patient-service")))
+                .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+                .build();
+        Tracer tracer = tracerProvider.get("test");
+
+        // When
+        Span parent = tracer.spanBuilder("http post /patients").setSpanKind(SpanKind.SERVER).startSpan();
+        try (Scope ignored = parent.makeCurrent()) {
+            tracer.spanBuilder("billing.BillingService/CreateBillingAccount")
+                  .setSpanKind(SpanKind.CLIENT)
+                  .setAttribute("rpc.system", "grpc")
+                  .startSpan()
+                  .end();
+        }
+        parent.end();
+        tracerProvider.shutdown();
+
+        // Then
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode child = objectMapper.readTree(lines.get(0));
+        JsonNode root = objectMapper.readTree(lines.get(1));
+        assertEquals(root.get("traceId").asText(), child.get("traceId").asText());
+        assertEquals(root.get("spanId").asText(), child.get("parentSpanId").asText());
+        assertFalse(root.has("parentSpanId"));
+        assertEquals("patient-service", root.get("service").asText());
+        assertEquals("CLIENT", child.get("kind").asText());
+        assertEquals("grpc", child.get("attributes").get("rpc.system").asText());
+        assertTrue(root.get("durationNanos").asLong() >= child.get("durationNanos").asLong());
+    }
+
+    @Test
+    void shouldStartNewFileOnceMaxSizeIsReached() throws Exception {
+        // Given
+        Path file = tempDir.resolve("traces/patient-service.jsonl");
+        JsonFileSpanExporter exporter = new JsonFileSpanExporter(file, 1);
+        SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(SimpleSpanProcessor.create(exporter))
+                .build();
+        Tracer tracer = tracerProvider.get("test");
+
+        // When
+        tracer.spanBuilder("first").startSpan().end();
+        tracer.spanBuilder("second").startSpan().end();
+        tracer.spanBuilder("third").startSpan().end();
+        tracerProvider.shutdown();
+
+        // Then
+        List<String> previous = Files.readAllLines(file.resolveSibling("patient-service.jsonl.1"));
+        assertEquals(1, previous.size());
+        assertEquals("third", new ObjectMapper().readTree(previous.get(0)).get("name").asText());
+        assertEquals(0, Files.size(file));
+    }
+}